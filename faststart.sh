@@ -0,0 +1,27 @@
+#!/bin/sh
+# Starts the app the fast way: AOT bean definitions + AppCDS archive + faststart profile.
+#   ./mvnw -Pfaststart package -DskipTests   (once per build)
+#   ./faststart.sh train                     (once per build, needs the database, creates the CDS archive)
+#   ./faststart.sh [extra args]              (every start)
+set -e
+
+JAR=$(ls target/erp-telecom-*.jar | head -n 1)
+APP_DIR=target/app
+APP_JAR="$APP_DIR/$(basename "$JAR")"
+ARCHIVE="$APP_DIR/app.jsa"
+OPTS="-Dspring.aot.enabled=true -Dspring.profiles.active=${SPRING_PROFILES_ACTIVE:-faststart}"
+
+if [ "$1" = "train" ]; then
+    # CDS needs an exploded layout with a stable classpath, the fat jar cannot be archived directly.
+    rm -rf "$APP_DIR"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$APP_DIR"
+    # Training run: refresh the context once, record every class loaded on the way, then exit.
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.context.exit=onRefresh $OPTS -jar "$APP_JAR"
+    exit 0
+fi
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "No CDS archive at $ARCHIVE, run ./faststart.sh train first" >&2
+    exit 1
+fi
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto $OPTS -jar "$APP_JAR" "$@"
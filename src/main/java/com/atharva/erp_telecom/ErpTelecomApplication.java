@@ -2,14 +2,36 @@ package com.atharva.erp_telecom;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 @SpringBootApplication
-@EnableJpaAuditing // Added this annotation for enabling the created and updated timestamps.
+// Added this annotation for enabling the created and updated timestamps.
+// Timestamps are cut to the microseconds the datetime(6) columns keep, so an entity's modifiedDate in memory is
+// exactly the one stored (the change feed cursor relies on it).
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+@EnableScheduling  // Periodic flushes of the in-memory aggregates (usage rollups, ...).
 public class ErpTelecomApplication {
 
+	// Startup steps are buffered so StartupReport (and /actuator/startup) can break the cold start down per phase.
+	static final int STARTUP_STEPS_CAPACITY = 20_000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(ErpTelecomApplication.class, args);
+		SpringApplication application = new SpringApplication(ErpTelecomApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+		application.run(args);
+	}
+
+	@Bean
+	public DateTimeProvider auditingDateTimeProvider() {
+		return () -> Optional.of(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
 	}
 
 }
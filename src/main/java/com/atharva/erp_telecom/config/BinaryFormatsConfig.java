@@ -0,0 +1,32 @@
+package com.atharva.erp_telecom.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Binary bodies for the MVC API: a caller sending Accept (or Content-Type) application/cbor or
+// application/x-jackson-smile gets (or sends) the same objects as JSON, in a compact binary encoding.
+/*
+    Spring MVC would register both converters on its own once the Jackson formats are on the classpath, but with a
+    plain ObjectMapper. Built from Boot's Jackson2ObjectMapperBuilder instead they follow the spring.jackson.*
+    settings, so a customer looks the same in every format (e.g. dates as ISO strings, not timestamp arrays).
+    They take the place of the defaults, which come after the JSON converter: a request without a specific Accept
+    header, like a browser's, still gets JSON.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,31 @@
+package com.atharva.erp_telecom.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+// Connection pools for the configs that replace the auto-configured DataSource (sharding, replicas).
+final class DataSources {
+
+    private DataSources() {
+    }
+
+    // The spring.datasource pool, as the auto-configuration would have built it (spring.datasource.hikari.* included).
+    static HikariDataSource primary(DataSourceProperties properties, Environment environment) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        return primary;
+    }
+
+    static HikariDataSource pool(String name, String url, String username, String password, int poolSize) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMaximumPoolSize(poolSize);
+        return pool;
+    }
+}
@@ -0,0 +1,49 @@
+package com.atharva.erp_telecom.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Logs which thread model requests are served on, and refuses to start the virtual profile below JDK 21.
+/*
+    spring.threads.virtual.enabled is silently ignored below JDK 21, but the rest of the virtual profile is not: a
+    50 connection JDBC pool and 20,000 Tomcat connections in front of the 200 platform worker threads would queue
+    far more work than the server can take. So the combination is a startup error rather than a quiet fallback.
+ */
+@Component
+public class ExecutionModeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeReporter.class);
+    private static final int VIRTUAL_THREADS_JDK = 21;
+
+    private final boolean virtualRequested;
+    private final int maxPoolSize;
+
+    public ExecutionModeReporter(@Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        int jdk = Runtime.version().feature();
+        if (virtualRequested && jdk < VIRTUAL_THREADS_JDK) {
+            throw new IllegalStateException("spring.threads.virtual.enabled (the virtual profile) needs JDK "
+                    + VIRTUAL_THREADS_JDK + "+, this is JDK " + jdk + ". Run without it or on a newer JDK.");
+        }
+        this.virtualRequested = virtualRequested;
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        log.info("Serving requests on {} threads, JDBC pool size {}", virtualRequested ? "virtual" : "platform",
+                maxPoolSize);
+    }
+
+    public boolean isVirtual() {
+        return virtualRequested;
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= VIRTUAL_THREADS_JDK;
+    }
+}
@@ -0,0 +1,72 @@
+package com.atharva.erp_telecom.config;
+
+import com.atharva.erp_telecom.security.ApiKeyAuthenticationFilter;
+import com.atharva.erp_telecom.security.JwtAuthenticationFilter;
+import com.atharva.erp_telecom.security.JwtUtils;
+import com.atharva.erp_telecom.service.UserAuthService;
+import com.atharva.erp_telecom.service.UserService;
+import com.atharva.erp_telecom.service.apikey.ApiKeyIndex;
+import com.atharva.erp_telecom.service.sharding.ShardSchemaInitializer;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Beans that stay eager when the faststart profile turns on spring.main.lazy-initialization.
+/*
+    Lazy initialisation moves bean creation from startup to first use. That is fine for most of the app but not for:
+        - the login path (security chain, JWT, user lookup, BCrypt, the API key index), pods are started because of a login spike and
+          the first logins must not pay for wiring it up,
+        - the database, the migrations and the shard schemas, a pod must fail at startup, not on its first request, if they are broken,
+        - beans with @Scheduled methods, a lazy bean is never created so its jobs would silently never run,
+        - lifecycle beans such as the reactive server, which have to be started.
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    private static final List<Class<?>> EAGER_TYPES = List.of(
+            SecurityFilterChain.class,
+            JwtAuthenticationFilter.class,
+            ApiKeyAuthenticationFilter.class,
+            ApiKeyIndex.class,
+            JwtUtils.class,
+            UserService.class,
+            UserAuthService.class,
+            AuthenticationManager.class,
+            PasswordEncoder.class,
+            DataSource.class,
+            FlywayMigrationInitializer.class,
+            ShardSchemaInitializer.class,
+            SmartLifecycle.class);
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerCriticalBeans() {
+        return (beanName, beanDefinition, beanType) -> {
+            for (Class<?> eagerType : EAGER_TYPES) {
+                if (eagerType.isAssignableFrom(beanType)) return true;
+            }
+            return hasScheduledMethods(beanType);
+        };
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> !found.get() && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return found.get();
+    }
+}
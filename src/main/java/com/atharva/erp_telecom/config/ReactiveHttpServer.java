@@ -0,0 +1,88 @@
+package com.atharva.erp_telecom.config;
+
+import com.atharva.erp_telecom.controller.ReactiveCustomerRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+// Second HTTP server, on Reactor Netty, for the non-blocking customer reads.
+/*
+    The application stays a servlet (Tomcat) application, Spring Boot only runs one web server type per context.
+    This starts Netty next to it on erp.reactive.port and serves ReactiveCustomerRouter from a few event loop
+    threads (erp.reactive.io-threads). Open connections, slow readers and streaming exports cost a channel and a
+    buffer each, no thread, so tens of thousands of CRM clients fit where Tomcat would need a thread per client.
+ */
+@Component
+@ConditionalOnProperty(name = "erp.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveHttpServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveHttpServer.class);
+
+    private final ReactiveCustomerRouter reactiveCustomerRouter;
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private final int ioThreads;
+    private volatile LoopResources loops;
+    private volatile DisposableServer server;
+
+    public ReactiveHttpServer(ReactiveCustomerRouter reactiveCustomerRouter,
+                              ObjectMapper objectMapper,
+                              @Value("${erp.reactive.port:8002}") int port,
+                              @Value("${erp.reactive.io-threads:2}") int ioThreads) {
+        this.reactiveCustomerRouter = reactiveCustomerRouter;
+        this.objectMapper = objectMapper;
+        this.port = port;
+        this.ioThreads = ioThreads;
+    }
+
+    @Override
+    public void start() {
+        // Same ObjectMapper as the MVC side, so a Customer serialises identically on both servers.
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler handler = RouterFunctions.toHttpHandler(reactiveCustomerRouter.routes(), strategies);
+        loops = LoopResources.create("reactive-http", 1, ioThreads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow(Duration.ofSeconds(10));
+        log.info("Reactive customer API listening on port {} with {} I/O threads", server.port(), ioThreads);
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) server.disposeNow(Duration.ofSeconds(10));
+        if (loops != null) loops.disposeLater().block(Duration.ofSeconds(10));
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // Bound port, useful when erp.reactive.port is 0.
+    public int getPort() {
+        return server == null ? -1 : server.port();
+    }
+}
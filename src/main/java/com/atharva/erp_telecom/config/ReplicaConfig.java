@@ -0,0 +1,57 @@
+package com.atharva.erp_telecom.config;
+
+import com.atharva.erp_telecom.constants.ReplicaSelection;
+import com.atharva.erp_telecom.service.replica.ReplicaLagMonitor;
+import com.atharva.erp_telecom.service.replica.ReplicaRoutingDataSource;
+import com.atharva.erp_telecom.service.replica.ReplicaSet;
+import com.atharva.erp_telecom.service.sharding.ShardingSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas of the primary database (erp.replicas.enabled): one pool per URL in erp.replicas.urls, the lag
+// monitor, and - unless sharding builds its own - the DataSource sending replica-safe reads to them.
+// With sharding enabled only the home shard has replicas, see ShardingConfig.
+@Configuration
+@ConditionalOnProperty(name = "erp.replicas.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    public ReplicaSet replicaSet(MeterRegistry meterRegistry,
+                                 @Value("${erp.replicas.urls}") String urls,
+                                 @Value("${erp.replicas.username:${spring.datasource.username:}}") String username,
+                                 @Value("${erp.replicas.password:${spring.datasource.password:}}") String password,
+                                 @Value("${erp.replicas.pool-size:10}") int poolSize,
+                                 @Value("${erp.replicas.selection:ROUND_ROBIN}") ReplicaSelection selection) {
+        List<DataSource> pools = new ArrayList<>();
+        for (String url : ShardingSettings.split(urls)) {
+            pools.add(DataSources.pool("replica-" + (pools.size() + 1), url, username, password, poolSize));
+        }
+        if (pools.isEmpty()) throw new IllegalStateException("erp.replicas.enabled is set but erp.replicas.urls is empty");
+        return new ReplicaSet(pools, selection, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "erp.sharding.enabled", havingValue = "false", matchIfMissing = true)
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, Environment environment, ReplicaSet replicaSet) {
+        return new ReplicaRoutingDataSource(DataSources.primary(properties, environment), replicaSet);
+    }
+
+    // Heartbeats go through the routing DataSource outside ReplicaContext, i.e. to the primary (home shard).
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaSet replicaSet, DataSource dataSource,
+                                               @Value("${erp.replicas.max-lag-ms:5000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(replicaSet, new JdbcTemplate(dataSource), maxLagMillis);
+    }
+}
@@ -0,0 +1,84 @@
+package com.atharva.erp_telecom.config;
+
+import com.atharva.erp_telecom.constants.TimingPhase;
+import com.atharva.erp_telecom.service.timing.RequestTiming;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityReturnValueHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hooks the DB and serialization phases of the Server-Timing breakdown (see ServerTimingFilter) into Spring:
+//   - DB: every Spring Data repository gets an interceptor around its methods, so the time covers Hibernate as
+//     well as JDBC,
+//   - serialization: the @ResponseBody / ResponseEntity return value handlers are wrapped, they are where the
+//     message converter writes the body.
+// The token and user phases are bracketed in JwtAuthenticationFilter itself.
+@Configuration
+public class RequestTimingConfig {
+
+    private static final MethodInterceptor REPOSITORY_TIMING = invocation -> {
+        int previous = RequestTiming.begin(TimingPhase.DB);
+        try {
+            return invocation.proceed();
+        } finally {
+            RequestTiming.end(previous);
+        }
+    };
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(REPOSITORY_TIMING)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton serializationTimingInstaller(RequestMappingHandlerAdapter handlerAdapter) {
+        return () -> {
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+            handlers.replaceAll(handler -> handler instanceof RequestResponseBodyMethodProcessor
+                    || handler instanceof ResponseEntityReturnValueHandler
+                    || handler instanceof HttpEntityMethodProcessor ? new TimedReturnValueHandler(handler) : handler);
+            handlerAdapter.setReturnValueHandlers(handlers);
+        };
+    }
+
+    private record TimedReturnValueHandler(HandlerMethodReturnValueHandler delegate) implements HandlerMethodReturnValueHandler {
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return delegate.supportsReturnType(returnType);
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                      NativeWebRequest webRequest) throws Exception {
+            int previous = RequestTiming.begin(TimingPhase.SERIALIZATION);
+            try {
+                delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            } finally {
+                RequestTiming.end(previous);
+            }
+        }
+    }
+}
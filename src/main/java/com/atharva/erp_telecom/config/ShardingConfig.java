@@ -0,0 +1,62 @@
+package com.atharva.erp_telecom.config;
+
+import com.atharva.erp_telecom.service.replica.ReplicaRoutingDataSource;
+import com.atharva.erp_telecom.service.replica.ReplicaSet;
+import com.atharva.erp_telecom.service.sharding.ShardMap;
+import com.atharva.erp_telecom.service.sharding.ShardRoutingDataSource;
+import com.atharva.erp_telecom.service.sharding.ShardSchemaInitializer;
+import com.atharva.erp_telecom.service.sharding.ShardingSettings;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Customer sharding (erp.sharding.enabled): replaces the auto-configured DataSource with a routing one over the
+// home database (spring.datasource.*, with its replicas when erp.replicas.enabled) and one pool per URL in
+// erp.sharding.shard-urls. See ShardMap.
+@Configuration
+@ConditionalOnProperty(name = "erp.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(DataSourceProperties properties,
+                                             Environment environment,
+                                             ObjectProvider<ReplicaSet> replicas,
+                                             @Value("${erp.sharding.shard-urls}") String shardUrls,
+                                             @Value("${erp.sharding.username:${spring.datasource.username:}}") String username,
+                                             @Value("${erp.sharding.password:${spring.datasource.password:}}") String password,
+                                             @Value("${erp.sharding.pool-size:10}") int poolSize) {
+        List<DataSource> shards = new ArrayList<>();
+        HikariDataSource home = DataSources.primary(properties, environment);
+        // With read replicas enabled the home shard's read-only work can go to its replicas.
+        ReplicaSet homeReplicas = replicas.getIfAvailable();
+        shards.add(homeReplicas == null ? home : new ReplicaRoutingDataSource(home, homeReplicas));
+        for (String url : ShardingSettings.split(shardUrls)) {
+            shards.add(DataSources.pool("shard-" + shards.size(), url, username, password, poolSize));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardMap shardMap,
+                                                         ShardRoutingDataSource dataSource,
+                                                         EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                                         ObjectProvider<Flyway> flyway,
+                                                         @Value("${spring.flyway.enabled:true}") boolean flywayEnabled,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(shardMap, dataSource.getShards(), entityManagerFactoryBuilder,
+                flywayEnabled && flyway.getIfAvailable() != null, flyway.getIfAvailable(), ddlAuto);
+    }
+}
@@ -0,0 +1,178 @@
+package com.atharva.erp_telecom.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Per-phase cold start report, logged and written as JSON to erp.startup.report-file when the app is ready.
+/*
+    Phases come from the buffered startup steps (see ErpTelecomApplication.main):
+        jvm                 - JVM start until Spring Boot starts running (class loading, CDS, main)
+        environment         - property sources and profiles
+        context-prepare     - creating and loading the application context
+        refresh             - the whole context refresh, split into its direct sub-steps:
+            .bean-definitions - configuration class parsing, component scan, repository scanning (AOT removes most)
+            .web-server       - creating Tomcat, including the filter beans it pulls in
+            .bean-creation    - instantiating the remaining eager singletons (what lazy initialisation cuts down)
+            .other            - everything else in the refresh (lifecycle start, caches, ...)
+        jpa                 - EntityManagerFactory bootstrap, incl. Flyway when it runs first (part of the refresh)
+        started-to-ready    - runners and ready listeners
+    plus the slowest individual beans. Keep the file from every release to spot regressions.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+    private static final int SLOWEST_BEANS = 15;
+
+    private final ObjectMapper objectMapper;
+    private final String reportFile;
+
+    public StartupReport(ObjectMapper objectMapper,
+                         @Value("${erp.startup.report-file:startup-report.json}") String reportFile) {
+        this.objectMapper = objectMapper;
+        this.reportFile = reportFile;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        long readyMillis = System.currentTimeMillis();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profiles", event.getApplicationContext().getEnvironment().getActiveProfiles());
+        report.put("jdk", Runtime.version().toString());
+        report.put("totalMs", readyMillis - jvmStartMillis);
+
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            log.info("Started in {} ms (no step timeline, the app was not started through ErpTelecomApplication.main)",
+                    readyMillis - jvmStartMillis);
+            write(report);
+            return;
+        }
+
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        Map<String, Long> phases = new LinkedHashMap<>();
+        phases.put("jvm", timeline.getStartTime().toEpochMilli() - jvmStartMillis);
+        phases.put("environment", sum(events, "spring.boot.application.environment-prepared"));
+        phases.put("context-prepare", sum(events, "spring.boot.application.context-prepared")
+                + sum(events, "spring.boot.application.context-loaded"));
+        long refresh = sum(events, "spring.context.refresh");
+        phases.put("refresh", refresh);
+        // Direct children of the refresh step never overlap, so this part of the breakdown adds up.
+        Map<String, Long> refreshChildren = refreshChildren(events);
+        long definitions = refreshChildren.getOrDefault("spring.context.beans.post-process", 0L)
+                + refreshChildren.getOrDefault("spring.context.beanfactory.post-process", 0L);
+        long webServer = refreshChildren.getOrDefault("spring.boot.webserver.create", 0L);
+        long beans = refreshChildren.getOrDefault("spring.beans.instantiate", 0L);
+        phases.put("refresh.bean-definitions", definitions);
+        phases.put("refresh.web-server", webServer);
+        phases.put("refresh.bean-creation", beans);
+        phases.put("refresh.other", Math.max(0, refresh - definitions - webServer - beans));
+        // Wherever it happens to be created (eagerly, or pulled in by the web server's filters).
+        phases.put("jpa", Math.max(beanTime(events, "entityManagerFactory"), beanTime(events, "&entityManagerFactory")));
+        phases.put("started-to-ready", lastEnd(events).map(end -> readyMillis - end.toEpochMilli()).orElse(0L));
+        report.put("phasesMs", phases);
+        report.put("slowestBeansMs", slowestBeans(events));
+        report.put("beansCreated", events.stream().filter(e -> e.getStartupStep().getName().equals("spring.beans.instantiate")).count());
+
+        log.info("Started in {} ms, phases (ms): {}", readyMillis - jvmStartMillis, phases);
+        write(report);
+    }
+
+    private void write(Map<String, Object> report) {
+        if (reportFile.isBlank()) return;
+        try {
+            Path path = Path.of(reportFile);
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+        } catch (IOException e) {
+            log.warn("Could not write startup report to {}", reportFile, e);
+        }
+    }
+
+    private static long sum(List<StartupTimeline.TimelineEvent> events, String stepName) {
+        long total = 0;
+        for (StartupTimeline.TimelineEvent event : events) {
+            if (event.getStartupStep().getName().equals(stepName)) total += event.getDuration().toMillis();
+        }
+        return total;
+    }
+
+    private static Map<String, Long> refreshChildren(List<StartupTimeline.TimelineEvent> events) {
+        Long refreshId = null;
+        for (StartupTimeline.TimelineEvent event : events) {
+            if (event.getStartupStep().getName().equals("spring.context.refresh")) refreshId = event.getStartupStep().getId();
+        }
+        Map<String, Long> children = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            if (refreshId != null && refreshId.equals(event.getStartupStep().getParentId())) {
+                children.merge(event.getStartupStep().getName(), event.getDuration().toMillis(), Long::sum);
+            }
+        }
+        return children;
+    }
+
+    private static long beanTime(List<StartupTimeline.TimelineEvent> events, String beanName) {
+        for (StartupTimeline.TimelineEvent event : events) {
+            if (isBeanInstantiation(event) && beanName.equals(tag(event.getStartupStep(), "beanName"))) {
+                return event.getDuration().toMillis();
+            }
+        }
+        return 0;
+    }
+
+    private static Map<String, Long> slowestBeans(List<StartupTimeline.TimelineEvent> events) {
+        List<StartupTimeline.TimelineEvent> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            if (isBeanInstantiation(event)) beans.add(event);
+        }
+        beans.sort(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed());
+        Map<String, Long> slowest = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent event : beans.subList(0, Math.min(SLOWEST_BEANS, beans.size()))) {
+            slowest.put(tag(event.getStartupStep(), "beanName"), event.getDuration().toMillis());
+        }
+        return slowest;
+    }
+
+    private static Optional<Instant> lastEnd(List<StartupTimeline.TimelineEvent> events) {
+        return events.stream()
+                .filter(e -> e.getStartupStep().getName().equals("spring.boot.application.started"))
+                .map(StartupTimeline.TimelineEvent::getEndTime)
+                .findFirst();
+    }
+
+    private static boolean isBeanInstantiation(StartupTimeline.TimelineEvent event) {
+        return event.getStartupStep().getName().equals("spring.beans.instantiate");
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals(key)) return tag.getValue();
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,18 @@
+package com.atharva.erp_telecom.constants;
+
+// What an audit record is about. Stored by ordinal in the audit segments: only ever append new actions.
+public enum AuditAction {
+    LOGIN,
+    LOGIN_FAILED,
+    REGISTER,
+    // A request carried a JWT that was malformed, expired or badly signed.
+    TOKEN_REJECTED,
+    CUSTOMER_CREATED,
+    CUSTOMER_UPDATED,
+    // A request carried an unknown, revoked or wrong API key.
+    API_KEY_REJECTED,
+    API_KEY_ISSUED,
+    API_KEY_REVOKED,
+    ROLE_PERMISSIONS_CHANGED,
+    PROMOTIONS_PUBLISHED
+}
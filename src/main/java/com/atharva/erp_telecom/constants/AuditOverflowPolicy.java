@@ -0,0 +1,9 @@
+package com.atharva.erp_telecom.constants;
+
+// What a request thread does when the audit buffer is full.
+public enum AuditOverflowPolicy {
+    // Give up on the record straight away, the request is never slowed down.
+    DROP,
+    // Wait for the writer to make room, up to erp.audit.block-timeout-ms, then drop.
+    BLOCK
+}
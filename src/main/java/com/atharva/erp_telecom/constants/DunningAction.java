@@ -0,0 +1,18 @@
+package com.atharva.erp_telecom.constants;
+
+// What a dunning timer does when it fires, and the stage the customer is in afterwards.
+public enum DunningAction {
+    REMIND(DunningStage.REMINDED),
+    SUSPEND(DunningStage.SUSPENDED),
+    RECONNECT(DunningStage.CURRENT);
+
+    private final DunningStage resultingStage;
+
+    DunningAction(DunningStage resultingStage) {
+        this.resultingStage = resultingStage;
+    }
+
+    public DunningStage getResultingStage() {
+        return resultingStage;
+    }
+}
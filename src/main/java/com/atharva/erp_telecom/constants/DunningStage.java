@@ -0,0 +1,9 @@
+package com.atharva.erp_telecom.constants;
+
+// Where a customer is in collections, persisted in dunning_state.stage.
+public enum DunningStage {
+    // nothing overdue, or overdue but not yet reminded
+    CURRENT,
+    REMINDED,
+    SUSPENDED
+}
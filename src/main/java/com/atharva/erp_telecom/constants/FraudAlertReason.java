@@ -0,0 +1,9 @@
+package com.atharva.erp_telecom.constants;
+
+// Why a customer's usage of a service was flagged, see FraudDetector.
+public enum FraudAlertReason {
+    // well above the customer's own usual rate for the service
+    SPIKE,
+    // above the absolute ceiling for the service, whatever the customer usually does
+    CEILING
+}
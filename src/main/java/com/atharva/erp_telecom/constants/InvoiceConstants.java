@@ -0,0 +1,7 @@
+package com.atharva.erp_telecom.constants;
+
+public interface InvoiceConstants {
+    String INVOICE_OPEN = "OPEN";
+    String INVOICE_PARTIALLY_PAID = "PARTIALLY_PAID";
+    String INVOICE_PAID = "PAID";
+}
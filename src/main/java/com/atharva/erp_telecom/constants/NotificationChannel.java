@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.constants;
+
+// How a notification reaches the customer. Each channel has its own queue, batch size and send rate, see
+// NotificationService.
+public enum NotificationChannel {
+    // to Customer.email
+    EMAIL,
+    // to Customer.contactNumber
+    SMS
+}
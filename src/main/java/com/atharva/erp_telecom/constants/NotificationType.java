@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.constants;
+
+// What a notification is about. A customer gets each type at most once per erp.notifications.dedup-window-minutes.
+public enum NotificationType {
+    BILL_READY,
+    LOW_BALANCE,
+    PAYMENT_REMINDER,
+    SUSPENSION,
+    RECONNECTION
+}
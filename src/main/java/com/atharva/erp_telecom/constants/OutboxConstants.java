@@ -0,0 +1,12 @@
+package com.atharva.erp_telecom.constants;
+
+public interface OutboxConstants {
+    // Aggregates that publish change events
+    String AGGREGATE_CUSTOMER = "CUSTOMER";
+    String AGGREGATE_USER = "USER";
+
+    // Event types
+    String CUSTOMER_CREATED = "CUSTOMER_CREATED";
+    String CUSTOMER_UPDATED = "CUSTOMER_UPDATED";
+    String USER_REGISTERED = "USER_REGISTERED";
+}
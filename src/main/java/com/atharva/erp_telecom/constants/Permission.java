@@ -0,0 +1,17 @@
+package com.atharva.erp_telecom.constants;
+
+// What a role may do, checked per controller method with @RequiresPermission.
+// Roles store permissions by name (role_permissions), the ordinal is only the bit in the in-memory bitsets, so
+// constants can be added anywhere. Removing one needs a migration that deletes its rows first. At most 64.
+public enum Permission {
+    CUSTOMER_READ,
+    CUSTOMER_WRITE,
+    USAGE_READ,
+    USAGE_WRITE,
+    BILLING_READ,
+    BILLING_RUN;
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+}
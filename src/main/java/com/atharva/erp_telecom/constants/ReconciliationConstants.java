@@ -0,0 +1,17 @@
+package com.atharva.erp_telecom.constants;
+
+public interface ReconciliationConstants {
+    // Outcome of a single settlement line
+    String RESULT_MATCHED = "MATCHED";
+    String RESULT_PARTIAL = "PARTIAL";
+    String RESULT_UNMATCHED = "UNMATCHED";
+
+    // How the line was paired with an open item
+    String MATCH_BY_REFERENCE = "REFERENCE";
+    String MATCH_BY_TOLERANCE = "TOLERANCE";
+
+    // Lifecycle of a reconciliation run
+    String RUN_RUNNING = "RUNNING";
+    String RUN_COMPLETED = "COMPLETED";
+    String RUN_FAILED = "FAILED";
+}
@@ -0,0 +1,9 @@
+package com.atharva.erp_telecom.constants;
+
+// How a read is spread over the healthy replicas.
+public enum ReplicaSelection {
+    // Each read goes to the next replica in turn.
+    ROUND_ROBIN,
+    // Each read goes to the replica with the fewest connections currently checked out.
+    LEAST_OUTSTANDING
+}
@@ -0,0 +1,31 @@
+package com.atharva.erp_telecom.constants;
+
+// Priority lanes of the concurrency limiter. A lane is admitted while the requests in flight stay below its share of
+// the current limit, so as load rises BULK is shed first and LOGIN last. Shares can be overridden with
+// erp.limiter.lane-shares.
+public enum RequestLane {
+    // Login and registration: shedding these locks people out entirely.
+    LOGIN(1.0, 1),
+    // Writes and everything not listed elsewhere.
+    DEFAULT(0.9, 1),
+    // Single customer, usage and other interactive lookups.
+    READ(0.8, 1),
+    // Batch pages, invoice documents, reconciliation: can wait, and a retry storm of them helps nobody.
+    BULK(0.5, 5);
+
+    private final double defaultShare;
+    private final int retryAfterSeconds;
+
+    RequestLane(double defaultShare, int retryAfterSeconds) {
+        this.defaultShare = defaultShare;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public double getDefaultShare() {
+        return defaultShare;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
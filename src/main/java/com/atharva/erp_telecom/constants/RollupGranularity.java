@@ -0,0 +1,7 @@
+package com.atharva.erp_telecom.constants;
+
+public enum RollupGranularity {
+    HOUR,
+    DAY,
+    MONTH
+}
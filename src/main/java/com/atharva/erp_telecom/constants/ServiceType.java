@@ -0,0 +1,19 @@
+package com.atharva.erp_telecom.constants;
+
+// Rated service types. The ordinal is used as a compact code inside the in-memory usage maps, so new types
+// must only ever be appended.
+public enum ServiceType {
+    DATA,   // quantity in bytes
+    VOICE,  // quantity in seconds
+    SMS;    // quantity in messages
+
+    private static final ServiceType[] BY_CODE = values();
+
+    public int code() {
+        return ordinal();
+    }
+
+    public static ServiceType fromCode(int code) {
+        return BY_CODE[code];
+    }
+}
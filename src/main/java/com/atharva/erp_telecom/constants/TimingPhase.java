@@ -0,0 +1,23 @@
+package com.atharva.erp_telecom.constants;
+
+// Phases of a request reported in the Server-Timing header, by their metric name there.
+public enum TimingPhase {
+    // Parsing and verifying the JWT (JwtUtils).
+    TOKEN("jwt"),
+    // Reloading the token's user (UserService.loadUserByUsername), minus its database time.
+    USER("user"),
+    // Repository calls, Hibernate included.
+    DB("db"),
+    // Writing the response body (Jackson, or whichever message converter was chosen).
+    SERIALIZATION("ser");
+
+    private final String metricName;
+
+    TimingPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
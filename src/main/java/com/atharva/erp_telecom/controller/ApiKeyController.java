@@ -0,0 +1,40 @@
+package com.atharva.erp_telecom.controller;
+
+import com.atharva.erp_telecom.dto.ApiKeyRequest;
+import com.atharva.erp_telecom.dto.IssuedApiKey;
+import com.atharva.erp_telecom.entity.ApiKey;
+import com.atharva.erp_telecom.service.apikey.ApiKeyService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// API keys of machine clients, admins only (see SecurityConfig). Send the key as "X-API-Key: <apiKey>".
+@RestController
+@RequestMapping("/apikeys")
+public class ApiKeyController {
+
+    private final ApiKeyService apiKeyService;
+
+    public ApiKeyController(ApiKeyService apiKeyService) {
+        this.apiKeyService = apiKeyService;
+    }
+
+    @PostMapping
+    public ResponseEntity<IssuedApiKey> issue(@RequestBody ApiKeyRequest request) {
+        return new ResponseEntity<>(apiKeyService.issue(request.getClientName(), request.getRoles()), HttpStatus.CREATED);
+    }
+
+    // Secret hashes are left out, nobody needs them outside the index.
+    @GetMapping
+    public List<ApiKey> list() {
+        return apiKeyService.listKeys();
+    }
+
+    @DeleteMapping("/{keyId}")
+    public ResponseEntity<Void> revoke(@PathVariable String keyId) {
+        apiKeyService.revoke(keyId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,24 +1,46 @@
 package com.atharva.erp_telecom.controller;
 
 
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.constants.RollupGranularity;
+import com.atharva.erp_telecom.dto.UsageSummary;
 import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.security.RequiresPermission;
 import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.UsageService;
+import com.atharva.erp_telecom.service.changefeed.ChangeCursor;
+import com.atharva.erp_telecom.service.changefeed.ChangeFeedBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @RestController
 @RequestMapping("/customer")
+@RequiresPermission(Permission.CUSTOMER_READ)
 public class CustomerController {
 
+    private static final int MAX_BATCH_SIZE = 5000;
+
     private final CustomerService customerService;
+    private final UsageService usageService;
+    private final ChangeFeedBroadcaster changeFeed;
+    private final long changeFeedTimeoutMillis;
 
     @Autowired
-    public CustomerController(CustomerService customerService){
+    public CustomerController(CustomerService customerService, UsageService usageService, ChangeFeedBroadcaster changeFeed,
+                              @Value("${erp.changefeed.connection-timeout-ms:1800000}") long changeFeedTimeoutMillis){
         this.customerService = customerService;
+        this.usageService = usageService;
+        this.changeFeed = changeFeed;
+        this.changeFeedTimeoutMillis = changeFeedTimeoutMillis;
     }
 
     @GetMapping("/get")
@@ -37,14 +59,60 @@ public class CustomerController {
         }
     }
 
+    // Keyset batch for bulk readers: the next limit customers after the given id, in id order. Pass the last id of a
+    // batch as after to get the next one, an empty batch means the end. Also served as CBOR or Smile, see BinaryFormatsConfig.
+    @GetMapping("/batch")
+    public ResponseEntity<List<Customer>> getCustomerBatch(@RequestParam(value = "after", defaultValue = "0") long afterCustomerId,
+                                                           @RequestParam(value = "limit", defaultValue = "1000") int limit){
+        if (limit < 1 || limit > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        return ResponseEntity.ok(customerService.getCustomersAfter(afterCustomerId, limit));
+    }
+
+    // Change feed as Server-Sent Events: every customer created or updated after the cursor, oldest first, then live.
+    // Without a cursor it starts with every customer (a full sync), cursor=now skips to the present. A reconnecting
+    // client resumes from its Last-Event-ID. See ChangeFeedBroadcaster.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "cursor", required = false) String cursor,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        String resumeFrom = lastEventId != null ? lastEventId : cursor;
+        ChangeCursor from = resumeFrom == null ? ChangeCursor.START
+                : "now".equals(resumeFrom) ? ChangeCursor.after(LocalDateTime.now()) : ChangeCursor.parse(resumeFrom);
+        SseEmitter emitter = new SseEmitter(changeFeedTimeoutMillis);
+        ChangeFeedBroadcaster.Subscription subscription = changeFeed.subscribe(from, new SseChangeListener(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
     @PostMapping("/new")
+    @RequiresPermission(Permission.CUSTOMER_WRITE)
     public ResponseEntity<Customer> createCustomer(@RequestBody Customer customer){
         Customer responseFromDB = customerService.createCustomer(customer);
         return new ResponseEntity<Customer>(responseFromDB,HttpStatus.CREATED);
     }
 
     @PostMapping("/update")
+    @RequiresPermission(Permission.CUSTOMER_WRITE)
     public ResponseEntity<Customer> updateCustomer(@RequestBody Customer customer){
-        return new ResponseEntity<>(customer,HttpStatus.OK);
+        Customer responseFromDB = customerService.updateCustomer(customer);
+        return new ResponseEntity<>(responseFromDB,HttpStatus.OK);
+    }
+
+    // Usage so far in the current hour/day/month, optionally with earlier periods from the rollup table.
+    @GetMapping("/{id}/usage")
+    @RequiresPermission(Permission.USAGE_READ)
+    public ResponseEntity<List<UsageSummary>> getUsage(@PathVariable("id") long customerId,
+                                                       @RequestParam(value = "granularity", defaultValue = "MONTH") String granularity,
+                                                       @RequestParam(value = "periods", defaultValue = "1") int periods){
+        RollupGranularity rollupGranularity;
+        try {
+            rollupGranularity = RollupGranularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown granularity: " + granularity);
+        }
+        return ResponseEntity.ok(usageService.getUsage(customerId, rollupGranularity, periods));
     }
 }
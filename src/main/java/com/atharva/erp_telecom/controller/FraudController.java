@@ -0,0 +1,40 @@
+package com.atharva.erp_telecom.controller;
+
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.security.RequiresPermission;
+import com.atharva.erp_telecom.service.fraud.FraudDetectionService;
+import com.atharva.erp_telecom.service.fraud.FraudDetector;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/fraud")
+@RequiresPermission(Permission.USAGE_READ)
+public class FraudController {
+
+    private final FraudDetectionService fraudDetectionService;
+
+    public FraudController(FraudDetectionService fraudDetectionService) {
+        this.fraudDetectionService = fraudDetectionService;
+    }
+
+    // Customers with the most usage of the service in the current detection window (estimates, never under).
+    @GetMapping("/heavy-hitters")
+    public ResponseEntity<List<FraudDetector.HeavyHitter>> getHeavyHitters(
+            @RequestParam(value = "serviceType", defaultValue = "VOICE") String serviceType,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        ServiceType type;
+        try {
+            type = ServiceType.valueOf(serviceType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown service type: " + serviceType);
+        }
+        if (limit < 1) throw new InvalidRequestException("limit must be at least 1");
+        return ResponseEntity.ok(fraudDetectionService.heavyHitters(type, limit));
+    }
+}
@@ -0,0 +1,54 @@
+package com.atharva.erp_telecom.controller;
+
+
+import com.atharva.erp_telecom.constants.DocumentFormat;
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.dto.DocumentStatus;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.security.RequiresPermission;
+import com.atharva.erp_telecom.service.InvoiceDocumentService;
+import com.atharva.erp_telecom.service.invoice.DocumentLookup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/invoice")
+public class InvoiceController {
+
+    private final InvoiceDocumentService documentService;
+
+    public InvoiceController(InvoiceDocumentService documentService) {
+        this.documentService = documentService;
+    }
+
+    // Returns the document when it is ready, otherwise 202 with the job status; clients poll until they get a 200.
+    @GetMapping("/{id}/document")
+    @RequiresPermission(Permission.BILLING_READ)
+    public ResponseEntity<?> getDocument(@PathVariable("id") long invoiceId,
+                                         @RequestParam(value = "format", defaultValue = "pdf") String format) {
+        DocumentFormat documentFormat;
+        try {
+            documentFormat = DocumentFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported document format: " + format);
+        }
+
+        DocumentLookup lookup = documentService.requestDocument(invoiceId, documentFormat);
+        if (!lookup.isReady()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new DocumentStatus(invoiceId, documentFormat.name(),
+                            lookup.getPendingJob().getState().name(), "Document is being rendered."));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(documentFormat.getContentType()))
+                .eTag(lookup.getFingerprint())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=\"invoice-" + invoiceId + "." + documentFormat.getExtension() + "\"")
+                .body(new FileSystemResource(lookup.getFile()));
+    }
+}
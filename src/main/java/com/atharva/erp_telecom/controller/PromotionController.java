@@ -0,0 +1,57 @@
+package com.atharva.erp_telecom.controller;
+
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.dto.PromotionRuleRequest;
+import com.atharva.erp_telecom.dto.PublishedPromotions;
+import com.atharva.erp_telecom.entity.PromotionRule;
+import com.atharva.erp_telecom.security.RequiresPermission;
+import com.atharva.erp_telecom.service.promotion.PromotionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/promotions")
+@RequiresPermission(Permission.BILLING_READ)
+public class PromotionController {
+
+    private final PromotionService promotionService;
+
+    public PromotionController(PromotionService promotionService) {
+        this.promotionService = promotionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PromotionRule>> listRules() {
+        return ResponseEntity.ok(promotionService.listRules());
+    }
+
+    // The rules rating currently applies, with what each discounted since it was published.
+    @GetMapping("/published")
+    public ResponseEntity<PublishedPromotions> getPublished() {
+        return ResponseEntity.ok(promotionService.published());
+    }
+
+    // A new rule only applies once published.
+    @PostMapping
+    @RequiresPermission(Permission.BILLING_RUN)
+    public ResponseEntity<PromotionRule> createRule(@RequestBody PromotionRuleRequest request) {
+        return new ResponseEntity<>(promotionService.createRule(request), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{ruleId}")
+    @RequiresPermission(Permission.BILLING_RUN)
+    public ResponseEntity<Void> deactivateRule(@PathVariable long ruleId) {
+        promotionService.deactivate(ruleId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/publish")
+    @RequiresPermission(Permission.BILLING_RUN)
+    public ResponseEntity<PublishedPromotions> publish() {
+        return ResponseEntity.ok(promotionService.publish());
+    }
+}
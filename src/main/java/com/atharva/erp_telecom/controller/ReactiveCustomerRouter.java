@@ -0,0 +1,155 @@
+package com.atharva.erp_telecom.controller;
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.atharva.erp_telecom.security.JwtUtils;
+import com.atharva.erp_telecom.security.PermissionHolder;
+import com.atharva.erp_telecom.service.UserService;
+import com.atharva.erp_telecom.service.reactive.ReactiveCustomerService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Read-only customer API for the non-blocking server (see ReactiveHttpServer), the counterpart of the GET paths of
+// CustomerController:
+//      GET /reactive/customer/{id}                  - single customer
+//      GET /reactive/customer?page=0&size=100        - paged listing
+//      GET /reactive/customer/export                 - every customer as NDJSON, streamed with backpressure
+@Component
+public class ReactiveCustomerRouter {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String ACCESS_DENIED = "Access denied";
+
+    private final ReactiveCustomerService reactiveCustomerService;
+    private final JwtUtils jwtUtils;
+    private final UserService userService;
+    private final boolean enforcePermissions;
+
+    public ReactiveCustomerRouter(ReactiveCustomerService reactiveCustomerService, JwtUtils jwtUtils, UserService userService,
+                                  @Value("${erp.permissions.enforce:false}") boolean enforcePermissions) {
+        this.reactiveCustomerService = reactiveCustomerService;
+        this.jwtUtils = jwtUtils;
+        this.userService = userService;
+        this.enforcePermissions = enforcePermissions;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/reactive/customer/export", this::exportCustomers)
+                .GET("/reactive/customer/{id}", this::getCustomer)
+                .GET("/reactive/customer", this::getCustomers)
+                .filter(authenticated())
+                .onError(ResourceNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e.getMessage()))
+                .onError(InvalidRequestException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e.getMessage()))
+                .build();
+    }
+
+    private Mono<ServerResponse> getCustomer(ServerRequest request) {
+        int customerId;
+        try {
+            customerId = Integer.parseInt(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return Mono.error(new InvalidRequestException("Invalid customer id: " + request.pathVariable("id")));
+        }
+        return reactiveCustomerService.getCustomer(customerId)
+                .flatMap(customer -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(customer));
+    }
+
+    private Mono<ServerResponse> getCustomers(ServerRequest request) {
+        int page = intParam(request, "page", 0);
+        int size = intParam(request, "size", 100);
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return Mono.error(new InvalidRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE));
+        }
+        return reactiveCustomerService.getCustomers(page, size)
+                .flatMap(slice -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(slice));
+    }
+
+    private Mono<ServerResponse> exportCustomers(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveCustomerService.exportCustomers(), Customer.class);
+    }
+
+    // Same checks as JwtAuthenticationFilter: valid signature and expiry, and the user must still exist. Then the
+    // CUSTOMER_READ permission CustomerController requires. Loading the user is a JDBC call, so it runs on the
+    // bounded scheduler too.
+    private HandlerFilterFunction<ServerResponse, ServerResponse> authenticated() {
+        return (request, next) -> {
+            String authHeader = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return unauthorized("Invalid authentication request");
+            }
+            String jwt = authHeader.substring(7);
+            return reactiveCustomerService.blocking(() -> checkToken(jwt))
+                    .flatMap(failure -> failure.isEmpty() ? next.handle(request)
+                            : failure.equals(ACCESS_DENIED) ? error(HttpStatus.FORBIDDEN, failure) : unauthorized(failure));
+        };
+    }
+
+    // Returns "" for a good token, otherwise the same message the servlet filter would send.
+    private String checkToken(String jwt) {
+        try {
+            Claims claims = jwtUtils.parse(jwt);
+            UserDetails userDetails = userService.loadUserByUsername(claims.getSubject());
+            if (!jwtUtils.validateToken(claims, userDetails)) return "Invalid authentication request";
+            boolean permitted = userDetails instanceof PermissionHolder holder
+                    && (holder.getPermissions() & Permission.CUSTOMER_READ.bit()) != 0;
+            return permitted || !enforcePermissions ? "" : ACCESS_DENIED;
+        } catch (MalformedJwtException e) {
+            return "Malformed JWT token";
+        } catch (ExpiredJwtException e) {
+            return "JWT token expired";
+        } catch (SignatureException e) {
+            return "Invalid JWT signature";
+        } catch (Exception e) {
+            return "Invalid authentication request";
+        }
+    }
+
+    private static Mono<ServerResponse> unauthorized(String message) {
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("error", message));
+    }
+
+    // Same body as GlobalExceptionHandler.buildResponse
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.atharva.erp_telecom.controller;
+
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.entity.ReconciliationRun;
+import com.atharva.erp_telecom.security.RequiresPermission;
+import com.atharva.erp_telecom.service.ReconciliationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/reconciliation")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    // Starts reconciling a settlement file from the inbox directory, poll the returned run for the outcome.
+    @PostMapping("/run")
+    @RequiresPermission(Permission.BILLING_RUN)
+    public ResponseEntity<ReconciliationRun> startRun(@RequestParam("file") String fileName) {
+        return new ResponseEntity<>(reconciliationService.startRun(fileName), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/run/{runId}")
+    @RequiresPermission(Permission.BILLING_READ)
+    public ResponseEntity<ReconciliationRun> getRun(@PathVariable long runId) {
+        return ResponseEntity.ok(reconciliationService.getRun(runId));
+    }
+}
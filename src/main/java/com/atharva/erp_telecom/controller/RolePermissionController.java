@@ -0,0 +1,32 @@
+package com.atharva.erp_telecom.controller;
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.service.permission.PermissionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Set;
+
+// What each role may do, admins only (see SecurityConfig). Changes apply to the next request of every user.
+@RestController
+@RequestMapping("/roles")
+public class RolePermissionController {
+
+    private final PermissionService permissionService;
+
+    public RolePermissionController(PermissionService permissionService) {
+        this.permissionService = permissionService;
+    }
+
+    @GetMapping("/permissions")
+    public Map<String, Set<Permission>> list() {
+        return permissionService.listRolePermissions();
+    }
+
+    // Body: the complete new list, e.g. ["CUSTOMER_READ", "USAGE_READ"].
+    @PutMapping("/{roleName}/permissions")
+    public ResponseEntity<Set<Permission>> replace(@PathVariable String roleName, @RequestBody Set<String> permissions) {
+        return ResponseEntity.ok(permissionService.replacePermissions(roleName, permissions));
+    }
+}
@@ -0,0 +1,37 @@
+package com.atharva.erp_telecom.controller;
+
+import com.atharva.erp_telecom.service.changefeed.ChangeListener;
+import com.atharva.erp_telecom.service.changefeed.CustomerChange;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+// Change feed subscriber on a Server-Sent Events connection. Each change is one "customer" event whose id is the
+// cursor, so an EventSource reconnecting with Last-Event-ID resumes right after the last change it got.
+class SseChangeListener implements ChangeListener {
+
+    private final SseEmitter emitter;
+
+    SseChangeListener(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void onChange(CustomerChange change) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(change.getCursor().toString())
+                .name("customer")
+                .data(change.getJson(), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void onIdle() throws IOException {
+        emitter.send(SseEmitter.event().comment("idle"));
+    }
+
+    @Override
+    public void onClose() {
+        emitter.complete();
+    }
+}
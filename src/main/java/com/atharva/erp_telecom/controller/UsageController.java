@@ -0,0 +1,32 @@
+package com.atharva.erp_telecom.controller;
+
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.dto.UsageEvent;
+import com.atharva.erp_telecom.security.RequiresPermission;
+import com.atharva.erp_telecom.service.UsageService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/usage")
+public class UsageController {
+
+    private final UsageService usageService;
+
+    public UsageController(UsageService usageService) {
+        this.usageService = usageService;
+    }
+
+    // Endpoint for the mediation layer to push a batch of rated usage records.
+    @PostMapping("/events")
+    @RequiresPermission(Permission.USAGE_WRITE)
+    public ResponseEntity<Map<String, Integer>> ingest(@RequestBody List<UsageEvent> events) {
+        int accepted = usageService.ingest(events);
+        return new ResponseEntity<>(Map.of("accepted", accepted), HttpStatus.ACCEPTED);
+    }
+}
@@ -9,6 +9,8 @@ import com.atharva.erp_telecom.entity.Roles;
 import com.atharva.erp_telecom.entity.Users;
 import com.atharva.erp_telecom.security.JwtUtils;
 import com.atharva.erp_telecom.service.UserAuthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,6 +25,8 @@ import java.util.stream.Collectors;
 @RequestMapping("/users")
 public class UserAuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserAuthController.class);
+
     private final UserAuthService userAuthService;
 
     public UserAuthController(UserAuthService userAuthService) {
@@ -46,9 +50,8 @@ public class UserAuthController {
     // Endpoint to authenticate an exiting user and return a JWT token
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest){
-        System.out.println("Inside the login controller...\nUsername: "+authRequest.getUsername()+"\tPassword: "+authRequest.getPassword());
+        log.debug("Login attempt for user {}", authRequest.getUsername());
         String jwtToken = userAuthService.authenticate(authRequest.getUsername(),authRequest.getPassword());
-        System.out.println("Token returned to the controller...\nToken: "+jwtToken);
         return new ResponseEntity<>(new AuthResponse(jwtToken),HttpStatus.OK);
     }
 }
@@ -0,0 +1,27 @@
+package com.atharva.erp_telecom.dto;
+
+import java.util.Set;
+
+// Body of POST /apikeys.
+public class ApiKeyRequest {
+    private String clientName;
+    private Set<String> roles;
+
+    public ApiKeyRequest() {}
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public void setClientName(String clientName) {
+        this.clientName = clientName;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Set<String> roles) {
+        this.roles = roles;
+    }
+}
@@ -0,0 +1,38 @@
+package com.atharva.erp_telecom.dto;
+
+import com.atharva.erp_telecom.entity.Customer;
+
+import java.util.List;
+
+// One page of the customer listing. hasNext replaces a total count, which would cost a count(*) per page.
+public class CustomerSlice {
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private List<Customer> customers;
+
+    public CustomerSlice() {}
+
+    public CustomerSlice(int page, int size, boolean hasNext, List<Customer> customers) {
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.customers = customers;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public List<Customer> getCustomers() {
+        return customers;
+    }
+}
@@ -0,0 +1,34 @@
+package com.atharva.erp_telecom.dto;
+
+// Body returned with 202 while an invoice document is queued or rendering.
+public class DocumentStatus {
+    private long invoiceId;
+    private String format;
+    private String status;
+    private String message;
+
+    public DocumentStatus() {}
+
+    public DocumentStatus(long invoiceId, String format, String status, String message) {
+        this.invoiceId = invoiceId;
+        this.format = format;
+        this.status = status;
+        this.message = message;
+    }
+
+    public long getInvoiceId() {
+        return invoiceId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,36 @@
+package com.atharva.erp_telecom.dto;
+
+import java.util.List;
+
+// Returned once when an API key is created: apiKey is the only copy of the secret, it cannot be shown again.
+public class IssuedApiKey {
+    private String keyId;
+    private String clientName;
+    private List<String> roles;
+    private String apiKey;
+
+    public IssuedApiKey() {}
+
+    public IssuedApiKey(String keyId, String clientName, List<String> roles, String apiKey) {
+        this.keyId = keyId;
+        this.clientName = clientName;
+        this.roles = roles;
+        this.apiKey = apiKey;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+}
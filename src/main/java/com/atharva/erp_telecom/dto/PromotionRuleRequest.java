@@ -0,0 +1,108 @@
+package com.atharva.erp_telecom.dto;
+
+import java.time.LocalDateTime;
+
+// Body of POST /promotions. Customer attributes left out match every customer.
+public class PromotionRuleRequest {
+    private String name;
+    private String customerClass;
+    private String customerSubClass;
+    private String region;
+    private String country;
+    private String serviceType;
+    private long thresholdQuantity;
+    private int discountBasisPoints;
+    private int priority;
+    private LocalDateTime validFrom;
+    private LocalDateTime validTo;
+
+    public PromotionRuleRequest() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCustomerClass() {
+        return customerClass;
+    }
+
+    public void setCustomerClass(String customerClass) {
+        this.customerClass = customerClass;
+    }
+
+    public String getCustomerSubClass() {
+        return customerSubClass;
+    }
+
+    public void setCustomerSubClass(String customerSubClass) {
+        this.customerSubClass = customerSubClass;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public long getThresholdQuantity() {
+        return thresholdQuantity;
+    }
+
+    public void setThresholdQuantity(long thresholdQuantity) {
+        this.thresholdQuantity = thresholdQuantity;
+    }
+
+    public int getDiscountBasisPoints() {
+        return discountBasisPoints;
+    }
+
+    public void setDiscountBasisPoints(int discountBasisPoints) {
+        this.discountBasisPoints = discountBasisPoints;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getValidFrom() {
+        return validFrom;
+    }
+
+    public void setValidFrom(LocalDateTime validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public LocalDateTime getValidTo() {
+        return validTo;
+    }
+
+    public void setValidTo(LocalDateTime validTo) {
+        this.validTo = validTo;
+    }
+}
@@ -0,0 +1,33 @@
+package com.atharva.erp_telecom.dto;
+
+import com.atharva.erp_telecom.service.promotion.CompiledPromotions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The rules rating currently applies, in preference order, with what each discounted since it was compiled.
+public class PublishedPromotions {
+    private long version;
+    private LocalDateTime compiledAt;
+    private List<CompiledPromotions.RuleStats> rules;
+
+    public PublishedPromotions() {}
+
+    public PublishedPromotions(long version, LocalDateTime compiledAt, List<CompiledPromotions.RuleStats> rules) {
+        this.version = version;
+        this.compiledAt = compiledAt;
+        this.rules = rules;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getCompiledAt() {
+        return compiledAt;
+    }
+
+    public List<CompiledPromotions.RuleStats> getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,52 @@
+package com.atharva.erp_telecom.dto;
+
+import java.time.Instant;
+
+// One rated usage record as delivered by the mediation layer.
+public class UsageEvent {
+    private long customerId;
+    private String serviceType;
+    private long quantity;
+    private Instant eventTime;
+
+    public UsageEvent() {}
+
+    public UsageEvent(long customerId, String serviceType, long quantity, Instant eventTime) {
+        this.customerId = customerId;
+        this.serviceType = serviceType;
+        this.quantity = quantity;
+        this.eventTime = eventTime;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(long customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public Instant getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(Instant eventTime) {
+        this.eventTime = eventTime;
+    }
+}
@@ -0,0 +1,49 @@
+package com.atharva.erp_telecom.dto;
+
+import java.time.LocalDateTime;
+
+public class UsageSummary {
+    private LocalDateTime periodStart;
+    private String granularity;
+    private String serviceType;
+    private long quantity;
+    private long eventCount;
+    // true when the figures come from the in-memory aggregator rather than the rollup table
+    private boolean currentPeriod;
+
+    public UsageSummary() {}
+
+    public UsageSummary(LocalDateTime periodStart, String granularity, String serviceType, long quantity,
+                        long eventCount, boolean currentPeriod) {
+        this.periodStart = periodStart;
+        this.granularity = granularity;
+        this.serviceType = serviceType;
+        this.quantity = quantity;
+        this.eventCount = eventCount;
+        this.currentPeriod = currentPeriod;
+    }
+
+    public LocalDateTime getPeriodStart() {
+        return periodStart;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public boolean isCurrentPeriod() {
+        return currentPeriod;
+    }
+}
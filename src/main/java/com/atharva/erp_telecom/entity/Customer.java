@@ -2,19 +2,25 @@ package com.atharva.erp_telecom.entity;
 
 
 import com.atharva.erp_telecom.constants.CustomerConstants;
+import com.atharva.erp_telecom.service.sharding.ShardedSequence;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "customer")
+@Table(name = "customer", indexes = {
+        // change feed order, see CustomerService.getChangesAfter
+        @Index(name = "idx_customer_modified", columnList = "modified_date, customer_id")
+})
+@EntityListeners(AuditingEntityListener.class) // Without the listener @CreatedDate/@LastModifiedDate were never filled in.
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @ShardedSequence(sequenceName = "customer_seq")
     private long customerId;
     private String customerFirstName;
     private String customerLastName;
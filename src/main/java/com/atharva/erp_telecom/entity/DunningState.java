@@ -0,0 +1,59 @@
+package com.atharva.erp_telecom.entity;
+
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Rows are upserted in JDBC batches by DunningStore, this mapping only owns the schema and the read side.
+@Entity
+@Table(name = "dunning_state")
+public class DunningState {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    // DunningStage
+    @Column(name = "stage", nullable = false, length = 20)
+    private String stage;
+
+    // Due date of the oldest unpaid invoice, null once everything is paid.
+    @Column(name = "overdue_since")
+    private LocalDate overdueSince;
+
+    // DunningAction, null when nothing is planned.
+    @Column(name = "next_action", length = 20)
+    private String nextAction;
+
+    @Column(name = "next_action_at")
+    private LocalDateTime nextActionAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public LocalDate getOverdueSince() {
+        return overdueSince;
+    }
+
+    public String getNextAction() {
+        return nextAction;
+    }
+
+    public LocalDateTime getNextActionAt() {
+        return nextActionAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,184 @@
+package com.atharva.erp_telecom.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A discount on rated usage, e.g. "Enterprise / sub-class X in region Y: 20% off DATA after 10 GB in the month".
+// A null customer attribute matches every customer. threshold_quantity is month-to-date usage of service_type, in its
+// unit (ServiceType), below which the discount does not apply. A rule is live while it is active and published, see
+// PromotionService.
+@Entity
+@Table(name = "promotion_rule")
+public class PromotionRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rule_id")
+    private Long ruleId;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "customer_class", length = 50)
+    private String customerClass;
+
+    @Column(name = "customer_sub_class", length = 50)
+    private String customerSubClass;
+
+    @Column(name = "region", length = 50)
+    private String region;
+
+    @Column(name = "country", length = 50)
+    private String country;
+
+    @Column(name = "service_type", nullable = false, length = 20)
+    private String serviceType;
+
+    @Column(name = "threshold_quantity", nullable = false)
+    private long thresholdQuantity;
+
+    // 2000 = 20% off
+    @Column(name = "discount_basis_points", nullable = false)
+    private int discountBasisPoints;
+
+    // Where several rules apply to an event, the highest priority wins, then the biggest discount.
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    @Column(name = "valid_from")
+    private LocalDateTime validFrom;
+
+    @Column(name = "valid_to")
+    private LocalDateTime validTo;
+
+    @Column(name = "active", nullable = false)
+    private boolean active = true;
+
+    // Set for every active rule by a publish, new rules wait for the next one.
+    @Column(name = "published", nullable = false)
+    private boolean published;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(Long ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCustomerClass() {
+        return customerClass;
+    }
+
+    public void setCustomerClass(String customerClass) {
+        this.customerClass = customerClass;
+    }
+
+    public String getCustomerSubClass() {
+        return customerSubClass;
+    }
+
+    public void setCustomerSubClass(String customerSubClass) {
+        this.customerSubClass = customerSubClass;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public long getThresholdQuantity() {
+        return thresholdQuantity;
+    }
+
+    public void setThresholdQuantity(long thresholdQuantity) {
+        this.thresholdQuantity = thresholdQuantity;
+    }
+
+    public int getDiscountBasisPoints() {
+        return discountBasisPoints;
+    }
+
+    public void setDiscountBasisPoints(int discountBasisPoints) {
+        this.discountBasisPoints = discountBasisPoints;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getValidFrom() {
+        return validFrom;
+    }
+
+    public void setValidFrom(LocalDateTime validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public LocalDateTime getValidTo() {
+        return validTo;
+    }
+
+    public void setValidTo(LocalDateTime validTo) {
+        this.validTo = validTo;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+
+    public void setPublished(boolean published) {
+        this.published = published;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,148 @@
+package com.atharva.erp_telecom.entity;
+
+
+import com.atharva.erp_telecom.constants.ReconciliationConstants;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One row per settlement file processed; the per-line outcomes live in reconciliation_result.
+@Entity
+@Table(name = "reconciliation_run")
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Column(name = "source_file", nullable = false)
+    private String sourceFile;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = ReconciliationConstants.RUN_RUNNING;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "total_lines")
+    private long totalLines;
+
+    @Column(name = "matched_count")
+    private long matchedCount;
+
+    @Column(name = "partial_count")
+    private long partialCount;
+
+    @Column(name = "unmatched_count")
+    private long unmatchedCount;
+
+    @Column(name = "rejected_lines")
+    private long rejectedLines;
+
+    // 1 when the open items fitted in memory, otherwise the number of on-disk partitions used.
+    @Column(name = "spill_partitions")
+    private int spillPartitions;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(long totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public long getMatchedCount() {
+        return matchedCount;
+    }
+
+    public void setMatchedCount(long matchedCount) {
+        this.matchedCount = matchedCount;
+    }
+
+    public long getPartialCount() {
+        return partialCount;
+    }
+
+    public void setPartialCount(long partialCount) {
+        this.partialCount = partialCount;
+    }
+
+    public long getUnmatchedCount() {
+        return unmatchedCount;
+    }
+
+    public void setUnmatchedCount(long unmatchedCount) {
+        this.unmatchedCount = unmatchedCount;
+    }
+
+    public long getRejectedLines() {
+        return rejectedLines;
+    }
+
+    public void setRejectedLines(long rejectedLines) {
+        this.rejectedLines = rejectedLines;
+    }
+
+    public int getSpillPartitions() {
+        return spillPartitions;
+    }
+
+    public void setSpillPartitions(int spillPartitions) {
+        this.spillPartitions = spillPartitions;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+}
@@ -0,0 +1,26 @@
+package com.atharva.erp_telecom.entity;
+
+import jakarta.persistence.*;
+
+// Single row written on the primary every lag check. Reading it back from a replica tells how far behind the
+// replica is, see ReplicaLagMonitor. Only ever touched with plain JDBC.
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    @Column(name = "heartbeat_id")
+    private int heartbeatId;
+
+    // Epoch millis of the primary's clock.
+    @Column(name = "beat_at", nullable = false)
+    private long beatAt;
+
+    public int getHeartbeatId() {
+        return heartbeatId;
+    }
+
+    public long getBeatAt() {
+        return beatAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.atharva.erp_telecom.entity;
 
 
+import com.atharva.erp_telecom.constants.Permission;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
@@ -23,6 +24,14 @@ public class Roles {
     @ManyToMany(mappedBy = "roles")
     private Set<Users> users = new HashSet<>();
 
+    // Lazy: users are loaded with their roles on every request, permissions come from PermissionRegistry instead.
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "role_permissions", joinColumns = @JoinColumn(name = "role_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "permission", nullable = false, length = 50)
+    private Set<Permission> permissions = new HashSet<>();
+
     // As a good practice - added No-args constructor which will be used by JPA (15/09/2025).
     public Roles() {}
     public Roles(String roleName){this.roleName=roleName;}
@@ -50,4 +59,12 @@ public class Roles {
     public void setUsers(Set<Users> users) {
         this.users = users;
     }
+
+    public Set<Permission> getPermissions() {
+        return permissions;
+    }
+
+    public void setPermissions(Set<Permission> permissions) {
+        this.permissions = permissions;
+    }
 }
@@ -0,0 +1,96 @@
+package com.atharva.erp_telecom.entity;
+
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Usage totals per customer, service type and period. Rows are upserted in batches by UsageService,
+// the quantities are only ever incremented.
+@Entity
+@Table(name = "usage_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_usage_rollup_period",
+                columnNames = {"customer_id", "granularity", "period_start", "service_type"})
+})
+public class UsageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Column(name = "customer_id", nullable = false)
+    private long customerId;
+
+    @Column(name = "service_type", nullable = false, length = 20)
+    private String serviceType;
+
+    @Column(name = "granularity", nullable = false, length = 10)
+    private String granularity;
+
+    // Start of the hour, day or month in the billing time zone.
+    @Column(name = "period_start", nullable = false)
+    private LocalDateTime periodStart;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    public Long getRollupId() {
+        return rollupId;
+    }
+
+    public void setRollupId(Long rollupId) {
+        this.rollupId = rollupId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(long customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDateTime periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(long eventCount) {
+        this.eventCount = eventCount;
+    }
+}
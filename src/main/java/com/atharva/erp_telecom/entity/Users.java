@@ -43,7 +43,8 @@ public class Users {
     private LocalDateTime createTime;
 
     @LastModifiedDate
-    @Column(name = "updated_time",nullable = false,insertable = false)
+    @Column(name = "updated_time",nullable = false,insertable = false,
+    columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP")
     private LocalDateTime updatedTime;
 
     // (Best practice to use this) --> This is our join table which stores a many-to-many mapping for all the users and corresponding roles.
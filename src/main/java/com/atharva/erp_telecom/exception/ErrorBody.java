@@ -0,0 +1,114 @@
+package com.atharva.erp_telecom.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// JSON error bodies serialised once per error type, so a flood of 401/404s doesn't run Jackson per response.
+/*
+    Two shapes, the ones the API has always sent:
+        - forStatus(status):     {"timestamp":"...","status":404,"error":"Not Found","message":"..."}
+          (GlobalExceptionHandler) - everything but the timestamp and the message is fixed per status, render()
+          copies the pieces into one array of exactly the right size.
+        - simple(message):       {"error":"..."}
+          (the filters) - fully fixed, render() hands back the same array every time, callers must not modify it.
+    The timestamp text is shared by every error rendered in the same millisecond.
+ */
+public final class ErrorBody {
+
+    private static final byte[] TIMESTAMP_OPEN = bytes("{\"timestamp\":\"");
+    private static final byte[] MESSAGE_CLOSE = bytes("\"}");
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Timestamp timestamp = new Timestamp(0, new byte[0]);
+
+    // Everything from the end of the timestamp to the start of the message, or the whole body of a simple one.
+    private final byte[] fixed;
+    private final boolean simple;
+
+    private ErrorBody(byte[] fixed, boolean simple) {
+        this.fixed = fixed;
+        this.simple = simple;
+    }
+
+    public static ErrorBody forStatus(HttpStatus status) {
+        return new ErrorBody(bytes("\",\"status\":" + status.value() + ",\"error\":\"" + escape(status.getReasonPhrase())
+                + "\",\"message\":\""), false);
+    }
+
+    public static ErrorBody simple(String message) {
+        return new ErrorBody(bytes("{\"error\":\"" + escape(message) + "\"}"), true);
+    }
+
+    // A simple body.
+    public byte[] render() {
+        if (!simple) throw new IllegalStateException("This error body needs a message");
+        return fixed;
+    }
+
+    // A status body with the current time and the message spliced in.
+    public byte[] render(String message) {
+        if (simple) return fixed;
+        byte[] time = currentTimestamp();
+        byte[] text = bytes(escape(message == null ? "" : message));
+        byte[] body = new byte[TIMESTAMP_OPEN.length + time.length + fixed.length + text.length + MESSAGE_CLOSE.length];
+        int position = 0;
+        position = copy(TIMESTAMP_OPEN, body, position);
+        position = copy(time, body, position);
+        position = copy(fixed, body, position);
+        position = copy(text, body, position);
+        copy(MESSAGE_CLOSE, body, position);
+        return body;
+    }
+
+    private static byte[] currentTimestamp() {
+        long now = System.currentTimeMillis();
+        Timestamp current = timestamp;
+        if (current.millis != now) {
+            current = new Timestamp(now, bytes(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZONE).toString()));
+            timestamp = current;
+        }
+        return current.text;
+    }
+
+    private static int copy(byte[] from, byte[] to, int position) {
+        System.arraycopy(from, 0, to, position, from.length);
+        return position + from.length;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // JSON string escaping, without the quotes. Messages can carry client input (an id, a file name).
+    private static String escape(String text) {
+        int i = 0;
+        while (i < text.length() && text.charAt(i) >= 0x20 && text.charAt(i) != '"' && text.charAt(i) != '\\') i++;
+        if (i == text.length()) return text;
+        StringBuilder out = new StringBuilder(text.length() + 16).append(text, 0, i);
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private record Timestamp(long millis, byte[] text) {
+    }
+}
@@ -1,30 +1,48 @@
 package com.atharva.erp_telecom.exception;
 
 
+import com.atharva.erp_telecom.security.ConcurrencyLimitFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import com.atharva.erp_telecom.exception.custom_exceptions.*;
-import org.springframework.web.context.request.WebRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 // The primary objective of this class will be to handle all the custom exceptions.
 // This @RestControllerAdvice is only triggered when exceptions are propogated to and from the controller.
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    // One pre-serialised body per status, only the timestamp and message are filled in per response (see ErrorBody).
+    private static final Map<HttpStatus, ErrorBody> ERROR_BODIES = new EnumMap<>(HttpStatus.class);
+    static {
+        for (HttpStatus status : HttpStatus.values()) ERROR_BODIES.put(status, ErrorBody.forStatus(status));
+    }
+
     private ResponseEntity<Object> buildResponse(HttpStatus status,String message){
-        Map<String,Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status",status.value());
-        body.put("error",status.getReasonPhrase());
-        body.put("message",message);
-        return new ResponseEntity<>(body,status);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ERROR_BODIES.get(status).render(message));
+    }
+
+    // 503 with a Retry-After, so well-behaved clients back off instead of retrying at once.
+    private ResponseEntity<Object> buildBusyResponse(String message){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ERROR_BODIES.get(HttpStatus.SERVICE_UNAVAILABLE).render(message));
     }
 
     @ExceptionHandler(UserAlreadyExistsException.class)
@@ -42,31 +60,43 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND,e.getMessage());
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Object> handleInvalidRequest(InvalidRequestException e){
+        return buildResponse(HttpStatus.BAD_REQUEST,e.getMessage());
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Object> handleServiceBusy(ServiceBusyException e){
+        return buildBusyResponse(e.getMessage());
+    }
+
+    // No database connection within the pool's timeout: the server is overloaded, not broken.
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Object> handleDatabaseBusy(Exception e, HttpServletRequest request){
+        ConcurrencyLimitFilter.markDropped(request);
+        return buildBusyResponse("Server is busy, please retry shortly.");
+    }
+
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<Object> handleInvalidCredentials(InvalidCredentialsException ex) {
         return buildResponse(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
     @ExceptionHandler(InvalidJwtAuthenticationException.class)
-    public ResponseEntity<Object> handleInvalidJwt(InvalidJwtAuthenticationException ex, WebRequest request) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.UNAUTHORIZED.value());
-        body.put("error", "Unauthorized");
-        body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.UNAUTHORIZED);
+    public ResponseEntity<Object> handleInvalidJwt(InvalidJwtAuthenticationException ex) {
+        return buildResponse(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
     @ExceptionHandler(MalformedJwtTokenException.class)
     public ResponseEntity<Object> handleMalformedJwt(MalformedJwtTokenException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.UNAUTHORIZED.value());
-        body.put("error", "Unauthorized");
-        body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.UNAUTHORIZED);
+        return buildResponse(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
+    // A @RequiresPermission check failed (PermissionAuthorizationManager), it reaches us from inside the controller call.
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Object> handleAccessDenied(AccessDeniedException ex) {
+        return buildResponse(HttpStatus.FORBIDDEN, "Access denied");
+    }
 
     // Generic method for handling anything else that the sever is unable to handle
     @ExceptionHandler(Exception.class)
@@ -1,7 +1,7 @@
 package com.atharva.erp_telecom.exception.custom_exceptions;
 
 // Thrown when the credentials the user has entered don't match.
-public class InvalidCredentialsException extends RuntimeException{
+public class InvalidCredentialsException extends StacklessException {
     public InvalidCredentialsException(String message) {
         super(message);
     }
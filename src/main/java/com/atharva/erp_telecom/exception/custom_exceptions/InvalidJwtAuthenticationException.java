@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.UNAUTHORIZED)
-public class InvalidJwtAuthenticationException extends RuntimeException {
+public class InvalidJwtAuthenticationException extends StacklessException {
     public InvalidJwtAuthenticationException(String message) {
         super(message);
     }
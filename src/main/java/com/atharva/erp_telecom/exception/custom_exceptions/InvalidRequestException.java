@@ -0,0 +1,8 @@
+package com.atharva.erp_telecom.exception.custom_exceptions;
+
+// Thrown when the request body or parameters are well-formed JSON but carry values we cannot accept.
+public class InvalidRequestException extends StacklessException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.UNAUTHORIZED)
-public class MalformedJwtTokenException extends RuntimeException {
+public class MalformedJwtTokenException extends StacklessException {
     public MalformedJwtTokenException(String message) {
         super(message);
     }
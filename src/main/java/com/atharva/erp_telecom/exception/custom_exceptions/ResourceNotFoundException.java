@@ -2,7 +2,7 @@ package com.atharva.erp_telecom.exception.custom_exceptions;
 
 
 // Thrown when a resource is not found.
-public class ResourceNotFoundException extends RuntimeException{
+public class ResourceNotFoundException extends StacklessException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,8 @@
+package com.atharva.erp_telecom.exception.custom_exceptions;
+
+// Thrown when a bounded queue or pool is full and the caller should retry later.
+public class ServiceBusyException extends StacklessException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.exception.custom_exceptions;
+
+// Base of the exceptions that answer a client mistake (unknown id, bad token, invalid input) with a 4xx or a 503.
+// They are expected, handled by GlobalExceptionHandler and never logged, so no stack trace is captured: walking
+// the stack is most of the cost of an exception, and scanners can make these the most frequent responses we send.
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,16 @@
+package com.atharva.erp_telecom.exception.custom_exceptions;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+// UsernameNotFoundException without a stack trace, for the same reason as StacklessException: every request with a
+// token of a deleted or made-up user throws one. It has to stay a UsernameNotFoundException for Spring Security.
+public class UnknownUserException extends UsernameNotFoundException {
+    public UnknownUserException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
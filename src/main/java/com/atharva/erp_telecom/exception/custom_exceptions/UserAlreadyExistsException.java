@@ -1,6 +1,6 @@
 package com.atharva.erp_telecom.exception.custom_exceptions;
 
-public class UserAlreadyExistsException extends RuntimeException{
+public class UserAlreadyExistsException extends StacklessException {
     public UserAlreadyExistsException(String message) {
         super(message);
     }
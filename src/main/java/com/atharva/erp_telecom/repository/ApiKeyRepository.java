@@ -0,0 +1,23 @@
+package com.atharva.erp_telecom.repository;
+
+import com.atharva.erp_telecom.entity.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ApiKeyRepository extends JpaRepository<ApiKey,String> {
+
+    List<ApiKey> findByEnabledTrue();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ApiKey k SET k.usageCount = k.usageCount + :requests, k.lastUsedAt = :lastUsedAt WHERE k.keyId = :keyId")
+    int addUsage(@Param("keyId") String keyId, @Param("requests") long requests, @Param("lastUsedAt") LocalDateTime lastUsedAt);
+}
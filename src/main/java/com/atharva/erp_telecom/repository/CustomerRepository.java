@@ -2,10 +2,31 @@ package com.atharva.erp_telecom.repository;
 
 
 import com.atharva.erp_telecom.entity.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer,Integer> {
 
+    // Paged listing without the count(*) a Page would need.
+    Slice<Customer> findAllBy(Pageable pageable);
+
+    // Keyset pagination for exports, each batch continues after the last id of the previous one.
+    List<Customer> findByCustomerIdGreaterThanOrderByCustomerIdAsc(long customerId, Pageable pageable);
+
+    // Change feed: customers modified after the (modifiedDate, customerId) cursor and no later than upTo, in that order.
+    @Query("SELECT c FROM Customer c WHERE (c.modifiedDate > :modifiedDate " +
+            "OR (c.modifiedDate = :modifiedDate AND c.customerId > :customerId)) AND c.modifiedDate <= :upTo " +
+            "ORDER BY c.modifiedDate, c.customerId")
+    List<Customer> findChangesAfter(@Param("modifiedDate") LocalDateTime modifiedDate,
+                                    @Param("customerId") long customerId,
+                                    @Param("upTo") LocalDateTime upTo,
+                                    Pageable pageable);
 }
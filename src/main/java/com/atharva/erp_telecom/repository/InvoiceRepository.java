@@ -0,0 +1,12 @@
+package com.atharva.erp_telecom.repository;
+
+import com.atharva.erp_telecom.entity.Invoice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InvoiceRepository extends JpaRepository<Invoice,Long> {
+    Optional<Invoice> findByInvoiceReference(String invoiceReference);
+}
@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.repository;
+
+import com.atharva.erp_telecom.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent,Long> {
+
+}
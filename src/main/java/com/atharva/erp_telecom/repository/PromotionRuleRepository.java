@@ -0,0 +1,21 @@
+package com.atharva.erp_telecom.repository;
+
+import com.atharva.erp_telecom.entity.PromotionRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface PromotionRuleRepository extends JpaRepository<PromotionRule,Long> {
+
+    List<PromotionRule> findByActiveTrueAndPublishedTrue();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PromotionRule r SET r.published = true WHERE r.active = true AND r.published = false")
+    int publishActive();
+}
@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.repository;
+
+import com.atharva.erp_telecom.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun,Long> {
+
+}
@@ -2,11 +2,16 @@ package com.atharva.erp_telecom.repository;
 
 import com.atharva.erp_telecom.entity.Roles;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RolesRepository extends JpaRepository<Roles,Long> {
     Optional<Roles> findByRoleName(String roleName);
+
+    @Query("select distinct r from Roles r left join fetch r.permissions")
+    List<Roles> findAllWithPermissions();
 }
@@ -0,0 +1,23 @@
+package com.atharva.erp_telecom.repository;
+
+import com.atharva.erp_telecom.entity.UsageRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UsageRollupRepository extends JpaRepository<UsageRollup,Long> {
+
+    @Query("SELECT r FROM UsageRollup r WHERE r.customerId = :customerId AND r.granularity = :granularity " +
+            "AND r.periodStart >= :from AND r.periodStart < :to ORDER BY r.periodStart DESC, r.serviceType")
+    List<UsageRollup> findPeriods(@Param("customerId") long customerId,
+                                  @Param("granularity") String granularity,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    List<UsageRollup> findByGranularityAndPeriodStart(String granularity, LocalDateTime periodStart);
+}
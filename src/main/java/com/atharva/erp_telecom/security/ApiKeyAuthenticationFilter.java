@@ -0,0 +1,70 @@
+package com.atharva.erp_telecom.security;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.exception.ErrorBody;
+import com.atharva.erp_telecom.service.apikey.ApiKeyIndex;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Authenticates machine clients by their X-API-Key header, ahead of the JWT filter.
+/*
+    A request with the header is authenticated here from the in-memory ApiKeyIndex: no BCrypt, no users table, no
+    token to renew. The principal is "apikey:<keyId>" with the roles the key was issued for, and the JWT filter
+    leaves an authenticated request alone. A key that doesn't check out is a 401, there is no falling back to a
+    token sent alongside it.
+    Requests without the header carry on to the JWT filter as before.
+ */
+@Component
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_API_KEY = "X-API-Key";
+    private static final ErrorBody INVALID_KEY = ErrorBody.simple("Invalid API key");
+
+    private final ApiKeyIndex apiKeyIndex;
+    private final AuditLog auditLog;
+    private final Counter rejected;
+
+    public ApiKeyAuthenticationFilter(ApiKeyIndex apiKeyIndex, AuditLog auditLog, MeterRegistry meterRegistry) {
+        this.apiKeyIndex = apiKeyIndex;
+        this.auditLog = auditLog;
+        this.rejected = Counter.builder("apikey.rejected").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER_API_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = apiKeyIndex.authenticate(request.getHeader(HEADER_API_KEY));
+        if (authentication == null) {
+            rejected.increment();
+            String presented = request.getHeader(HEADER_API_KEY);
+            int separator = presented.indexOf('.');
+            // only the public key id part is worth keeping
+            auditLog.record(AuditAction.API_KEY_REJECTED, AuditLog.NO_SUBJECT,
+                    (separator > 0 && separator <= 32 ? presented.substring(0, separator) : "malformed key")
+                            + " from " + request.getRemoteAddr());
+            byte[] body = INVALID_KEY.render();
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,100 @@
+package com.atharva.erp_telecom.security;
+
+import com.atharva.erp_telecom.constants.RequestLane;
+import com.atharva.erp_telecom.exception.ErrorBody;
+import com.atharva.erp_telecom.service.limiter.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Load shedding: requests over the adaptive concurrency limit get 503 + Retry-After instead of a place in the queue.
+/*
+    Runs first in the security chain, ahead of the JWT filter, so a shed request costs no token parsing or user
+    lookup. The lane (RequestLane) comes from the method and path alone:
+        - /users/login, /users/register                               -> LOGIN
+        - GET /customer/batch, /invoice/{id}/document, /reconciliation -> BULK
+        - other GETs                                                  -> READ
+        - everything else                                             -> DEFAULT
+    Long-lived streams (erp.limiter.excluded-paths, the change feed by default) are not limited, they would hold a
+    slot for hours and their "latency" means nothing. A request that goes async anyway, or throws, gives its slot
+    back without a sample. The response status is not looked at: a 503 from further down is usually one feature's
+    own limit, only markDropped (connection pool exhausted) tells the limiter to back off.
+    See AdaptiveConcurrencyLimiter for how the limit moves.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String ATTRIBUTE_DROPPED = ConcurrencyLimitFilter.class.getName() + ".DROPPED";
+    private static final ErrorBody SHED_BODY = ErrorBody.simple("Server is busy, please retry shortly");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean enabled;
+    private final Set<String> excludedPaths;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                  @Value("${erp.limiter.enabled:true}") boolean enabled,
+                                  @Value("${erp.limiter.excluded-paths:/customer/changes}") Set<String> excludedPaths) {
+        this.limiter = limiter;
+        this.enabled = enabled;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || excludedPaths.contains(pathOf(request)) || pathOf(request).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestLane lane = laneOf(request);
+        if (!limiter.tryAcquire(lane)) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(lane.getRetryAfterSeconds()));
+            response.setContentType("application/json");
+            response.setContentLength(SHED_BODY.render().length);
+            response.getOutputStream().write(SHED_BODY.render());
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = !request.isAsyncStarted();
+        } finally {
+            if (completed) {
+                limiter.release(start, request.getAttribute(ATTRIBUTE_DROPPED) != null);
+            } else {
+                // an async request has only just started and one that threw says nothing about latency
+                limiter.release();
+            }
+        }
+    }
+
+    // The request was refused for lack of a database connection, the limiter backs off when it completes.
+    public static void markDropped(HttpServletRequest request) {
+        request.setAttribute(ATTRIBUTE_DROPPED, Boolean.TRUE);
+    }
+
+    private static RequestLane laneOf(HttpServletRequest request) {
+        String path = pathOf(request);
+        if (path.equals("/users/login") || path.equals("/users/register")) return RequestLane.LOGIN;
+        if (!"GET".equals(request.getMethod())) return RequestLane.DEFAULT;
+        if (path.equals("/customer/batch") || path.startsWith("/reconciliation")
+                || (path.startsWith("/invoice/") && path.endsWith("/document"))) {
+            return RequestLane.BULK;
+        }
+        return RequestLane.READ;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
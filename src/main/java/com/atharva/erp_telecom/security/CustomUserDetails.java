@@ -77,12 +77,28 @@ Would you like me to also explain how UserService + UserDetails are called behin
 
  */
 
-public class CustomUserDetails implements UserDetails {
+public class CustomUserDetails implements UserDetails, PermissionHolder {
 
     private final Users user;
+    // Effective permissions, from PermissionRegistry when the user was loaded.
+    private final long permissions;
 
     public CustomUserDetails(Users user){
+        this(user, 0);
+    }
+
+    public CustomUserDetails(Users user, long permissions){
         this.user = user;
+        this.permissions = permissions;
+    }
+
+    @Override
+    public long getPermissions() {
+        return permissions;
+    }
+
+    public Long getUserId() {
+        return user.getUserId();
     }
 
     @Override
@@ -0,0 +1,271 @@
+package com.atharva.erp_telecom.security;
+
+import com.atharva.erp_telecom.exception.ErrorBody;
+import com.atharva.erp_telecom.service.idempotency.IdempotencyStore;
+import com.atharva.erp_telecom.service.idempotency.StoredResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Makes the create endpoints safe to retry with an Idempotency-Key header.
+/*
+    Runs after the JWT filter so keys are scoped per user: the store key is SHA-256(user, method, path, key).
+        - Key seen before, same body      -> the stored response is written back as is (Idempotent-Replayed: true).
+        - Key seen before, different body -> 422, the client reused a key for a different request.
+        - Same key still executing        -> wait for it (up to erp.idempotency.wait-ms) and replay its response,
+                                             409 if it is still not done by then.
+        - New key                         -> execute, then store the response if it is a 2xx, 400, 409 or 422.
+    Requests without the header, and paths not listed in erp.idempotency.paths, pass straight through.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String HEADER_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final ErrorBody INVALID_KEY = ErrorBody.simple("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+    private static final ErrorBody BODY_TOO_LARGE = ErrorBody.simple("Request body too large");
+    private static final ErrorBody IN_PROGRESS = ErrorBody.simple("A request with this Idempotency-Key is still in progress");
+    private static final ErrorBody KEY_REUSED = ErrorBody.simple("Idempotency-Key was already used for a different request");
+
+    private final IdempotencyStore idempotencyStore;
+    private final Set<String> paths;
+    private final long waitMillis;
+    private final int maxBodyBytes;
+    private final Counter replayed;
+    private final Counter coalesced;
+    private final Counter conflicts;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore,
+                             MeterRegistry meterRegistry,
+                             @Value("${erp.idempotency.paths:/customer/new}") Set<String> paths,
+                             @Value("${erp.idempotency.wait-ms:10000}") long waitMillis,
+                             @Value("${erp.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.idempotencyStore = idempotencyStore;
+        this.paths = paths;
+        this.waitMillis = waitMillis;
+        this.maxBodyBytes = maxBodyBytes;
+        this.replayed = Counter.builder("idempotency.replayed").register(meterRegistry);
+        this.coalesced = Counter.builder("idempotency.coalesced")
+                .description("Duplicates that arrived while the first request was still running")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("idempotency.conflicts").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER_IDEMPOTENCY_KEY) == null
+                || !paths.contains(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String clientKey = request.getHeader(HEADER_IDEMPOTENCY_KEY);
+        if (clientKey.isBlank() || clientKey.length() > MAX_KEY_LENGTH) {
+            writeErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, INVALID_KEY);
+            return;
+        }
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            writeErrorResponse(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, BODY_TOO_LARGE);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeErrorResponse(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, BODY_TOO_LARGE);
+            return;
+        }
+        byte[] requestHash = sha256(body);
+        String keyHash = HexFormat.of().formatHex(sha256((currentUser() + '\n' + request.getMethod() + '\n'
+                + pathOf(request) + '\n' + clientKey).getBytes(StandardCharsets.UTF_8)));
+
+        // Loops only when the request we waited on failed without a storable response.
+        while (true) {
+            StoredResponse stored = idempotencyStore.find(keyHash);
+            if (stored != null) {
+                replay(stored, requestHash, response);
+                return;
+            }
+            CompletableFuture<StoredResponse> running = idempotencyStore.begin(keyHash);
+            if (running == null) {
+                // Another request with the key may have completed between find() and begin(), its response is
+                // stored by now. Step aside (waiters on our future loop round to it too) and replay it.
+                stored = idempotencyStore.find(keyHash);
+                if (stored != null) {
+                    idempotencyStore.abandon(keyHash);
+                    replay(stored, requestHash, response);
+                    return;
+                }
+                execute(new CachedBodyRequest(request, body), response, filterChain, keyHash, requestHash);
+                return;
+            }
+            coalesced.increment();
+            try {
+                stored = running.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeErrorResponse(response, HttpServletResponse.SC_CONFLICT, IN_PROGRESS);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for the original request", e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (stored != null) {
+                replay(stored, requestHash, response);
+                return;
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String keyHash, byte[] requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, captured);
+            int status = captured.getStatus();
+            byte[] responseBody = captured.getContentAsByteArray();
+            if (storable(status) && responseBody.length <= maxBodyBytes) {
+                idempotencyStore.complete(keyHash, requestHash, status, captured.getContentType(), responseBody);
+                stored = true;
+            }
+        } finally {
+            if (!stored) idempotencyStore.abandon(keyHash);
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private void replay(StoredResponse stored, byte[] requestHash, HttpServletResponse response) throws IOException {
+        if (!stored.matches(requestHash)) {
+            conflicts.increment();
+            writeErrorResponse(response, 422, KEY_REUSED);
+            return;
+        }
+        replayed.increment();
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) response.setContentType(stored.getContentType());
+        response.setHeader(HEADER_REPLAYED, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    // Only outcomes that retrying the same request cannot change are pinned to the key: success, and a request the
+    // server will reject the same way every time. A 5xx may well succeed on retry, a 401/403 once the caller has
+    // the right token or permission, a 404/429 a moment later.
+    private static boolean storable(int status) {
+        return (status >= 200 && status < 300) || status == HttpServletResponse.SC_BAD_REQUEST
+                || status == HttpServletResponse.SC_CONFLICT || status == 422;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "" : authentication.getName();
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Same "mini-controller" approach as JwtAuthenticationFilter, the controller advice is not active out here.
+    private void writeErrorResponse(HttpServletResponse response, int status, ErrorBody body) throws IOException {
+        byte[] bytes = body.render();
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    // The body has to be read up front to hash it, this hands the same bytes to the controller.
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.atharva.erp_telecom.security;
 
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.constants.TimingPhase;
+import com.atharva.erp_telecom.exception.ErrorBody;
 import com.atharva.erp_telecom.exception.custom_exceptions.InvalidJwtAuthenticationException;
 import com.atharva.erp_telecom.exception.custom_exceptions.MalformedJwtTokenException;
 import com.atharva.erp_telecom.service.UserService;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import com.atharva.erp_telecom.service.timing.RequestTiming;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -100,12 +106,19 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Rejection MALFORMED = new Rejection("Malformed JWT token");
+    private static final Rejection EXPIRED = new Rejection("JWT token expired");
+    private static final Rejection BAD_SIGNATURE = new Rejection("Invalid JWT signature");
+    private static final Rejection INVALID = new Rejection("Invalid authentication request");
+
     private final JwtUtils jwtUtils;
     private final UserService userService;
+    private final AuditLog auditLog;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserService userService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserService userService, AuditLog auditLog) {
         this.jwtUtils = jwtUtils;
         this.userService = userService;
+        this.auditLog = auditLog;
     }
 
 
@@ -161,17 +174,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 //
 //        System.out.println("Extracted Authorization header = " + authHeader);
         String userName = null;
-        String jwt = null;
+        Claims claims = null;
 
         try {
             if(authHeader != null && authHeader.startsWith("Bearer ")){
-                jwt = authHeader.substring(7);
-                userName = jwtUtils.extractUsername(jwt);
+                // parsed (and its signature checked) once, see JwtUtils
+                int previous = RequestTiming.begin(TimingPhase.TOKEN);
+                try {
+                    claims = jwtUtils.parse(authHeader.substring(7));
+                    userName = claims.getSubject();
+                } finally {
+                    RequestTiming.end(previous);
+                }
             }
 
             if(userName != null && SecurityContextHolder.getContext().getAuthentication() == null){
-                UserDetails userDetails = userService.loadUserByUsername(userName);
-                if(jwtUtils.validateToken(jwt,userDetails)){
+                UserDetails userDetails = loadUser(userName);
+                if(validateToken(claims,userDetails)){
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails,null,userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -182,20 +201,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
             filterChain.doFilter(request,response);
         } catch (io.jsonwebtoken.MalformedJwtException ex) {
-            writeErrorResponse(response, "Malformed JWT token");
+            reject(request, response, userName, MALFORMED);
         } catch (io.jsonwebtoken.ExpiredJwtException ex) {
-            writeErrorResponse(response, "JWT token expired");
+            // the subject of an expired token is still known
+            reject(request, response, ex.getClaims().getSubject(), EXPIRED);
         } catch (io.jsonwebtoken.SignatureException ex) {
-            writeErrorResponse(response, "Invalid JWT signature");
+            reject(request, response, userName, BAD_SIGNATURE);
         } catch (Exception ex) {
-            writeErrorResponse(response, "Invalid authentication request");
+            reject(request, response, userName, INVALID);
+        }
+    }
+
+    // Phase-timed for the Server-Timing header, see ServerTimingFilter.
+    private UserDetails loadUser(String userName) {
+        int previous = RequestTiming.begin(TimingPhase.USER);
+        try {
+            return userService.loadUserByUsername(userName);
+        } finally {
+            RequestTiming.end(previous);
+        }
+    }
+
+    private boolean validateToken(Claims claims, UserDetails userDetails) {
+        int previous = RequestTiming.begin(TimingPhase.TOKEN);
+        try {
+            return jwtUtils.validateToken(claims, userDetails);
+        } finally {
+            RequestTiming.end(previous);
         }
     }
 
+    // Only rejections are audited, successful token checks happen on every request.
+    private void reject(HttpServletRequest request, HttpServletResponse response, String userName, Rejection rejection) throws IOException {
+        auditLog.record(AuditAction.TOKEN_REJECTED, userName, AuditLog.NO_SUBJECT, rejection.message() + " from " + request.getRemoteAddr());
+        writeErrorResponse(response, rejection.body());
+    }
+
     // Defining outside the filter because the overridden method directly prints the .
-    private void writeErrorResponse(HttpServletResponse response, String message) throws IOException {
+    private void writeErrorResponse(HttpServletResponse response, ErrorBody body) throws IOException {
+        byte[] bytes = body.render();
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType("application/json");
-        response.getWriter().write("{\"error\":\"" + message + "\"}");
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    // A rejection reason with its response body, serialised once (see ErrorBody).
+    private record Rejection(String message, ErrorBody body) {
+        Rejection(String message) {
+            this(message, ErrorBody.simple(message));
+        }
     }
 }
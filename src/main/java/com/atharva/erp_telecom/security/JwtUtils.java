@@ -3,6 +3,9 @@ package com.atharva.erp_telecom.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -66,12 +69,47 @@ import java.util.function.Function;
                 e.g., role: "ADMIN", customerId: 42, region: "US"
  */
 
+// Compact tokens:
+/*
+    The first tokens carried the whole Collection<GrantedAuthority> in a "roles" claim - a JSON list of
+    {"authority": "ROLE_..."} objects - and were signed with HS512, so every request sent a long Authorization
+    header that was then decoded and parsed as JSON, three times over (username, validation, expiry).
+    With erp.jwt.compact-tokens (the default) tokens are issued as
+        { "sub": "<userName>", "uid": <userId>, "ver": 2, "iat": ..., "exp": ... }   HS256
+    and a token is parsed once per request (parse + validateToken(Claims, ...)). The token carries no roles: the
+    filter loads the user anyway, and the roles it has now are the ones that count. The user id must still match the
+    user the name resolves to, so a token doesn't outlive its user being deleted and recreated under the same name.
+
+    Rollover: full-format tokens (no "ver") are still accepted until they expire, the parser verifies HS256 and
+    HS512 with the same key. The jwt.tokens{format} counter shows when the last ones are gone.
+ */
+
 @Component
 public class JwtUtils {
 
+    public static final int COMPACT_VERSION = 2;
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_VERSION = "ver";
+
     private final String JWT_SECRET_KEY = "cd4b16da2a14e803dd7efcf18e92464e77314958368634a6c5309c3042df14ca";
     private final long JWT_TOKEN_VALIDITY =  60 * 60 * 1000;
 
+    private final boolean compactTokens;
+    // Both are immutable and thread-safe, building them per call was most of the cost of a parse.
+    private final Key signKey;
+    private final JwtParser parser;
+    private final Counter compactParsed;
+    private final Counter fullParsed;
+
+    public JwtUtils(MeterRegistry meterRegistry, @Value("${erp.jwt.compact-tokens:true}") boolean compactTokens) {
+        this.compactTokens = compactTokens;
+        this.signKey = getSignKey();
+        this.parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+        this.compactParsed = Counter.builder("jwt.tokens").tag("format", "compact").register(meterRegistry);
+        this.fullParsed = Counter.builder("jwt.tokens").tag("format", "full").register(meterRegistry);
+    }
+
     // Method to generate signing-key (Object of type Key) using the secret key which Java JWT(JJWT) requires.
     private Key getSignKey() {
         return Keys.hmacShaKeyFor(JWT_SECRET_KEY.getBytes(StandardCharsets.UTF_8));
@@ -79,8 +117,13 @@ public class JwtUtils {
 
     public String generateToken(UserDetails userDetails){
         Map<String,Object> claims = new HashMap<>();
-        claims.put("roles",userDetails.getAuthorities());
-        return createToken(claims,userDetails.getUsername());
+        if (compactTokens && userDetails instanceof CustomUserDetails user && user.getUserId() != null) {
+            claims.put(CLAIM_USER_ID, user.getUserId());
+            claims.put(CLAIM_VERSION, COMPACT_VERSION);
+            return createToken(claims, userDetails.getUsername(), SignatureAlgorithm.HS256);
+        }
+        claims.put(CLAIM_ROLES,userDetails.getAuthorities());
+        return createToken(claims,userDetails.getUsername(), SignatureAlgorithm.HS512);
     }
 
     // About JJWT and JWTS
@@ -143,7 +186,7 @@ public class JwtUtils {
 
                 parserBuilder() = configure + parse/validate tokens.
      */
-    private String createToken(Map<String,Object> claims, String subject){
+    private String createToken(Map<String,Object> claims, String subject, SignatureAlgorithm algorithm){
         Date now = new Date();
         Date expiry = new Date(now.getTime() + JWT_TOKEN_VALIDITY);
 
@@ -152,22 +195,20 @@ public class JwtUtils {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSignKey(), SignatureAlgorithm.HS512)
+                .signWith(signKey, algorithm)
                 .compact();
     }
 
-    // Method to extract all the claims from the token.
-    private Claims extractAllClaims(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verifies and parses a token, once: pass the claims on instead of the token.
+    public Claims parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        (claims.containsKey(CLAIM_VERSION) ? compactParsed : fullParsed).increment();
+        return claims;
     }
 
     // Method to extract one claim from all the claims extracted above.
     public <T> T extractGenericClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parse(token);
         return claimsResolver.apply(claims);
     }
 
@@ -178,18 +219,20 @@ public class JwtUtils {
 
     // Method to validate the existing token
     public boolean validateToken(String token, UserDetails userDetails) {
-        System.out.println("Inside the validateToken method...");
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parse(token), userDetails);
+    }
+
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        if (!claims.getSubject().equals(userDetails.getUsername()) || claims.getExpiration().before(new Date())) {
+            return false;
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        return userId == null || !(userDetails instanceof CustomUserDetails user)
+                || Long.valueOf(userId.longValue()).equals(user.getUserId());
     }
 
     // Method to extract the expiration date from the token.
     public Date extractExpiration(String token) {
         return extractGenericClaim(token, Claims::getExpiration);
     }
-
-    // Method to check the token is expired.
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
 }
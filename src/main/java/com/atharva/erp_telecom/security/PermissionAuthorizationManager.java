@@ -0,0 +1,98 @@
+package com.atharva.erp_telecom.security;
+
+import com.atharva.erp_telecom.service.permission.PermissionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Checks @RequiresPermission: one AND of the principal's precomputed bitset with the method's required bits.
+/*
+    The required bits of a method are worked out from its annotations once and cached. The granted bits come from
+    the principal (PermissionHolder: users loaded by UserService, API keys). Anything else - a test's mock user, a
+    future authentication type - is resolved from its role authorities against the current PermissionRegistry
+    snapshot, which is a few map lookups instead of one AND.
+
+    With erp.permissions.enforce=false a missing permission is only logged and counted (permission.denied with
+    enforced=false), to see who would lose access before switching it on.
+    Registered in SecurityConfig, the registry and meters are looked up on first use so the advisor doesn't pull
+    the repositories into the context early.
+ */
+public class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionAuthorizationManager.class);
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final ObjectProvider<PermissionRegistry> permissionRegistry;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean enforce;
+    private final Map<Method, Long> requiredBits = new ConcurrentHashMap<>();
+    private volatile Counter denied;
+
+    public PermissionAuthorizationManager(ObjectProvider<PermissionRegistry> permissionRegistry,
+                                          ObjectProvider<MeterRegistry> meterRegistry,
+                                          boolean enforce) {
+        this.permissionRegistry = permissionRegistry;
+        this.meterRegistry = meterRegistry;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        long required = requiredBits.computeIfAbsent(targetMethod(invocation), PermissionAuthorizationManager::requiredBitsOf);
+        Authentication current = authentication.get();
+        long granted = current == null || !current.isAuthenticated() ? 0 : grantedBits(current);
+        if ((granted & required) == required) return GRANTED;
+
+        deniedCounter().increment();
+        if (enforce) return DENIED;
+        log.info("Permissions {} missing for {} on {} (not enforced)",
+                PermissionRegistry.permissionsOf(required & ~granted), current == null ? null : current.getName(),
+                invocation.getMethod().getName());
+        return GRANTED;
+    }
+
+    private long grantedBits(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof PermissionHolder holder) return holder.getPermissions();
+        return permissionRegistry.getObject().snapshot().bitsOf(authentication.getAuthorities());
+    }
+
+    private static Method targetMethod(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        return target == null ? invocation.getMethod()
+                : AopUtils.getMostSpecificMethod(invocation.getMethod(), AopUtils.getTargetClass(target));
+    }
+
+    private static long requiredBitsOf(Method method) {
+        RequiresPermission annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequiresPermission.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RequiresPermission.class);
+        }
+        return annotation == null ? 0 : PermissionRegistry.bitsOf(List.of(annotation.value()));
+    }
+
+    private Counter deniedCounter() {
+        Counter counter = denied;
+        if (counter == null) {
+            counter = Counter.builder("permission.denied").tag("enforced", String.valueOf(enforce))
+                    .register(meterRegistry.getObject());
+            denied = counter;
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,8 @@
+package com.atharva.erp_telecom.security;
+
+// A principal that carries its effective permissions, precomputed when it was authenticated (see PermissionRegistry).
+public interface PermissionHolder {
+
+    // Bitset over Permission ordinals.
+    long getPermissions();
+}
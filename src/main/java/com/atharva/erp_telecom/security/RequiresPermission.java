@@ -0,0 +1,18 @@
+package com.atharva.erp_telecom.security;
+
+import com.atharva.erp_telecom.constants.Permission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// The permissions a controller method (or every method of a controller) needs, all of them.
+// Enforced by PermissionAuthorizationManager; a method annotation replaces the class one.
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RequiresPermission {
+    Permission[] value();
+}
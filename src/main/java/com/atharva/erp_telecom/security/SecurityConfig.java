@@ -2,11 +2,23 @@ package com.atharva.erp_telecom.security;
 
 
 import com.atharva.erp_telecom.service.UserService;
+import com.atharva.erp_telecom.service.permission.PermissionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -37,8 +49,15 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
-    public SecurityConfig(JwtAuthenticationFilter jwtFilter) {
+    private final IdempotencyFilter idempotencyFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final ApiKeyAuthenticationFilter apiKeyFilter;
+    public SecurityConfig(JwtAuthenticationFilter jwtFilter, IdempotencyFilter idempotencyFilter,
+                          ConcurrencyLimitFilter concurrencyLimitFilter, ApiKeyAuthenticationFilter apiKeyFilter) {
         this.jwtFilter = jwtFilter;
+        this.idempotencyFilter = idempotencyFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+        this.apiKeyFilter = apiKeyFilter;
     }
 
     /*
@@ -62,15 +81,40 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // allow register/login without token
                         .requestMatchers("/users/register", "/users/login").permitAll()
+                        // the completion of a streamed response (change feed), the request itself was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // issuing and revoking API keys
+                        .requestMatchers("/apikeys", "/apikeys/**").hasAuthority("ROLE_ADMIN")
+                        // changing what roles may do
+                        .requestMatchers("/roles", "/roles/**").hasAuthority("ROLE_ADMIN")
                         // protect everything else
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);// stateless
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)// stateless
+                // shed load before any token parsing or user lookup is spent on the request
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
+                // machine clients with an X-API-Key never reach the JWT filter's user lookup
+                .addFilterBefore(apiKeyFilter, JwtAuthenticationFilter.class)
+                // after the JWT filter, so Idempotency-Keys are scoped to the authenticated user
+                .addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class);
 
 
         return http.build();
     }
 
+    // @RequiresPermission on controller methods, see PermissionAuthorizationManager.
+    // Static and infrastructure-role: advisors are created before ordinary beans.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requiresPermissionAdvisor(ObjectProvider<PermissionRegistry> permissionRegistry,
+                                             ObjectProvider<MeterRegistry> meterRegistry,
+                                             @Value("${erp.permissions.enforce:false}") boolean enforce) {
+        Pointcut annotated = Pointcuts.union(new AnnotationMatchingPointcut(RequiresPermission.class, true),
+                new AnnotationMatchingPointcut(null, RequiresPermission.class, true));
+        return new AuthorizationManagerBeforeMethodInterceptor(annotated,
+                new PermissionAuthorizationManager(permissionRegistry, meterRegistry, enforce));
+    }
+
     // Removed the explicitly added provider
 }
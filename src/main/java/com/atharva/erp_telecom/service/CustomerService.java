@@ -1,35 +1,151 @@
 package com.atharva.erp_telecom.service;
 
 
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.constants.OutboxConstants;
 import com.atharva.erp_telecom.entity.Customer;
 import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
 import com.atharva.erp_telecom.repository.CustomerRepository;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import com.atharva.erp_telecom.service.outbox.OutboxWriter;
+import com.atharva.erp_telecom.service.replica.ReadYourWritesTracker;
+import com.atharva.erp_telecom.service.singleflight.SingleFlight;
+import com.atharva.erp_telecom.service.sharding.ShardMap;
+import com.atharva.erp_telecom.service.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
+// Every customer read and write goes through the ShardRouter: single customers to the shard of their id (or, when
+// new, of their region), listings to all shards at once, merged back into customer id order.
+// Reads may be served by a read replica (erp.replicas.enabled), see ShardRouter.readOnShard.
 @Service
 public class CustomerService {
+
+    private static final Comparator<Customer> BY_ID = Comparator.comparingLong(Customer::getCustomerId);
+    private static final Sort SORT_BY_ID = Sort.by("customerId");
+    private static final Comparator<Customer> BY_CHANGE = Comparator.comparing(Customer::getModifiedDate).thenComparing(BY_ID);
+
     // Better practice to use dependency injection in the constructor instead of field
     private final CustomerRepository customerRepository;
+    private final OutboxWriter outboxWriter;
+    private final ShardMap shardMap;
+    private final ShardRouter shardRouter;
+    private final AuditLog auditLog;
+    private final ReadYourWritesTracker readYourWrites;
+    // Many agents opening the same account at once share one lookup.
+    private final SingleFlight<Long, Optional<Customer>> customerLoads;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository){
+    public CustomerService(CustomerRepository customerRepository, OutboxWriter outboxWriter,
+                           ShardMap shardMap, ShardRouter shardRouter, AuditLog auditLog,
+                           ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry){
         this.customerRepository = customerRepository;
+        this.outboxWriter = outboxWriter;
+        this.shardMap = shardMap;
+        this.shardRouter = shardRouter;
+        this.auditLog = auditLog;
+        this.readYourWrites = readYourWrites;
+        this.customerLoads = new SingleFlight<>("customer", meterRegistry);
     }
 
     public Optional<Customer> getCustomerById(int customerId){
-        return Optional.ofNullable(customerRepository.findById(customerId)
+        return Optional.ofNullable(findCustomerById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID:" + customerId)));
     }
 
+    public Optional<Customer> findCustomerById(long customerId){
+        Supplier<Optional<Customer>> load = () ->
+                shardRouter.readOnShard(shardMap.shardOfId(customerId), () -> customerRepository.findById((int) customerId));
+        // Someone who just wrote loads on their own: they must see their write, not join a load that may read a replica.
+        return readYourWrites.recentlyWrote(null) ? load.get() : customerLoads.load(customerId, load);
+    }
+
+    // The outbox row is written in the same transaction (and so on the same shard), so downstream systems hear
+    // about exactly the committed customers.
     public Customer createCustomer(Customer customer){
-        return customerRepository.save(customer);
+        Customer createdCustomer = shardRouter.inTransaction(shardMap.shardOf(customer), () -> {
+            Customer savedCustomer = customerRepository.save(customer);
+            outboxWriter.record(OutboxConstants.AGGREGATE_CUSTOMER, savedCustomer.getCustomerId(),
+                    OutboxConstants.CUSTOMER_CREATED, savedCustomer);
+            return savedCustomer;
+        });
+        // Audited once committed, a rolled back change never happened.
+        auditLog.record(AuditAction.CUSTOMER_CREATED, createdCustomer.getCustomerId());
+        customerLoads.forget(createdCustomer.getCustomerId());
+        return createdCustomer;
+    }
+
+    // A customer stays on the shard it was created on, a changed region does not move it.
+    public Customer updateCustomer(Customer customer){
+        Customer updatedCustomer = shardRouter.inTransaction(shardMap.shardOfId(customer.getCustomerId()), () -> applyUpdate(customer));
+        auditLog.record(AuditAction.CUSTOMER_UPDATED, updatedCustomer.getCustomerId());
+        customerLoads.forget(updatedCustomer.getCustomerId());
+        return updatedCustomer;
+    }
+
+    private Customer applyUpdate(Customer customer){
+        Customer existingCustomer = customerRepository.findById((int) customer.getCustomerId())
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID:" + customer.getCustomerId()));
+        existingCustomer.setCustomerFirstName(customer.getCustomerFirstName());
+        existingCustomer.setCustomerLastName(customer.getCustomerLastName());
+        existingCustomer.setCustomerClass(customer.getCustomerClass());
+        existingCustomer.setCustomerSubClass(customer.getCustomerSubClass());
+        existingCustomer.setCountry(customer.getCountry());
+        existingCustomer.setCountryCode(customer.getCountryCode());
+        existingCustomer.setEmail(customer.getEmail());
+        existingCustomer.setContactNumber(customer.getContactNumber());
+        existingCustomer.setGovernmentId(customer.getGovernmentId());
+        existingCustomer.setAddressLine1(customer.getAddressLine1());
+        existingCustomer.setAddressLine2(customer.getAddressLine2());
+        existingCustomer.setRegion(customer.getRegion());
+        // saveAndFlush so the payload below carries the new modifiedDate set by the auditing listener
+        Customer savedCustomer = customerRepository.saveAndFlush(existingCustomer);
+        outboxWriter.record(OutboxConstants.AGGREGATE_CUSTOMER, savedCustomer.getCustomerId(),
+                OutboxConstants.CUSTOMER_UPDATED, savedCustomer);
+        return savedCustomer;
     }
 
     public List<Customer> getAllCustomers(){
-        return customerRepository.findAll();
+        List<List<Customer>> perShard = shardRouter.readOnAllShards(shard -> customerRepository.findAll(SORT_BY_ID));
+        return perShard.size() == 1 ? perShard.get(0) : ShardRouter.mergeSorted(perShard, BY_ID, 0, Integer.MAX_VALUE);
+    }
+
+    // Page of customers in id order. Across shards every shard has to return everything up to the end of the
+    // requested page (plus one row to know whether there is a next page), deep pages are better read by keyset.
+    public Slice<Customer> getCustomerPage(int page, int size){
+        if (!shardMap.isSharded()) {
+            return shardRouter.readOnShard(ShardMap.HOME_SHARD, () -> customerRepository.findAllBy(PageRequest.of(page, size, SORT_BY_ID)));
+        }
+        int upTo = (page + 1) * size + 1;
+        List<List<Customer>> perShard = shardRouter.readOnAllShards(shard ->
+                customerRepository.findAllBy(PageRequest.of(0, upTo, SORT_BY_ID)).getContent());
+        List<Customer> merged = ShardRouter.mergeSorted(perShard, BY_ID, page * size, size + 1);
+        boolean hasNext = merged.size() > size;
+        return new SliceImpl<>(hasNext ? merged.subList(0, size) : merged, PageRequest.of(page, size, SORT_BY_ID), hasNext);
+    }
+
+    // Keyset page: the next limit customers after the given id, in id order.
+    public List<Customer> getCustomersAfter(long afterCustomerId, int limit){
+        List<List<Customer>> perShard = shardRouter.readOnAllShards(shard ->
+                customerRepository.findByCustomerIdGreaterThanOrderByCustomerIdAsc(afterCustomerId, PageRequest.of(0, limit)));
+        return perShard.size() == 1 ? perShard.get(0) : ShardRouter.mergeSorted(perShard, BY_ID, 0, limit);
+    }
+
+    // Change feed page: the next limit customers modified after (modifiedDate, customerId) and no later than upTo,
+    // in (modifiedDate, customerId) order. Read from the primaries, a lagging replica could skip changes for good.
+    public List<Customer> getChangesAfter(LocalDateTime modifiedDate, long customerId, LocalDateTime upTo, int limit){
+        List<List<Customer>> perShard = shardRouter.onAllShards(shard ->
+                customerRepository.findChangesAfter(modifiedDate, customerId, upTo, PageRequest.of(0, limit)));
+        return perShard.size() == 1 ? perShard.get(0) : ShardRouter.mergeSorted(perShard, BY_CHANGE, 0, limit);
     }
 
 }
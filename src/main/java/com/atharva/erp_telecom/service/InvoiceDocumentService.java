@@ -0,0 +1,164 @@
+package com.atharva.erp_telecom.service;
+
+
+import com.atharva.erp_telecom.constants.DocumentFormat;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.Invoice;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.atharva.erp_telecom.exception.custom_exceptions.ServiceBusyException;
+import com.atharva.erp_telecom.repository.InvoiceRepository;
+import com.atharva.erp_telecom.service.invoice.DocumentLookup;
+import com.atharva.erp_telecom.service.invoice.InvoiceRenderer;
+import com.atharva.erp_telecom.service.invoice.RenderJob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Renders invoice documents on a bounded worker pool instead of the request thread.
+/*
+    - The request thread only loads the invoice, computes its content fingerprint and checks the disk cache.
+    - A miss enqueues one RenderJob per invoice + format, concurrent requests for the same document share it.
+    - Finished documents are written to <cache-dir>/<first 2 chars of fingerprint>/<fingerprint>.<ext>, so a
+      document is rendered once per distinct content and template version and then served straight from disk.
+    - When the queue is full the request is refused with 503 rather than queued without bound.
+ */
+@Service
+public class InvoiceDocumentService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceDocumentService.class);
+
+    private final InvoiceRepository invoiceRepository;
+    private final CustomerService customerService;
+    private final InvoiceRenderer renderer;
+    private final Path cacheDirectory;
+    private final ThreadPoolExecutor workers;
+    private final ConcurrentMap<String, RenderJob> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter cacheHits;
+    private final Counter enqueued;
+    private final Counter deduplicated;
+    private final Counter rejected;
+    private final Counter failures;
+    private final Timer renderTimer;
+
+    public InvoiceDocumentService(InvoiceRepository invoiceRepository,
+                                  CustomerService customerService,
+                                  InvoiceRenderer renderer,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${erp.invoice.render.threads:4}") int threads,
+                                  @Value("${erp.invoice.render.queue-capacity:500}") int queueCapacity,
+                                  @Value("${erp.invoice.render.cache-dir:documents/invoices}") String cacheDirectory) {
+        this.invoiceRepository = invoiceRepository;
+        this.customerService = customerService;
+        this.renderer = renderer;
+        this.cacheDirectory = Paths.get(cacheDirectory).toAbsolutePath().normalize();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "invoice-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.cacheHits = requests(meterRegistry, "cache_hit");
+        this.enqueued = requests(meterRegistry, "enqueued");
+        this.deduplicated = requests(meterRegistry, "deduplicated");
+        this.rejected = requests(meterRegistry, "rejected");
+        this.failures = Counter.builder("invoice.render.failures").register(meterRegistry);
+        this.renderTimer = Timer.builder("invoice.render.duration")
+                .description("Time spent rendering and storing one invoice document")
+                .register(meterRegistry);
+        Gauge.builder("invoice.render.queue.depth", workers, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("invoice.render.active", workers, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public DocumentLookup requestDocument(long invoiceId, DocumentFormat format) {
+        Invoice invoice = invoiceRepository.findById(invoiceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice not found with ID:" + invoiceId));
+        Customer customer = customerService.findCustomerById(invoice.getCustomerId()).orElse(null);
+        Map<String, String> model = renderer.model(invoice, customer);
+        String fingerprint = renderer.fingerprint(format, model);
+
+        Path file = pathFor(fingerprint, format);
+        if (Files.exists(file)) {
+            cacheHits.increment();
+            return DocumentLookup.ready(file, fingerprint);
+        }
+
+        String key = invoiceId + ":" + format.name();
+        RenderJob existing = inFlight.get(key);
+        if (existing != null && existing.getState() == RenderJob.State.FAILED && inFlight.remove(key, existing)) {
+            // Report the failure once, the next request for the document starts a fresh attempt.
+            throw new IllegalStateException("Rendering invoice " + invoiceId + " failed: " + existing.getFailure());
+        }
+        try {
+            RenderJob job = inFlight.compute(key, (k, current) -> {
+                if (current != null && current.getFingerprint().equals(fingerprint)) {
+                    deduplicated.increment();
+                    return current;
+                }
+                RenderJob created = new RenderJob(invoiceId, format, fingerprint, model);
+                workers.execute(() -> render(key, created));
+                enqueued.increment();
+                return created;
+            });
+            return DocumentLookup.pending(job);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Invoice rendering queue is full, please retry shortly.");
+        }
+    }
+
+    private void render(String key, RenderJob job) {
+        job.setState(RenderJob.State.RENDERING);
+        long start = System.nanoTime();
+        try {
+            byte[] document = renderer.render(job.getFormat(), job.getModel());
+            Path target = pathFor(job.getFingerprint(), job.getFormat());
+            Files.createDirectories(target.getParent());
+            // Written next to the target and moved in, so a reader never sees a half written document.
+            Path temp = Files.createTempFile(target.getParent(), job.getFingerprint(), ".tmp");
+            Files.write(temp, document);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            inFlight.remove(key, job);
+        } catch (IOException | RuntimeException e) {
+            log.error("Rendering {} for invoice {} failed", job.getFormat(), job.getInvoiceId(), e);
+            failures.increment();
+            job.fail(e.getMessage());
+        } finally {
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Path pathFor(String fingerprint, DocumentFormat format) {
+        return cacheDirectory.resolve(fingerprint.substring(0, 2)).resolve(fingerprint + "." + format.getExtension());
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("invoice.render.requests").tag("result", result).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
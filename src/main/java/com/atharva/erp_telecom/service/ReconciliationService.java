@@ -0,0 +1,105 @@
+package com.atharva.erp_telecom.service;
+
+
+import com.atharva.erp_telecom.constants.ReconciliationConstants;
+import com.atharva.erp_telecom.entity.ReconciliationRun;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.atharva.erp_telecom.repository.ReconciliationRunRepository;
+import com.atharva.erp_telecom.service.reconciliation.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs settlement files dropped in the inbox directory through the ReconciliationEngine.
+// Runs are executed one at a time on a background thread, the caller gets the RUNNING row back immediately.
+@Service
+public class ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private final ReconciliationRunRepository runRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Path inboxDirectory;
+    private final ReconciliationSettings settings;
+    private final int batchSize;
+    private final int fetchSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReconciliationService(ReconciliationRunRepository runRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${erp.reconciliation.inbox-dir:settlements/inbox}") String inboxDirectory,
+                                 @Value("${erp.reconciliation.spill-dir:${java.io.tmpdir}/erp-reconciliation}") String spillDirectory,
+                                 @Value("${erp.reconciliation.spill-threshold:1000000}") int spillThreshold,
+                                 @Value("${erp.reconciliation.amount-tolerance-minor:100}") long amountToleranceMinor,
+                                 @Value("${erp.reconciliation.date-tolerance-days:5}") int dateToleranceDays,
+                                 @Value("${erp.reconciliation.batch-size:1000}") int batchSize,
+                                 @Value("${erp.reconciliation.fetch-size:5000}") int fetchSize) {
+        this.runRepository = runRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.inboxDirectory = Paths.get(inboxDirectory).toAbsolutePath().normalize();
+        this.settings = new ReconciliationSettings(spillThreshold, amountToleranceMinor, dateToleranceDays, Paths.get(spillDirectory));
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    public ReconciliationRun startRun(String fileName) {
+        Path settlementFile = inboxDirectory.resolve(fileName).normalize();
+        // Only plain file names from the inbox are accepted, nothing that climbs out of it.
+        if (!settlementFile.getParent().equals(inboxDirectory) || !Files.isRegularFile(settlementFile)) {
+            throw new ResourceNotFoundException("Settlement file not found: " + fileName);
+        }
+        ReconciliationRun run = new ReconciliationRun();
+        run.setSourceFile(settlementFile.getFileName().toString());
+        run.setStartedAt(LocalDateTime.now());
+        ReconciliationRun savedRun = runRepository.save(run);
+        executor.submit(() -> execute(savedRun, settlementFile));
+        return savedRun;
+    }
+
+    public ReconciliationRun getRun(long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found with ID:" + runId));
+    }
+
+    private void execute(ReconciliationRun run, Path settlementFile) {
+        try {
+            ReconciliationSummary summary = new ReconciliationEngine(settings).reconcile(
+                    new JdbcOpenItemSource(jdbcTemplate, fetchSize),
+                    settlementFile,
+                    new JdbcReconciliationSink(jdbcTemplate, run.getRunId(), batchSize));
+            run.setTotalLines(summary.getTotalLines());
+            run.setRejectedLines(summary.getRejectedLines());
+            run.setMatchedCount(summary.getMatched());
+            run.setPartialCount(summary.getPartial());
+            run.setUnmatchedCount(summary.getUnmatched());
+            run.setSpillPartitions(summary.getPartitions());
+            run.setStatus(ReconciliationConstants.RUN_COMPLETED);
+            log.info("Reconciliation run {} of {} finished: {}", run.getRunId(), run.getSourceFile(), summary);
+        } catch (Exception e) {
+            log.error("Reconciliation run {} of {} failed", run.getRunId(), run.getSourceFile(), e);
+            run.setStatus(ReconciliationConstants.RUN_FAILED);
+            run.setFailureReason(String.valueOf(e.getMessage()));
+        }
+        run.setFinishedAt(LocalDateTime.now());
+        runRepository.save(run);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
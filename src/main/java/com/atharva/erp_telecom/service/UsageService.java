@@ -0,0 +1,192 @@
+package com.atharva.erp_telecom.service;
+
+
+import com.atharva.erp_telecom.constants.RollupGranularity;
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.dto.UsageEvent;
+import com.atharva.erp_telecom.dto.UsageSummary;
+import com.atharva.erp_telecom.entity.UsageRollup;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.repository.UsageRollupRepository;
+import com.atharva.erp_telecom.service.fraud.FraudDetectionService;
+import com.atharva.erp_telecom.service.promotion.PromotionService;
+import com.atharva.erp_telecom.service.usage.UsageCounterMap;
+import com.atharva.erp_telecom.service.usage.UsageRollupAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Feeds usage events into the in-memory rollups and periodically writes them to usage_rollup.
+// The current hour / day / month is answered from memory, anything older from the rollup table.
+@Service
+public class UsageService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsageService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO usage_rollup (customer_id, service_type, granularity, period_start, quantity, event_count) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), event_count = event_count + VALUES(event_count)";
+
+    private static final ServiceType[] SERVICE_TYPES = ServiceType.values();
+
+    private final UsageRollupAggregator aggregator;
+    private final UsageRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PromotionService promotionService;
+    private final FraudDetectionService fraudDetectionService;
+    private final int batchSize;
+    private final Clock clock;
+
+    public UsageService(UsageRollupRepository rollupRepository,
+                        JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        PromotionService promotionService,
+                        FraudDetectionService fraudDetectionService,
+                        @Value("${erp.usage.billing-offset:Z}") String billingOffset,
+                        @Value("${erp.usage.expected-customers:100000}") int expectedCustomers,
+                        @Value("${erp.usage.flush-batch-size:1000}") int batchSize) {
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.promotionService = promotionService;
+        this.fraudDetectionService = fraudDetectionService;
+        this.batchSize = batchSize;
+        this.clock = Clock.systemUTC();
+        this.aggregator = new UsageRollupAggregator(ZoneOffset.of(billingOffset), expectedCustomers);
+    }
+
+    public int ingest(List<UsageEvent> events) {
+        long now = clock.instant().getEpochSecond();
+        // Validate up front so a bad record rejects the batch before anything is counted.
+        int[] codes = new int[events.size()];
+        for (int i = 0; i < codes.length; i++) {
+            UsageEvent event = events.get(i);
+            if (event.getQuantity() < 0) {
+                throw new InvalidRequestException("Usage quantity cannot be negative for customer " + event.getCustomerId());
+            }
+            codes[i] = serviceType(event.getServiceType()).code();
+        }
+        aggregator.lock();
+        try {
+            for (int i = 0; i < codes.length; i++) {
+                UsageEvent event = events.get(i);
+                long eventTime = event.getEventTime() == null ? now : event.getEventTime().getEpochSecond();
+                // promotion thresholds are on month-to-date usage, read before the event is added to it
+                long usageBefore = aggregator.monthToDateLocked(event.getCustomerId(), codes[i], eventTime);
+                aggregator.recordLocked(event.getCustomerId(), codes[i], event.getQuantity(), eventTime);
+                promotionService.applyLocked(event.getCustomerId(), codes[i], usageBefore, event.getQuantity(), eventTime);
+            }
+        } finally {
+            aggregator.unlock();
+        }
+        fraudDetectionService.observe(events, codes, now);
+        return codes.length;
+    }
+
+    // Usage of the customer for the current period plus (periods - 1) earlier ones, newest first.
+    public List<UsageSummary> getUsage(long customerId, RollupGranularity granularity, int periods) {
+        if (periods < 1) throw new InvalidRequestException("periods must be at least 1");
+        long now = clock.instant().getEpochSecond();
+        UsageRollupAggregator.CurrentUsage current = aggregator.current(granularity, customerId, now, SERVICE_TYPES.length);
+
+        List<UsageSummary> usage = new ArrayList<>();
+        for (ServiceType type : SERVICE_TYPES) {
+            long quantity = current.quantity(type.code());
+            if (quantity > 0 || current.count(type.code()) > 0) {
+                usage.add(new UsageSummary(current.getPeriodStart(), granularity.name(), type.name(),
+                        quantity, current.count(type.code()), true));
+            }
+        }
+        if (periods > 1) {
+            LocalDateTime from = minusPeriods(current.getPeriodStart(), granularity, periods - 1);
+            for (UsageRollup rollup : rollupRepository.findPeriods(customerId, granularity.name(), from, current.getPeriodStart())) {
+                usage.add(new UsageSummary(rollup.getPeriodStart(), rollup.getGranularity(), rollup.getServiceType(),
+                        rollup.getQuantity(), rollup.getEventCount(), false));
+            }
+        }
+        return usage;
+    }
+
+    @Scheduled(fixedDelayString = "${erp.usage.flush-interval-ms:5000}")
+    public void flush() {
+        List<UsageRollupAggregator.PendingRollup> pending = aggregator.drainPending();
+        if (pending.isEmpty()) return;
+        try {
+            // One transaction per flush: either every counter lands or none does and they are all retried.
+            transactionTemplate.executeWithoutResult(status -> write(pending));
+        } catch (RuntimeException e) {
+            log.warn("Usage rollup flush failed, {} periods will be retried", pending.size(), e);
+            aggregator.restore(pending);
+        }
+    }
+
+    // Reloads the current periods written by a previous run so "so far" figures survive a restart.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long now = clock.instant().getEpochSecond();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime periodStart = aggregator.currentPeriodStart(granularity, now);
+            for (UsageRollup rollup : rollupRepository.findByGranularityAndPeriodStart(granularity.name(), periodStart)) {
+                aggregator.seedCurrent(granularity, aggregator.toLocalEpochSecond(periodStart),
+                        UsageCounterMap.key(rollup.getCustomerId(), ServiceType.valueOf(rollup.getServiceType()).code()),
+                        rollup.getQuantity(), rollup.getEventCount());
+            }
+        }
+    }
+
+    private void write(List<UsageRollupAggregator.PendingRollup> pending) {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (UsageRollupAggregator.PendingRollup rollup : pending) {
+            String granularity = rollup.getGranularity().name();
+            Timestamp periodStart = Timestamp.valueOf(aggregator.toDateTime(rollup.getPeriodStart()));
+            rollup.getCounters().forEach((key, quantity, count) -> {
+                batch.add(new Object[]{
+                        UsageCounterMap.customerId(key),
+                        ServiceType.fromCode(UsageCounterMap.serviceTypeCode(key)).name(),
+                        granularity,
+                        periodStart,
+                        quantity,
+                        count
+                });
+                if (batch.size() >= batchSize) {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+                    batch.clear();
+                }
+            });
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    private static ServiceType serviceType(String name) {
+        if (name != null) {
+            for (ServiceType type : SERVICE_TYPES) {
+                if (type.name().equalsIgnoreCase(name)) return type;
+            }
+        }
+        throw new InvalidRequestException("Unknown service type: " + name);
+    }
+
+    private static LocalDateTime minusPeriods(LocalDateTime periodStart, RollupGranularity granularity, int periods) {
+        switch (granularity) {
+            case HOUR:
+                return periodStart.minusHours(periods);
+            case DAY:
+                return periodStart.minusDays(periods);
+            default:
+                return periodStart.minusMonths(periods);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.atharva.erp_telecom.service;
 
 
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.constants.OutboxConstants;
 import com.atharva.erp_telecom.dto.RegisterResponse;
 import com.atharva.erp_telecom.entity.Roles;
 import com.atharva.erp_telecom.entity.Users;
@@ -9,14 +11,21 @@ import com.atharva.erp_telecom.exception.custom_exceptions.UserAlreadyExistsExce
 import com.atharva.erp_telecom.repository.RolesRepository;
 import com.atharva.erp_telecom.repository.UserRepository;
 import com.atharva.erp_telecom.security.JwtUtils;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import com.atharva.erp_telecom.service.outbox.OutboxWriter;
+import com.atharva.erp_telecom.service.replica.ReadYourWritesTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.management.relation.RoleNotFoundException;
 import java.util.*;
@@ -33,17 +42,24 @@ public class UserAuthService {
     private final AuthenticationManager authenticationManager;  // injected from the SecurityConfig class
     private final UserService userService;
     private final JwtUtils jwtUtils;
+    private final OutboxWriter outboxWriter;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AuditLog auditLog;
 
-    public UserAuthService(UserRepository userRepository, RolesRepository rolesRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, UserService userService, JwtUtils jwtUtils) {
+    public UserAuthService(UserRepository userRepository, RolesRepository rolesRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, UserService userService, JwtUtils jwtUtils, OutboxWriter outboxWriter, ReadYourWritesTracker readYourWrites, AuditLog auditLog) {
         this.userRepository = userRepository;
         this.rolesRepository = rolesRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtUtils = jwtUtils;
+        this.outboxWriter = outboxWriter;
+        this.readYourWrites = readYourWrites;
+        this.auditLog = auditLog;
     }
 
     // Method to register a new user.
+    @Transactional
     public RegisterResponse registerNewUser(Users user, Set<String> roleNames) {
         // Check if user already exists
         if (userRepository.existsByUserName(user.getUserName())) {
@@ -64,9 +80,35 @@ public class UserAuthService {
                         .collect(Collectors.toSet());
         user.setRoles(rolesSetToBeChecked);
         Users savedUser = userRepository.save(user);
+        outboxWriter.record(OutboxConstants.AGGREGATE_USER, savedUser.getUserId(),
+                OutboxConstants.USER_REGISTERED, registeredUserPayload(savedUser));
+        // Audited once committed, like a customer change: a registration that rolls back never happened, and a
+        // cache forgotten before the commit could be refilled with the "no such user" of the old snapshot.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The new user logs in next, before a replica may have the row: keep their reads on the primary for a while.
+                readYourWrites.recordWrite(savedUser.getUserName());
+                userService.forget(savedUser.getUserName());
+                auditLog.record(AuditAction.REGISTER, savedUser.getUserName(), savedUser.getUserId(), null);
+            }
+        });
         return new RegisterResponse("User with username:" + savedUser.getUserName() + " created successfully.");
     }
 
+    // Never put the password hash on the wire, downstream systems only need the identity and roles.
+    private Map<String, Object> registeredUserPayload(Users user) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", user.getUserId());
+        payload.put("userName", user.getUserName());
+        payload.put("userFirstName", user.getUserFirstName());
+        payload.put("userLastName", user.getUserLastName());
+        payload.put("customerId", user.getCustomerId());
+        payload.put("enabled", user.getEnabled());
+        payload.put("roles", user.getRoles().stream().map(Roles::getRoleName).sorted().collect(Collectors.toList()));
+        return payload;
+    }
+
     // Authenticate existing user and return a JWT token
     public String authenticate(String username, String password) {
         // NOTE:
@@ -74,18 +116,22 @@ public class UserAuthService {
             This authentication manager is responsible for checking if the credentials match or not. It implicitly calls
             the wrapper UserService Service and findByUserName() method
          */
-        System.out.println("Before authenticating...");
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(username, password)
             );
         } catch (BadCredentialsException e) {
+            auditLog.record(AuditAction.LOGIN_FAILED, username, AuditLog.NO_SUBJECT, "bad credentials");
             throw new InvalidCredentialsException("Invalid username or password, please verify.");
+        } catch (AuthenticationException e) {
+            // disabled, locked, ... accounts
+            auditLog.record(AuditAction.LOGIN_FAILED, username, AuditLog.NO_SUBJECT, e.getClass().getSimpleName());
+            throw e;
         }
-        System.out.println("After authenticating...");
-        UserDetails userDetails = userService.loadUserByUsername(username);
-        String token = jwtUtils.generateToken(userDetails);
-        System.out.println("Token: "+ token);
-        return token;
+        // The provider already loaded the user to check the password, reuse it instead of a second lookup.
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        auditLog.record(AuditAction.LOGIN, userDetails.getUsername(), AuditLog.NO_SUBJECT, null);
+        return jwtUtils.generateToken(userDetails);
     }
 }
@@ -1,9 +1,16 @@
 package com.atharva.erp_telecom.service;
 
 
+import com.atharva.erp_telecom.entity.Roles;
 import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.exception.custom_exceptions.UnknownUserException;
 import com.atharva.erp_telecom.repository.UserRepository;
 import com.atharva.erp_telecom.security.CustomUserDetails;
+import com.atharva.erp_telecom.service.permission.PermissionRegistry;
+import com.atharva.erp_telecom.service.sharding.ShardMap;
+import com.atharva.erp_telecom.service.sharding.ShardRouter;
+import com.atharva.erp_telecom.service.singleflight.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,16 +24,36 @@ import java.util.Optional;
 @Service
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final PermissionRegistry permissionRegistry;
+    // A token burst for the same (service) account shares one lookup.
+    private final SingleFlight<String, Users> userLoads;
     @Autowired
-    public UserService(UserRepository userRepository){
+    public UserService(UserRepository userRepository, ShardRouter shardRouter, PermissionRegistry permissionRegistry,
+                       MeterRegistry meterRegistry){
         this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.permissionRegistry = permissionRegistry;
+        this.userLoads = new SingleFlight<>("user", meterRegistry);
     }
     // This method is only used to fetch the UserData
+    // Runs on every authenticated request, so it may be served by a read replica (unless this user just wrote).
     @Override
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
-        Users user = userRepository.findByUserName(userName)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userName));
-        return new CustomUserDetails(user);
+        Users user = userLoads.load(userName, () ->
+                shardRouter.readOnShard(ShardMap.HOME_SHARD, userName, () -> userRepository.findByUserName(userName))
+                        .orElseThrow(() -> new UnknownUserException("User not found: " + userName)));
+        // per caller, not inside the shared load: a caller that joined a load started before a permission change
+        // still gets the new permissions
+        PermissionRegistry.Snapshot permissions = permissionRegistry.snapshot();
+        long granted = 0;
+        for (Roles role : user.getRoles()) granted |= permissions.bitsOf(role.getRoleName());
+        return new CustomUserDetails(user, granted);
+    }
+
+    // After a change to the user: later lookups must not join one that started before it.
+    public void forget(String userName) {
+        userLoads.forget(userName);
     }
 
     public String createUser(Users user){
@@ -0,0 +1,176 @@
+package com.atharva.erp_telecom.service.apikey;
+
+import com.atharva.erp_telecom.entity.ApiKey;
+import com.atharva.erp_telecom.repository.ApiKeyRepository;
+import com.atharva.erp_telecom.service.permission.PermissionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory index of the enabled API keys, so authenticating a machine client needs no database and no BCrypt.
+/*
+    An API key is "<keyId>.<secret>". The key id is public and finds the entry; the secret is checked by computing
+    HMAC-SHA256(erp.apikeys.hmac-key, secret) and comparing it with the stored hash in constant time
+    (MessageDigest.isEqual). Secrets are 256 random bits, so a fast keyed hash is as safe here as BCrypt is for
+    passwords, and costs microseconds instead of ~100 ms.
+
+    The index is loaded at startup and swapped as a whole (an immutable map behind a volatile field) after every
+    change made through ApiKeyService, and every erp.apikeys.sync-interval-ms to pick up changes made by other
+    instances. The same sync writes the per-key request counts, kept in memory on the hot path, to the api_key
+    table. Each key also has an apikey.requests{key} counter.
+    A key's effective permissions are worked out once per PermissionRegistry snapshot and kept on its principal.
+ */
+@Component
+public class ApiKeyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyIndex.class);
+
+    public static final String PRINCIPAL_PREFIX = "apikey:";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final MeterRegistry meterRegistry;
+    private final PermissionRegistry permissionRegistry;
+    private final SecretKeySpec hmacKey;
+    private final ThreadLocal<Mac> macs;
+    private volatile Map<String, Entry> entries = Map.of();
+
+    public ApiKeyIndex(ApiKeyRepository apiKeyRepository,
+                       MeterRegistry meterRegistry,
+                       PermissionRegistry permissionRegistry,
+                       @Value("${erp.apikeys.hmac-key}") String hmacKey) {
+        if (hmacKey.length() < 32) {
+            throw new IllegalStateException("erp.apikeys.hmac-key must be at least 32 characters");
+        }
+        this.apiKeyRepository = apiKeyRepository;
+        this.meterRegistry = meterRegistry;
+        this.permissionRegistry = permissionRegistry;
+        this.hmacKey = new SecretKeySpec(hmacKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @PostConstruct
+    public void load() {
+        Map<String, Entry> previous = entries;
+        Map<String, Entry> loaded = new HashMap<>();
+        for (ApiKey apiKey : apiKeyRepository.findByEnabledTrue()) {
+            Entry existing = previous.get(apiKey.getKeyId());
+            // keep the counters of keys that stay, their unflushed usage would be lost otherwise
+            loaded.put(apiKey.getKeyId(), existing != null ? existing : new Entry(apiKey, meterRegistry));
+        }
+        entries = Map.copyOf(loaded);
+        // usage of keys that are gone still has to reach the table
+        previous.values().stream().filter(entry -> !loaded.containsKey(entry.keyId)).forEach(this::flush);
+        log.debug("{} API keys loaded", loaded.size());
+    }
+
+    // The authentication for a presented API key, or null when it is unknown, revoked or the secret is wrong.
+    public Authentication authenticate(String presentedKey) {
+        int separator = presentedKey.indexOf('.');
+        if (separator <= 0) return null;
+        Entry entry = entries.get(presentedKey.substring(0, separator));
+        if (entry == null) return null;
+        byte[] presentedHash = hash(presentedKey.substring(separator + 1));
+        if (!MessageDigest.isEqual(presentedHash, entry.secretHash)) return null;
+        entry.used();
+        return UsernamePasswordAuthenticationToken.authenticated(principalOf(entry), null, entry.authorities);
+    }
+
+    private ApiKeyPrincipal principalOf(Entry entry) {
+        ApiKeyPrincipal principal = entry.principal;
+        PermissionRegistry.Snapshot permissions = permissionRegistry.snapshot();
+        if (principal == null || principal.permissionsVersion() != permissions.version()) {
+            principal = new ApiKeyPrincipal(PRINCIPAL_PREFIX + entry.keyId, permissions.bitsOf(entry.authorities),
+                    permissions.version());
+            entry.principal = principal;
+        }
+        return principal;
+    }
+
+    // HMAC of a secret, as stored in api_key.secret_hash.
+    public String hashForStorage(String secret) {
+        return HexFormat.of().formatHex(hash(secret));
+    }
+
+    @Scheduled(fixedDelayString = "${erp.apikeys.sync-interval-ms:60000}",
+            initialDelayString = "${erp.apikeys.sync-interval-ms:60000}")
+    public void sync() {
+        entries.values().forEach(this::flush);
+        load();
+    }
+
+    private void flush(Entry entry) {
+        long requests = entry.pendingUsage.sumThenReset();
+        if (requests == 0) return;
+        try {
+            apiKeyRepository.addUsage(entry.keyId, requests,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.lastUsedMillis), ZoneId.systemDefault()));
+        } catch (RuntimeException e) {
+            // counted again on the next sync
+            entry.pendingUsage.add(requests);
+            log.warn("Saving the usage of API key {} failed: {}", entry.keyId, e.toString());
+        }
+    }
+
+    private byte[] hash(String secret) {
+        return macs.get().doFinal(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final String keyId;
+        private final byte[] secretHash;
+        private final List<GrantedAuthority> authorities;
+        private final LongAdder pendingUsage = new LongAdder();
+        private final Counter requests;
+        private volatile long lastUsedMillis;
+        private volatile ApiKeyPrincipal principal;
+
+        Entry(ApiKey apiKey, MeterRegistry meterRegistry) {
+            this.keyId = apiKey.getKeyId();
+            this.secretHash = HexFormat.of().parseHex(apiKey.getSecretHash());
+            this.authorities = ApiKeyService.roleNames(apiKey.getRoles()).stream()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
+            this.requests = Counter.builder("apikey.requests").tag("key", keyId).register(meterRegistry);
+        }
+
+        void used() {
+            pendingUsage.increment();
+            requests.increment();
+            lastUsedMillis = System.currentTimeMillis();
+        }
+    }
+}
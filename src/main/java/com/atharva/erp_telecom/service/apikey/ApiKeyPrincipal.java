@@ -0,0 +1,25 @@
+package com.atharva.erp_telecom.service.apikey;
+
+import com.atharva.erp_telecom.security.PermissionHolder;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// The principal of an API-key request, "apikey:<keyId>", with the key's effective permissions as of
+// PermissionRegistry snapshot permissionsVersion.
+public record ApiKeyPrincipal(String name, long permissions, long permissionsVersion)
+        implements AuthenticatedPrincipal, PermissionHolder {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getPermissions() {
+        return permissions;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,95 @@
+package com.atharva.erp_telecom.service.apikey;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.dto.IssuedApiKey;
+import com.atharva.erp_telecom.entity.ApiKey;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.atharva.erp_telecom.exception.custom_exceptions.RoleNotFoundException;
+import com.atharva.erp_telecom.repository.ApiKeyRepository;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Issues and revokes the API keys of machine clients. The full key is only ever returned by issue(), afterwards
+// only its HMAC exists (see ApiKeyIndex).
+@Service
+public class ApiKeyService {
+
+    private static final String KEY_ID_PREFIX = "ak_";
+    private static final int KEY_ID_BYTES = 10;
+    private static final int SECRET_BYTES = 32;
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final RolesRepository rolesRepository;
+    private final ApiKeyIndex apiKeyIndex;
+    private final AuditLog auditLog;
+    private final SecureRandom random = new SecureRandom();
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository, RolesRepository rolesRepository, ApiKeyIndex apiKeyIndex,
+                         AuditLog auditLog) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.rolesRepository = rolesRepository;
+        this.apiKeyIndex = apiKeyIndex;
+        this.auditLog = auditLog;
+    }
+
+    // Creates a key for the client scoped to the given roles, which must exist.
+    public IssuedApiKey issue(String clientName, Set<String> roles) {
+        if (clientName == null || clientName.isBlank() || clientName.length() > 100) {
+            throw new InvalidRequestException("clientName must be 1 to 100 characters");
+        }
+        if (roles == null || roles.isEmpty()) throw new InvalidRequestException("An API key needs at least one role");
+        Set<String> roleNames = new TreeSet<>(roles);
+        for (String role : roleNames) {
+            if (rolesRepository.findByRoleName(role).isEmpty()) throw new RoleNotFoundException("Role not found:" + role);
+        }
+
+        String keyId = KEY_ID_PREFIX + HexFormat.of().formatHex(randomBytes(KEY_ID_BYTES));
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes(SECRET_BYTES));
+        ApiKey apiKey = new ApiKey();
+        apiKey.setKeyId(keyId);
+        apiKey.setClientName(clientName);
+        apiKey.setSecretHash(apiKeyIndex.hashForStorage(secret));
+        apiKey.setRoles(String.join(",", roleNames));
+        apiKey.setCreatedAt(LocalDateTime.now());
+        apiKeyRepository.save(apiKey);
+        apiKeyIndex.load();
+        auditLog.record(AuditAction.API_KEY_ISSUED, AuditLog.NO_SUBJECT, keyId + " for " + clientName);
+        return new IssuedApiKey(keyId, clientName, List.copyOf(roleNames), keyId + "." + secret);
+    }
+
+    public void revoke(String keyId) {
+        ApiKey apiKey = apiKeyRepository.findById(keyId)
+                .orElseThrow(() -> new ResourceNotFoundException("API key not found with ID:" + keyId));
+        if (!apiKey.isEnabled()) return;
+        apiKey.setEnabled(false);
+        apiKey.setRevokedAt(LocalDateTime.now());
+        apiKeyRepository.save(apiKey);
+        apiKeyIndex.load();
+        auditLog.record(AuditAction.API_KEY_REVOKED, AuditLog.NO_SUBJECT, keyId);
+    }
+
+    public List<ApiKey> listKeys() {
+        return apiKeyRepository.findAll();
+    }
+
+    static List<String> roleNames(String roles) {
+        return Arrays.stream(roles.split(",")).map(String::trim).filter(role -> !role.isEmpty()).toList();
+    }
+
+    private byte[] randomBytes(int count) {
+        byte[] bytes = new byte[count];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,163 @@
+package com.atharva.erp_telecom.service.audit;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.constants.AuditOverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Audit trail of logins, failed logins, registrations, rejected tokens and customer changes.
+/*
+    Request threads only put the event into an AuditRingBuffer, a single "audit-writer" thread drains it in batches
+    into the compressed segment files (AuditSegments), so auditing costs the hot path a CAS instead of a DB insert.
+    When the writer falls behind and the buffer is full erp.audit.overflow-policy decides:
+        DROP  -> the record is lost and counted in audit.events{outcome=dropped},
+        BLOCK -> the request waits for room, at most erp.audit.block-timeout-ms, then drops.
+    Records still in the buffer are written on shutdown. Query the segments with AuditQuery.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    public static final long NO_SUBJECT = -1;
+
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FAILURE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final boolean enabled;
+    private final AuditRingBuffer buffer;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final AuditSegments.Writer writer;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Counter blocked;
+    private final Counter writeFailures;
+
+    public AuditLog(MeterRegistry meterRegistry,
+                    @Value("${erp.audit.enabled:true}") boolean enabled,
+                    @Value("${erp.audit.dir:audit}") String directory,
+                    @Value("${erp.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${erp.audit.overflow-policy:DROP}") AuditOverflowPolicy overflowPolicy,
+                    @Value("${erp.audit.block-timeout-ms:100}") long blockTimeoutMillis,
+                    @Value("${erp.audit.rotation-minutes:60}") long rotationMinutes) throws IOException {
+        this.enabled = enabled;
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.writer = enabled ? new AuditSegments.Writer(Paths.get(directory).toAbsolutePath(),
+                TimeUnit.MINUTES.toMillis(rotationMinutes)) : null;
+        this.writerThread = new Thread(this::drainLoop, "audit-writer");
+        writerThread.setDaemon(true);
+
+        this.recorded = Counter.builder("audit.events").tag("outcome", "recorded").register(meterRegistry);
+        this.dropped = Counter.builder("audit.events").tag("outcome", "dropped").register(meterRegistry);
+        this.blocked = Counter.builder("audit.events.blocked")
+                .description("Records that had to wait for room in the audit buffer").register(meterRegistry);
+        this.writeFailures = Counter.builder("audit.write.failures").register(meterRegistry);
+        Gauge.builder("audit.buffer.used", buffer, AuditRingBuffer::size).register(meterRegistry);
+        Gauge.builder("audit.buffer.capacity", buffer, AuditRingBuffer::capacity).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) writerThread.start();
+    }
+
+    // Record on behalf of the authenticated user, if any.
+    public void record(AuditAction action, long subjectId) {
+        record(action, currentUser(), subjectId, null);
+    }
+
+    public void record(AuditAction action, long subjectId, String detail) {
+        record(action, currentUser(), subjectId, detail);
+    }
+
+    public void record(AuditAction action, String userName, long subjectId, String detail) {
+        if (!enabled) return;
+        long sequence = buffer.tryClaim();
+        if (sequence < 0) sequence = onFull();
+        if (sequence < 0) return;
+        AuditRingBuffer.Slot slot = buffer.slot(sequence);
+        slot.timestamp = System.currentTimeMillis();
+        slot.action = action;
+        slot.userName = userName;
+        slot.subjectId = subjectId;
+        slot.detail = detail;
+        buffer.publish(sequence);
+        recorded.increment();
+    }
+
+    private long onFull() {
+        if (overflowPolicy == AuditOverflowPolicy.BLOCK && running) {
+            blocked.increment();
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline && running) {
+                LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+                long sequence = buffer.tryClaim();
+                if (sequence >= 0) return sequence;
+            }
+        }
+        dropped.increment();
+        return -1;
+    }
+
+    private void drainLoop() {
+        while (running || buffer.size() > 0) {
+            try {
+                if (buffer.drain(writer::append, DRAIN_BATCH) > 0) {
+                    writer.flush();
+                } else {
+                    writer.rotateIfDue(System.currentTimeMillis());
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException | RuntimeException e) {
+                // The record that failed stays in the buffer and is retried in a fresh segment.
+                writeFailures.increment();
+                log.error("Writing the audit log failed, retrying", e);
+                closeQuietly();
+                if (!running) return;
+                LockSupport.parkNanos(FAILURE_BACKOFF_NANOS);
+            }
+        }
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Closing the audit segment failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (enabled) writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,48 @@
+package com.atharva.erp_telecom.service.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+// Command line query over the audit segments, prints the matching records oldest first:
+//     mvn -Paudit-query compile exec:java -Dexec.args="dir=audit from=2026-10-19T00:00:00Z user=alice"
+// from / to take an ISO instant or a date (UTC), both default to unbounded; user defaults to everyone.
+public final class AuditQuery {
+
+    private AuditQuery() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get("audit");
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        String userName = null;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String value = arg.substring(separator + 1);
+            switch (separator < 0 ? arg : arg.substring(0, separator)) {
+                case "dir" -> directory = Paths.get(value);
+                case "from" -> from = parseTime(value, false);
+                case "to" -> to = parseTime(value, true);
+                case "user" -> userName = value;
+                default -> throw new IllegalArgumentException("Unknown option " + arg + ", expected dir=, from=, to= or user=");
+            }
+        }
+        long[] matches = new long[1];
+        AuditSegments.scan(directory, from, to, userName, record -> {
+            System.out.println(record);
+            matches[0]++;
+        });
+        System.out.println(matches[0] + " record(s)");
+    }
+
+    // A date covers the whole day: from its first millisecond, or to its last one.
+    private static long parseTime(String value, boolean endOfDay) {
+        if (value.indexOf('T') >= 0) return Instant.parse(value).toEpochMilli();
+        LocalDate date = LocalDate.parse(value);
+        return (endOfDay ? date.plusDays(1) : date).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - (endOfDay ? 1 : 0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.atharva.erp_telecom.service.audit;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+
+import java.time.Instant;
+
+// One audit record as read back from a segment.
+public final class AuditRecord {
+
+    private final long timestamp;
+    private final AuditAction action;
+    private final String userName;
+    private final long subjectId;
+    private final String detail;
+
+    AuditRecord(long timestamp, AuditAction action, String userName, long subjectId, String detail) {
+        this.timestamp = timestamp;
+        this.action = action;
+        this.userName = userName;
+        this.subjectId = subjectId;
+        this.detail = detail;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public AuditAction getAction() {
+        return action;
+    }
+
+    // Null when nobody was authenticated.
+    public String getUserName() {
+        return userName;
+    }
+
+    // Id of the customer or user acted on, AuditLog.NO_SUBJECT when there is none.
+    public long getSubjectId() {
+        return subjectId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp) + " " + action + " user=" + (userName == null ? "-" : userName)
+                + (subjectId == AuditLog.NO_SUBJECT ? "" : " subject=" + subjectId)
+                + (detail == null ? "" : " " + detail);
+    }
+}
@@ -0,0 +1,94 @@
+package com.atharva.erp_telecom.service.audit;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded multi-producer, single-consumer ring of preallocated slots. Recording an event claims a sequence number
+// with one CAS and fills the slot in place: no lock and no allocation on the request thread.
+/*
+    Sequence s lives in slot s & mask. A producer may claim s only while s - consumed < capacity, i.e. the consumer
+    is done with the slot's previous lap. After filling it the producer publishes s into published[slot], the
+    consumer reads slots in sequence order and stops at the first one not yet published, so a slow producer holds
+    up the consumer but never hands it a half-written slot.
+    The consumer moves `consumed` once per drained batch, which is also when producers see the freed room.
+ */
+final class AuditRingBuffer {
+
+    // Preallocated, reused for every lap. Only touched by the claiming producer, then by the consumer.
+    static final class Slot {
+        long timestamp;
+        AuditAction action;
+        String userName;
+        long subjectId;
+        String detail;
+    }
+
+    @FunctionalInterface
+    interface SlotHandler {
+        void handle(Slot slot) throws IOException;
+    }
+
+    private final Slot[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+        this.slots = new Slot[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    int size() {
+        return (int) (claimed.get() - consumed.get());
+    }
+
+    // Sequence of a free slot, or -1 when the buffer is full.
+    long tryClaim() {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) return -1;
+            if (claimed.compareAndSet(sequence, sequence + 1)) return sequence;
+        }
+    }
+
+    Slot slot(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    void publish(long sequence) {
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+
+    // Hands up to max published slots to the handler, in order. Consumer thread only.
+    int drain(SlotHandler handler, int max) throws IOException {
+        long next = consumed.get();
+        int drained = 0;
+        try {
+            while (drained < max && published.get((int) (next & mask)) == next) {
+                Slot slot = slots[(int) (next & mask)];
+                handler.handle(slot);
+                slot.userName = null;
+                slot.detail = null;
+                next++;
+                drained++;
+            }
+        } finally {
+            consumed.lazySet(next);
+        }
+        return drained;
+    }
+}
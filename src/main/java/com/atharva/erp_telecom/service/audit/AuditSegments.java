@@ -0,0 +1,137 @@
+package com.atharva.erp_telecom.service.audit;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// The audit log on disk: a directory of gzip-compressed, append-only segment files, one per rotation interval.
+/*
+    A segment is named audit-<epoch millis of its first record>.log.gz and holds binary records in write order:
+        timestamp (long), action ordinal (byte), user name (UTF, "" = none), subject id (long), detail (UTF, "" = none)
+    Segments end at the next interval boundary (rotation is by record time), so a time range only has to open the
+    segments whose start falls before its end and whose successor starts after its beginning.
+    The open segment is sync-flushed after every batch: readers can scan it while it is written, and a crash only
+    loses the unfinished gzip trailer, which readers treat as end of segment.
+ */
+public final class AuditSegments {
+
+    static final String PREFIX = "audit-";
+    static final String SUFFIX = ".log.gz";
+    // Records near a boundary can be written a moment after their segment was rotated out.
+    private static final long BOUNDARY_SLACK_MILLIS = 1_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final AuditAction[] ACTIONS = AuditAction.values();
+
+    private AuditSegments() {
+    }
+
+    // Writes the segments of one directory. Consumer thread only.
+    static final class Writer implements Closeable {
+
+        private final Path directory;
+        private final long rotationMillis;
+        private DataOutputStream out;
+        private long segmentEnd;
+
+        Writer(Path directory, long rotationMillis) throws IOException {
+            this.directory = directory;
+            this.rotationMillis = rotationMillis;
+            Files.createDirectories(directory);
+        }
+
+        void append(AuditRingBuffer.Slot slot) throws IOException {
+            if (out == null || slot.timestamp >= segmentEnd) open(slot.timestamp);
+            out.writeLong(slot.timestamp);
+            out.writeByte(slot.action.ordinal());
+            out.writeUTF(slot.userName == null ? "" : slot.userName);
+            out.writeLong(slot.subjectId);
+            out.writeUTF(slot.detail == null ? "" : slot.detail);
+        }
+
+        void flush() throws IOException {
+            if (out != null) out.flush();
+        }
+
+        // Finishes the open segment once its interval is over, so it is complete even when no record follows.
+        void rotateIfDue(long now) throws IOException {
+            if (out != null && now >= segmentEnd) close();
+        }
+
+        private void open(long timestamp) throws IOException {
+            close();
+            long start = timestamp;
+            Path path = directory.resolve(PREFIX + start + SUFFIX);
+            while (Files.exists(path)) path = directory.resolve(PREFIX + (++start) + SUFFIX);
+            out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE), BUFFER_SIZE, true));
+            segmentEnd = timestamp - Math.floorMod(timestamp, rotationMillis) + rotationMillis;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out == null) return;
+            try {
+                out.close();
+            } finally {
+                out = null;
+            }
+        }
+    }
+
+    // Segments possibly holding records in [from, to], oldest first.
+    public static List<Path> segments(Path directory, long from, long to) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> starts.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        starts.sort(null);
+        List<Path> selected = new ArrayList<>();
+        for (int i = 0; i < starts.size(); i++) {
+            long start = starts.get(i);
+            long nextStart = i + 1 < starts.size() ? starts.get(i + 1) : Long.MAX_VALUE;
+            if (start - BOUNDARY_SLACK_MILLIS <= to && nextStart >= from) {
+                selected.add(directory.resolve(PREFIX + start + SUFFIX));
+            }
+        }
+        return selected;
+    }
+
+    // Records in [from, to] (epoch millis, inclusive), of the given user unless null, in write order.
+    public static void scan(Path directory, long from, long to, String userName, Consumer<AuditRecord> consumer) throws IOException {
+        for (Path segment : segments(directory, from, to)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(segment), BUFFER_SIZE), BUFFER_SIZE))) {
+                while (true) {
+                    long timestamp = in.readLong();
+                    int action = in.readUnsignedByte();
+                    String user = in.readUTF();
+                    long subjectId = in.readLong();
+                    String detail = in.readUTF();
+                    if (timestamp < from || timestamp > to) continue;
+                    if (userName != null && !userName.equals(user)) continue;
+                    consumer.accept(new AuditRecord(timestamp, ACTIONS[action],
+                            user.isEmpty() ? null : user, subjectId, detail.isEmpty() ? null : detail));
+                }
+            } catch (EOFException e) {
+                // end of the segment, or the unfinished tail of the one being written
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.atharva.erp_telecom.service.changefeed;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+// Position in the customer change feed: the (modifiedDate, customerId) of the last change seen. The feed continues
+// with the changes strictly after it. On the wire it is "<modifiedDate as epoch micros>.<customerId>", clients
+// should treat it as opaque.
+public final class ChangeCursor implements Comparable<ChangeCursor> {
+
+    // Before every change: the feed starts with a full snapshot, oldest change first.
+    public static final ChangeCursor START = new ChangeCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    private final LocalDateTime modifiedDate;
+    private final long customerId;
+
+    public ChangeCursor(LocalDateTime modifiedDate, long customerId) {
+        this.modifiedDate = modifiedDate;
+        this.customerId = customerId;
+    }
+
+    public static ChangeCursor of(Customer customer) {
+        return new ChangeCursor(customer.getModifiedDate(), customer.getCustomerId());
+    }
+
+    // After every change made up to the given time.
+    public static ChangeCursor after(LocalDateTime time) {
+        return new ChangeCursor(time, Long.MAX_VALUE);
+    }
+
+    public static ChangeCursor parse(String value) {
+        int separator = value.indexOf('.');
+        try {
+            if (separator <= 0) throw new NumberFormatException();
+            long micros = Long.parseLong(value.substring(0, separator));
+            LocalDateTime modifiedDate = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), 0, ZoneOffset.UTC)
+                    .plus(Math.floorMod(micros, 1_000_000), ChronoUnit.MICROS);
+            return new ChangeCursor(modifiedDate, Long.parseLong(value.substring(separator + 1)));
+        } catch (NumberFormatException | java.time.DateTimeException e) {
+            throw new InvalidRequestException("Invalid change feed cursor: " + value);
+        }
+    }
+
+    public LocalDateTime getModifiedDate() {
+        return modifiedDate;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public int compareTo(ChangeCursor other) {
+        int byDate = modifiedDate.compareTo(other.modifiedDate);
+        return byDate != 0 ? byDate : Long.compare(customerId, other.customerId);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ChangeCursor cursor && compareTo(cursor) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return modifiedDate.hashCode() * 31 + Long.hashCode(customerId);
+    }
+
+    @Override
+    public String toString() {
+        long micros = modifiedDate.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + modifiedDate.getNano() / 1_000;
+        return micros + "." + customerId;
+    }
+}
@@ -0,0 +1,309 @@
+package com.atharva.erp_telecom.service.changefeed;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.exception.custom_exceptions.ServiceBusyException;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Customer change feed: one poll of the customer tables for all subscribers, fanned out from an in-memory window.
+/*
+    Every erp.changefeed.poll-interval-ms - and only while someone is subscribed - the customers modified since the
+    last poll are read once, serialised once, and appended to a window of the last erp.changefeed.window-size
+    changes. Each subscriber keeps its own cursor into the window, so an extra subscriber costs a few references
+    and the writes to its connection, not another query.
+    A subscriber whose cursor is older than the window (a resumed client, or one too slow to keep up) reads its
+    own batches from the database until it reaches the window, then continues from memory.
+
+    Changes become visible erp.changefeed.settle-ms after their modifiedDate. modifiedDate is set before the
+    transaction commits, a change committing late would otherwise land behind a cursor that already passed it.
+    The settle time has to cover the longest customer transaction.
+
+    Deliveries run on a few "change-feed" threads, at most one at a time per subscriber and one batch per turn,
+    so a slow connection delays only itself.
+ */
+@Component
+public class ChangeFeedBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedBroadcaster.class);
+
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final long settleMillis;
+    private final int batchSize;
+    private final int maxSubscribers;
+    private final long idleMillis;
+    private final ExecutorService deliveryExecutor;
+
+    // The window: the changes after floor up to head, oldest first, in a circular array.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CustomerChange[] window;
+    private int windowStart;
+    private int windowLength;
+    private ChangeCursor floor;
+    private ChangeCursor head;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter polls;
+    private final Counter sentFromWindow;
+    private final Counter sentFromDatabase;
+
+    public ChangeFeedBroadcaster(CustomerService customerService,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${erp.changefeed.settle-ms:2000}") long settleMillis,
+                                 @Value("${erp.changefeed.window-size:10000}") int windowSize,
+                                 @Value("${erp.changefeed.batch-size:500}") int batchSize,
+                                 @Value("${erp.changefeed.max-subscribers:1000}") int maxSubscribers,
+                                 @Value("${erp.changefeed.idle-ms:15000}") long idleMillis,
+                                 @Value("${erp.changefeed.threads:2}") int threads) {
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        this.settleMillis = settleMillis;
+        this.batchSize = batchSize;
+        this.maxSubscribers = maxSubscribers;
+        this.idleMillis = idleMillis;
+        this.window = new CustomerChange[windowSize];
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.polls = Counter.builder("changefeed.polls").register(meterRegistry);
+        this.sentFromWindow = Counter.builder("changefeed.changes.sent").tag("source", "window").register(meterRegistry);
+        this.sentFromDatabase = Counter.builder("changefeed.changes.sent").tag("source", "database").register(meterRegistry);
+        Gauge.builder("changefeed.subscribers", subscriptions, Set::size).register(meterRegistry);
+    }
+
+    // Starts delivering the changes after the cursor to the listener, from the next poll on.
+    public Subscription subscribe(ChangeCursor cursor, ChangeListener listener) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new ServiceBusyException("The change feed is at its limit of " + maxSubscribers + " subscribers");
+        }
+        Subscription subscription = new Subscription(cursor, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    @Scheduled(fixedDelayString = "${erp.changefeed.poll-interval-ms:500}")
+    public void poll() {
+        if (subscriptions.isEmpty()) {
+            resetWindow();
+            return;
+        }
+        polls.increment();
+        LocalDateTime upTo = LocalDateTime.now().minusNanos(settleMillis * 1_000_000);
+        if (head == null) {
+            // First poll with subscribers: the window starts empty at the settled present, older changes are
+            // read from the database by the subscribers that need them.
+            lock.lock();
+            try {
+                floor = head = ChangeCursor.after(upTo);
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            List<Customer> changes;
+            do {
+                changes = customerService.getChangesAfter(head.getModifiedDate(), head.getCustomerId(), upTo, batchSize);
+                List<CustomerChange> serialised = new ArrayList<>(changes.size());
+                for (Customer customer : changes) serialised.add(toChange(customer));
+                append(serialised);
+            } while (changes.size() == batchSize);
+        }
+        for (Subscription subscription : subscriptions) subscription.schedule();
+    }
+
+    private void append(List<CustomerChange> changes) {
+        if (changes.isEmpty()) return;
+        lock.lock();
+        try {
+            for (CustomerChange change : changes) {
+                if (windowLength == window.length) {
+                    floor = window[windowStart].getCursor();
+                    window[windowStart] = null;
+                    windowStart = (windowStart + 1) % window.length;
+                    windowLength--;
+                }
+                window[(windowStart + windowLength) % window.length] = change;
+                windowLength++;
+                head = change.getCursor();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resetWindow() {
+        if (head == null) return;
+        lock.lock();
+        try {
+            for (int i = 0; i < windowLength; i++) window[(windowStart + i) % window.length] = null;
+            windowStart = windowLength = 0;
+            floor = head = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Up to batchSize changes after the cursor from the window, or null when the cursor is older than the window.
+    private List<CustomerChange> fromWindow(ChangeCursor cursor) {
+        lock.lock();
+        try {
+            if (floor == null || cursor.compareTo(floor) < 0) return null;
+            // binary search for the first change after the cursor
+            int low = 0;
+            int high = windowLength;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (window[(windowStart + middle) % window.length].getCursor().compareTo(cursor) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            int count = Math.min(batchSize, windowLength - low);
+            List<CustomerChange> changes = new ArrayList<>(count);
+            for (int i = low; i < low + count; i++) changes.add(window[(windowStart + i) % window.length]);
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ChangeCursor currentFloor() {
+        lock.lock();
+        try {
+            return floor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CustomerChange toChange(Customer customer) {
+        try {
+            return new CustomerChange(ChangeCursor.of(customer), objectMapper.writeValueAsString(customer));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) subscription.close(true);
+        deliveryExecutor.shutdownNow();
+    }
+
+    // One subscriber's position in the feed.
+    public final class Subscription {
+
+        private final ChangeListener listener;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean dirty;
+        // Only touched by the delivery turn, which runs for one subscription at a time.
+        private ChangeCursor cursor;
+        private long lastSentMillis = System.currentTimeMillis();
+
+        private Subscription(ChangeCursor cursor, ChangeListener listener) {
+            this.cursor = cursor;
+            this.listener = listener;
+        }
+
+        // The client went away.
+        public void cancel() {
+            close(false);
+        }
+
+        private void close(boolean notifyListener) {
+            if (!closed.compareAndSet(false, true)) return;
+            subscriptions.remove(this);
+            if (notifyListener) listener.onClose();
+        }
+
+        private void schedule() {
+            dirty = true;
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    deliveryExecutor.execute(this::deliver);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void deliver() {
+            try {
+                dirty = false;
+                if (!closed.get()) deliverBatch();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Change feed subscriber dropped: {}", e.toString());
+                close(true);
+            } finally {
+                scheduled.set(false);
+            }
+            if (dirty) schedule();
+        }
+
+        private void deliverBatch() throws IOException {
+            List<CustomerChange> changes = fromWindow(cursor);
+            boolean fromDatabase = changes == null;
+            if (fromDatabase) changes = catchUp();
+            if (changes.isEmpty()) {
+                if (System.currentTimeMillis() - lastSentMillis >= idleMillis) {
+                    listener.onIdle();
+                    lastSentMillis = System.currentTimeMillis();
+                }
+                return;
+            }
+            for (CustomerChange change : changes) {
+                listener.onChange(change);
+                cursor = change.getCursor();
+            }
+            lastSentMillis = System.currentTimeMillis();
+            (fromDatabase ? sentFromDatabase : sentFromWindow).increment(changes.size());
+            // a full batch means more may be waiting: take another turn after the others
+            if (fromDatabase || changes.size() == batchSize) dirty = true;
+        }
+
+        // The next batch between the cursor and the window, read from the database.
+        private List<CustomerChange> catchUp() {
+            ChangeCursor windowFloor = currentFloor();
+            if (windowFloor == null) return List.of();
+            List<Customer> customers = customerService.getChangesAfter(cursor.getModifiedDate(), cursor.getCustomerId(),
+                    windowFloor.getModifiedDate(), batchSize);
+            if (customers.isEmpty()) {
+                // nothing left before the window, continue from memory right away
+                cursor = windowFloor;
+                dirty = true;
+                return List.of();
+            }
+            List<CustomerChange> changes = new ArrayList<>(customers.size());
+            for (Customer customer : customers) changes.add(toChange(customer));
+            return changes;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.atharva.erp_telecom.service.changefeed;
+
+import java.io.IOException;
+
+// A change feed subscriber's connection. Called from one thread at a time. An IOException ends the subscription.
+public interface ChangeListener {
+
+    void onChange(CustomerChange change) throws IOException;
+
+    // Nothing to send for a while: lets the connection prove it is still open.
+    void onIdle() throws IOException;
+
+    // The subscription was ended by the feed (a failed send, shutdown), not by the client.
+    void onClose();
+}
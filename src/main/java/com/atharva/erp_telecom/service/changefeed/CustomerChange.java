@@ -0,0 +1,22 @@
+package com.atharva.erp_telecom.service.changefeed;
+
+// One entry of the change feed: the customer's state after the change, already serialised to JSON once for all
+// subscribers.
+public final class CustomerChange {
+
+    private final ChangeCursor cursor;
+    private final String json;
+
+    CustomerChange(ChangeCursor cursor, String json) {
+        this.cursor = cursor;
+        this.json = json;
+    }
+
+    public ChangeCursor getCursor() {
+        return cursor;
+    }
+
+    public String getJson() {
+        return json;
+    }
+}
@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.service.dunning;
+
+import java.util.List;
+
+// Carries out dunning actions: sends the reminder, suspends or reconnects the line. An exception means none of the
+// notices of the call count as done and they are offered again.
+public interface DunningActionSink {
+
+    void deliver(List<DunningNotice> notices) throws Exception;
+}
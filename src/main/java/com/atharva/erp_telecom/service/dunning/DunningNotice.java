@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.service.dunning;
+
+import com.atharva.erp_telecom.constants.DunningAction;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// One action for one customer, as handed to the DunningActionSink. overdueSince is null for a reconnection.
+public record DunningNotice(long customerId, DunningAction action, LocalDate overdueSince, Instant dueAt) {
+}
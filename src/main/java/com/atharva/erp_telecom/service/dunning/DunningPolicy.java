@@ -0,0 +1,61 @@
+package com.atharva.erp_telecom.service.dunning;
+
+import com.atharva.erp_telecom.constants.DunningAction;
+import com.atharva.erp_telecom.constants.DunningStage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+// When each dunning action is due. An invoice is overdue from the start of the day after its due date; the reminder
+// goes out erp.dunning.remind-after-hours later and the line is suspended erp.dunning.suspend-after-hours later
+// (both counted from the same point). A suspended customer is reconnected as soon as nothing is left unpaid.
+@Component
+public class DunningPolicy {
+
+    private final Duration remindAfter;
+    private final Duration suspendAfter;
+    private final ZoneId zone;
+
+    @Autowired
+    public DunningPolicy(@Value("${erp.dunning.remind-after-hours:72}") long remindAfterHours,
+                         @Value("${erp.dunning.suspend-after-hours:336}") long suspendAfterHours) {
+        this(Duration.ofHours(remindAfterHours), Duration.ofHours(suspendAfterHours), ZoneId.systemDefault());
+    }
+
+    public DunningPolicy(Duration remindAfter, Duration suspendAfter, ZoneId zone) {
+        if (remindAfter.isNegative() || suspendAfter.compareTo(remindAfter) < 0) {
+            throw new IllegalStateException("erp.dunning needs 0 <= remind-after-hours <= suspend-after-hours");
+        }
+        this.remindAfter = remindAfter;
+        this.suspendAfter = suspendAfter;
+        this.zone = zone;
+    }
+
+    // The next action for a customer in this stage whose oldest unpaid invoice was due on overdueSince (null when
+    // nothing is unpaid), null when there is none.
+    public DunningAction nextAction(DunningStage stage, LocalDate overdueSince) {
+        if (overdueSince == null) return stage == DunningStage.SUSPENDED ? DunningAction.RECONNECT : null;
+        return switch (stage) {
+            case CURRENT -> DunningAction.REMIND;
+            case REMINDED -> DunningAction.SUSPEND;
+            case SUSPENDED -> null;
+        };
+    }
+
+    public Instant dueAt(DunningAction action, LocalDate overdueSince, Instant now) {
+        return switch (action) {
+            case REMIND -> overdueFrom(overdueSince).plus(remindAfter);
+            case SUSPEND -> overdueFrom(overdueSince).plus(suspendAfter);
+            case RECONNECT -> now;
+        };
+    }
+
+    private Instant overdueFrom(LocalDate dueDate) {
+        return dueDate.plusDays(1).atStartOfDay(zone).toInstant();
+    }
+}
@@ -0,0 +1,262 @@
+package com.atharva.erp_telecom.service.dunning;
+
+import com.atharva.erp_telecom.constants.DunningAction;
+import com.atharva.erp_telecom.constants.DunningStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+// Fires reminders, suspensions and reconnections at the time DunningPolicy gives them, for every customer at once.
+/*
+    Every customer with a pending action has exactly one timer on a TimingWheel (tick = erp.dunning.tick-ms). The
+    wheel lives on its own "dunning-wheel" thread, which does everything that touches it, so nothing is locked and a
+    sync can never race a firing for the same customer:
+        - once the application is ready: rebuild - one streaming scan (DunningStore) over what every customer owes
+          and its stored state, one timer per customer that has something coming,
+        - every tick: advance the wheel and fire what expired, in batches of erp.dunning.batch-size - the sink gets
+          the batch first, then the new states are upserted and the follow-up timers scheduled (a reminder schedules
+          the suspension),
+        - every erp.dunning.sync-interval-ms: the same scan limited to customers whose invoices changed since the
+          previous sync, which reschedules or cancels their timers (a payment cancels the suspension, a new invoice
+          schedules a reminder).
+    A batch the sink rejects is retried erp.dunning.retry-delay-ms later, its states are left alone. A customer who
+    pays less than a sync interval before an action is due can still get it.
+
+    State rows are only written when they change, so a rebuild of a settled book writes nothing. Timers carry the
+    action and the overdue date in their data, (overdue epoch day + 1) << 8 | action ordinal, no object per timer.
+    Only one instance should run it (erp.dunning.enabled).
+ */
+@Component
+public class DunningScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DunningScheduler.class);
+
+    private static final DunningAction[] ACTIONS = DunningAction.values();
+    // changes committed just before a sync started may carry a slightly earlier modified_date
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final DunningStore store;
+    private final DunningActionSink sink;
+    private final DunningPolicy policy;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final long syncIntervalMillis;
+    private final long retryDelayMillis;
+    private final int batchSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final TimingWheel wheel;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile int timers;
+    private LocalDateTime syncedUpTo;
+
+    private final List<DunningStore.Update> pendingUpdates = new ArrayList<>();
+    private final Map<DunningAction, Counter> delivered = new EnumMap<>(DunningAction.class);
+    private final Map<DunningAction, Counter> failed = new EnumMap<>(DunningAction.class);
+
+    public DunningScheduler(DunningStore store,
+                            DunningActionSink sink,
+                            DunningPolicy policy,
+                            MeterRegistry meterRegistry,
+                            @Value("${erp.dunning.enabled:true}") boolean enabled,
+                            @Value("${erp.dunning.tick-ms:1000}") long tickMillis,
+                            @Value("${erp.dunning.sync-interval-ms:60000}") long syncIntervalMillis,
+                            @Value("${erp.dunning.retry-delay-ms:60000}") long retryDelayMillis,
+                            @Value("${erp.dunning.batch-size:500}") int batchSize,
+                            @Value("${erp.dunning.expected-customers:100000}") int expectedCustomers) {
+        this.store = store;
+        this.sink = sink;
+        this.policy = policy;
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(System.currentTimeMillis() / tickMillis, enabled ? expectedCustomers : 0);
+        this.thread = new Thread(this::run, "dunning-wheel");
+        thread.setDaemon(true);
+
+        Gauge.builder("dunning.timers", this, scheduler -> scheduler.timers)
+                .description("Customers with a dunning action scheduled")
+                .register(meterRegistry);
+        for (DunningAction action : ACTIONS) {
+            delivered.put(action, Counter.builder("dunning.actions").tag("action", action.name())
+                    .tag("outcome", "delivered").register(meterRegistry));
+            failed.put(action, Counter.builder("dunning.actions").tag("action", action.name())
+                    .tag("outcome", "failed").register(meterRegistry));
+        }
+    }
+
+    // Started only once the application is up, a rebuild over millions of customers must not hold up startup.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && !thread.isAlive()) thread.start();
+    }
+
+    public int scheduledTimers() {
+        return timers;
+    }
+
+    private void run() {
+        long nextSync = 0;
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                if (now >= nextSync) {
+                    nextSync = now + syncIntervalMillis;
+                    sync();
+                }
+                fireDue(Math.floorDiv(now, tickMillis));
+                timers = wheel.size();
+                TimeUnit.MILLISECONDS.sleep(tickMillis - System.currentTimeMillis() % tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Dunning run failed, retrying on the next tick", e);
+                pendingUpdates.clear();
+            }
+        }
+    }
+
+    // A full rebuild the first time, then only the customers whose invoices changed.
+    private void sync() {
+        LocalDateTime since = syncedUpTo;
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        int[] scanned = {0};
+        Instant now = Instant.now();
+        store.scan(since == null ? null : since.minusSeconds(SYNC_OVERLAP_SECONDS), (customerId, unpaidSince, stored) -> {
+            plan(customerId, unpaidSince, stored, now);
+            scanned[0]++;
+        });
+        flushUpdates();
+        syncedUpTo = startedAt;
+        if (since == null) {
+            log.info("Dunning wheel rebuilt: {} customers scanned, {} timers scheduled in {} ms",
+                    scanned[0], wheel.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    // Brings the customer's timer and stored state in line with what it owes now.
+    private void plan(long customerId, LocalDate unpaidSince, DunningStore.State stored, Instant now) {
+        DunningStage stage = stored == null ? DunningStage.CURRENT : stored.stage();
+        // a reminded customer who paid what the reminder was about starts over
+        if (stage == DunningStage.REMINDED
+                && (unpaidSince == null || stored.overdueSince() == null || unpaidSince.isAfter(stored.overdueSince()))) {
+            stage = DunningStage.CURRENT;
+        }
+        DunningAction action = policy.nextAction(stage, unpaidSince);
+        Instant dueAt = action == null ? null : policy.dueAt(action, unpaidSince, now);
+        if (action == null) {
+            wheel.cancel(customerId);
+        } else {
+            wheel.schedule(customerId, tickOf(dueAt.toEpochMilli()), pack(action, unpaidSince));
+        }
+        DunningStore.State state = new DunningStore.State(stage, unpaidSince, action,
+                dueAt == null ? null : LocalDateTime.ofInstant(dueAt, zone));
+        if (stored == null ? stage != DunningStage.CURRENT || action != null : !sameState(stored, state)) {
+            pendingUpdates.add(new DunningStore.Update(customerId, state));
+            if (pendingUpdates.size() >= batchSize) flushUpdates();
+        }
+    }
+
+    private void fireDue(long tick) {
+        List<DunningNotice> batch = new ArrayList<>();
+        wheel.advance(tick, (customerId, deadlineTick, timerData) -> {
+            batch.add(new DunningNotice(customerId, actionOf(timerData), overdueSinceOf(timerData),
+                    Instant.ofEpochMilli(deadlineTick * tickMillis)));
+        });
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            fire(batch.subList(from, Math.min(batch.size(), from + batchSize)));
+        }
+    }
+
+    private void fire(List<DunningNotice> notices) {
+        try {
+            sink.deliver(notices);
+        } catch (Exception e) {
+            log.warn("Delivering {} dunning actions failed, retrying in {} ms", notices.size(), retryDelayMillis, e);
+            long retryTick = tickOf(System.currentTimeMillis() + retryDelayMillis);
+            for (DunningNotice notice : notices) {
+                wheel.schedule(notice.customerId(), retryTick, pack(notice.action(), notice.overdueSince()));
+                failed.get(notice.action()).increment();
+            }
+            return;
+        }
+        Instant now = Instant.now();
+        for (DunningNotice notice : notices) {
+            delivered.get(notice.action()).increment();
+            DunningStage stage = notice.action().getResultingStage();
+            DunningAction next = policy.nextAction(stage, notice.overdueSince());
+            Instant dueAt = next == null ? null : policy.dueAt(next, notice.overdueSince(), now);
+            if (next != null) {
+                wheel.schedule(notice.customerId(), tickOf(dueAt.toEpochMilli()), pack(next, notice.overdueSince()));
+            }
+            pendingUpdates.add(new DunningStore.Update(notice.customerId(), new DunningStore.State(stage,
+                    notice.overdueSince(), next, dueAt == null ? null : LocalDateTime.ofInstant(dueAt, zone))));
+        }
+        flushUpdates();
+    }
+
+    private void flushUpdates() {
+        store.save(pendingUpdates);
+        pendingUpdates.clear();
+    }
+
+    private long tickOf(long epochMillis) {
+        // rounded up, an action never fires before its time
+        return Math.floorDiv(epochMillis + tickMillis - 1, tickMillis);
+    }
+
+    private static boolean sameState(DunningStore.State stored, DunningStore.State state) {
+        // next_action_at is compared to the second, that is all the column keeps on every database
+        return stored.stage() == state.stage()
+                && Objects.equals(stored.overdueSince(), state.overdueSince())
+                && stored.nextAction() == state.nextAction()
+                && Objects.equals(truncated(stored.nextActionAt()), truncated(state.nextActionAt()));
+    }
+
+    private static LocalDateTime truncated(LocalDateTime time) {
+        return time == null ? null : time.withNano(0);
+    }
+
+    static long pack(DunningAction action, LocalDate overdueSince) {
+        long day = overdueSince == null ? 0 : overdueSince.toEpochDay() + 1;
+        return day << 8 | action.ordinal();
+    }
+
+    static DunningAction actionOf(long timerData) {
+        return ACTIONS[(int) (timerData & 0xFF)];
+    }
+
+    static LocalDate overdueSinceOf(long timerData) {
+        long day = timerData >> 8;
+        return day == 0 ? null : LocalDate.ofEpochDay(day - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
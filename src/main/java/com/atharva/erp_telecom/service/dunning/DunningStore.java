@@ -0,0 +1,97 @@
+package com.atharva.erp_telecom.service.dunning;
+
+import com.atharva.erp_telecom.constants.DunningAction;
+import com.atharva.erp_telecom.constants.DunningStage;
+import com.atharva.erp_telecom.constants.InvoiceConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// JDBC side of dunning: streams what each customer owes together with its stored state, and upserts states in
+// batches. No entities are materialised, a rebuild reads every customer with an invoice.
+@Component
+public class DunningStore {
+
+    private static final String SCAN_SQL =
+            "SELECT i.customer_id, MIN(CASE WHEN i.status <> ? THEN i.due_date END), "
+                    + "s.stage, s.overdue_since, s.next_action, s.next_action_at "
+                    + "FROM invoice i LEFT JOIN dunning_state s ON s.customer_id = i.customer_id ";
+    private static final String CHANGED_SINCE_SQL =
+            "WHERE i.customer_id IN (SELECT customer_id FROM invoice WHERE modified_date >= ?) ";
+    private static final String GROUP_SQL =
+            "GROUP BY i.customer_id, s.stage, s.overdue_since, s.next_action, s.next_action_at";
+    private static final String UPSERT_SQL =
+            "INSERT INTO dunning_state (customer_id, stage, overdue_since, next_action, next_action_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE stage = VALUES(stage), "
+                    + "overdue_since = VALUES(overdue_since), next_action = VALUES(next_action), "
+                    + "next_action_at = VALUES(next_action_at), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public DunningStore(JdbcTemplate jdbcTemplate, @Value("${erp.dunning.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    // Every customer with invoices, or with invoices changed since changedSince when it isn't null.
+    public void scan(LocalDateTime changedSince, CustomerConsumer consumer) {
+        String sql = SCAN_SQL + (changedSince == null ? "" : CHANGED_SINCE_SQL) + GROUP_SQL;
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, InvoiceConstants.INVOICE_PAID);
+            if (changedSince != null) statement.setTimestamp(2, Timestamp.valueOf(changedSince));
+            return statement;
+        }, resultSet -> {
+            Date unpaidSince = resultSet.getDate(2);
+            String stage = resultSet.getString(3);
+            Date storedOverdueSince = resultSet.getDate(4);
+            String nextAction = resultSet.getString(5);
+            Timestamp nextActionAt = resultSet.getTimestamp(6);
+            consumer.accept(resultSet.getLong(1),
+                    unpaidSince == null ? null : unpaidSince.toLocalDate(),
+                    stage == null ? null : new State(DunningStage.valueOf(stage),
+                            storedOverdueSince == null ? null : storedOverdueSince.toLocalDate(),
+                            nextAction == null ? null : DunningAction.valueOf(nextAction),
+                            nextActionAt == null ? null : nextActionAt.toLocalDateTime()));
+        });
+    }
+
+    public void save(List<Update> updates) {
+        if (updates.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(updates.size());
+        for (Update update : updates) {
+            State state = update.state();
+            rows.add(new Object[]{
+                    update.customerId(),
+                    state.stage().name(),
+                    state.overdueSince() == null ? null : Date.valueOf(state.overdueSince()),
+                    state.nextAction() == null ? null : state.nextAction().name(),
+                    state.nextActionAt() == null ? null : Timestamp.valueOf(state.nextActionAt()),
+                    Timestamp.valueOf(now)
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    public record State(DunningStage stage, LocalDate overdueSince, DunningAction nextAction, LocalDateTime nextActionAt) {
+    }
+
+    public record Update(long customerId, State state) {
+    }
+
+    @FunctionalInterface
+    public interface CustomerConsumer {
+        // stored is null for a customer that never had a dunning state
+        void accept(long customerId, LocalDate unpaidSince, State stored);
+    }
+}
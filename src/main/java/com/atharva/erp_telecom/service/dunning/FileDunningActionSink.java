@@ -0,0 +1,50 @@
+package com.atharva.erp_telecom.service.dunning;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends every action as one JSON line to a local file, the stand-in for the SMS gateway and the network's
+// suspension interface.
+@Component
+@ConditionalOnProperty(name = "erp.dunning.sink", havingValue = "file", matchIfMissing = true)
+public class FileDunningActionSink implements DunningActionSink {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileDunningActionSink(ObjectMapper objectMapper,
+                                 @Value("${erp.dunning.file:dunning/actions.ndjson}") String file) throws IOException {
+        this.objectMapper = objectMapper;
+        Path path = Paths.get(file).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Only called from the dunning thread.
+    @Override
+    public void deliver(List<DunningNotice> notices) throws IOException {
+        for (DunningNotice notice : notices) {
+            writer.write(objectMapper.writeValueAsString(notice));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writer.close();
+    }
+}
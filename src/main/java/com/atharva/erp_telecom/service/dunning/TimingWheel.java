@@ -0,0 +1,286 @@
+package com.atharva.erp_telecom.service.dunning;
+
+import java.util.Arrays;
+
+// Hierarchical timing wheel holding one timer per id (a customer), in flat arrays so millions of timers cost tens of
+// bytes each instead of an object, a map entry and a queue node. Not thread-safe, DunningScheduler serialises access.
+/*
+    Time is counted in ticks. LEVELS wheels of SLOTS buckets each: level 0 has one bucket per tick, level 1 one per
+    SLOTS ticks, level 2 one per SLOTS^2 ticks and so on, so 4 levels of 256 cover 2^32 ticks (136 years of seconds).
+    A timer goes into the lowest level whose span covers its distance from the current tick. Whenever level 0 wraps,
+    the next bucket of level 1 is emptied into level 0 (and likewise up the levels), so every timer is moved at most
+    LEVELS - 1 times before it expires: scheduling, cancelling and expiring are O(1), independent of how many timers
+    there are.
+
+    Timers are slots in parallel arrays, chained per bucket through next/prev, freed slots go on a free list. An
+    open-addressing index maps the id to its slot, so scheduling an id again replaces its timer. Each timer carries
+    a long of data for the caller.
+ */
+public final class TimingWheel {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+    private static final int NONE = -1;
+    private static final long FREE = Long.MIN_VALUE;
+
+    // timers
+    private long[] ids;
+    private long[] deadlines;
+    private long[] data;
+    private int[] next;
+    private int[] prev;
+    private int[] buckets;
+    private int freeHead = NONE;
+    private int used;
+    private int size;
+
+    // heads of the bucket chains, level * SLOTS + slot
+    private final int[] heads = new int[LEVELS * SLOTS];
+    // timers due at or before the current tick, waiting for the next advance
+    private int overdueHead = NONE;
+
+    // id -> timer slot
+    private long[] indexKeys;
+    private int[] indexSlots;
+    private int indexMask;
+
+    private long currentTick;
+
+    public TimingWheel(long startTick, int expectedTimers) {
+        this.currentTick = startTick;
+        Arrays.fill(heads, NONE);
+        int capacity = Math.max(16, expectedTimers);
+        ids = new long[capacity];
+        deadlines = new long[capacity];
+        data = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        buckets = new int[capacity];
+        allocateIndex(tableSizeFor(capacity));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    // Schedules the timer of id at deadlineTick, replacing the one it had. A deadline at or before the current tick
+    // expires on the next advance.
+    public void schedule(long id, long deadlineTick, long timerData) {
+        int indexSlot = indexSlotFor(id);
+        int timer;
+        if (indexKeys[indexSlot] == id) {
+            timer = indexSlots[indexSlot];
+            unlink(timer);
+        } else {
+            timer = allocateTimer();
+            indexKeys[indexSlot] = id;
+            indexSlots[indexSlot] = timer;
+            size++;
+            if (size > (indexMask + 1) >> 1) resizeIndex();
+        }
+        ids[timer] = id;
+        deadlines[timer] = deadlineTick;
+        data[timer] = timerData;
+        place(timer);
+    }
+
+    public boolean cancel(long id) {
+        int indexSlot = indexSlotFor(id);
+        if (indexKeys[indexSlot] != id) return false;
+        int timer = indexSlots[indexSlot];
+        removeFromIndex(indexSlot);
+        unlink(timer);
+        freeTimer(timer);
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return indexKeys[indexSlotFor(id)] == id;
+    }
+
+    // Moves the wheel to toTick and hands every timer that expired on the way to the consumer, in deadline order
+    // tick by tick. Expired timers are removed before the consumer sees them, so it may schedule the id again.
+    public int advance(long toTick, ExpiredTimerConsumer consumer) {
+        int expired = expireChain(takeOverdue(), consumer);
+        while (currentTick < toTick) {
+            long tick = ++currentTick;
+            cascade(tick);
+            // cascaded timers due exactly now
+            expired += expireChain(takeOverdue(), consumer);
+            int slot = (int) (tick & SLOT_MASK);
+            int head = heads[slot];
+            heads[slot] = NONE;
+            expired += expireChain(head, consumer);
+        }
+        return expired;
+    }
+
+    @FunctionalInterface
+    public interface ExpiredTimerConsumer {
+        void expired(long id, long deadlineTick, long timerData);
+    }
+
+    // When a lower level wraps around, the matching bucket one level up is redistributed.
+    private void cascade(long tick) {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((tick & ((1L << (SLOT_BITS * level)) - 1)) != 0) return;
+            int bucket = level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            int timer = heads[bucket];
+            heads[bucket] = NONE;
+            while (timer != NONE) {
+                int following = next[timer];
+                place(timer);
+                timer = following;
+            }
+        }
+    }
+
+    private void place(int timer) {
+        long delay = deadlines[timer] - currentTick;
+        if (delay <= 0) {
+            push(timer, NONE);
+            return;
+        }
+        delay = Math.min(delay, MAX_DELAY);
+        long target = currentTick + delay;
+        int level = 0;
+        while (delay >= (1L << (SLOT_BITS * (level + 1)))) level++;
+        push(timer, level * SLOTS + (int) ((target >>> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+
+    // bucket NONE is the overdue chain
+    private void push(int timer, int bucket) {
+        int head = bucket == NONE ? overdueHead : heads[bucket];
+        next[timer] = head;
+        prev[timer] = NONE;
+        if (head != NONE) prev[head] = timer;
+        if (bucket == NONE) overdueHead = timer; else heads[bucket] = timer;
+        buckets[timer] = bucket;
+    }
+
+    private void unlink(int timer) {
+        int before = prev[timer];
+        int after = next[timer];
+        if (before != NONE) {
+            next[before] = after;
+        } else if (buckets[timer] == NONE) {
+            overdueHead = after;
+        } else {
+            heads[buckets[timer]] = after;
+        }
+        if (after != NONE) prev[after] = before;
+    }
+
+    private int takeOverdue() {
+        int head = overdueHead;
+        overdueHead = NONE;
+        return head;
+    }
+
+    private int expireChain(int timer, ExpiredTimerConsumer consumer) {
+        int expired = 0;
+        while (timer != NONE) {
+            int following = next[timer];
+            long id = ids[timer];
+            long deadline = deadlines[timer];
+            long timerData = data[timer];
+            removeFromIndex(indexSlotFor(id));
+            freeTimer(timer);
+            consumer.expired(id, deadline, timerData);
+            expired++;
+            timer = following;
+        }
+        return expired;
+    }
+
+    private int allocateTimer() {
+        if (freeHead != NONE) {
+            int timer = freeHead;
+            freeHead = next[timer];
+            return timer;
+        }
+        if (used == ids.length) growTimers();
+        return used++;
+    }
+
+    private void freeTimer(int timer) {
+        next[timer] = freeHead;
+        freeHead = timer;
+    }
+
+    private void growTimers() {
+        int capacity = ids.length << 1;
+        ids = Arrays.copyOf(ids, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        data = Arrays.copyOf(data, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        buckets = Arrays.copyOf(buckets, capacity);
+    }
+
+    // Linear probing; removal shifts the following entries back so lookups need no tombstones.
+    private int indexSlotFor(long id) {
+        int slot = (int) mix(id) & indexMask;
+        while (indexKeys[slot] != FREE && indexKeys[slot] != id) {
+            slot = (slot + 1) & indexMask;
+        }
+        return slot;
+    }
+
+    private void removeFromIndex(int slot) {
+        size--;
+        int hole = slot;
+        int probe = slot;
+        while (true) {
+            probe = (probe + 1) & indexMask;
+            long key = indexKeys[probe];
+            if (key == FREE) break;
+            int home = (int) mix(key) & indexMask;
+            // move the entry back unless its home lies cyclically in (hole, probe]
+            boolean stays = hole <= probe ? (hole < home && home <= probe) : (hole < home || home <= probe);
+            if (stays) continue;
+            indexKeys[hole] = key;
+            indexSlots[hole] = indexSlots[probe];
+            hole = probe;
+        }
+        indexKeys[hole] = FREE;
+    }
+
+    private void resizeIndex() {
+        long[] oldKeys = indexKeys;
+        int[] oldSlots = indexSlots;
+        allocateIndex(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE) continue;
+            int slot = indexSlotFor(oldKeys[i]);
+            indexKeys[slot] = oldKeys[i];
+            indexSlots[slot] = oldSlots[i];
+        }
+    }
+
+    private void allocateIndex(int tableSize) {
+        indexKeys = new long[tableSize];
+        Arrays.fill(indexKeys, FREE);
+        indexSlots = new int[tableSize];
+        indexMask = tableSize - 1;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int tableSizeFor(int expected) {
+        int needed = Math.max(16, expected * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
@@ -0,0 +1,61 @@
+package com.atharva.erp_telecom.service.fraud;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Appends every alert as one JSON line to a local file, the stand-in for the fraud management system.
+@Component
+@ConditionalOnProperty(name = "erp.fraud.sink", havingValue = "file", matchIfMissing = true)
+public class FileFraudAlertSink implements FraudAlertSink {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileFraudAlertSink(ObjectMapper objectMapper,
+                              @Value("${erp.fraud.file:fraud/alerts.ndjson}") String file) throws IOException {
+        this.objectMapper = objectMapper;
+        Path path = Paths.get(file).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Ingesting threads may raise alerts concurrently.
+    @Override
+    public void raise(List<FraudAlert> alerts) throws IOException {
+        lock.lock();
+        try {
+            for (FraudAlert alert : alerts) {
+                writer.write(objectMapper.writeValueAsString(alert));
+                writer.newLine();
+            }
+            writer.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            writer.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.atharva.erp_telecom.service.fraud;
+
+import com.atharva.erp_telecom.constants.FraudAlertReason;
+import com.atharva.erp_telecom.constants.ServiceType;
+
+import java.time.Instant;
+
+// One flagged customer and service, as handed to the FraudAlertSink. Quantities are sketch estimates over the
+// sliding window, in the service's unit (bytes, seconds, messages); expectedQuantity is what the customer's usual
+// rate would have produced in the same window.
+public record FraudAlert(long customerId, ServiceType serviceType, FraudAlertReason reason, long windowQuantity,
+                         long expectedQuantity, Instant detectedAt) {
+}
@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.service.fraud;
+
+import java.util.List;
+
+// Where fraud alerts go: the fraud team's case queue, a barring request to the network. Called on the ingesting
+// thread once the detector's lock is released; an exception loses the alerts of the call (counted and logged).
+public interface FraudAlertSink {
+
+    void raise(List<FraudAlert> alerts) throws Exception;
+}
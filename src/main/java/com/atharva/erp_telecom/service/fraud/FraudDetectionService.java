@@ -0,0 +1,121 @@
+package com.atharva.erp_telecom.service.fraud;
+
+import com.atharva.erp_telecom.constants.FraudAlertReason;
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.dto.UsageEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The fraud detection stage of usage ingestion: every accepted batch goes through the FraudDetector, alerts go to
+// the FraudAlertSink (erp.fraud.sink).
+/*
+    One lock guards the detector and is taken once per batch, as for the usage rollups. Alerts are handed to the
+    sink after the lock is released, so a slow sink holds up only the batch that raised them.
+    Memory is fixed by erp.fraud.sketch-width, sketch-depth and buckets (fraud.sketch.bytes), see
+    SlidingCountMinSketch for what the width buys in accuracy. Detection state is not persisted: after a restart
+    the baselines are learnt again and SPIKE alerts wait for erp.fraud.warmup-minutes.
+ */
+@Service
+public class FraudDetectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(FraudDetectionService.class);
+
+    private final FraudAlertSink sink;
+    private final boolean enabled;
+    private final FraudDetector detector;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Counter events;
+    private final Map<FraudAlertReason, Counter> alerts = new EnumMap<>(FraudAlertReason.class);
+    private final Counter lostAlerts;
+
+    public FraudDetectionService(FraudAlertSink sink,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${erp.fraud.enabled:true}") boolean enabled,
+                                 @Value("${erp.fraud.window-minutes:10}") long windowMinutes,
+                                 @Value("${erp.fraud.buckets:10}") int buckets,
+                                 @Value("${erp.fraud.sketch-depth:4}") int depth,
+                                 @Value("${erp.fraud.sketch-width:16384}") int width,
+                                 @Value("${erp.fraud.baseline-minutes:1440}") long baselineMinutes,
+                                 @Value("${erp.fraud.warmup-minutes:60}") long warmupMinutes,
+                                 @Value("${erp.fraud.spike-factor:10}") double spikeFactor,
+                                 @Value("${erp.fraud.data.min-window:1073741824}") long dataMinWindow,
+                                 @Value("${erp.fraud.data.ceiling:21474836480}") long dataCeiling,
+                                 @Value("${erp.fraud.voice.min-window:3600}") long voiceMinWindow,
+                                 @Value("${erp.fraud.voice.ceiling:36000}") long voiceCeiling,
+                                 @Value("${erp.fraud.sms.min-window:200}") long smsMinWindow,
+                                 @Value("${erp.fraud.sms.ceiling:2000}") long smsCeiling,
+                                 @Value("${erp.fraud.top-k:100}") int topK,
+                                 @Value("${erp.fraud.alert-table-size:4096}") int alertTableSize) {
+        this.sink = sink;
+        this.enabled = enabled;
+        long windowSeconds = TimeUnit.MINUTES.toSeconds(windowMinutes);
+        long bucketMinutes = Math.max(1, windowMinutes / buckets);
+        long[] minWindow = new long[ServiceType.values().length];
+        long[] ceiling = new long[ServiceType.values().length];
+        minWindow[ServiceType.DATA.code()] = dataMinWindow;
+        ceiling[ServiceType.DATA.code()] = dataCeiling;
+        minWindow[ServiceType.VOICE.code()] = voiceMinWindow;
+        ceiling[ServiceType.VOICE.code()] = voiceCeiling;
+        minWindow[ServiceType.SMS.code()] = smsMinWindow;
+        ceiling[ServiceType.SMS.code()] = smsCeiling;
+        this.detector = new FraudDetector(windowSeconds, buckets, depth, width,
+                (int) Math.max(1, baselineMinutes / bucketMinutes), (int) (warmupMinutes / bucketMinutes),
+                spikeFactor, minWindow, ceiling, topK, alertTableSize);
+
+        this.events = Counter.builder("fraud.events").register(meterRegistry);
+        for (FraudAlertReason reason : FraudAlertReason.values()) {
+            alerts.put(reason, Counter.builder("fraud.alerts").tag("reason", reason.name()).register(meterRegistry));
+        }
+        this.lostAlerts = Counter.builder("fraud.alerts.lost").register(meterRegistry);
+        Gauge.builder("fraud.sketch.bytes", detector, FraudDetector::bytes).register(meterRegistry);
+    }
+
+    // Runs a batch UsageService accepted through the detector. codes are the events' service type codes.
+    public void observe(List<UsageEvent> events, int[] codes, long nowEpochSecond) {
+        if (!enabled || events.isEmpty()) return;
+        List<FraudAlert> raised = null;
+        lock.lock();
+        try {
+            detector.advanceTo(nowEpochSecond);
+            for (int i = 0; i < codes.length; i++) {
+                UsageEvent event = events.get(i);
+                raised = detector.observe(event.getCustomerId(), codes[i], event.getQuantity(), nowEpochSecond, raised);
+            }
+        } finally {
+            lock.unlock();
+        }
+        this.events.increment(codes.length);
+        if (raised != null) raise(raised);
+    }
+
+    public List<FraudDetector.HeavyHitter> heavyHitters(ServiceType serviceType, int limit) {
+        lock.lock();
+        try {
+            return detector.heavyHitters(serviceType, limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void raise(List<FraudAlert> raised) {
+        for (FraudAlert alert : raised) alerts.get(alert.reason()).increment();
+        try {
+            sink.raise(raised);
+        } catch (Exception e) {
+            lostAlerts.increment(raised.size());
+            log.warn("Could not raise {} fraud alerts: {}", raised.size(), raised, e);
+        }
+    }
+}
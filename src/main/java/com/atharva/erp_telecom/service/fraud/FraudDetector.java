@@ -0,0 +1,128 @@
+package com.atharva.erp_telecom.service.fraud;
+
+import com.atharva.erp_telecom.constants.FraudAlertReason;
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.service.usage.UsageCounterMap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Flags customers whose usage of a service over the last few minutes is far above their own usual rate, or above an
+// absolute ceiling - the shape SIM-box and IRSF fraud leave on usage. Fixed memory whatever the subscriber count.
+/*
+    Usage per customer goes into the SlidingCountMinSketch of the service (one per service type, so gigabytes of
+    data never inflate a customer's SMS count): the window estimate W and the customer's EWMA rate per bucket r.
+    After each event:
+        - W < minWindow(service)                       -> nothing, the cheap exit almost every event takes
+        - W >= ceiling(service)                        -> CEILING
+        - W >= spikeFactor * r * buckets, once warm    -> SPIKE
+    "Warm" means warmupBuckets buckets have closed since startup, before that there is too little history to tell a
+    customer's usual rate.
+
+    A key that alerted is not alerted again until the window has moved past the event that raised it. The record
+    of that is a direct-mapped table of alertTableSize slots: two keys landing on the same slot forget each other,
+    which at worst repeats an alert.
+    The top keys by window usage are kept per service type (HeavyHitters), for the fraud team to look at.
+
+    Windows follow arrival time, not event time: a mediation backlog replayed in one go shows up as a burst.
+    Nothing here allocates per event except the alerts themselves. Not thread-safe, see FraudDetectionService.
+ */
+public final class FraudDetector {
+
+    private static final ServiceType[] SERVICE_TYPES = ServiceType.values();
+
+    private final SlidingCountMinSketch[] sketches;
+    private final long bucketSeconds;
+    private final long warmupBuckets;
+    private final double spikeFactor;
+    private final long[] minWindow;
+    private final long[] ceiling;
+    private final HeavyHitters[] heavyHitters;
+    private final long[] alertedKeys;
+    private final long[] alertedUntil;
+    private final int alertMask;
+
+    // minWindow and ceiling are indexed by service type code.
+    public FraudDetector(long windowSeconds, int buckets, int depth, int width, int baselineBuckets,
+                         int warmupBuckets, double spikeFactor, long[] minWindow, long[] ceiling, int topK,
+                         int alertTableSize) {
+        if (windowSeconds < buckets || minWindow.length != SERVICE_TYPES.length
+                || ceiling.length != SERVICE_TYPES.length) {
+            throw new IllegalArgumentException("erp.fraud: window shorter than a second per bucket, "
+                    + "or thresholds missing for a service type");
+        }
+        this.bucketSeconds = windowSeconds / buckets;
+        // EWMA with the weight of a simple moving average over baselineBuckets buckets
+        this.sketches = new SlidingCountMinSketch[SERVICE_TYPES.length];
+        for (int code = 0; code < sketches.length; code++) {
+            sketches[code] = new SlidingCountMinSketch(buckets, depth, width, 2.0 / (baselineBuckets + 1));
+        }
+        this.warmupBuckets = warmupBuckets;
+        this.spikeFactor = spikeFactor;
+        this.minWindow = minWindow.clone();
+        this.ceiling = ceiling.clone();
+        this.heavyHitters = new HeavyHitters[SERVICE_TYPES.length];
+        for (int code = 0; code < heavyHitters.length; code++) heavyHitters[code] = new HeavyHitters(topK);
+        int tableSize = Integer.highestOneBit(Math.max(2, alertTableSize) - 1) << 1;
+        this.alertedKeys = new long[tableSize];
+        this.alertedUntil = new long[tableSize];
+        this.alertMask = tableSize - 1;
+    }
+
+    // Moves the window up to now. Called before a batch of events arriving at now.
+    public void advanceTo(long epochSecond) {
+        long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+        for (int code = 0; code < sketches.length; code++) {
+            if (sketches[code].advanceTo(bucket)) heavyHitters[code].refresh(sketches[code]);
+        }
+    }
+
+    // Counts the usage and, if it makes the customer suspicious, adds an alert to alerts (created when null).
+    // Returns alerts.
+    public List<FraudAlert> observe(long customerId, int serviceTypeCode, long quantity, long epochSecond,
+                                    List<FraudAlert> alerts) {
+        SlidingCountMinSketch sketch = sketches[serviceTypeCode];
+        long window = sketch.addAndEstimate(customerId, quantity);
+        heavyHitters[serviceTypeCode].offer(customerId, window);
+        if (window < minWindow[serviceTypeCode]) return alerts;
+
+        long expected = (long) Math.ceil(sketch.baselinePerBucket(customerId) * sketch.buckets());
+        FraudAlertReason reason;
+        if (window >= ceiling[serviceTypeCode]) {
+            reason = FraudAlertReason.CEILING;
+        } else if (sketch.closedBuckets() >= warmupBuckets && window >= spikeFactor * expected) {
+            reason = FraudAlertReason.SPIKE;
+        } else {
+            return alerts;
+        }
+        long key = UsageCounterMap.key(customerId, serviceTypeCode);
+        int slot = (int) SlidingCountMinSketch.mix(key) & alertMask;
+        if (alertedKeys[slot] == key && alertedUntil[slot] > sketch.currentBucket()) return alerts;
+        alertedKeys[slot] = key;
+        alertedUntil[slot] = sketch.currentBucket() + sketch.buckets();
+
+        if (alerts == null) alerts = new ArrayList<>();
+        alerts.add(new FraudAlert(customerId, SERVICE_TYPES[serviceTypeCode], reason, window, expected,
+                Instant.ofEpochSecond(epochSecond)));
+        return alerts;
+    }
+
+    // Up to limit (customer, service) pairs with the most usage in the window, biggest first.
+    public List<HeavyHitter> heavyHitters(ServiceType serviceType, int limit) {
+        List<HeavyHitter> top = new ArrayList<>();
+        for (HeavyHitters.Entry entry : heavyHitters[serviceType.code()].top(limit)) {
+            top.add(new HeavyHitter(entry.key(), serviceType, entry.estimate()));
+        }
+        return top;
+    }
+
+    public long bytes() {
+        long bytes = (long) alertedKeys.length * 2 * Long.BYTES;
+        for (SlidingCountMinSketch sketch : sketches) bytes += sketch.bytes();
+        return bytes;
+    }
+
+    public record HeavyHitter(long customerId, ServiceType serviceType, long windowQuantity) {
+    }
+}
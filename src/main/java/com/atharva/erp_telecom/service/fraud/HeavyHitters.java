@@ -0,0 +1,78 @@
+package com.atharva.erp_telecom.service.fraud;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// The top customers of one service by window usage, at most capacity of them, fed with the sketch's estimate
+// after every event.
+/*
+    Keys and their last estimate sit in two flat arrays. Once full, an event whose estimate does not beat the
+    smallest tracked one is turned away after one comparison, which is nearly every event; a bigger one replaces
+    the smallest (a scan of the arrays, as is finding an already tracked key).
+    As the window slides the stored estimates go stale, refresh() re-reads them from the sketch every time the
+    window moves and drops keys the window no longer holds. Not thread-safe.
+ */
+final class HeavyHitters {
+
+    private final long[] keys;
+    private final long[] estimates;
+    private int size;
+    private int minSlot;
+
+    HeavyHitters(int capacity) {
+        this.keys = new long[capacity];
+        this.estimates = new long[capacity];
+    }
+
+    void offer(long key, long estimate) {
+        boolean full = size == keys.length;
+        if (full && estimate <= estimates[minSlot]) return;
+        for (int slot = 0; slot < size; slot++) {
+            if (keys[slot] == key) {
+                estimates[slot] = estimate;
+                if (slot == minSlot) findMin();
+                return;
+            }
+        }
+        if (!full) {
+            keys[size] = key;
+            estimates[size++] = estimate;
+            if (size == keys.length) findMin();
+            return;
+        }
+        keys[minSlot] = key;
+        estimates[minSlot] = estimate;
+        findMin();
+    }
+
+    void refresh(SlidingCountMinSketch sketch) {
+        int kept = 0;
+        for (int slot = 0; slot < size; slot++) {
+            long estimate = sketch.estimate(keys[slot]);
+            if (estimate == 0) continue;
+            keys[kept] = keys[slot];
+            estimates[kept++] = estimate;
+        }
+        size = kept;
+        findMin();
+    }
+
+    // Biggest first.
+    List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) entries.add(new Entry(keys[slot], estimates[slot]));
+        entries.sort(Comparator.comparingLong(Entry::estimate).reversed());
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    record Entry(long key, long estimate) {
+    }
+
+    private void findMin() {
+        minSlot = 0;
+        for (int slot = 1; slot < size; slot++) {
+            if (estimates[slot] < estimates[minSlot]) minSlot = slot;
+        }
+    }
+}
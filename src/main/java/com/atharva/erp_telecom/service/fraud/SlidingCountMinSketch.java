@@ -0,0 +1,150 @@
+package com.atharva.erp_telecom.service.fraud;
+
+import java.util.Arrays;
+
+// Count-min sketch of usage per key over a sliding window, plus an EWMA of each key's usual rate, in memory that
+// depends only on the sketch dimensions - not on how many customers there are.
+/*
+    The window is a ring of `buckets` sub-sketches (depth rows x width counters each) and one running sum of them,
+    so an estimate reads `depth` counters, not depth x buckets. Moving to the next bucket folds the bucket just
+    closed into the baseline, subtracts the oldest bucket from the sum and clears it for reuse. The window thus
+    covers the current, partial bucket and the buckets - 1 before it.
+
+    baseline holds, per counter, an exponentially weighted moving average of what a closed bucket added to that
+    counter (alpha per bucket). The sketch is linear, so the EWMA of the counters is the sketch of the per-key
+    EWMAs, and the minimum over the rows bounds a key's usual per-bucket rate from above just like the window
+    estimate does for its window usage. The average starts from 0, so it is divided by the weight the closed
+    buckets carry so far (1 - (1 - alpha)^closed) - without that every rate would read low for the first few
+    hundred buckets.
+
+    Estimates never undercount; they overcount by what other keys hashing into the same counters added, which with
+    width w is on average total/w per row, the minimum over the rows keeps it much lower for all but a few keys.
+    Conservative update would tighten this but breaks the sum == sum of buckets invariant the window relies on.
+    Not thread-safe.
+ */
+public final class SlidingCountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final long[][] bucketCells;
+    private final long[] windowCells;
+    private final double[] baseline;
+    private final double alpha;
+    private final int[] indexes;
+
+    private long currentBucket = Long.MIN_VALUE;
+    private int currentSlot;
+    private long closedBuckets;
+    private double baselineScale;
+
+    // width is rounded up to a power of two. alpha is the EWMA weight of each closed bucket.
+    public SlidingCountMinSketch(int buckets, int depth, int width, double alpha) {
+        if (buckets < 1 || depth < 1 || width < 1 || alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("buckets, depth and width must be positive, alpha in (0, 1]");
+        }
+        this.depth = depth;
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.mask = this.width - 1;
+        this.bucketCells = new long[buckets][depth * this.width];
+        this.windowCells = new long[depth * this.width];
+        this.baseline = new double[depth * this.width];
+        this.alpha = alpha;
+        this.indexes = new int[depth];
+    }
+
+    // Moves the window so bucket is the current one. Buckets only move forward, an older bucket number is ignored.
+    // Returns whether the window moved.
+    public boolean advanceTo(long bucket) {
+        if (currentBucket == Long.MIN_VALUE) {
+            currentBucket = bucket;
+            return false;
+        }
+        if (bucket <= currentBucket) return false;
+        long steps = bucket - currentBucket;
+        int rotations = (int) Math.min(steps, bucketCells.length);
+        for (int i = 0; i < rotations; i++) rotate();
+        if (steps > rotations) {
+            // the rest closed empty, all they do is decay the baseline
+            double decay = Math.pow(1 - alpha, steps - rotations);
+            for (int cell = 0; cell < baseline.length; cell++) baseline[cell] *= decay;
+        }
+        closedBuckets += steps;
+        baselineScale = 1 / (1 - Math.pow(1 - alpha, closedBuckets));
+        currentBucket = bucket;
+        return true;
+    }
+
+    // Adds quantity to the key in the current bucket and returns the key's new window estimate.
+    public long addAndEstimate(long key, long quantity) {
+        hash(key);
+        long[] current = bucketCells[currentSlot];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = indexes[row];
+            current[index] += quantity;
+            estimate = Math.min(estimate, windowCells[index] += quantity);
+        }
+        return estimate;
+    }
+
+    public long estimate(long key) {
+        hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) estimate = Math.min(estimate, windowCells[indexes[row]]);
+        return estimate;
+    }
+
+    // The key's usual usage per bucket, 0 until a bucket has closed.
+    public double baselinePerBucket(long key) {
+        if (closedBuckets == 0) return 0;
+        hash(key);
+        double rate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) rate = Math.min(rate, baseline[indexes[row]]);
+        return rate * baselineScale;
+    }
+
+    public int buckets() {
+        return bucketCells.length;
+    }
+
+    public long currentBucket() {
+        return currentBucket;
+    }
+
+    public long closedBuckets() {
+        return closedBuckets;
+    }
+
+    // Heap taken by the counters.
+    public long bytes() {
+        return (long) (bucketCells.length + 2) * depth * width * Long.BYTES;
+    }
+
+    private void rotate() {
+        long[] closed = bucketCells[currentSlot];
+        double keep = 1 - alpha;
+        for (int cell = 0; cell < baseline.length; cell++) baseline[cell] = alpha * closed[cell] + keep * baseline[cell];
+        currentSlot = (currentSlot + 1) % bucketCells.length;
+        long[] oldest = bucketCells[currentSlot];
+        for (int cell = 0; cell < oldest.length; cell++) windowCells[cell] -= oldest[cell];
+        Arrays.fill(oldest, 0);
+    }
+
+    // Row indexes of the key, derived from one 64-bit hash (h1 + row * h2, Kirsch-Mitzenmacher).
+    private void hash(long key) {
+        long h = mix(key);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int row = 0; row < depth; row++) indexes[row] = row * width + ((h1 + row * h2) & mask);
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
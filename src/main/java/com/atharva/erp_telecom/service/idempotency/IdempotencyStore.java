@@ -0,0 +1,173 @@
+package com.atharva.erp_telecom.service.idempotency;
+
+import com.atharva.erp_telecom.entity.IdempotencyRecord;
+import com.atharva.erp_telecom.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Two-level store of responses keyed by Idempotency-Key.
+/*
+    1. Memory - an access ordered LinkedHashMap capped at erp.idempotency.max-entries, so the common case (a client
+       retrying within seconds) is a single hash lookup with no database round trip. The bodies it holds are capped
+       too, at erp.idempotency.cache-max-bytes in total: the least recently used entries go first. A body larger
+       than erp.idempotency.cache-max-body-bytes is not held at all, its entry keeps the request hash and status
+       and the body is read back from the table on replay.
+    2. idempotency_record table - survives restarts and covers keys evicted from memory, rows live for
+       erp.idempotency.ttl-minutes and are purged on a schedule.
+
+    In-flight requests are tracked separately: the first request with a key registers a future, duplicates that
+    arrive while it is still running wait on that future and replay its result instead of executing again.
+    Coalescing is per instance, behind a load balancer the table still catches retries once the first one is done.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final long maxCachedBytes;
+    private final int maxCachedBodyBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Both guarded by lock. cachedBytes is the sum of the bodies held in recent.
+    private final LinkedHashMap<String, StoredResponse> recent;
+    private long cachedBytes;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            @Value("${erp.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${erp.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${erp.idempotency.cache-max-bytes:33554432}") long maxCachedBytes,
+                            @Value("${erp.idempotency.cache-max-body-bytes:16384}") int maxCachedBodyBytes,
+                            MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxEntries = maxEntries;
+        this.maxCachedBytes = maxCachedBytes;
+        this.maxCachedBodyBytes = maxCachedBodyBytes;
+        this.recent = new LinkedHashMap<>(Math.min(maxEntries, 1024) * 2, 0.75f, true);
+        Gauge.builder("idempotency.cache.bytes", this, IdempotencyStore::getCachedBytes).baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Completed response for the key, from memory or else from the table. Null if there is none.
+    public StoredResponse find(String keyHash) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            StoredResponse cached = recent.get(keyHash);
+            if (cached != null) {
+                if (!cached.isExpired(now) && cached.hasBody()) return cached;
+                // expired, or a large body that is only in the table
+                if (cached.isExpired(now)) forget(keyHash);
+            }
+        } finally {
+            lock.unlock();
+        }
+        IdempotencyRecord record = idempotencyRecordRepository.findById(keyHash).orElse(null);
+        if (record == null) return null;
+        long expiresAt = record.getExpiresAt().atZone(ZONE).toInstant().toEpochMilli();
+        if (now >= expiresAt) return null;
+        StoredResponse stored = new StoredResponse(HexFormat.of().parseHex(record.getRequestHash()),
+                record.getStatusCode(), record.getContentType(), record.getResponseBody(), expiresAt);
+        remember(keyHash, stored);
+        return stored;
+    }
+
+    // Returns null if the caller is now the one executing the request, otherwise the future of the request already
+    // running with this key.
+    public CompletableFuture<StoredResponse> begin(String keyHash) {
+        return inFlight.putIfAbsent(keyHash, new CompletableFuture<>());
+    }
+
+    public StoredResponse complete(String keyHash, byte[] requestHash, int status, String contentType, byte[] body) {
+        long now = System.currentTimeMillis();
+        StoredResponse stored = new StoredResponse(requestHash, status, contentType, body, now + ttl.toMillis());
+        try {
+            idempotencyRecordRepository.save(new IdempotencyRecord(keyHash, HexFormat.of().formatHex(requestHash),
+                    status, contentType, body, toDateTime(now), toDateTime(stored.getExpiresAtMillis())));
+            remember(keyHash, stored);
+        } catch (DataAccessException e) {
+            // The memory copy, body and all since the table can't give it back, still covers quick retries. Only a
+            // retry after eviction or restart would re-execute.
+            log.warn("Could not persist idempotency record {}", keyHash, e);
+            remember(keyHash, stored, true);
+        }
+        CompletableFuture<StoredResponse> running = inFlight.remove(keyHash);
+        if (running != null) running.complete(stored);
+        return stored;
+    }
+
+    // The request failed without a response worth replaying, waiting duplicates get null and run it themselves.
+    public void abandon(String keyHash) {
+        CompletableFuture<StoredResponse> running = inFlight.remove(keyHash);
+        if (running != null) running.complete(null);
+    }
+
+    @Scheduled(fixedDelayString = "${erp.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int removed = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) log.debug("Purged {} expired idempotency records", removed);
+    }
+
+    public long getCachedBytes() {
+        lock.lock();
+        try {
+            return cachedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remember(String keyHash, StoredResponse stored) {
+        remember(keyHash, stored, false);
+    }
+
+    private void remember(String keyHash, StoredResponse stored, boolean keepBody) {
+        StoredResponse entry = keepBody || bodySize(stored) <= maxCachedBodyBytes ? stored : stored.withoutBody();
+        lock.lock();
+        try {
+            StoredResponse previous = recent.put(keyHash, entry);
+            cachedBytes += bodySize(entry) - bodySize(previous);
+            Iterator<StoredResponse> eldest = recent.values().iterator();
+            while (recent.size() > maxEntries || (cachedBytes > maxCachedBytes && recent.size() > 1)) {
+                cachedBytes -= bodySize(eldest.next());
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds lock.
+    private void forget(String keyHash) {
+        cachedBytes -= bodySize(recent.remove(keyHash));
+    }
+
+    private static long bodySize(StoredResponse stored) {
+        return stored == null || stored.getBody() == null ? 0 : stored.getBody().length;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE);
+    }
+}
@@ -0,0 +1,67 @@
+package com.atharva.erp_telecom.service.idempotency;
+
+import java.util.Arrays;
+
+// A response captured for an Idempotency-Key, together with the hash of the request that produced it.
+public final class StoredResponse {
+
+    private final byte[] requestHash;
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final long expiresAtMillis;
+    private final boolean hasBody;
+
+    public StoredResponse(byte[] requestHash, int status, String contentType, byte[] body, long expiresAtMillis) {
+        this(requestHash, status, contentType, body, expiresAtMillis, true);
+    }
+
+    private StoredResponse(byte[] requestHash, int status, String contentType, byte[] body, long expiresAtMillis,
+                           boolean hasBody) {
+        this.requestHash = requestHash;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.expiresAtMillis = expiresAtMillis;
+        this.hasBody = hasBody;
+    }
+
+    // The same response with its body left in idempotency_record, what IdempotencyStore keeps of a large one.
+    public StoredResponse withoutBody() {
+        return new StoredResponse(requestHash, status, contentType, null, expiresAtMillis, false);
+    }
+
+    // A key reused with a different body is a client bug, it must not silently get the first response back.
+    public boolean matches(byte[] otherRequestHash) {
+        return Arrays.equals(requestHash, otherRequestHash);
+    }
+
+    // False for an entry made by withoutBody, it can't be replayed as it is.
+    public boolean hasBody() {
+        return hasBody;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public byte[] getRequestHash() {
+        return requestHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
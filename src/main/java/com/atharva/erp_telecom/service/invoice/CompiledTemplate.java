@@ -0,0 +1,75 @@
+package com.atharva.erp_telecom.service.invoice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+// A template with {{placeholder}} markers, parsed once at startup into alternating literal / placeholder
+// segments. Rendering is a single pass of appends, nothing is scanned or parsed per document.
+public final class CompiledTemplate {
+
+    private final String[] literals;      // literals[i] comes before placeholders[i], the last one closes the template
+    private final String[] placeholders;
+    private final UnaryOperator<String> escaper;
+    private final int sizeHint;
+
+    private CompiledTemplate(String[] literals, String[] placeholders, UnaryOperator<String> escaper, int sizeHint) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.escaper = escaper;
+        this.sizeHint = sizeHint;
+    }
+
+    public static CompiledTemplate compile(String source, UnaryOperator<String> escaper) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) break;
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + 2, close).trim());
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]),
+                escaper, source.length() + 256);
+    }
+
+    // Unknown placeholders render as an empty string.
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value != null) out.append(escaper.apply(value));
+        }
+        return out.append(literals[placeholders.length]).toString();
+    }
+
+    public static String escapeHtml(String value) {
+        StringBuilder out = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '&': replacement = "&amp;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&#39;"; break;
+                default: replacement = null;
+            }
+            if (replacement == null) {
+                if (out != null) out.append(c);
+            } else {
+                if (out == null) out = new StringBuilder(value.length() + 16).append(value, 0, i);
+                out.append(replacement);
+            }
+        }
+        return out == null ? value : out.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.atharva.erp_telecom.service.invoice;
+
+import java.nio.file.Path;
+
+// Either a rendered document ready on disk or the job that is still producing it.
+public final class DocumentLookup {
+
+    private final Path file;
+    private final String fingerprint;
+    private final RenderJob pendingJob;
+
+    private DocumentLookup(Path file, String fingerprint, RenderJob pendingJob) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.pendingJob = pendingJob;
+    }
+
+    public static DocumentLookup ready(Path file, String fingerprint) {
+        return new DocumentLookup(file, fingerprint, null);
+    }
+
+    public static DocumentLookup pending(RenderJob job) {
+        return new DocumentLookup(null, job.getFingerprint(), job);
+    }
+
+    public boolean isReady() {
+        return file != null;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public RenderJob getPendingJob() {
+        return pendingJob;
+    }
+}
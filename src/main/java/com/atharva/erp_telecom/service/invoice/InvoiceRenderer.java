@@ -0,0 +1,87 @@
+package com.atharva.erp_telecom.service.invoice;
+
+import com.atharva.erp_telecom.constants.DocumentFormat;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.Invoice;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// Turns an invoice into HTML or PDF bytes. Both templates are compiled once when the bean is created.
+@Component
+public class InvoiceRenderer {
+
+    private final CompiledTemplate htmlTemplate;
+    private final CompiledTemplate pdfTemplate;
+    // Part of every fingerprint, so editing a template invalidates the documents rendered from the old one.
+    private final String templateVersion;
+
+    public InvoiceRenderer() {
+        String html = load("invoice-templates/invoice.html");
+        String pdf = load("invoice-templates/invoice-pdf.txt");
+        this.htmlTemplate = CompiledTemplate.compile(html, CompiledTemplate::escapeHtml);
+        this.pdfTemplate = CompiledTemplate.compile(pdf, value -> value);
+        this.templateVersion = sha256(html + '\u0000' + pdf).substring(0, 16);
+    }
+
+    public Map<String, String> model(Invoice invoice, Customer customer) {
+        // TreeMap so the fingerprint below sees the fields in a stable order.
+        Map<String, String> model = new TreeMap<>();
+        model.put("invoiceId", String.valueOf(invoice.getInvoiceId()));
+        model.put("invoiceReference", invoice.getInvoiceReference());
+        model.put("issueDate", String.valueOf(invoice.getIssueDate()));
+        model.put("dueDate", String.valueOf(invoice.getDueDate()));
+        model.put("status", invoice.getStatus());
+        model.put("currency", Objects.toString(invoice.getCurrency(), ""));
+        model.put("amount", invoice.getAmount().toPlainString());
+        model.put("amountPaid", invoice.getAmountPaid().toPlainString());
+        model.put("amountOutstanding", invoice.getAmountOutstanding().toPlainString());
+        if (customer != null) {
+            model.put("customerName", customer.getFullName());
+            model.put("email", Objects.toString(customer.getEmail(), ""));
+            model.put("addressLine1", Objects.toString(customer.getAddressLine1(), ""));
+            model.put("addressLine2", Objects.toString(customer.getAddressLine2(), ""));
+            model.put("region", Objects.toString(customer.getRegion(), ""));
+            model.put("country", Objects.toString(customer.getCountry(), ""));
+        }
+        return model;
+    }
+
+    // Content address of the document: same invoice data + same templates = same file on disk.
+    public String fingerprint(DocumentFormat format, Map<String, String> model) {
+        StringBuilder input = new StringBuilder(512).append(templateVersion).append('|').append(format.name());
+        model.forEach((key, value) -> input.append('|').append(key).append('=').append(value));
+        return sha256(input.toString());
+    }
+
+    public byte[] render(DocumentFormat format, Map<String, String> model) {
+        if (format == DocumentFormat.HTML) {
+            return htmlTemplate.render(model).getBytes(StandardCharsets.UTF_8);
+        }
+        return SimplePdfWriter.write(Arrays.asList(pdfTemplate.render(model).split("\n", -1)));
+    }
+
+    private static String load(String path) {
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invoice template missing: " + path, e);
+        }
+    }
+
+    private static String sha256(String input) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
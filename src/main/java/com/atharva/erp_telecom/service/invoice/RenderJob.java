@@ -0,0 +1,58 @@
+package com.atharva.erp_telecom.service.invoice;
+
+import com.atharva.erp_telecom.constants.DocumentFormat;
+
+import java.util.Map;
+
+// One queued rendering of an invoice document. At most one job per invoice and format is in flight.
+public final class RenderJob {
+
+    public enum State { QUEUED, RENDERING, FAILED }
+
+    private final long invoiceId;
+    private final DocumentFormat format;
+    private final String fingerprint;
+    private final Map<String, String> model;
+    private volatile State state = State.QUEUED;
+    private volatile String failure;
+
+    public RenderJob(long invoiceId, DocumentFormat format, String fingerprint, Map<String, String> model) {
+        this.invoiceId = invoiceId;
+        this.format = format;
+        this.fingerprint = fingerprint;
+        this.model = model;
+    }
+
+    public long getInvoiceId() {
+        return invoiceId;
+    }
+
+    public DocumentFormat getFormat() {
+        return format;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Map<String, String> getModel() {
+        return model;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+        this.state = State.FAILED;
+    }
+}
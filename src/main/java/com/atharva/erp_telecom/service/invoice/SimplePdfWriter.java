@@ -0,0 +1,94 @@
+package com.atharva.erp_telecom.service.invoice;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal PDF 1.4 writer for text-only documents (one Helvetica font, A4 pages, one line per entry).
+// Enough for invoices without pulling a full HTML-to-PDF stack into the application.
+public final class SimplePdfWriter {
+
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int MARGIN = 50;
+    private static final int FONT_SIZE = 10;
+    private static final int LEADING = 14;
+    private static final int LINES_PER_PAGE = (PAGE_HEIGHT - 2 * MARGIN) / LEADING;
+
+    private SimplePdfWriter() {}
+
+    public static byte[] write(List<String> lines) {
+        List<List<String>> pages = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, lines.size()); i += LINES_PER_PAGE) {
+            pages.add(lines.subList(Math.min(i, lines.size()), Math.min(i + LINES_PER_PAGE, lines.size())));
+        }
+
+        // Object numbering: 1 catalog, 2 page tree, 3 font, then a (page, content) pair per page.
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        List<Integer> offsets = new ArrayList<>();
+        append(out, "%PDF-1.4\n");
+
+        StringBuilder kids = new StringBuilder();
+        for (int p = 0; p < pages.size(); p++) {
+            kids.append(4 + 2 * p).append(" 0 R ");
+        }
+        object(out, offsets, "<< /Type /Catalog /Pages 2 0 R >>");
+        object(out, offsets, "<< /Type /Pages /Kids [" + kids + "] /Count " + pages.size() + " >>");
+        object(out, offsets, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+
+        for (int p = 0; p < pages.size(); p++) {
+            int contentObject = 5 + 2 * p;
+            object(out, offsets, "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                    + " /Resources << /Font << /F1 3 0 R >> >> /Contents " + contentObject + " 0 R >>");
+            byte[] content = pageContent(pages.get(p));
+            offsets.add(out.size());
+            append(out, offsets.size() + " 0 obj\n<< /Length " + content.length + " >>\nstream\n");
+            out.write(content, 0, content.length);
+            append(out, "\nendstream\nendobj\n");
+        }
+
+        int xref = out.size();
+        StringBuilder trailer = new StringBuilder("xref\n0 ").append(offsets.size() + 1).append("\n0000000000 65535 f \n");
+        for (int offset : offsets) {
+            trailer.append(String.format("%010d 00000 n \n", offset));
+        }
+        trailer.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root 1 0 R >>\nstartxref\n")
+                .append(xref).append("\n%%EOF\n");
+        append(out, trailer.toString());
+        return out.toByteArray();
+    }
+
+    private static byte[] pageContent(List<String> lines) {
+        StringBuilder content = new StringBuilder(64 * lines.size() + 64);
+        content.append("BT\n/F1 ").append(FONT_SIZE).append(" Tf\n").append(LEADING).append(" TL\n")
+                .append(MARGIN).append(' ').append(PAGE_HEIGHT - MARGIN).append(" Td\n");
+        for (String line : lines) {
+            content.append('(');
+            escape(line, content);
+            content.append(") Tj T*\n");
+        }
+        content.append("ET");
+        return content.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void escape(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') out.append('\\').append(c);
+            else if (c < 0x20) out.append(' ');
+            else if (c > 0xFF) out.append('?');
+            else out.append(c);
+        }
+    }
+
+    private static void object(ByteArrayOutputStream out, List<Integer> offsets, String body) {
+        offsets.add(out.size());
+        append(out, offsets.size() + " 0 obj\n" + body + "\nendobj\n");
+    }
+
+    private static void append(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,187 @@
+package com.atharva.erp_telecom.service.limiter;
+
+import com.atharva.erp_telecom.constants.RequestLane;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Caps the requests in flight at a limit that follows the observed latency (a gradient limiter with AIMD backoff).
+/*
+    Every completed request is a latency sample. Two moving averages are kept:
+        - short: the last ~erp.limiter.short-window samples, what requests see right now,
+        - long:  the last ~erp.limiter.long-window samples, the latency the service has when it is not queueing.
+    Each sample moves the limit towards
+        limit * gradient + sqrt(limit),   gradient = clamp(tolerance * long / short, 0.5, 1)
+    so while latency holds at the baseline the limit creeps up by sqrt(limit) (the queue we allow ourselves), and as
+    soon as requests start waiting the gradient drops below 1 and the limit comes down with it. Requests dropped for
+    overload are the AIMD part: the limit is multiplied by erp.limiter.backoff straight away. Only two things count
+    as a drop, both about the capacity the limit shares out:
+        - the request ran longer than erp.limiter.timeout-ms,
+        - it found no free database connection (ConcurrencyLimitFilter.markDropped from GlobalExceptionHandler).
+    Any other 503 - a full render queue, the change feed at its subscriber cap, a slow shard - is a local limit of
+    one feature and stays an ordinary latency sample, or one busy endpoint would shrink the limit of every lane.
+
+    The limit only grows while at least half of it is used, otherwise a quiet hour would leave a limit nobody ever
+    tested. When short falls well below long (load went away, or the baseline drifted up during a long overload)
+    long is pulled down so it does not keep the limit high on stale numbers.
+
+    Lanes (RequestLane) share the one limit: a lane is admitted while in flight < share * limit.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoff;
+    private final long timeoutNanos;
+    private final double shortAlpha;
+    private final double longAlpha;
+    private final Map<RequestLane, Double> shares = new EnumMap<>(RequestLane.class);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    // Guarded by lock, nanoseconds. 0 until the first sample.
+    private final ReentrantLock lock = new ReentrantLock();
+    private double shortRtt;
+    private double longRtt;
+
+    private final Map<RequestLane, Counter> accepted = new EnumMap<>(RequestLane.class);
+    private final Map<RequestLane, Counter> shed = new EnumMap<>(RequestLane.class);
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${erp.limiter.initial-limit:50}") int initialLimit,
+                                      @Value("${erp.limiter.min-limit:8}") int minLimit,
+                                      @Value("${erp.limiter.max-limit:400}") int maxLimit,
+                                      @Value("${erp.limiter.tolerance:1.5}") double tolerance,
+                                      @Value("${erp.limiter.smoothing:0.2}") double smoothing,
+                                      @Value("${erp.limiter.backoff:0.9}") double backoff,
+                                      @Value("${erp.limiter.timeout-ms:10000}") long timeoutMillis,
+                                      @Value("${erp.limiter.short-window:10}") int shortWindow,
+                                      @Value("${erp.limiter.long-window:600}") int longWindow,
+                                      @Value("${erp.limiter.lane-shares:}") String laneShares) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalStateException("erp.limiter needs 1 <= min-limit <= max-limit, got " + minLimit + " and " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoff = backoff;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.shortAlpha = 2.0 / (shortWindow + 1);
+        this.longAlpha = 2.0 / (longWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        for (RequestLane lane : RequestLane.values()) shares.put(lane, lane.getDefaultShare());
+        parseShares(laneShares);
+
+        Gauge.builder("limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("limiter.in_flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("limiter.rtt", this, limiter -> limiter.rttMillis(false))
+                .tag("window", "short").baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("limiter.rtt", this, limiter -> limiter.rttMillis(true))
+                .tag("window", "long").baseUnit("milliseconds").register(meterRegistry);
+        for (RequestLane lane : RequestLane.values()) {
+            String name = lane.name().toLowerCase(Locale.ROOT);
+            accepted.put(lane, Counter.builder("limiter.requests").tag("lane", name).tag("outcome", "accepted").register(meterRegistry));
+            shed.put(lane, Counter.builder("limiter.requests").tag("lane", name).tag("outcome", "shed").register(meterRegistry));
+        }
+    }
+
+    // Takes a slot for a request of the lane, false when it has to be shed. Pair every true with a release.
+    public boolean tryAcquire(RequestLane lane) {
+        int allowed = Math.max(1, (int) (limit * shares.get(lane)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(lane).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.get(lane).increment();
+                return true;
+            }
+        }
+    }
+
+    // Gives the slot back. startNanos is the System.nanoTime() the request started at; dropped means it found no
+    // database connection. A request past erp.limiter.timeout-ms counts as dropped either way.
+    public void release(long startNanos, boolean dropped) {
+        int before = inFlight.getAndDecrement();
+        long rtt = System.nanoTime() - startNanos;
+        lock.lock();
+        try {
+            if (dropped || rtt > timeoutNanos) {
+                limit = Math.max(minLimit, limit * backoff);
+                return;
+            }
+            if (rtt <= 0) return;
+            if (longRtt == 0) {
+                shortRtt = longRtt = rtt;
+                return;
+            }
+            shortRtt += shortAlpha * (rtt - shortRtt);
+            longRtt += longAlpha * (rtt - longRtt);
+            if (longRtt > 2 * shortRtt) longRtt *= 0.95;
+
+            double current = limit;
+            // the service isn't using the limit, a sample says nothing about a bigger one
+            if (before < current / 2) return;
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double target = current * gradient + Math.sqrt(current);
+            double next = current * (1 - smoothing) + target * smoothing;
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gives the slot back without a latency sample.
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double rttMillis(boolean longWindow) {
+        lock.lock();
+        try {
+            return (longWindow ? longRtt : shortRtt) / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // LANE=share pairs, e.g. BULK=0.3,READ=0.7
+    private void parseShares(String laneShares) {
+        for (String entry : laneShares.split(",")) {
+            if (entry.isBlank()) continue;
+            int separator = entry.indexOf('=');
+            if (separator <= 0) throw new IllegalStateException("Expected LANE=share in erp.limiter.lane-shares, got " + entry);
+            RequestLane lane = RequestLane.valueOf(entry.substring(0, separator).trim().toUpperCase(Locale.ROOT));
+            double share = Double.parseDouble(entry.substring(separator + 1).trim());
+            if (share <= 0 || share > 1) {
+                throw new IllegalStateException("erp.limiter.lane-shares: the share of " + lane + " must be in (0, 1], got " + share);
+            }
+            shares.put(lane, share);
+        }
+    }
+}
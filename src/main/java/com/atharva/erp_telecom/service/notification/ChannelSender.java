@@ -0,0 +1,147 @@
+package com.atharva.erp_telecom.service.notification;
+
+import com.atharva.erp_telecom.constants.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// The queue and sending thread of one channel: drains the queue in provider-sized batches, at no more than the
+// channel's rate, retrying a failed batch with exponential backoff and full jitter.
+/*
+    The queue is bounded, so when the provider (or the rate limit) cannot keep up, producers either wait for room or
+    are refused (NotificationService decides which) instead of piling messages up in memory.
+    The rate limit spaces batches so that on average no more than ratePerSecond messages go out; a batch that has to
+    wait is not sent in parts. Retry n sleeps a random time in [0, min(retryMax, retryBase * 2^n)], so channels that
+    failed together do not all come back at the same moment. After maxAttempts the batch is given up and counted.
+ */
+final class ChannelSender {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelSender.class);
+
+    private final NotificationChannel channel;
+    private final NotificationProvider provider;
+    private final BlockingQueue<Notification> queue;
+    private final int batchSize;
+    private final long nanosPerMessage;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+    private final Consumer<Notification> onGivenUp;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long nextSendNanos = System.nanoTime();
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter retries;
+    private final Timer sendTime;
+
+    ChannelSender(NotificationChannel channel, NotificationProvider provider, MeterRegistry meterRegistry,
+                  int queueCapacity, int batchSize, double ratePerSecond, int maxAttempts,
+                  long retryBaseMillis, long retryMaxMillis, Consumer<Notification> onGivenUp) {
+        if (batchSize <= 0 || ratePerSecond <= 0 || maxAttempts <= 0) {
+            throw new IllegalStateException("erp.notifications: batch size, rate and attempts of "
+                    + channel + " must be positive");
+        }
+        this.channel = channel;
+        this.provider = provider;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.nanosPerMessage = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.retryMaxMillis = retryMaxMillis;
+        this.onGivenUp = onGivenUp;
+        this.thread = new Thread(this::sendLoop, "notify-" + channel.name().toLowerCase());
+        thread.setDaemon(true);
+
+        String tag = channel.name();
+        Gauge.builder("notifications.queue.depth", queue, BlockingQueue::size)
+                .tag("channel", tag).description("Notifications waiting to be sent").register(meterRegistry);
+        this.sent = Counter.builder("notifications.messages").tag("channel", tag).tag("outcome", "sent")
+                .description("Rate of the sent outcome is the send rate").register(meterRegistry);
+        this.failed = Counter.builder("notifications.messages").tag("channel", tag).tag("outcome", "failed")
+                .register(meterRegistry);
+        this.retries = Counter.builder("notifications.retries").tag("channel", tag).register(meterRegistry);
+        this.sendTime = Timer.builder("notifications.batch.send").tag("channel", tag).register(meterRegistry);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean offer(Notification notification, long timeoutMillis) throws InterruptedException {
+        return timeoutMillis <= 0 ? queue.offer(notification)
+                : queue.offer(notification, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    private void sendLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                awaitRate(batch.size());
+                send(batch);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void awaitRate(int messages) throws InterruptedException {
+        long now = System.nanoTime();
+        if (nextSendNanos > now) TimeUnit.NANOSECONDS.sleep(nextSendNanos - now);
+        nextSendNanos = Math.max(nextSendNanos, now) + messages * nanosPerMessage;
+    }
+
+    private void send(List<Notification> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                provider.send(channel, batch);
+                sendTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                sent.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on {} {} notifications after {} attempts", batch.size(), channel, attempt, e);
+                    failed.increment(batch.size());
+                    batch.forEach(onGivenUp);
+                    return;
+                }
+                retries.increment();
+                long ceiling = Math.min(retryMaxMillis, retryBaseMillis << Math.min(attempt - 1, 20));
+                long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+                log.debug("Sending {} {} notifications failed, retry {} in {} ms: {}", batch.size(), channel,
+                        attempt, backoff, e.toString());
+                TimeUnit.MILLISECONDS.sleep(backoff);
+            }
+        }
+    }
+
+    // Lets the queue drain, for at most the given time.
+    void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        thread.join(timeoutMillis);
+    }
+}
@@ -0,0 +1,56 @@
+package com.atharva.erp_telecom.service.notification;
+
+import com.atharva.erp_telecom.constants.NotificationChannel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Appends every notification as one JSON line to a file per channel (email.ndjson, sms.ndjson), the stand-in for
+// the e-mail and SMS providers.
+@Component
+@ConditionalOnProperty(name = "erp.notifications.provider", havingValue = "file", matchIfMissing = true)
+public class FileNotificationProvider implements NotificationProvider {
+
+    private final ObjectMapper objectMapper;
+    private final Map<NotificationChannel, BufferedWriter> writers = new EnumMap<>(NotificationChannel.class);
+
+    public FileNotificationProvider(ObjectMapper objectMapper,
+                                    @Value("${erp.notifications.dir:notifications}") String directory) throws IOException {
+        this.objectMapper = objectMapper;
+        Path path = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(path);
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            writers.put(channel, Files.newBufferedWriter(path.resolve(channel.name().toLowerCase() + ".ndjson"),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        }
+    }
+
+    // Only one thread per channel calls this, so each writer has a single user.
+    @Override
+    public void send(NotificationChannel channel, List<Notification> batch) throws IOException {
+        BufferedWriter writer = writers.get(channel);
+        for (Notification notification : batch) {
+            writer.write(objectMapper.writeValueAsString(notification));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (BufferedWriter writer : writers.values()) writer.close();
+    }
+}
@@ -0,0 +1,9 @@
+package com.atharva.erp_telecom.service.notification;
+
+import com.atharva.erp_telecom.constants.NotificationChannel;
+import com.atharva.erp_telecom.constants.NotificationType;
+
+// One message to one customer on one channel. recipient is the e-mail address or the phone number.
+public record Notification(long customerId, NotificationType type, NotificationChannel channel, String recipient,
+                           String text) {
+}
@@ -0,0 +1,65 @@
+package com.atharva.erp_telecom.service.notification;
+
+import com.atharva.erp_telecom.constants.NotificationType;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.dunning.DunningActionSink;
+import com.atharva.erp_telecom.service.dunning.DunningNotice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+// Tells customers about their dunning actions through the notification pipeline (erp.dunning.sink=notifications).
+// When the channels stay full the batch fails and the dunning scheduler retries it; customers already queued are
+// deduplicated then.
+@Component
+@ConditionalOnProperty(name = "erp.dunning.sink", havingValue = "notifications")
+public class NotificationDunningActionSink implements DunningActionSink {
+
+    private final NotificationService notificationService;
+    private final CustomerService customerService;
+    private final long waitMillis;
+
+    public NotificationDunningActionSink(NotificationService notificationService,
+                                         CustomerService customerService,
+                                         @Value("${erp.dunning.notification-wait-ms:10000}") long waitMillis) {
+        this.notificationService = notificationService;
+        this.customerService = customerService;
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    public void deliver(List<DunningNotice> notices) throws InterruptedException {
+        int rejected = 0;
+        for (DunningNotice notice : notices) {
+            Optional<Customer> customer = customerService.findCustomerById(notice.customerId());
+            // a customer deleted since has nobody left to tell
+            if (customer.isEmpty()) continue;
+            NotificationService.Outcome outcome = notificationService.submit(customer.get(), typeOf(notice),
+                    textOf(notice), waitMillis);
+            if (outcome == NotificationService.Outcome.REJECTED) rejected++;
+        }
+        if (rejected > 0) {
+            throw new IllegalStateException(rejected + " dunning notifications could not be queued");
+        }
+    }
+
+    private static NotificationType typeOf(DunningNotice notice) {
+        return switch (notice.action()) {
+            case REMIND -> NotificationType.PAYMENT_REMINDER;
+            case SUSPEND -> NotificationType.SUSPENSION;
+            case RECONNECT -> NotificationType.RECONNECTION;
+        };
+    }
+
+    private static String textOf(DunningNotice notice) {
+        return switch (notice.action()) {
+            case REMIND -> "Your bill due on " + notice.overdueSince() + " is unpaid, please pay to avoid suspension.";
+            case SUSPEND -> "Your service is suspended for the bill due on " + notice.overdueSince() + ".";
+            case RECONNECT -> "Thank you for your payment, your service is active again.";
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.atharva.erp_telecom.service.notification;
+
+import com.atharva.erp_telecom.constants.NotificationChannel;
+
+import java.util.List;
+
+// The e-mail / SMS provider. A batch holds at most the channel's batch size, all for that channel, and each channel
+// calls from its own thread. An exception means none of the batch was accepted and it is sent again.
+public interface NotificationProvider {
+
+    void send(NotificationChannel channel, List<Notification> batch) throws Exception;
+}
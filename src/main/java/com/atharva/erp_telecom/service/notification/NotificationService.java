@@ -0,0 +1,189 @@
+package com.atharva.erp_telecom.service.notification;
+
+import com.atharva.erp_telecom.constants.NotificationChannel;
+import com.atharva.erp_telecom.constants.NotificationType;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Entry point for customer notifications (bill ready, low balance, dunning): deduplicates, then queues one message
+// per channel the customer can be reached on (e-mail when Customer.email is set, SMS when contactNumber is).
+/*
+    Every channel has its own bounded queue and sending thread (ChannelSender), so a slow SMS provider never holds
+    up e-mail. Producers choose how backpressure reaches them:
+        - submit(..., 0): never waits, a full queue refuses the message (REJECTED, notifications.messages
+          {outcome=rejected}) - for request threads,
+        - submit(..., wait > 0) / broadcast: waits up to that long for room - a fan-out over the whole customer base
+          is slowed down to what the providers accept instead of piling millions of messages up in memory.
+
+    Deduplication is per customer and type: once a message is queued the same type is not queued again for that
+    customer for erp.notifications.dedup-window-minutes, whether it comes from a retried dunning batch, a re-run
+    bill run or a second broadcast. A message that could not be queued or was given up on does not count.
+    Entries are kept in memory only, one instance should send (erp.notifications.enabled).
+ */
+@Component
+public class NotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
+    private static final int TYPE_BITS = 4;
+
+    public enum Outcome {
+        // queued on at least one channel
+        QUEUED,
+        // the customer got this type within the dedup window
+        DUPLICATE,
+        // neither an e-mail address nor a phone number
+        NO_ADDRESS,
+        // every channel's queue stayed full
+        REJECTED,
+        DISABLED
+    }
+
+    private final CustomerService customerService;
+    private final boolean enabled;
+    private final long dedupWindowMillis;
+    private final int broadcastPageSize;
+    private final Map<NotificationChannel, ChannelSender> senders = new EnumMap<>(NotificationChannel.class);
+    // (customerId << TYPE_BITS | type) -> expiry, epoch millis
+    private final ConcurrentHashMap<Long, Long> recentlySent = new ConcurrentHashMap<>();
+
+    private final Map<NotificationChannel, Counter> rejected = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationType, Counter> duplicates = new EnumMap<>(NotificationType.class);
+
+    public NotificationService(NotificationProvider provider,
+                               CustomerService customerService,
+                               MeterRegistry meterRegistry,
+                               @Value("${erp.notifications.enabled:true}") boolean enabled,
+                               @Value("${erp.notifications.queue-capacity:10000}") int queueCapacity,
+                               @Value("${erp.notifications.email.batch-size:50}") int emailBatchSize,
+                               @Value("${erp.notifications.email.rate-per-second:200}") double emailRate,
+                               @Value("${erp.notifications.sms.batch-size:100}") int smsBatchSize,
+                               @Value("${erp.notifications.sms.rate-per-second:100}") double smsRate,
+                               @Value("${erp.notifications.max-attempts:5}") int maxAttempts,
+                               @Value("${erp.notifications.retry-base-ms:500}") long retryBaseMillis,
+                               @Value("${erp.notifications.retry-max-ms:30000}") long retryMaxMillis,
+                               @Value("${erp.notifications.dedup-window-minutes:1440}") long dedupWindowMinutes,
+                               @Value("${erp.notifications.broadcast-page-size:500}") int broadcastPageSize) {
+        this.customerService = customerService;
+        this.enabled = enabled;
+        this.dedupWindowMillis = TimeUnit.MINUTES.toMillis(dedupWindowMinutes);
+        this.broadcastPageSize = broadcastPageSize;
+        senders.put(NotificationChannel.EMAIL, new ChannelSender(NotificationChannel.EMAIL, provider, meterRegistry,
+                queueCapacity, emailBatchSize, emailRate, maxAttempts, retryBaseMillis, retryMaxMillis, this::forget));
+        senders.put(NotificationChannel.SMS, new ChannelSender(NotificationChannel.SMS, provider, meterRegistry,
+                queueCapacity, smsBatchSize, smsRate, maxAttempts, retryBaseMillis, retryMaxMillis, this::forget));
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            rejected.put(channel, Counter.builder("notifications.messages").tag("channel", channel.name())
+                    .tag("outcome", "rejected").register(meterRegistry));
+        }
+        for (NotificationType type : NotificationType.values()) {
+            duplicates.put(type, Counter.builder("notifications.deduplicated").tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) senders.values().forEach(ChannelSender::start);
+    }
+
+    // Queues the message for every channel the customer has, waiting up to waitMillis per channel for room.
+    public Outcome submit(Customer customer, NotificationType type, String text, long waitMillis)
+            throws InterruptedException {
+        if (!enabled) return Outcome.DISABLED;
+        String email = customer.getEmail();
+        boolean hasEmail = email != null && !email.isBlank();
+        boolean hasPhone = customer.getContactNumber() > 0;
+        if (!hasEmail && !hasPhone) return Outcome.NO_ADDRESS;
+
+        long key = dedupKey(customer.getCustomerId(), type);
+        long now = System.currentTimeMillis();
+        Long previous = recentlySent.putIfAbsent(key, now + dedupWindowMillis);
+        if (previous != null) {
+            if (previous > now || !recentlySent.replace(key, previous, now + dedupWindowMillis)) {
+                duplicates.get(type).increment();
+                return Outcome.DUPLICATE;
+            }
+        }
+
+        boolean queued = false;
+        if (hasEmail) {
+            queued |= enqueue(new Notification(customer.getCustomerId(), type, NotificationChannel.EMAIL,
+                    email, text), waitMillis);
+        }
+        if (hasPhone) {
+            queued |= enqueue(new Notification(customer.getCustomerId(), type, NotificationChannel.SMS,
+                    Long.toString(customer.getContactNumber()), text), waitMillis);
+        }
+        if (!queued) {
+            recentlySent.remove(key);
+            return Outcome.REJECTED;
+        }
+        return Outcome.QUEUED;
+    }
+
+    // Sends one message to every customer, in customer id order, page by page. Blocks for as long as the channels
+    // need to take everything; returns how many customers ended up with each outcome.
+    public Map<Outcome, Integer> broadcast(NotificationType type, Function<Customer, String> text, long waitMillis)
+            throws InterruptedException {
+        Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+        long after = 0;
+        List<Customer> page;
+        do {
+            page = customerService.getCustomersAfter(after, broadcastPageSize);
+            for (Customer customer : page) {
+                outcomes.merge(submit(customer, type, text.apply(customer), waitMillis), 1, Integer::sum);
+                after = customer.getCustomerId();
+            }
+        } while (page.size() == broadcastPageSize);
+        log.info("{} broadcast done: {}", type, outcomes);
+        return outcomes;
+    }
+
+    public int queueDepth(NotificationChannel channel) {
+        return senders.get(channel).depth();
+    }
+
+    private boolean enqueue(Notification notification, long waitMillis) throws InterruptedException {
+        if (senders.get(notification.channel()).offer(notification, waitMillis)) return true;
+        rejected.get(notification.channel()).increment();
+        return false;
+    }
+
+    // A message given up on may be tried again later. If the customer's other channel got through, that channel
+    // then sees the message twice - better than the customer not hearing at all.
+    private void forget(Notification notification) {
+        recentlySent.remove(dedupKey(notification.customerId(), notification.type()));
+    }
+
+    @Scheduled(fixedDelayString = "${erp.notifications.dedup-purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        recentlySent.values().removeIf(expiry -> expiry <= now);
+    }
+
+    private static long dedupKey(long customerId, NotificationType type) {
+        return customerId << TYPE_BITS | type.ordinal();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ChannelSender sender : senders.values()) sender.stop(TimeUnit.SECONDS.toMillis(5));
+    }
+}
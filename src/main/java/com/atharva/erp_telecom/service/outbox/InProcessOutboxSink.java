@@ -0,0 +1,27 @@
+package com.atharva.erp_telecom.service.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Hands every event to the @EventListener(OutboxMessage.class) methods of this application, synchronously.
+// A listener that throws fails the delivery and the event is retried.
+@Component
+@ConditionalOnProperty(name = "erp.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            publisher.publishEvent(message);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.atharva.erp_telecom.service.outbox;
+
+import com.atharva.erp_telecom.service.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains the outbox table in batches and hands the events to the configured OutboxSink.
+/*
+    Delivery is at-least-once: an event is marked published only after the sink returned, so a crash in between
+    means it is delivered again. Consumers deduplicate on eventId.
+
+    Ordering is per aggregate: each batch is read in event_id order and split into one ordered group per aggregate.
+    If a group fails, none of its events are marked and the whole group is retried from its oldest event on the next
+    poll, so a later change of the same customer can never overtake an earlier one. Other aggregates carry on.
+
+    With customer sharding every shard has its own outbox table (the row is written in the customer's transaction),
+    the shards are drained one after the other. All events of one customer live on its shard, so the per aggregate
+    ordering holds.
+
+    Only one instance should run the dispatcher (erp.outbox.dispatcher-enabled), two would race on ordering.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final String PENDING_SQL =
+            "SELECT event_id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox_event "
+                    + "WHERE published_at IS NULL AND dead_letter = FALSE ORDER BY event_id LIMIT ?";
+    private static final String MARK_PUBLISHED_SQL =
+            "UPDATE outbox_event SET published_at = ?, attempts = attempts + 1 WHERE event_id = ?";
+    private static final String MARK_FAILED_SQL =
+            "UPDATE outbox_event SET dead_letter = (attempts + 1 >= ?), attempts = attempts + 1 WHERE event_id = ?";
+    private static final String PURGE_SQL =
+            "DELETE FROM outbox_event WHERE published_at < ? LIMIT ?";
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            rs.getTimestamp(6).toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final OutboxSink sink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failed;
+    private final Timer deliveryLag;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+                            ShardRouter shardRouter,
+                            OutboxSink sink,
+                            MeterRegistry meterRegistry,
+                            @Value("${erp.outbox.dispatcher-enabled:true}") boolean enabled,
+                            @Value("${erp.outbox.batch-size:500}") int batchSize,
+                            @Value("${erp.outbox.max-attempts:20}") int maxAttempts,
+                            @Value("${erp.outbox.retention-days:7}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.sink = sink;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofDays(retentionDays);
+
+        this.published = Counter.builder("outbox.events.published").register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed").register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from commit of the change to acceptance by the sink")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest undelivered event at the last poll")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${erp.outbox.poll-interval-ms:200}")
+    public void dispatch() {
+        if (!enabled) return;
+        long[] worstLag = {0};
+        shardRouter.onEachShard(shard -> {
+            // Keep draining while batches come back full and clean, a backlog is worked off without waiting for polls.
+            while (dispatchBatch() == batchSize) {
+                // next batch
+            }
+            worstLag[0] = Math.max(worstLag[0], lagMillis.get());
+        });
+        lagMillis.set(worstLag[0]);
+    }
+
+    // Returns the number of events delivered.
+    int dispatchBatch() {
+        List<OutboxMessage> batch = jdbcTemplate.query(PENDING_SQL, MESSAGE_MAPPER, batchSize);
+        LocalDateTime now = LocalDateTime.now();
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Duration.between(batch.get(0).getCreatedAt(), now).toMillis());
+
+        Map<String, List<OutboxMessage>> byAggregate = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            byAggregate.computeIfAbsent(message.getAggregateType() + ':' + message.getAggregateId(),
+                    key -> new ArrayList<>(4)).add(message);
+        }
+
+        List<Object[]> delivered = new ArrayList<>(batch.size());
+        List<Object[]> undelivered = new ArrayList<>();
+        Timestamp publishedAt = Timestamp.valueOf(now);
+        for (Map.Entry<String, List<OutboxMessage>> group : byAggregate.entrySet()) {
+            try {
+                sink.publish(group.getValue());
+                for (OutboxMessage message : group.getValue()) {
+                    delivered.add(new Object[]{publishedAt, message.getEventId()});
+                    deliveryLag.record(Duration.between(message.getCreatedAt(), now));
+                }
+            } catch (Exception e) {
+                log.warn("Publishing {} outbox events of {} failed, will retry", group.getValue().size(), group.getKey(), e);
+                // Only the head event is charged an attempt, the rest of the group never got a chance.
+                undelivered.add(new Object[]{maxAttempts, group.getValue().get(0).getEventId()});
+            }
+        }
+        if (!delivered.isEmpty()) jdbcTemplate.batchUpdate(MARK_PUBLISHED_SQL, delivered);
+        if (!undelivered.isEmpty()) jdbcTemplate.batchUpdate(MARK_FAILED_SQL, undelivered);
+        published.increment(delivered.size());
+        failed.increment(undelivered.size());
+        return undelivered.isEmpty() ? delivered.size() : 0;
+    }
+
+    // Published events are only kept for replay / troubleshooting, old ones are removed in small chunks.
+    @Scheduled(fixedDelayString = "${erp.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        if (!enabled) return;
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        shardRouter.onEachShard(shard -> {
+            int removed;
+            do {
+                removed = jdbcTemplate.update(PURGE_SQL, cutoff, batchSize * 10);
+            } while (removed == batchSize * 10);
+        });
+    }
+}
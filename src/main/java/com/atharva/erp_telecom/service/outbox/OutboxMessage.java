@@ -0,0 +1,51 @@
+package com.atharva.erp_telecom.service.outbox;
+
+import java.time.LocalDateTime;
+
+// What a sink receives for each outbox row. Also published as a Spring application event by the in-process sink,
+// so listeners can simply declare @EventListener(OutboxMessage.class).
+public final class OutboxMessage {
+
+    private final long eventId;
+    private final String aggregateType;
+    private final String aggregateId;
+    private final String eventType;
+    private final String payload;
+    private final LocalDateTime createdAt;
+
+    public OutboxMessage(long eventId, String aggregateType, String aggregateId, String eventType, String payload,
+                         LocalDateTime createdAt) {
+        this.eventId = eventId;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    // Monotonic per database, consumers use it to drop redeliveries (delivery is at-least-once).
+    public long getEventId() {
+        return eventId;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    // JSON document of the aggregate after the change
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
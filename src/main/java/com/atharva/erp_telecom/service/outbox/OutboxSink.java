@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.service.outbox;
+
+import java.util.List;
+
+// Destination for outbox events. The messages of one call all belong to the same aggregate and are in commit order;
+// an exception means none of them count as delivered and they will be offered again.
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,34 @@
+package com.atharva.erp_telecom.service.outbox;
+
+import com.atharva.erp_telecom.entity.OutboxEvent;
+import com.atharva.erp_telecom.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Records a change event in the outbox table. MANDATORY propagation makes sure it is only ever called from inside
+// the transaction that makes the change, so the event commits (or rolls back) together with it.
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Object aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise " + eventType + " event for " + aggregateType + " " + aggregateId, e);
+        }
+        outboxEventRepository.save(new OutboxEvent(aggregateType, String.valueOf(aggregateId), eventType, json));
+    }
+}
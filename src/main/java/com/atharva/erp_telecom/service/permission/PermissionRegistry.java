@@ -0,0 +1,96 @@
+package com.atharva.erp_telecom.service.permission;
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The role -> permission mapping as bitsets (bit = Permission ordinal), published as one immutable snapshot.
+/*
+    A principal's effective permissions are the OR of its roles' bitsets, computed once when it is authenticated
+    (UserService for tokens, ApiKeyIndex for API keys) and then checked with a single AND per controller method, see
+    PermissionAuthorizationManager.
+
+    A change through PermissionService reloads the whole mapping and swaps the snapshot, so a request sees either
+    the old mapping or the new one, never a mix. Changes made on other instances are picked up every
+    erp.permissions.refresh-interval-ms. Every snapshot has a new version, caches of computed bitsets compare it to
+    know they are stale.
+ */
+@Component
+public class PermissionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionRegistry.class);
+
+    private final RolesRepository rolesRepository;
+    // scheduled refreshes and PermissionService reloads, one publishes at a time
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of());
+
+    public PermissionRegistry(RolesRepository rolesRepository) {
+        this.rolesRepository = rolesRepository;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${erp.permissions.refresh-interval-ms:60000}",
+            initialDelayString = "${erp.permissions.refresh-interval-ms:60000}")
+    public void reload() {
+        Map<String, Long> bitsByRole = new HashMap<>();
+        for (Roles role : rolesRepository.findAllWithPermissions()) {
+            bitsByRole.put(role.getRoleName(), bitsOf(role.getPermissions()));
+        }
+        publishLock.lock();
+        try {
+            Snapshot current = snapshot;
+            // unchanged: keep the version, or every refresh would invalidate every cached bitset
+            if (current.bitsByRole.equals(bitsByRole) && current.version != 0) return;
+            snapshot = new Snapshot(current.version + 1, Map.copyOf(bitsByRole));
+        } finally {
+            publishLock.unlock();
+        }
+        log.debug("Permissions of {} roles published", bitsByRole.size());
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public static long bitsOf(Collection<Permission> permissions) {
+        long bits = 0;
+        for (Permission permission : permissions) bits |= permission.bit();
+        return bits;
+    }
+
+    public static Set<Permission> permissionsOf(long bits) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (Permission permission : Permission.values()) {
+            if ((bits & permission.bit()) != 0) permissions.add(permission);
+        }
+        return permissions;
+    }
+
+    public record Snapshot(long version, Map<String, Long> bitsByRole) {
+
+        // Effective permissions of a principal holding these roles, roles without a mapping grant nothing.
+        public long bitsOf(Collection<? extends GrantedAuthority> authorities) {
+            long bits = 0;
+            for (GrantedAuthority authority : authorities) bits |= bitsOf(authority.getAuthority());
+            return bits;
+        }
+
+        public long bitsOf(String roleName) {
+            return bitsByRole.getOrDefault(roleName, 0L);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.atharva.erp_telecom.service.permission;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.exception.custom_exceptions.RoleNotFoundException;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Reads and changes the role -> permission mapping. A change is saved first and then published to every request
+// at once through PermissionRegistry.
+@Service
+public class PermissionService {
+
+    private final RolesRepository rolesRepository;
+    private final PermissionRegistry permissionRegistry;
+    private final AuditLog auditLog;
+
+    public PermissionService(RolesRepository rolesRepository, PermissionRegistry permissionRegistry, AuditLog auditLog) {
+        this.rolesRepository = rolesRepository;
+        this.permissionRegistry = permissionRegistry;
+        this.auditLog = auditLog;
+    }
+
+    // Every role with its permissions, as currently published.
+    public Map<String, Set<Permission>> listRolePermissions() {
+        Map<String, Set<Permission>> permissions = new TreeMap<>();
+        permissionRegistry.snapshot().bitsByRole()
+                .forEach((role, bits) -> permissions.put(role, PermissionRegistry.permissionsOf(bits)));
+        return permissions;
+    }
+
+    // Replaces the permissions of a role, an empty set takes them all away.
+    public Set<Permission> replacePermissions(String roleName, Set<String> permissionNames) {
+        if (permissionNames == null) throw new InvalidRequestException("Expected a list of permissions");
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (String name : permissionNames) {
+            try {
+                permissions.add(Permission.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("Unknown permission: " + name);
+            }
+        }
+        Roles role = rolesRepository.findByRoleName(roleName)
+                .orElseThrow(() -> new RoleNotFoundException("Role not found:" + roleName));
+        role.setPermissions(permissions);
+        rolesRepository.save(role);
+        permissionRegistry.reload();
+        auditLog.record(AuditAction.ROLE_PERMISSIONS_CHANGED, role.getRoleId(), roleName + " -> " + permissions);
+        return permissions;
+    }
+}
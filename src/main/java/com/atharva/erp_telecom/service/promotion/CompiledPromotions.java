@@ -0,0 +1,200 @@
+package com.atharva.erp_telecom.service.promotion;
+
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.entity.PromotionRule;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// The published promotion rules, compiled into flat arrays so rating an event is a few AND-ed bitset words and a
+// threshold check, with no objects, no strings and no allocation.
+/*
+    Rules are sorted once by preference (priority, then discount, then rule id) and rule i is bit i. For every
+    attribute (CustomerProfiles: class, sub-class, region, country) and every code of it there is a row of bits -
+    the rules that accept a customer with that code, i.e. rules naming that value plus rules leaving the attribute
+    open - and likewise one row per service type. Codes assigned after the publish fall on row 0, which holds only
+    the open rules.
+
+    match() ANDs the five rows word by word; the set bits are the rules whose conditions on the customer and the
+    service hold, in preference order. The first of them whose validity window covers the event and whose
+    threshold the month-to-date usage crosses is the one that applies. 1,000 rules are 16 words per row.
+
+    Per-rule counters (events discounted, discounted quantity) live next to the rules and start at zero with every
+    publish. They are only written by record(), which the caller serialises.
+ */
+public final class CompiledPromotions {
+
+    private static final ServiceType[] SERVICE_TYPES = ServiceType.values();
+    private static final Comparator<PromotionRule> PREFERENCE = Comparator
+            .comparingInt(PromotionRule::getPriority).reversed()
+            .thenComparing(Comparator.comparingInt(PromotionRule::getDiscountBasisPoints).reversed())
+            .thenComparing(PromotionRule::getRuleId);
+
+    private final long version;
+    private final int words;
+    private final long[] ruleIds;
+    private final String[] names;
+    private final long[] thresholds;
+    private final int[] discounts;
+    private final long[] validFrom;
+    private final long[] validTo;
+    // [attribute][code * words + word]
+    private final long[][] attributeRows;
+    private final int[] attributeRowCount;
+    // [serviceTypeCode * words + word]
+    private final long[] serviceRows;
+
+    private final long[] discountedEvents;
+    private final long[] discountedQuantities;
+
+    public static CompiledPromotions empty() {
+        return compile(0, List.of(), new CustomerProfiles(0), ZoneOffset.UTC);
+    }
+
+    // Rules must be valid (see PromotionService). Codes for the values they name are taken from, or added to,
+    // the profiles' dictionaries. Validity windows are read in the billing offset.
+    public static CompiledPromotions compile(long version, List<PromotionRule> rules, CustomerProfiles profiles,
+                                             ZoneOffset offset) {
+        return new CompiledPromotions(version, rules.stream().sorted(PREFERENCE).toList(), profiles, offset);
+    }
+
+    private CompiledPromotions(long version, List<PromotionRule> rules, CustomerProfiles profiles, ZoneOffset offset) {
+        this.version = version;
+        int count = rules.size();
+        this.words = Math.max(1, (count + 63) >>> 6);
+        this.ruleIds = new long[count];
+        this.names = new String[count];
+        this.thresholds = new long[count];
+        this.discounts = new int[count];
+        this.validFrom = new long[count];
+        this.validTo = new long[count];
+        this.discountedEvents = new long[count];
+        this.discountedQuantities = new long[count];
+
+        int[][] ruleCodes = new int[count][CustomerProfiles.ATTRIBUTES];
+        for (int i = 0; i < count; i++) {
+            PromotionRule rule = rules.get(i);
+            ruleIds[i] = rule.getRuleId();
+            names[i] = rule.getName();
+            thresholds[i] = rule.getThresholdQuantity();
+            discounts[i] = rule.getDiscountBasisPoints();
+            validFrom[i] = rule.getValidFrom() == null ? Long.MIN_VALUE : rule.getValidFrom().toEpochSecond(offset);
+            validTo[i] = rule.getValidTo() == null ? Long.MAX_VALUE : rule.getValidTo().toEpochSecond(offset);
+            int[] codes = ruleCodes[i];
+            codes[CustomerProfiles.CLASS] = codeOf(profiles, CustomerProfiles.CLASS, rule.getCustomerClass());
+            codes[CustomerProfiles.SUB_CLASS] =
+                    codeOf(profiles, CustomerProfiles.SUB_CLASS, rule.getCustomerSubClass());
+            codes[CustomerProfiles.REGION] = codeOf(profiles, CustomerProfiles.REGION, rule.getRegion());
+            codes[CustomerProfiles.COUNTRY] = codeOf(profiles, CustomerProfiles.COUNTRY, rule.getCountry());
+        }
+
+        this.attributeRows = new long[CustomerProfiles.ATTRIBUTES][];
+        this.attributeRowCount = new int[CustomerProfiles.ATTRIBUTES];
+        for (int attribute = 0; attribute < CustomerProfiles.ATTRIBUTES; attribute++) {
+            int rows = profiles.codeCount(attribute);
+            long[] bits = new long[rows * words];
+            for (int i = 0; i < count; i++) {
+                int code = ruleCodes[i][attribute];
+                if (code < 0) {
+                    // open: every row accepts it
+                    for (int row = 0; row < rows; row++) setBit(bits, row, i);
+                } else if (code > 0) {
+                    setBit(bits, code, i);
+                }
+                // code 0: a value the dictionary had no room for, matches nobody
+            }
+            attributeRows[attribute] = bits;
+            attributeRowCount[attribute] = rows;
+        }
+
+        this.serviceRows = new long[SERVICE_TYPES.length * words];
+        for (int i = 0; i < count; i++) {
+            setBit(serviceRows, ServiceType.valueOf(rules.get(i).getServiceType()).code(), i);
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return ruleIds.length;
+    }
+
+    // Index of the rule that applies to usage of the customer with this profile, -1 if none does. usageBefore is
+    // the customer's month-to-date usage of the service before the event.
+    public int match(long profile, int serviceTypeCode, long usageBefore, long quantity, long epochSecond) {
+        int serviceOffset = serviceTypeCode * words;
+        int classOffset = rowOffset(CustomerProfiles.CLASS, profile);
+        int subClassOffset = rowOffset(CustomerProfiles.SUB_CLASS, profile);
+        int regionOffset = rowOffset(CustomerProfiles.REGION, profile);
+        int countryOffset = rowOffset(CustomerProfiles.COUNTRY, profile);
+        long[] classRows = attributeRows[CustomerProfiles.CLASS];
+        long[] subClassRows = attributeRows[CustomerProfiles.SUB_CLASS];
+        long[] regionRows = attributeRows[CustomerProfiles.REGION];
+        long[] countryRows = attributeRows[CustomerProfiles.COUNTRY];
+        long usageAfter = usageBefore + quantity;
+        for (int word = 0; word < words; word++) {
+            long candidates = serviceRows[serviceOffset + word]
+                    & classRows[classOffset + word]
+                    & subClassRows[subClassOffset + word]
+                    & regionRows[regionOffset + word]
+                    & countryRows[countryOffset + word];
+            while (candidates != 0) {
+                int rule = (word << 6) | Long.numberOfTrailingZeros(candidates);
+                if (usageAfter > thresholds[rule] && epochSecond >= validFrom[rule] && epochSecond < validTo[rule]) {
+                    return rule;
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        return -1;
+    }
+
+    // The part of the event the rule's discount applies to: what lies above the threshold.
+    public long discountedQuantity(int rule, long usageBefore, long quantity) {
+        return Math.min(quantity, usageBefore + quantity - thresholds[rule]);
+    }
+
+    public void record(int rule, long discountedQuantity) {
+        discountedEvents[rule]++;
+        discountedQuantities[rule] += discountedQuantity;
+    }
+
+    public long ruleId(int rule) {
+        return ruleIds[rule];
+    }
+
+    public int discountBasisPoints(int rule) {
+        return discounts[rule];
+    }
+
+    // Rules in preference order with what they discounted since the publish.
+    public List<RuleStats> stats() {
+        List<RuleStats> stats = new ArrayList<>(ruleIds.length);
+        for (int i = 0; i < ruleIds.length; i++) {
+            stats.add(new RuleStats(ruleIds[i], names[i], discounts[i], discountedEvents[i], discountedQuantities[i]));
+        }
+        return stats;
+    }
+
+    public record RuleStats(long ruleId, String name, int discountBasisPoints, long discountedEvents,
+                            long discountedQuantity) {
+    }
+
+    private int rowOffset(int attribute, long profile) {
+        int code = CustomerProfiles.code(profile, attribute);
+        return (code < attributeRowCount[attribute] ? code : 0) * words;
+    }
+
+    // -1 for an attribute the rule leaves open.
+    private static int codeOf(CustomerProfiles profiles, int attribute, String value) {
+        return value == null || value.isBlank() ? -1 : profiles.codeOf(attribute, value);
+    }
+
+    private void setBit(long[] bits, int row, int rule) {
+        bits[row * words + (rule >>> 6)] |= 1L << rule;
+    }
+}
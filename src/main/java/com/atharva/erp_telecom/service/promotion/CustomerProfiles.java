@@ -0,0 +1,167 @@
+package com.atharva.erp_telecom.service.promotion;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+// The customer attributes promotions are keyed on, as small integer codes: customerId -> one long holding the codes
+// of class, sub-class, region and country (16 bits each). Looking a customer up allocates nothing.
+/*
+    Each attribute has its own dictionary, value -> code, case-insensitive. Codes are handed out on first sight, from
+    1, and never change, so compiled promotion tables (CompiledPromotions) can index on them directly and a publish
+    does not have to re-encode any customer. Code 0 is "no value" or a value past the 65535th of that attribute,
+    which only rules leaving the attribute open match. A known value is a lock-free ConcurrentHashMap read; only
+    handing out a new code takes the dictionary lock, so codes stay dense.
+
+    The id -> profile table is open-addressing over two flat arrays, written by one thread at a time (the profile
+    sync) and read by any number under a StampedLock optimistic read: a reader retries under the read lock only if a
+    write happened meanwhile. Entries are never removed, a deleted customer has no more usage to rate.
+ */
+public final class CustomerProfiles {
+
+    public static final int CLASS = 0;
+    public static final int SUB_CLASS = 1;
+    public static final int REGION = 2;
+    public static final int COUNTRY = 3;
+    public static final int ATTRIBUTES = 4;
+
+    private static final int CODE_BITS = 16;
+    private static final int MAX_CODE = (1 << CODE_BITS) - 1;
+    private static final long FREE = Long.MIN_VALUE;
+
+    private final Map<String, Integer>[] dictionaries;
+    private final ReentrantLock dictionaryLock = new ReentrantLock();
+    private final StampedLock lock = new StampedLock();
+    private long[] keys;
+    private long[] profiles;
+    private int mask;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public CustomerProfiles(int expectedCustomers) {
+        dictionaries = new Map[ATTRIBUTES];
+        for (int attribute = 0; attribute < ATTRIBUTES; attribute++) dictionaries[attribute] = new ConcurrentHashMap<>();
+        allocate(tableSizeFor(expectedCustomers));
+    }
+
+    // Code of the value, assigned if it is new. 0 for a blank value or a full dictionary.
+    public int codeOf(int attribute, String value) {
+        if (value == null || value.isBlank()) return 0;
+        Map<String, Integer> dictionary = dictionaries[attribute];
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        Integer code = dictionary.get(normalized);
+        if (code != null) return code;
+        dictionaryLock.lock();
+        try {
+            code = dictionary.get(normalized);
+            if (code != null) return code;
+            // every put happens under the lock, so size() is exact here
+            if (dictionary.size() >= MAX_CODE) return 0;
+            int next = dictionary.size() + 1;
+            dictionary.put(normalized, next);
+            return next;
+        } finally {
+            dictionaryLock.unlock();
+        }
+    }
+
+    public int codeCount(int attribute) {
+        return dictionaries[attribute].size() + 1;
+    }
+
+    public void put(long customerId, String customerClass, String customerSubClass, String region, String country) {
+        long profile = (long) codeOf(CLASS, customerClass)
+                | (long) codeOf(SUB_CLASS, customerSubClass) << CODE_BITS
+                | (long) codeOf(REGION, region) << (2 * CODE_BITS)
+                | (long) codeOf(COUNTRY, country) << (3 * CODE_BITS);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotFor(keys, mask, customerId);
+            if (keys[slot] == FREE) {
+                keys[slot] = customerId;
+                profiles[slot] = profile;
+                if (++size > (mask + 1) >> 1) resize();
+            } else {
+                profiles[slot] = profile;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // The profile of the customer, 0 (every attribute unknown) when it has not been seen.
+    public long profileOf(long customerId) {
+        long stamp = lock.tryOptimisticRead();
+        long profile = find(keys, profiles, mask, customerId);
+        if (lock.validate(stamp)) return profile;
+        stamp = lock.readLock();
+        try {
+            return find(keys, profiles, mask, customerId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public static int code(long profile, int attribute) {
+        return (int) (profile >>> (attribute * CODE_BITS)) & MAX_CODE;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static long find(long[] keys, long[] profiles, int mask, long customerId) {
+        // arrays read during an optimistic read may be mid-resize, stay in bounds and let validate() decide
+        if (keys.length != profiles.length || keys.length != mask + 1) return 0;
+        int slot = slotFor(keys, mask, customerId);
+        return keys[slot] == customerId ? profiles[slot] : 0;
+    }
+
+    private static int slotFor(long[] keys, int mask, long customerId) {
+        int slot = (int) mix(customerId) & mask;
+        while (keys[slot] != FREE && keys[slot] != customerId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldProfiles = profiles;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE) continue;
+            int slot = slotFor(keys, mask, oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            profiles[slot] = oldProfiles[i];
+        }
+    }
+
+    private void allocate(int tableSize) {
+        long[] newKeys = new long[tableSize];
+        Arrays.fill(newKeys, FREE);
+        keys = newKeys;
+        profiles = new long[tableSize];
+        mask = tableSize - 1;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int tableSizeFor(int expected) {
+        int needed = Math.max(16, expected * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
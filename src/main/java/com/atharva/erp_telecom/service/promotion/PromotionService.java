@@ -0,0 +1,227 @@
+package com.atharva.erp_telecom.service.promotion;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.dto.PromotionRuleRequest;
+import com.atharva.erp_telecom.dto.PublishedPromotions;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.PromotionRule;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.atharva.erp_telecom.repository.PromotionRuleRepository;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Promotion rules: kept in promotion_rule, compiled into a CompiledPromotions table when published, applied by
+// UsageService to every ingested event.
+/*
+    A rule is live while it is active and published. POST /promotions adds an inactive-until-published rule, publish()
+    marks every active rule published and swaps a freshly compiled table in; deactivating a rule recompiles at once.
+    Every erp.promotions.refresh-interval-ms the live rules are read again and recompiled if they differ from the
+    table's, which is how publishes made on other instances arrive.
+
+    The customer side of the match comes from CustomerProfiles, kept up to date from the customer change feed query
+    (CustomerService.getChangesAfter) every erp.promotions.profile-sync-interval-ms. Until a new customer's profile
+    has been synced, only rules that leave every customer attribute open apply to it.
+ */
+@Service
+public class PromotionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionService.class);
+
+    private static final int MAX_ATTRIBUTE_LENGTH = 50;
+    private static final int MAX_BASIS_POINTS = 10_000;
+
+    private final PromotionRuleRepository ruleRepository;
+    private final CustomerService customerService;
+    private final AuditLog auditLog;
+    private final ZoneOffset billingOffset;
+    private final int profilePageSize;
+    private final CustomerProfiles profiles;
+    private final Counter discountedEvents;
+
+    // refresh() and syncProfiles() each run one at a time, independently of each other: CustomerProfiles is
+    // thread-safe on its own, the locks only guard compiledRules and the sync position.
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private volatile CompiledPromotions promotions = CompiledPromotions.empty();
+    private volatile LocalDateTime compiledAt = LocalDateTime.now();
+    private List<RuleKey> compiledRules = List.of();
+    // profile sync position, see CustomerService.getChangesAfter
+    private LocalDateTime profilesSyncedTo = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private long profilesSyncedId;
+
+    public PromotionService(PromotionRuleRepository ruleRepository,
+                            CustomerService customerService,
+                            AuditLog auditLog,
+                            MeterRegistry meterRegistry,
+                            @Value("${erp.usage.billing-offset:Z}") String billingOffset,
+                            @Value("${erp.usage.expected-customers:100000}") int expectedCustomers,
+                            @Value("${erp.promotions.profile-page-size:1000}") int profilePageSize) {
+        this.ruleRepository = ruleRepository;
+        this.customerService = customerService;
+        this.auditLog = auditLog;
+        this.billingOffset = ZoneOffset.of(billingOffset);
+        this.profilePageSize = profilePageSize;
+        this.profiles = new CustomerProfiles(expectedCustomers);
+        this.discountedEvents = Counter.builder("promotions.discounted.events").register(meterRegistry);
+        Gauge.builder("promotions.rules.live", this, service -> service.promotions.size()).register(meterRegistry);
+        Gauge.builder("promotions.profiles", profiles, CustomerProfiles::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    // The quantity of the event the applying promotion discounts (0 when none applies), counted against the rule.
+    // Callers serialise calls (UsageService holds the usage aggregator's lock), the per-rule counters are plain longs.
+    public long applyLocked(long customerId, int serviceTypeCode, long usageBefore, long quantity, long epochSecond) {
+        CompiledPromotions current = promotions;
+        int rule = current.match(profiles.profileOf(customerId), serviceTypeCode, usageBefore, quantity, epochSecond);
+        if (rule < 0) return 0;
+        long discounted = current.discountedQuantity(rule, usageBefore, quantity);
+        current.record(rule, discounted);
+        discountedEvents.increment();
+        return discounted;
+    }
+
+    public List<PromotionRule> listRules() {
+        return ruleRepository.findAll();
+    }
+
+    public PromotionRule createRule(PromotionRuleRequest request) {
+        if (request.getName() == null || request.getName().isBlank() || request.getName().length() > 100) {
+            throw new InvalidRequestException("name must be 1 to 100 characters");
+        }
+        ServiceType serviceType;
+        try {
+            serviceType = ServiceType.valueOf(String.valueOf(request.getServiceType()).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown service type: " + request.getServiceType());
+        }
+        if (request.getDiscountBasisPoints() <= 0 || request.getDiscountBasisPoints() > MAX_BASIS_POINTS) {
+            throw new InvalidRequestException("discountBasisPoints must be 1 to " + MAX_BASIS_POINTS);
+        }
+        if (request.getThresholdQuantity() < 0) throw new InvalidRequestException("thresholdQuantity cannot be negative");
+        if (request.getValidFrom() != null && request.getValidTo() != null
+                && !request.getValidTo().isAfter(request.getValidFrom())) {
+            throw new InvalidRequestException("validTo must be after validFrom");
+        }
+        PromotionRule rule = new PromotionRule();
+        rule.setName(request.getName());
+        rule.setCustomerClass(attribute("customerClass", request.getCustomerClass()));
+        rule.setCustomerSubClass(attribute("customerSubClass", request.getCustomerSubClass()));
+        rule.setRegion(attribute("region", request.getRegion()));
+        rule.setCountry(attribute("country", request.getCountry()));
+        rule.setServiceType(serviceType.name());
+        rule.setThresholdQuantity(request.getThresholdQuantity());
+        rule.setDiscountBasisPoints(request.getDiscountBasisPoints());
+        rule.setPriority(request.getPriority());
+        rule.setValidFrom(request.getValidFrom());
+        rule.setValidTo(request.getValidTo());
+        rule.setCreatedAt(LocalDateTime.now());
+        return ruleRepository.save(rule);
+    }
+
+    public void deactivate(long ruleId) {
+        PromotionRule rule = ruleRepository.findById(ruleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Promotion rule not found with ID:" + ruleId));
+        if (!rule.isActive()) return;
+        rule.setActive(false);
+        ruleRepository.save(rule);
+        refresh();
+    }
+
+    // Makes every active rule live.
+    public PublishedPromotions publish() {
+        int added = ruleRepository.publishActive();
+        refresh();
+        CompiledPromotions current = promotions;
+        auditLog.record(AuditAction.PROMOTIONS_PUBLISHED, AuditLog.NO_SUBJECT,
+                added + " new, " + current.size() + " live, version " + current.version());
+        return published();
+    }
+
+    public PublishedPromotions published() {
+        CompiledPromotions current = promotions;
+        return new PublishedPromotions(current.version(), compiledAt, current.stats());
+    }
+
+    // Recompiles when the live rules are not the ones compiled.
+    @Scheduled(fixedDelayString = "${erp.promotions.refresh-interval-ms:60000}",
+            initialDelayString = "${erp.promotions.refresh-interval-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            List<PromotionRule> live = ruleRepository.findByActiveTrueAndPublishedTrue();
+            List<RuleKey> keys = live.stream().map(RuleKey::of).sorted(Comparator.comparingLong(RuleKey::ruleId)).toList();
+            if (keys.equals(compiledRules)) return;
+            long start = System.nanoTime();
+            CompiledPromotions compiled = CompiledPromotions.compile(promotions.version() + 1, live, profiles, billingOffset);
+            promotions = compiled;
+            compiledAt = LocalDateTime.now();
+            compiledRules = keys;
+            log.info("Promotions version {} compiled: {} rules in {} us", compiled.version(), compiled.size(),
+                    (System.nanoTime() - start) / 1_000);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${erp.promotions.profile-sync-interval-ms:10000}")
+    public void syncProfiles() {
+        syncLock.lock();
+        try {
+            LocalDateTime upTo = LocalDateTime.now();
+            List<Customer> page;
+            do {
+                page = customerService.getChangesAfter(profilesSyncedTo, profilesSyncedId, upTo, profilePageSize);
+                for (Customer customer : page) {
+                    profiles.put(customer.getCustomerId(), customer.getCustomerClass(), customer.getCustomerSubClass(),
+                            customer.getRegion(), customer.getCountry());
+                    profilesSyncedTo = customer.getModifiedDate();
+                    profilesSyncedId = customer.getCustomerId();
+                }
+            } while (page.size() == profilePageSize);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private static String attribute(String field, String value) {
+        if (value == null || value.isBlank()) return null;
+        if (value.length() > MAX_ATTRIBUTE_LENGTH) {
+            throw new InvalidRequestException(field + " must be at most " + MAX_ATTRIBUTE_LENGTH + " characters");
+        }
+        return value.trim();
+    }
+
+    // What compilation depends on, to tell whether the live rules changed.
+    private record RuleKey(long ruleId, String customerClass, String customerSubClass, String region, String country,
+                           String serviceType, long thresholdQuantity, int discountBasisPoints, int priority,
+                           LocalDateTime validFrom, LocalDateTime validTo) {
+
+        static RuleKey of(PromotionRule rule) {
+            return new RuleKey(rule.getRuleId(), rule.getCustomerClass(), rule.getCustomerSubClass(), rule.getRegion(),
+                    rule.getCountry(), rule.getServiceType(), rule.getThresholdQuantity(),
+                    rule.getDiscountBasisPoints(), rule.getPriority(), rule.getValidFrom(), rule.getValidTo());
+        }
+    }
+}
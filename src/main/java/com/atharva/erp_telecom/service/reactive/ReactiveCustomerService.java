@@ -0,0 +1,71 @@
+package com.atharva.erp_telecom.service.reactive;
+
+import com.atharva.erp_telecom.dto.CustomerSlice;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Customer reads for the non-blocking API. JPA stays blocking, so every repository call is moved onto a bounded
+// scheduler sized like the JDBC pool. The Netty event loops never block and a waiting client costs no thread,
+// only the calls actually talking to the database hold one. Sharding is left to CustomerService.
+@Service
+public class ReactiveCustomerService {
+
+    private final CustomerService customerService;
+    private final Scheduler jdbcScheduler;
+    private final int exportBatchSize;
+
+    public ReactiveCustomerService(CustomerService customerService,
+                                   @Value("${erp.reactive.jdbc-threads:10}") int jdbcThreads,
+                                   @Value("${erp.reactive.jdbc-queue:10000}") int jdbcQueue,
+                                   @Value("${erp.reactive.export-batch-size:100}") int exportBatchSize) {
+        this.customerService = customerService;
+        this.jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, jdbcQueue, "reactive-jdbc");
+        this.exportBatchSize = exportBatchSize;
+    }
+
+    public Mono<Customer> getCustomer(int customerId) {
+        return blocking(() -> customerService.getCustomerById(customerId).orElseThrow());
+    }
+
+    public Mono<CustomerSlice> getCustomers(int page, int size) {
+        return blocking(() -> {
+            Slice<Customer> slice = customerService.getCustomerPage(page, size);
+            return new CustomerSlice(page, size, slice.hasNext(), slice.getContent());
+        });
+    }
+
+    // Every customer in id order. Batches are read by keyset, the next one only once the client has taken the
+    // previous one, so a slow client holds at most one batch in memory and no thread while it reads.
+    public Flux<Customer> exportCustomers() {
+        return nextBatch(0)
+                .expand(batch -> batch.size() < exportBatchSize
+                        ? Mono.empty()
+                        : nextBatch(batch.get(batch.size() - 1).getCustomerId()))
+                .flatMapIterable(batch -> batch, 1);
+    }
+
+    // Runs a blocking call (repository, BCrypt, ...) off the event loop.
+    public <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+
+    private Mono<List<Customer>> nextBatch(long afterCustomerId) {
+        return blocking(() -> customerService.getCustomersAfter(afterCustomerId, exportBatchSize));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jdbcScheduler.dispose();
+    }
+}
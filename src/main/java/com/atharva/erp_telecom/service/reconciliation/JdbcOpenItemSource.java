@@ -0,0 +1,46 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+import com.atharva.erp_telecom.constants.InvoiceConstants;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+// Streams the unpaid invoices straight off a JDBC cursor, no Invoice entities are materialised.
+public class JdbcOpenItemSource implements OpenItemSource {
+
+    private static final String COUNT_SQL =
+            "SELECT COUNT(*) FROM invoice WHERE status <> ?";
+    private static final String SCAN_SQL =
+            "SELECT invoice_id, invoice_reference, amount - amount_paid, due_date FROM invoice WHERE status <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public JdbcOpenItemSource(JdbcTemplate jdbcTemplate, int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, InvoiceConstants.INVOICE_PAID);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void forEach(OpenItemConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SCAN_SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, InvoiceConstants.INVOICE_PAID);
+            return statement;
+        }, resultSet -> {
+            BigDecimal outstanding = resultSet.getBigDecimal(3);
+            consumer.accept(
+                    resultSet.getLong(1),
+                    resultSet.getString(2),
+                    outstanding.movePointRight(2).longValue(),
+                    (int) resultSet.getDate(4).toLocalDate().toEpochDay());
+        });
+    }
+}
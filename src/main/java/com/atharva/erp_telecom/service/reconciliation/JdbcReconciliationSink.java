@@ -0,0 +1,78 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+import com.atharva.erp_telecom.constants.InvoiceConstants;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes the outcomes of a run to reconciliation_result and applies matched payments to the invoices,
+// both through JDBC batch statements of batchSize rows.
+public class JdbcReconciliationSink implements ReconciliationSink {
+
+    private static final String INSERT_RESULT_SQL =
+            "INSERT INTO reconciliation_result (run_id, line_number, reference, amount, value_date, invoice_id, status, match_type, remaining_amount) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String APPLY_PAYMENT_SQL =
+            "UPDATE invoice SET amount_paid = amount_paid + ?, status = ?, modified_date = CURRENT_TIMESTAMP WHERE invoice_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long runId;
+    private final int batchSize;
+    private final List<Object[]> results;
+    private final List<Object[]> payments;
+
+    public JdbcReconciliationSink(JdbcTemplate jdbcTemplate, long runId, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.runId = runId;
+        this.batchSize = batchSize;
+        this.results = new ArrayList<>(batchSize);
+        this.payments = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void accept(ReconciliationOutcome outcome) {
+        boolean matched = outcome.getInvoiceId() != 0;
+        results.add(new Object[]{
+                runId,
+                outcome.getLineNumber(),
+                outcome.getReference(),
+                BigDecimal.valueOf(outcome.getAmountMinor(), 2),
+                Date.valueOf(LocalDate.ofEpochDay(outcome.getValueEpochDay())),
+                matched ? outcome.getInvoiceId() : null,
+                outcome.getStatus(),
+                outcome.getMatchType(),
+                matched ? BigDecimal.valueOf(outcome.getRemainingMinor(), 2) : null
+        });
+        if (matched) {
+            payments.add(new Object[]{
+                    BigDecimal.valueOf(outcome.getAmountMinor(), 2),
+                    outcome.getRemainingMinor() == 0 ? InvoiceConstants.INVOICE_PAID : InvoiceConstants.INVOICE_PARTIALLY_PAID,
+                    outcome.getInvoiceId()
+            });
+        }
+        if (results.size() >= batchSize) writeResults();
+        if (payments.size() >= batchSize) writePayments();
+    }
+
+    @Override
+    public void flush() {
+        writeResults();
+        writePayments();
+    }
+
+    private void writeResults() {
+        if (results.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, results);
+        results.clear();
+    }
+
+    private void writePayments() {
+        if (payments.isEmpty()) return;
+        jdbcTemplate.batchUpdate(APPLY_PAYMENT_SQL, payments);
+        payments.clear();
+    }
+}
@@ -0,0 +1,262 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Compact in-memory hash index of open invoices.
+/*
+    Every open item is stored column-wise in parallel primitive arrays (no object per item) and the reference
+    strings are packed as UTF-8 into a single byte arena. Two tables sit on top of the columns:
+        1. Reference table - open addressing (linear probing) keyed on a 64-bit hash of the reference.
+           Collisions are resolved by comparing the reference bytes, so a match is always exact.
+        2. Amount buckets  - built once the reference pass is over, for the tolerance fallback.
+           Items are chained per amount bucket in a doubly linked list so a matched item is unlinked in O(1).
+    Roughly 40 bytes + the reference length per item, against ~250 bytes for an equivalent HashMap<String, Invoice>.
+ */
+final class OpenItemIndex {
+
+    private static final int EMPTY = -1;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // item columns
+    private long[] invoiceIds;
+    private long[] remaining;
+    private int[] dueDays;
+    private int[] refOffsets;
+    private int[] refLengths;
+    private byte[] refArena;
+    private int arenaSize;
+    private int size;
+
+    // reference table
+    private long[] refHashes;
+    private int[] refItems;
+    private int refMask;
+
+    // amount buckets, only present after buildToleranceIndex()
+    private final long bucketWidth;
+    private long[] bucketKeys;
+    private boolean[] bucketUsed;
+    private int[] bucketHeads;
+    private int bucketMask;
+    private int[] nextInBucket;
+    private int[] prevInBucket;
+    private int[] itemBucketSlots;
+
+    OpenItemIndex(int expectedItems, long amountToleranceMinor) {
+        int capacity = Math.max(16, expectedItems);
+        this.invoiceIds = new long[capacity];
+        this.remaining = new long[capacity];
+        this.dueDays = new int[capacity];
+        this.refOffsets = new int[capacity];
+        this.refLengths = new int[capacity];
+        this.refArena = new byte[capacity * 12];
+        this.bucketWidth = Math.max(1, amountToleranceMinor);
+        allocateRefTable(tableSizeFor(capacity));
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long invoiceId, String reference, long remainingMinor, int dueEpochDay) {
+        if (size == invoiceIds.length) growColumns();
+        if (size >= (refMask + 1) * LOAD_FACTOR) rehashRefTable((refMask + 1) << 1);
+
+        byte[] refBytes = reference.getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + refBytes.length > refArena.length) {
+            refArena = Arrays.copyOf(refArena, Math.max(refArena.length << 1, arenaSize + refBytes.length));
+        }
+        System.arraycopy(refBytes, 0, refArena, arenaSize, refBytes.length);
+
+        int item = size++;
+        invoiceIds[item] = invoiceId;
+        remaining[item] = remainingMinor;
+        dueDays[item] = dueEpochDay;
+        refOffsets[item] = arenaSize;
+        refLengths[item] = refBytes.length;
+        arenaSize += refBytes.length;
+
+        insertRef(ReferenceHash.hash(reference), item);
+    }
+
+    // Returns the first open item carrying this reference, or -1.
+    int findByReference(String reference) {
+        long hash = ReferenceHash.hash(reference);
+        int slot = (int) hash & refMask;
+        while (refItems[slot] != EMPTY) {
+            int item = refItems[slot];
+            if (refHashes[slot] == hash && remaining[item] > 0 && referenceEquals(item, reference)) {
+                return item;
+            }
+            slot = (slot + 1) & refMask;
+        }
+        return EMPTY;
+    }
+
+    // Groups the still-open items by amount. Called once, after every reference match has been applied.
+    void buildToleranceIndex() {
+        nextInBucket = new int[size];
+        prevInBucket = new int[size];
+        itemBucketSlots = new int[size];
+        Arrays.fill(itemBucketSlots, EMPTY);
+        int tableSize = tableSizeFor(size);
+        bucketKeys = new long[tableSize];
+        bucketUsed = new boolean[tableSize];
+        bucketHeads = new int[tableSize];
+        Arrays.fill(bucketHeads, EMPTY);
+        bucketMask = tableSize - 1;
+        for (int item = 0; item < size; item++) {
+            if (remaining[item] <= 0) continue;
+            int slot = bucketSlot(Math.floorDiv(remaining[item], bucketWidth), true);
+            itemBucketSlots[item] = slot;
+            int head = bucketHeads[slot];
+            nextInBucket[item] = head;
+            prevInBucket[item] = EMPTY;
+            if (head != EMPTY) prevInBucket[head] = item;
+            bucketHeads[slot] = item;
+        }
+    }
+
+    // First-fit search for an open item whose balance is within the tolerance of the amount and whose due date is
+    // within the date tolerance of the value date. Returns the item or -1.
+    int findByTolerance(long amountMinor, int valueEpochDay, long amountToleranceMinor, int dateToleranceDays) {
+        long first = Math.floorDiv(amountMinor - amountToleranceMinor, bucketWidth);
+        long last = Math.floorDiv(amountMinor + amountToleranceMinor, bucketWidth);
+        long centre = Math.floorDiv(amountMinor, bucketWidth);
+        // The bucket holding the exact amount is searched first, then its neighbours.
+        int found = searchBucket(centre, amountMinor, valueEpochDay, amountToleranceMinor, dateToleranceDays);
+        for (long bucket = first; found == EMPTY && bucket <= last; bucket++) {
+            if (bucket != centre) {
+                found = searchBucket(bucket, amountMinor, valueEpochDay, amountToleranceMinor, dateToleranceDays);
+            }
+        }
+        return found;
+    }
+
+    // Applies a payment to the item and returns the balance left open (never negative).
+    long apply(int item, long amountMinor) {
+        long left = Math.max(0, remaining[item] - amountMinor);
+        remaining[item] = left;
+        if (left == 0 && nextInBucket != null) unlinkFromBucket(item);
+        return left;
+    }
+
+    // Closes the item regardless of the amount, used when a payment lands within tolerance of the balance.
+    void close(int item) {
+        remaining[item] = 0;
+        if (nextInBucket != null) unlinkFromBucket(item);
+    }
+
+    long invoiceId(int item) {
+        return invoiceIds[item];
+    }
+
+    long remaining(int item) {
+        return remaining[item];
+    }
+
+    int dueDay(int item) {
+        return dueDays[item];
+    }
+
+    String reference(int item) {
+        return new String(refArena, refOffsets[item], refLengths[item], StandardCharsets.UTF_8);
+    }
+
+    private int searchBucket(long bucket, long amountMinor, int valueEpochDay, long amountTolerance, int dateTolerance) {
+        int slot = bucketSlot(bucket, false);
+        if (slot == EMPTY) return EMPTY;
+        for (int item = bucketHeads[slot]; item != EMPTY; item = nextInBucket[item]) {
+            if (Math.abs(remaining[item] - amountMinor) <= amountTolerance
+                    && Math.abs(dueDays[item] - valueEpochDay) <= dateTolerance) {
+                return item;
+            }
+        }
+        return EMPTY;
+    }
+
+    private void unlinkFromBucket(int item) {
+        int slot = itemBucketSlots[item];
+        if (slot == EMPTY) return;
+        int prev = prevInBucket[item];
+        int next = nextInBucket[item];
+        if (prev != EMPTY) {
+            nextInBucket[prev] = next;
+        } else {
+            bucketHeads[slot] = next;
+        }
+        if (next != EMPTY) prevInBucket[next] = prev;
+        itemBucketSlots[item] = EMPTY;
+    }
+
+    // Slots are never released once a bucket has been seen, an emptied bucket just keeps a -1 head.
+    private int bucketSlot(long bucket, boolean create) {
+        int slot = (int) ReferenceHash.mix(bucket) & bucketMask;
+        while (bucketUsed[slot]) {
+            if (bucketKeys[slot] == bucket) return slot;
+            slot = (slot + 1) & bucketMask;
+        }
+        if (!create) return EMPTY;
+        bucketUsed[slot] = true;
+        bucketKeys[slot] = bucket;
+        return slot;
+    }
+
+    private void insertRef(long hash, int item) {
+        int slot = (int) hash & refMask;
+        while (refItems[slot] != EMPTY) {
+            slot = (slot + 1) & refMask;
+        }
+        refHashes[slot] = hash;
+        refItems[slot] = item;
+    }
+
+    private boolean referenceEquals(int item, String reference) {
+        int length = refLengths[item];
+        int offset = refOffsets[item];
+        int chars = reference.length();
+        // Fast path for ASCII references, which is every reference we issue.
+        if (chars == length) {
+            int i = 0;
+            for (; i < chars; i++) {
+                char c = reference.charAt(i);
+                if (c >= 0x80) break;
+                if (refArena[offset + i] != (byte) c) return false;
+            }
+            if (i == chars) return true;
+        }
+        byte[] bytes = reference.getBytes(StandardCharsets.UTF_8);
+        return Arrays.equals(bytes, 0, bytes.length, refArena, offset, offset + length);
+    }
+
+    private void growColumns() {
+        int capacity = invoiceIds.length << 1;
+        invoiceIds = Arrays.copyOf(invoiceIds, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        dueDays = Arrays.copyOf(dueDays, capacity);
+        refOffsets = Arrays.copyOf(refOffsets, capacity);
+        refLengths = Arrays.copyOf(refLengths, capacity);
+    }
+
+    private void rehashRefTable(int tableSize) {
+        long[] oldHashes = refHashes;
+        int[] oldItems = refItems;
+        allocateRefTable(tableSize);
+        for (int slot = 0; slot < oldItems.length; slot++) {
+            if (oldItems[slot] != EMPTY) insertRef(oldHashes[slot], oldItems[slot]);
+        }
+    }
+
+    private void allocateRefTable(int tableSize) {
+        refHashes = new long[tableSize];
+        refItems = new int[tableSize];
+        Arrays.fill(refItems, EMPTY);
+        refMask = tableSize - 1;
+    }
+
+    private static int tableSizeFor(int items) {
+        int needed = (int) Math.min(1 << 30, (long) Math.ceil(Math.max(16, items) / LOAD_FACTOR));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
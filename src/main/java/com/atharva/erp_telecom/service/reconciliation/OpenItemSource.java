@@ -0,0 +1,15 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+// Supplies the open invoices to reconcile against. The JDBC implementation streams them from the invoice table,
+// the benchmark generates them on the fly.
+public interface OpenItemSource {
+
+    long count();
+
+    void forEach(OpenItemConsumer consumer);
+
+    @FunctionalInterface
+    interface OpenItemConsumer {
+        void accept(long invoiceId, String reference, long remainingMinor, int dueEpochDay);
+    }
+}
@@ -0,0 +1,251 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+import com.atharva.erp_telecom.constants.ReconciliationConstants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Hash-join of a settlement file (probe side) against the open invoices (build side).
+/*
+    Matching happens in two passes so a tolerance guess can never steal an item that a later line pays by reference:
+        1. Reference pass - every line is probed by its reference. Payments at least as large as the balance (minus the
+           amount tolerance) close the item (MATCHED), smaller ones reduce it (PARTIAL).
+        2. Tolerance pass - lines without a reference hit are probed by amount (+/- amountTolerance) and value date
+           against the due date (+/- dateTolerance). A hit closes the item (MATCHED), anything left is UNMATCHED.
+
+    When the open items fit under the spill threshold the build side is a single in-memory OpenItemIndex.
+    Above it the engine falls back to a grace hash join: both sides are partitioned to disk, by reference hash for
+    the first pass and by amount bucket for the second, and each partition is joined on its own so only one
+    partition's items are in memory at a time.
+ */
+public final class ReconciliationEngine {
+
+    // Partitions are sized with some headroom since the hash split is never perfectly even.
+    private static final double PARTITION_HEADROOM = 1.25;
+
+    private final ReconciliationSettings settings;
+    private final long amountTolerance;
+    private final int dateTolerance;
+    private final long bucketWidth;
+
+    public ReconciliationEngine(ReconciliationSettings settings) {
+        this.settings = settings;
+        this.amountTolerance = settings.getAmountToleranceMinor();
+        this.dateTolerance = settings.getDateToleranceDays();
+        this.bucketWidth = Math.max(1, amountTolerance);
+    }
+
+    public ReconciliationSummary reconcile(OpenItemSource source, Path settlementFile, ReconciliationSink sink) throws IOException {
+        long openItems = source.count();
+        int partitions = openItems <= settings.getSpillThreshold()
+                ? 1
+                : (int) Math.ceil(openItems * PARTITION_HEADROOM / settings.getSpillThreshold());
+
+        ReconciliationSummary summary = new ReconciliationSummary();
+        summary.partitions = partitions;
+        Files.createDirectories(settings.getSpillDirectory());
+        Path workDir = Files.createTempDirectory(settings.getSpillDirectory(), "recon-");
+        try (SettlementFileReader reader = new SettlementFileReader(settlementFile)) {
+            if (partitions == 1) {
+                reconcileInMemory(source, (int) openItems, reader, workDir, sink, summary);
+            } else {
+                reconcileSpilled(source, partitions, reader, workDir, sink, summary);
+            }
+            summary.totalLines = reader.getLinesRead();
+            summary.rejectedLines = reader.getRejectedLines();
+        } finally {
+            deleteRecursively(workDir);
+        }
+        sink.flush();
+        return summary;
+    }
+
+    private void reconcileInMemory(OpenItemSource source, int openItems, SettlementFileReader reader, Path workDir,
+                                   ReconciliationSink sink, ReconciliationSummary summary) throws IOException {
+        OpenItemIndex index = new OpenItemIndex(openItems, amountTolerance);
+        source.forEach(index::add);
+
+        SettlementLine line = new SettlementLine();
+        ReconciliationOutcome outcome = new ReconciliationOutcome();
+        // Misses are parked on disk rather than in memory, the file can have far more lines than we have open items.
+        try (SpillFile misses = new SpillFile(workDir.resolve("misses.bin"))) {
+            while (reader.next(line)) {
+                if (!matchByReference(index, line, outcome, sink, summary)) misses.writeLine(line);
+            }
+            index.buildToleranceIndex();
+            misses.rewind();
+            while (misses.readLine(line)) {
+                if (!matchByTolerance(index, line, outcome, sink, summary)) emitUnmatched(line, outcome, sink, summary);
+            }
+        }
+    }
+
+    private void reconcileSpilled(OpenItemSource source, int partitions, SettlementFileReader reader, Path workDir,
+                                  ReconciliationSink sink, ReconciliationSummary summary) throws IOException {
+        SpillFile[] items = open(workDir, "items", partitions);
+        SpillFile[] lines = open(workDir, "lines", partitions);
+        SpillFile[] toleranceItems = open(workDir, "tolerance-items", partitions);
+        SpillFile[] toleranceLines = open(workDir, "tolerance-lines", partitions);
+        try (SpillFile candidates = new SpillFile(workDir.resolve("candidates.bin"))) {
+            // Partition both sides by reference hash.
+            source.forEach((invoiceId, reference, remaining, dueDay) -> {
+                try {
+                    items[ReferenceHash.partition(ReferenceHash.hash(reference), partitions)]
+                            .writeItem(invoiceId, reference, remaining, dueDay);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            SettlementLine line = new SettlementLine();
+            while (reader.next(line)) {
+                lines[ReferenceHash.partition(ReferenceHash.hash(line.reference), partitions)].writeLine(line);
+            }
+
+            // Reference pass, one partition at a time. Leftovers on both sides are re-partitioned by amount bucket.
+            ReconciliationOutcome outcome = new ReconciliationOutcome();
+            for (int p = 0; p < partitions; p++) {
+                OpenItemIndex index = load(items[p]);
+                lines[p].rewind();
+                while (lines[p].readLine(line)) {
+                    if (matchByReference(index, line, outcome, sink, summary)) continue;
+                    candidates.writeLine(line);
+                    spillLineByAmount(line, toleranceLines, partitions);
+                }
+                for (int item = 0; item < index.size(); item++) {
+                    long remaining = index.remaining(item);
+                    if (remaining > 0) {
+                        toleranceItems[bucketPartition(Math.floorDiv(remaining, bucketWidth), partitions)]
+                                .writeItem(index.invoiceId(item), index.reference(item), remaining, index.dueDay(item));
+                    }
+                }
+                items[p].delete();
+                lines[p].delete();
+            }
+
+            // Tolerance pass. A line near a bucket edge sits in up to three partitions, the bitset stops a second match.
+            BitSet matchedLines = new BitSet();
+            for (int p = 0; p < partitions; p++) {
+                OpenItemIndex index = load(toleranceItems[p]);
+                index.buildToleranceIndex();
+                toleranceLines[p].rewind();
+                while (toleranceLines[p].readLine(line)) {
+                    int lineKey = (int) line.lineNumber;
+                    if (matchedLines.get(lineKey)) continue;
+                    if (matchByTolerance(index, line, outcome, sink, summary)) matchedLines.set(lineKey);
+                }
+                toleranceItems[p].delete();
+                toleranceLines[p].delete();
+            }
+
+            candidates.rewind();
+            while (candidates.readLine(line)) {
+                if (!matchedLines.get((int) line.lineNumber)) emitUnmatched(line, outcome, sink, summary);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            closeAll(items);
+            closeAll(lines);
+            closeAll(toleranceItems);
+            closeAll(toleranceLines);
+        }
+    }
+
+    private boolean matchByReference(OpenItemIndex index, SettlementLine line, ReconciliationOutcome outcome,
+                                     ReconciliationSink sink, ReconciliationSummary summary) {
+        int item = index.findByReference(line.reference);
+        if (item < 0) return false;
+        long remaining;
+        String status;
+        if (line.amountMinor >= index.remaining(item) - amountTolerance) {
+            index.close(item);
+            remaining = 0;
+            status = ReconciliationConstants.RESULT_MATCHED;
+            summary.matched++;
+        } else {
+            remaining = index.apply(item, line.amountMinor);
+            status = ReconciliationConstants.RESULT_PARTIAL;
+            summary.partial++;
+        }
+        emit(line, outcome, status, ReconciliationConstants.MATCH_BY_REFERENCE, index.invoiceId(item), remaining, sink);
+        return true;
+    }
+
+    private boolean matchByTolerance(OpenItemIndex index, SettlementLine line, ReconciliationOutcome outcome,
+                                     ReconciliationSink sink, ReconciliationSummary summary) {
+        int item = index.findByTolerance(line.amountMinor, line.valueEpochDay, amountTolerance, dateTolerance);
+        if (item < 0) return false;
+        index.close(item);
+        summary.matched++;
+        emit(line, outcome, ReconciliationConstants.RESULT_MATCHED, ReconciliationConstants.MATCH_BY_TOLERANCE,
+                index.invoiceId(item), 0, sink);
+        return true;
+    }
+
+    private void emitUnmatched(SettlementLine line, ReconciliationOutcome outcome, ReconciliationSink sink,
+                               ReconciliationSummary summary) {
+        summary.unmatched++;
+        emit(line, outcome, ReconciliationConstants.RESULT_UNMATCHED, null, 0, 0, sink);
+    }
+
+    private static void emit(SettlementLine line, ReconciliationOutcome outcome, String status, String matchType,
+                             long invoiceId, long remaining, ReconciliationSink sink) {
+        outcome.status = status;
+        outcome.matchType = matchType;
+        outcome.lineNumber = line.lineNumber;
+        outcome.reference = line.reference;
+        outcome.amountMinor = line.amountMinor;
+        outcome.valueEpochDay = line.valueEpochDay;
+        outcome.invoiceId = invoiceId;
+        outcome.remainingMinor = remaining;
+        sink.accept(outcome);
+    }
+
+    private void spillLineByAmount(SettlementLine line, SpillFile[] toleranceLines, int partitions) throws IOException {
+        long first = Math.floorDiv(line.amountMinor - amountTolerance, bucketWidth);
+        long last = Math.floorDiv(line.amountMinor + amountTolerance, bucketWidth);
+        int written = -1;
+        int writtenToo = -1;
+        for (long bucket = first; bucket <= last; bucket++) {
+            int p = bucketPartition(bucket, partitions);
+            if (p == written || p == writtenToo) continue;
+            toleranceLines[p].writeLine(line);
+            if (written < 0) written = p; else writtenToo = p;
+        }
+    }
+
+    private static int bucketPartition(long bucket, int partitions) {
+        return ReferenceHash.partition(ReferenceHash.mix(bucket), partitions);
+    }
+
+    private OpenItemIndex load(SpillFile partition) throws IOException {
+        OpenItemIndex index = new OpenItemIndex((int) partition.records(), amountTolerance);
+        partition.readItems(index::add);
+        return index;
+    }
+
+    private static SpillFile[] open(Path workDir, String prefix, int partitions) {
+        SpillFile[] files = new SpillFile[partitions];
+        for (int p = 0; p < partitions; p++) {
+            files[p] = new SpillFile(workDir.resolve(prefix + "-" + p + ".bin"));
+        }
+        return files;
+    }
+
+    private static void closeAll(SpillFile[] files) throws IOException {
+        for (SpillFile file : files) {
+            file.close();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+// Result for one settlement line. Like SettlementLine the engine reuses a single instance, so sinks must copy
+// whatever they keep past accept().
+public final class ReconciliationOutcome {
+    String status;
+    String matchType;
+    long lineNumber;
+    String reference;
+    long amountMinor;
+    int valueEpochDay;
+    long invoiceId;
+    long remainingMinor;
+
+    public String getStatus() {
+        return status;
+    }
+
+    // null for unmatched lines
+    public String getMatchType() {
+        return matchType;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public int getValueEpochDay() {
+        return valueEpochDay;
+    }
+
+    // 0 for unmatched lines
+    public long getInvoiceId() {
+        return invoiceId;
+    }
+
+    public long getRemainingMinor() {
+        return remainingMinor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+import java.nio.file.Path;
+
+public final class ReconciliationSettings {
+
+    private final int spillThreshold;
+    private final long amountToleranceMinor;
+    private final int dateToleranceDays;
+    private final Path spillDirectory;
+
+    // spillThreshold: maximum number of open items held in memory at once, above it the engine partitions to disk.
+    public ReconciliationSettings(int spillThreshold, long amountToleranceMinor, int dateToleranceDays, Path spillDirectory) {
+        if (spillThreshold <= 0) throw new IllegalArgumentException("spillThreshold must be positive");
+        if (amountToleranceMinor < 0 || dateToleranceDays < 0) throw new IllegalArgumentException("tolerances cannot be negative");
+        this.spillThreshold = spillThreshold;
+        this.amountToleranceMinor = amountToleranceMinor;
+        this.dateToleranceDays = dateToleranceDays;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public int getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    public long getAmountToleranceMinor() {
+        return amountToleranceMinor;
+    }
+
+    public int getDateToleranceDays() {
+        return dateToleranceDays;
+    }
+
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+}
@@ -0,0 +1,10 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+// Receives every outcome produced by the engine. Implementations are expected to buffer and write in batches.
+public interface ReconciliationSink {
+
+    void accept(ReconciliationOutcome outcome);
+
+    // Called once the whole file has been processed, must write anything still buffered.
+    void flush();
+}
@@ -0,0 +1,40 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+public final class ReconciliationSummary {
+    long totalLines;
+    long rejectedLines;
+    long matched;
+    long partial;
+    long unmatched;
+    int partitions;
+
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    public long getRejectedLines() {
+        return rejectedLines;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public long getPartial() {
+        return partial;
+    }
+
+    public long getUnmatched() {
+        return unmatched;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    @Override
+    public String toString() {
+        return "lines=" + totalLines + ", rejected=" + rejectedLines + ", matched=" + matched
+                + ", partial=" + partial + ", unmatched=" + unmatched + ", partitions=" + partitions;
+    }
+}
@@ -0,0 +1,36 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+// 64-bit hashing shared by the in-memory index and the spill partitioner. String.hashCode() is only 32 bits,
+// which gives too many collisions once a day's open items run into the millions.
+final class ReferenceHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ReferenceHash() {}
+
+    static long hash(String reference) {
+        long h = FNV_OFFSET;
+        for (int i = 0, n = reference.length(); i < n; i++) {
+            h ^= reference.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    // Final avalanche step (from MurmurHash3 fmix64) so both the low bits (table slot) and the high bits
+    // (spill partition) are well distributed.
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Partition picked from the high bits, independent of the slot picked from the low bits.
+    static int partition(long hash, int partitions) {
+        return (int) Long.remainderUnsigned(hash >>> 32, partitions);
+    }
+}
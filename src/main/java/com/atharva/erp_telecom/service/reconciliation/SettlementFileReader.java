@@ -0,0 +1,133 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+// Streams a bank / gateway settlement file of the form:
+//     reference,amount,value_date
+//     INV-000123,499.00,2025-09-30
+// The header is optional, extra trailing columns are ignored and lines that cannot be parsed are counted as rejected.
+public final class SettlementFileReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final BufferedReader reader;
+    private long lineNumber;
+    private long parsedLines;
+    private long rejectedLines;
+
+    public SettlementFileReader(Path file) throws IOException {
+        this.reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // Fills the holder with the next valid line, returns false at the end of the file.
+    public boolean next(SettlementLine line) throws IOException {
+        String raw;
+        while ((raw = reader.readLine()) != null) {
+            lineNumber++;
+            if (raw.isEmpty() || (lineNumber == 1 && raw.regionMatches(true, 0, "reference", 0, 9))) {
+                continue;
+            }
+            if (parse(raw, line)) {
+                parsedLines++;
+                return true;
+            }
+            rejectedLines++;
+        }
+        return false;
+    }
+
+    // Data lines seen so far, valid or not. Blank lines and the header are not counted.
+    public long getLinesRead() {
+        return parsedLines + rejectedLines;
+    }
+
+    public long getRejectedLines() {
+        return rejectedLines;
+    }
+
+    private boolean parse(String raw, SettlementLine line) {
+        int firstComma = raw.indexOf(',');
+        if (firstComma <= 0) return false;
+        int secondComma = raw.indexOf(',', firstComma + 1);
+        if (secondComma < 0) return false;
+        int thirdComma = raw.indexOf(',', secondComma + 1);
+        int end = thirdComma < 0 ? raw.length() : thirdComma;
+
+        long amountMinor = parseMinorUnits(raw, firstComma + 1, secondComma);
+        int epochDay = parseEpochDay(raw, secondComma + 1, end);
+        if (amountMinor == Long.MIN_VALUE || epochDay == Integer.MIN_VALUE) return false;
+
+        line.set(lineNumber, raw.substring(0, firstComma).trim(), amountMinor, epochDay);
+        return true;
+    }
+
+    // Parses "1234", "1234.5" or "-1234.56" into cents without going through BigDecimal.
+    static long parseMinorUnits(CharSequence s, int start, int end) {
+        while (start < end && s.charAt(start) == ' ') start++;
+        while (end > start && s.charAt(end - 1) == ' ') end--;
+        if (start == end) return Long.MIN_VALUE;
+
+        boolean negative = s.charAt(start) == '-';
+        if (negative) start++;
+        long units = 0;
+        int fractionDigits = -1;
+        boolean sawDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (fractionDigits >= 0) return Long.MIN_VALUE;
+                fractionDigits = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (fractionDigits >= 2) return Long.MIN_VALUE;
+                units = units * 10 + (c - '0');
+                sawDigit = true;
+                if (fractionDigits >= 0) fractionDigits++;
+            } else {
+                return Long.MIN_VALUE;
+            }
+        }
+        if (!sawDigit) return Long.MIN_VALUE;
+        if (fractionDigits <= 0) units *= 100;
+        else if (fractionDigits == 1) units *= 10;
+        return negative ? -units : units;
+    }
+
+    // Parses an ISO yyyy-MM-dd date into an epoch day.
+    static int parseEpochDay(CharSequence s, int start, int end) {
+        while (start < end && s.charAt(start) == ' ') start++;
+        while (end > start && s.charAt(end - 1) == ' ') end--;
+        if (end - start != 10 || s.charAt(start + 4) != '-' || s.charAt(start + 7) != '-') return Integer.MIN_VALUE;
+        int year = digits(s, start, start + 4);
+        int month = digits(s, start + 5, start + 7);
+        int day = digits(s, start + 8, start + 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return Integer.MIN_VALUE;
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (RuntimeException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    private static int digits(CharSequence s, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
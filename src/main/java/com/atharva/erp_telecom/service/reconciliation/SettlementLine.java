@@ -0,0 +1,33 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+// Mutable holder for one settlement line. A single instance is reused while streaming a file so parsing
+// millions of lines does not allocate one object per line.
+public final class SettlementLine {
+    long lineNumber;
+    String reference;
+    long amountMinor;
+    int valueEpochDay;
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public int getValueEpochDay() {
+        return valueEpochDay;
+    }
+
+    void set(long lineNumber, String reference, long amountMinor, int valueEpochDay) {
+        this.lineNumber = lineNumber;
+        this.reference = reference;
+        this.amountMinor = amountMinor;
+        this.valueEpochDay = valueEpochDay;
+    }
+}
@@ -0,0 +1,102 @@
+package com.atharva.erp_telecom.service.reconciliation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Sequential binary run file used when the open items do not fit in memory. Records are written and read back
+// strictly in order, there is no random access.
+final class SpillFile implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private long records;
+    private long read;
+
+    SpillFile(Path path) {
+        this.path = path;
+    }
+
+    long records() {
+        return records;
+    }
+
+    void writeItem(long invoiceId, String reference, long remainingMinor, int dueEpochDay) throws IOException {
+        DataOutputStream output = output();
+        output.writeLong(invoiceId);
+        output.writeLong(remainingMinor);
+        output.writeInt(dueEpochDay);
+        output.writeUTF(reference);
+        records++;
+    }
+
+    void writeLine(SettlementLine line) throws IOException {
+        DataOutputStream output = output();
+        output.writeLong(line.lineNumber);
+        output.writeLong(line.amountMinor);
+        output.writeInt(line.valueEpochDay);
+        output.writeUTF(line.reference);
+        records++;
+    }
+
+    // Finishes writing and switches the file to reading from the start.
+    void rewind() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        if (in != null) in.close();
+        read = 0;
+        in = Files.exists(path)
+                ? new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))
+                : null;
+    }
+
+    void readItems(OpenItemSource.OpenItemConsumer consumer) throws IOException {
+        rewind();
+        for (; read < records; read++) {
+            long invoiceId = in.readLong();
+            long remaining = in.readLong();
+            int dueDay = in.readInt();
+            consumer.accept(invoiceId, in.readUTF(), remaining, dueDay);
+        }
+    }
+
+    // Reads the next line into the holder, returns false once every written record has been read.
+    boolean readLine(SettlementLine line) throws IOException {
+        if (read >= records) return false;
+        read++;
+        long lineNumber = in.readLong();
+        long amount = in.readLong();
+        int day = in.readInt();
+        line.set(lineNumber, in.readUTF(), amount, day);
+        return true;
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    private DataOutputStream output() throws IOException {
+        if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        }
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+    }
+}
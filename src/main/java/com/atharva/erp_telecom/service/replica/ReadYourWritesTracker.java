@@ -0,0 +1,79 @@
+package com.atharva.erp_telecom.service.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Read-your-writes: after a user's write, that user's replica reads go to the primary for erp.replicas.sticky-window-ms,
+// so a replica that has not caught up yet cannot hide the change from the user who just made it.
+/*
+    Writes are picked up from every committed read-write transaction (Spring Boot registers this listener with the
+    transaction manager) and attributed to the authenticated user. Writes on behalf of someone not yet logged in,
+    such as a registration, are recorded explicitly with recordWrite(userName).
+    Stickiness is per user, other users keep reading from the replicas.
+ */
+@Component
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    // Expired entries are swept once the map grows past this, instead of on every write.
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final Counter stickyReads;
+
+    public ReadYourWritesTracker(@Value("${erp.replicas.enabled:false}") boolean enabled,
+                                 @Value("${erp.replicas.sticky-window-ms:2000}") long windowMillis,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.stickyReads = ReplicaSet.reads(meterRegistry, "primary_sticky");
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (!enabled || commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) return;
+        recordWrite(currentUser());
+    }
+
+    public void recordWrite(String userName) {
+        if (!enabled || userName == null) return;
+        long now = System.currentTimeMillis();
+        lastWriteByUser.put(userName, now);
+        if (lastWriteByUser.size() > SWEEP_THRESHOLD) {
+            lastWriteByUser.values().removeIf(writtenAt -> now - writtenAt > windowMillis);
+        }
+    }
+
+    // Whether a read for this user may go to a replica. Null means the authenticated user, if any.
+    public boolean replicaAllowed(String userName) {
+        if (!enabled) return false;
+        if (!recentlyWrote(userName)) return true;
+        stickyReads.increment();
+        return false;
+    }
+
+    // Whether the user wrote within the sticky window (always false with replicas disabled). Null means the
+    // authenticated user, if any.
+    public boolean recentlyWrote(String userName) {
+        if (!enabled) return false;
+        String user = userName != null ? userName : currentUser();
+        if (user == null) return false;
+        Long writtenAt = lastWriteByUser.get(user);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt <= windowMillis;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,26 @@
+package com.atharva.erp_telecom.service.replica;
+
+import java.util.function.Supplier;
+
+// Marks the current thread's next connections as read-only work that may be served by a replica.
+public final class ReplicaContext {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        if (isActive()) return work.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
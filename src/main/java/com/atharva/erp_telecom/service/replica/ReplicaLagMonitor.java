@@ -0,0 +1,81 @@
+package com.atharva.erp_telecom.service.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Measures replica lag with a heartbeat: the primary's clock is written to replica_heartbeat, each replica's copy
+// of the row is read back and the difference is its lag (plus up to one check interval).
+/*
+    A replica lagging more than maxLagMillis, or failing the check, is taken out of rotation until a later check
+    sees it caught up. maxLagMillis <= 0 turns the lag check off and only tests that the replica answers, for
+    stand-in replicas that are not actually replicating.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int HEARTBEAT_ID = 1;
+    private static final String BEAT_SQL = "UPDATE replica_heartbeat SET beat_at = ? WHERE heartbeat_id = ?";
+    private static final String FIRST_BEAT_SQL = "INSERT INTO replica_heartbeat (heartbeat_id, beat_at) VALUES (?, ?)";
+    private static final String READ_BEAT_SQL = "SELECT beat_at FROM replica_heartbeat WHERE heartbeat_id = " + HEARTBEAT_ID;
+
+    private final ReplicaSet replicas;
+    private final JdbcTemplate primary;
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(ReplicaSet replicas, JdbcTemplate primary, long maxLagMillis) {
+        this.replicas = replicas;
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${erp.replicas.lag-check-interval-ms:1000}",
+            initialDelayString = "${erp.replicas.lag-check-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        if (maxLagMillis > 0) beat(now);
+        for (ReplicaSet.Replica replica : replicas.getReplicas()) {
+            boolean wasHealthy = replica.isHealthy();
+            long lag = -1;
+            boolean healthy;
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                if (maxLagMillis > 0) {
+                    lag = readLag(connection, now);
+                    healthy = lag >= 0 && lag <= maxLagMillis;
+                } else {
+                    healthy = connection.isValid(2);
+                }
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            replica.markChecked(healthy, lag);
+            if (wasHealthy != healthy) {
+                log.warn("{} is {} (lag {} ms)", replica.getName(), healthy ? "back in rotation" : "out of rotation", lag);
+            }
+        }
+    }
+
+    private void beat(long now) {
+        if (primary.update(BEAT_SQL, now, HEARTBEAT_ID) > 0) return;
+        try {
+            primary.update(FIRST_BEAT_SQL, HEARTBEAT_ID, now);
+        } catch (DuplicateKeyException e) {
+            // another instance wrote the first beat
+        }
+    }
+
+    // -1 when the replica has no heartbeat yet.
+    private static long readLag(Connection connection, long now) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(READ_BEAT_SQL)) {
+            return result.next() ? Math.max(0, now - result.getLong(1)) : -1;
+        }
+    }
+}
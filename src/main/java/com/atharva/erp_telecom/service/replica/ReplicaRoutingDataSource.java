@@ -0,0 +1,78 @@
+package com.atharva.erp_telecom.service.replica;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Primary database plus its replicas. Connections taken inside ReplicaContext come from a replica chosen by the
+// ReplicaSet, everything else (and every read while no replica is healthy) from the primary.
+/*
+    Only explicitly marked reads are routed (ShardRouter.readOnShard, used by CustomerService and UserService).
+    A blanket "every read-only transaction" rule would also send reads that must see the latest write, such as
+    the Idempotency-Key lookups, to a lagging replica.
+    A replica connection is wrapped so that closing it releases its outstanding count.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaContext.isActive()) return primary.getConnection();
+        ReplicaSet.Replica replica = replicas.choose();
+        if (replica == null) {
+            replicas.countFallback();
+            return primary.getConnection();
+        }
+        replica.outstanding().incrementAndGet();
+        try {
+            Connection connection = replica.getDataSource().getConnection();
+            replicas.countReplicaRead();
+            return tracked(connection, replica);
+        } catch (SQLException e) {
+            // Unreachable replica: out of rotation until the next lag check, this read goes to the primary.
+            replica.outstanding().decrementAndGet();
+            replica.markChecked(false, replica.getLagMillis());
+            replicas.countFallback();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Credentials are configured per pool");
+    }
+
+    private static Connection tracked(Connection connection, ReplicaSet.Replica replica) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        replica.outstanding().decrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (primary instanceof Closeable closeable) closeable.close();
+    }
+}
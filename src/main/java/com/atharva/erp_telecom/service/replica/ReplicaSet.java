@@ -0,0 +1,126 @@
+package com.atharva.erp_telecom.service.replica;
+
+import com.atharva.erp_telecom.constants.ReplicaSelection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The replicas of the primary database, their health and the policy picking one for a read.
+/*
+    A replica is skipped while it is marked unhealthy (lag above erp.replicas.max-lag-ms, or unreachable at the last
+    check, see ReplicaLagMonitor). When no replica is healthy the read goes to the primary.
+    Outstanding = connections currently checked out from the replica, i.e. reads in flight on it.
+ */
+public class ReplicaSet implements Closeable {
+
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+
+    public ReplicaSet(List<DataSource> dataSources, ReplicaSelection selection, MeterRegistry meterRegistry) {
+        List<Replica> replicas = new ArrayList<>(dataSources.size());
+        for (int i = 0; i < dataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), dataSources.get(i));
+            replicas.add(replica);
+            Gauge.builder("datasource.replica.outstanding", replica.outstanding, AtomicInteger::get)
+                    .tag("replica", replica.name).register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis / 1000.0)
+                    .tag("replica", replica.name).baseUnit("seconds").register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name).register(meterRegistry);
+        }
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.replicaReads = reads(meterRegistry, "replica");
+        this.fallbackReads = reads(meterRegistry, "primary_fallback");
+    }
+
+    static Counter reads(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.replica.reads").tag("route", route).register(meterRegistry);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // A healthy replica for the next read, or null when the read has to fall back to the primary.
+    Replica choose() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Replica chosen = null;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (!candidate.healthy) continue;
+            if (selection == ReplicaSelection.ROUND_ROBIN) return candidate;
+            if (chosen == null || candidate.outstanding.get() < chosen.outstanding.get()) chosen = candidate;
+        }
+        return chosen;
+    }
+
+    void countReplicaRead() {
+        replicaReads.increment();
+    }
+
+    void countFallback() {
+        fallbackReads.increment();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) closeable.close();
+        }
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        // Assumed healthy until the first lag check says otherwise.
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        void markChecked(boolean healthy, long lagMillis) {
+            this.healthy = healthy;
+            this.lagMillis = lagMillis;
+        }
+
+        AtomicInteger outstanding() {
+            return outstanding;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.atharva.erp_telecom.service.sharding;
+
+import com.atharva.erp_telecom.entity.Customer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// In-memory map from a customer to the shard holding it.
+/*
+    Shard 0 is the home shard: the spring.datasource database, which also keeps every non-customer table.
+    Shards 1..N-1 are the databases in erp.sharding.shard-urls, they only hold customers and their outbox rows.
+
+    New customers are placed by region, falling back to country code, then country, then erp.sharding.default-shard:
+        erp.sharding.shard-map = NORTH=1,SOUTH=2,IN=1
+    Existing customers are found by id instead: each shard allocates customer ids from its own block of ID_BLOCK
+    ids (see ShardSchemaInitializer), so the shard follows from the id and a customer stays reachable when the
+    map is changed later. Changing the map only affects where new customers go, nobody is moved.
+
+    With sharding disabled there is exactly one shard and every lookup answers 0.
+ */
+@Component
+public class ShardMap {
+
+    public static final int HOME_SHARD = 0;
+    public static final long ID_BLOCK = 100_000_000L;
+    // Customer ids are ints in the repository, which caps the number of id blocks.
+    public static final int MAX_SHARDS = (int) (Integer.MAX_VALUE / ID_BLOCK);
+
+    private final int shardCount;
+    private final int defaultShard;
+    private final Map<String, Integer> shardByKey = new HashMap<>();
+
+    public ShardMap(@Value("${erp.sharding.enabled:false}") boolean enabled,
+                    @Value("${erp.sharding.shard-urls:}") String shardUrls,
+                    @Value("${erp.sharding.shard-map:}") String shardMap,
+                    @Value("${erp.sharding.default-shard:0}") int defaultShard) {
+        this.shardCount = enabled ? 1 + ShardingSettings.split(shardUrls).size() : 1;
+        if (shardCount > MAX_SHARDS) {
+            throw new IllegalStateException("At most " + MAX_SHARDS + " shards are supported, got " + shardCount);
+        }
+        this.defaultShard = enabled ? checkShard(defaultShard, "erp.sharding.default-shard") : HOME_SHARD;
+        if (!enabled) return;
+        for (String entry : ShardingSettings.split(shardMap)) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) throw new IllegalStateException("Expected KEY=shard in erp.sharding.shard-map, got " + entry);
+            int shard = Integer.parseInt(entry.substring(separator + 1).trim());
+            shardByKey.put(normalise(entry.substring(0, separator)), checkShard(shard, "erp.sharding.shard-map"));
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    // Shard a new customer is written to.
+    public int shardOf(Customer customer) {
+        if (shardCount == 1) return HOME_SHARD;
+        Integer shard = lookup(customer.getRegion());
+        if (shard == null) shard = lookup(customer.getCountryCode());
+        if (shard == null) shard = lookup(customer.getCountry());
+        return shard == null ? defaultShard : shard;
+    }
+
+    // Shard holding an existing customer. Ids outside every block go to the nearest shard, which simply won't find them.
+    public int shardOfId(long customerId) {
+        if (shardCount == 1 || customerId < ID_BLOCK) return HOME_SHARD;
+        return (int) Math.min(customerId / ID_BLOCK, shardCount - 1);
+    }
+
+    // First id of the block a shard allocates from.
+    public long firstIdOf(int shard) {
+        return shard * ID_BLOCK + 1;
+    }
+
+    private int checkShard(int shard, String property) {
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalStateException(property + " refers to shard " + shard + ", only 0.." + (shardCount - 1) + " exist");
+        }
+        return shard;
+    }
+
+    private Integer lookup(String key) {
+        return key == null ? null : shardByKey.get(normalise(key));
+    }
+
+    private static String normalise(String key) {
+        return key.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,218 @@
+package com.atharva.erp_telecom.service.sharding;
+
+import com.atharva.erp_telecom.exception.custom_exceptions.ServiceBusyException;
+import com.atharva.erp_telecom.service.replica.ReadYourWritesTracker;
+import com.atharva.erp_telecom.service.replica.ReplicaContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Runs repository work on a given shard, or on all of them in parallel (scatter-gather).
+/*
+    Routing happens when a connection is taken, so the work must not run inside a transaction or an EntityManager
+    that already holds a connection - with spring.jpa.open-in-view (the default) that is every web request.
+    Work is therefore run:
+        - inline, with the shard set in ShardContext, on a thread with nothing bound (schedulers, the reactive
+          scheduler, web requests with open-in-view=false),
+        - on the shard-query pool otherwise, the caller waits for it.
+    Entities come back detached either way.
+
+    With a single shard all of this is skipped and the work runs inline, exactly as before sharding existed.
+
+    The read* variants mark the work as replica-safe (ReplicaContext): with erp.replicas.enabled the home shard
+    serves it from a replica, unless the user recently wrote something (ReadYourWritesTracker). Replica reads need
+    a fresh connection just like routed ones, so they follow the same inline-or-pool rule even with one shard.
+    The caller's SecurityContext goes along to the pool, so writes made there are still attributed to the user.
+ */
+@Component
+public class ShardRouter {
+
+    private final ShardMap shardMap;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public ShardRouter(ShardMap shardMap,
+                       PlatformTransactionManager transactionManager,
+                       EntityManagerFactory entityManagerFactory,
+                       ReadYourWritesTracker readYourWrites,
+                       @Value("${erp.replicas.enabled:false}") boolean replicasEnabled,
+                       @Value("${erp.sharding.query-threads:16}") int queryThreads,
+                       @Value("${erp.sharding.query-timeout-ms:10000}") long timeoutMillis) {
+        this.shardMap = shardMap;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.readYourWrites = readYourWrites;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = shardMap.isSharded() || replicasEnabled
+                ? Executors.newFixedThreadPool(queryThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "shard-query-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    // Work of its own transactions, e.g. a single repository call.
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return route(shard, work, false);
+    }
+
+    // Read-only work that tolerates replica lag, for the current user.
+    public <T> T readOnShard(int shard, Supplier<T> work) {
+        return readOnShard(shard, null, work);
+    }
+
+    // Read-only work that tolerates replica lag, on behalf of the given user (e.g. loading them at login).
+    public <T> T readOnShard(int shard, String userName, Supplier<T> work) {
+        return route(shard, work, readYourWrites.replicaAllowed(userName));
+    }
+
+    // Work that has to commit or roll back as a whole on one shard.
+    public <T> T inTransaction(int shard, Supplier<T> work) {
+        return onShard(shard, () -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    // Same work on every shard in turn, on the calling thread. For background jobs that poll each shard.
+    public void onEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            int current = shard;
+            onShard(shard, () -> {
+                work.accept(current);
+                return null;
+            });
+        }
+    }
+
+    // Same work on every shard in parallel, results in shard order.
+    public <T> List<T> onAllShards(IntFunction<T> work) {
+        return onAllShards(work, false);
+    }
+
+    // onAllShards for read-only work that tolerates replica lag.
+    public <T> List<T> readOnAllShards(IntFunction<T> work) {
+        return onAllShards(work, readYourWrites.replicaAllowed(null));
+    }
+
+    private <T> List<T> onAllShards(IntFunction<T> work, boolean replicaRead) {
+        if (!shardMap.isSharded()) {
+            return List.of(route(ShardMap.HOME_SHARD, () -> work.apply(ShardMap.HOME_SHARD), replicaRead));
+        }
+        List<Future<T>> futures = new ArrayList<>(shardMap.shardCount());
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            int current = shard;
+            futures.add(executor.submit(onPool(current, () -> work.apply(current), replicaRead)));
+        }
+        return await(futures);
+    }
+
+    // Merges per-shard results that are each sorted by the comparator, skipping the first skip and returning at
+    // most limit elements.
+    public static <T> List<T> mergeSorted(List<List<T>> perShard, Comparator<? super T> order, int skip, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        for (List<T> shard : perShard) {
+            if (!shard.isEmpty()) heads.add(new Cursor<>(shard));
+        }
+        List<T> merged = new ArrayList<>(Math.min(limit, 1024));
+        int skipped = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                merged.add(cursor.head());
+            }
+            if (cursor.advance()) heads.add(cursor);
+        }
+        return merged;
+    }
+
+    private <T> T route(int shard, Supplier<T> work, boolean replicaRead) {
+        if (!shardMap.isSharded() && !replicaRead) return work.get();
+        if (!boundToThread()) return onThread(shard, work, replicaRead);
+        return await(List.of(executor.submit(onPool(shard, work, replicaRead)))).get(0);
+    }
+
+    private static <T> T onThread(int shard, Supplier<T> work, boolean replicaRead) {
+        return ShardContext.call(shard, replicaRead ? () -> ReplicaContext.call(work) : work);
+    }
+
+    private static <T> Callable<T> onPool(int shard, Supplier<T> work, boolean replicaRead) {
+        return DelegatingSecurityContextCallable.create(() -> onThread(shard, work, replicaRead),
+                SecurityContextHolder.getContext());
+    }
+
+    private boolean boundToThread() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.hasResource(entityManagerFactory);
+    }
+
+    private <T> List<T> await(List<Future<T>> futures) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (TimeoutException e) {
+            throw new ServiceBusyException("A customer shard did not answer within " + timeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for a customer shard");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> items;
+        private int position;
+
+        Cursor(List<T> items) {
+            this.items = items;
+        }
+
+        T head() {
+            return items.get(position);
+        }
+
+        boolean advance() {
+            return ++position < items.size();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.atharva.erp_telecom.service.sharding;
+
+import com.atharva.erp_telecom.entity.Customer;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+// Prepares the extra shards at startup: schema, then the customer id block of each shard.
+/*
+    Schema: the home shard gets its schema the usual way (ddl-auto or Flyway). The extra shards get the same:
+        - Flyway enabled  -> the db/migration scripts are applied to every extra shard,
+        - ddl-auto set    -> a throwaway EntityManagerFactory runs Hibernate's schema update (or validate) against it,
+          create / create-drop are applied as update so a restart never drops a shard's customers.
+    Id blocks: customer_seq of shard k is moved up to k * ShardMap.ID_BLOCK (never down). Hibernate's pooled
+    optimizer hands out the allocation below the value it reads, hence the margin. customer_seq is a table on MySQL
+    and a real sequence on H2, both are handled.
+ */
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private static final long ID_ALLOCATION_MARGIN = 1_000;
+
+    private final ShardMap shardMap;
+    private final List<DataSource> shards;
+    private final EntityManagerFactoryBuilder entityManagerFactoryBuilder;
+    private final boolean flywayEnabled;
+    private final Flyway flywayTemplate;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(ShardMap shardMap, List<DataSource> shards,
+                                  EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                  boolean flywayEnabled, Flyway flywayTemplate, String ddlAuto) {
+        this.shardMap = shardMap;
+        this.shards = shards;
+        this.entityManagerFactoryBuilder = entityManagerFactoryBuilder;
+        this.flywayEnabled = flywayEnabled;
+        this.flywayTemplate = flywayTemplate;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        for (int shard = 1; shard < shards.size(); shard++) {
+            DataSource dataSource = shards.get(shard);
+            if (flywayEnabled) {
+                Flyway.configure().configuration(flywayTemplate.getConfiguration()).dataSource(dataSource).load().migrate();
+            } else if (!"none".equalsIgnoreCase(ddlAuto)) {
+                updateSchema(shard, dataSource);
+            }
+            reserveIdBlock(shard, dataSource);
+        }
+        log.info("Customer sharding over {} shards", shards.size());
+    }
+
+    private void updateSchema(int shard, DataSource dataSource) {
+        String action = "validate".equalsIgnoreCase(ddlAuto) ? "validate" : "update";
+        LocalContainerEntityManagerFactoryBean factory = entityManagerFactoryBuilder
+                .dataSource(dataSource)
+                .packages(Customer.class)
+                .persistenceUnit("shard-" + shard + "-schema")
+                .properties(Map.of(AvailableSettings.HBM2DDL_AUTO, action))
+                .build();
+        factory.afterPropertiesSet();
+        factory.destroy();
+    }
+
+    private void reserveIdBlock(int shard, DataSource dataSource) throws SQLException {
+        long floor = shardMap.firstIdOf(shard) + ID_ALLOCATION_MARGIN;
+        long ceiling = shardMap.firstIdOf(shard + 1);
+        try (Connection connection = dataSource.getConnection()) {
+            boolean table = hasTable(connection.getMetaData(), "customer_seq");
+            long current = table
+                    ? queryLong(connection, "SELECT MAX(next_val) FROM customer_seq")
+                    : queryLong(connection, "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = 'CUSTOMER_SEQ'");
+            if (current >= ceiling) {
+                throw new IllegalStateException("customer_seq of shard " + shard + " is at " + current
+                        + ", past the shard's id block ending at " + (ceiling - 1));
+            }
+            if (current >= floor) return;
+            if (table) {
+                try (PreparedStatement update = connection.prepareStatement("UPDATE customer_seq SET next_val = ?")) {
+                    update.setLong(1, floor);
+                    update.executeUpdate();
+                }
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER SEQUENCE customer_seq RESTART WITH " + floor);
+                }
+            }
+            if (!connection.getAutoCommit()) connection.commit();
+            log.info("Shard {} allocates customer ids from {}", shard, floor);
+        }
+    }
+
+    private static boolean hasTable(DatabaseMetaData metaData, String name) throws SQLException {
+        for (String candidate : new String[]{name, name.toUpperCase()}) {
+            try (ResultSet tables = metaData.getTables(null, null, candidate, new String[]{"TABLE"})) {
+                if (tables.next()) return true;
+            }
+        }
+        return false;
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+}
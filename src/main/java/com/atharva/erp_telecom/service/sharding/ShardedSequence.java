@@ -0,0 +1,20 @@
+package com.atharva.erp_telecom.service.sharding;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Sequence generated id for an entity that lives on the customer shards, see ShardedSequenceGenerator.
+// Same sequence and allocation as a plain @GeneratedValue(strategy = SEQUENCE), so the schema does not change.
+@IdGeneratorType(ShardedSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedSequence {
+
+    String sequenceName();
+
+    int allocationSize() default 50;
+}
@@ -0,0 +1,49 @@
+package com.atharva.erp_telecom.service.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerDescriptor;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hibernate's sequence generator with one optimizer per shard.
+/*
+    The pooled optimizer keeps the block of ids it last fetched in memory. With a single optimizer, ids fetched from
+    shard 1's sequence would then be handed to rows written on shard 2 and the id would no longer tell the shard.
+    Each shard therefore gets its own optimizer, and the fetch itself goes through the routing DataSource to the
+    shard set in ShardContext. The home shard (and the unsharded app) uses the generator's own optimizer.
+ */
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+
+    private final ShardedSequence config;
+    private final Map<Integer, Optimizer> shardOptimizers = new ConcurrentHashMap<>();
+    private OptimizerDescriptor optimizerDescriptor;
+
+    public ShardedSequenceGenerator(ShardedSequence config) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        parameters.setProperty(SEQUENCE_PARAM, config.sequenceName());
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+        this.optimizerDescriptor = determineOptimizationStrategy(parameters, config.allocationSize());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        Integer shard = ShardContext.current();
+        if (shard == null || shard == ShardMap.HOME_SHARD) return super.generate(session, object);
+        Optimizer optimizer = shardOptimizers.computeIfAbsent(shard, s -> OptimizerFactory.buildOptimizer(
+                optimizerDescriptor, getIdentifierType().getReturnedClass(),
+                getOptimizer().getIncrementSize(), getDatabaseStructure().getInitialValue()));
+        return optimizer.generate(getDatabaseStructure().buildCallback(session));
+    }
+}
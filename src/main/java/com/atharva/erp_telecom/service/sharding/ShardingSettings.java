@@ -0,0 +1,20 @@
+package com.atharva.erp_telecom.service.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Parsing shared by the sharding properties, all of them are comma separated lists.
+public final class ShardingSettings {
+
+    private ShardingSettings() {
+    }
+
+    public static List<String> split(String value) {
+        List<String> entries = new ArrayList<>();
+        if (value == null) return entries;
+        for (String entry : value.split(",")) {
+            if (!entry.isBlank()) entries.add(entry.trim());
+        }
+        return entries;
+    }
+}
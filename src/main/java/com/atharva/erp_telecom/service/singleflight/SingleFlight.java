@@ -0,0 +1,72 @@
+package com.atharva.erp_telecom.service.singleflight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Coalesces concurrent loads of the same key: the first caller (the leader) runs the load, callers arriving while
+// it runs (followers) wait for it and get the same result or exception. Nothing is cached, the next caller after
+// the load finished starts a new one.
+/*
+    Followers share the leader's result object, so loads must return values nobody modifies afterwards
+    (detached entities that are only read, immutable wrappers).
+    A write to a key should call forget(key) once committed: callers after the write then start a fresh load
+    instead of joining one that may have read the old state.
+
+    Metrics, tagged with the flight's name:
+        singleflight.calls{role=leader|follower}  - coalescing ratio = follower / (leader + follower)
+        singleflight.in_flight                     - loads currently running
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("singleflight.calls").tag("name", name).tag("role", "leader").register(meterRegistry);
+        this.followers = Counter.builder("singleflight.calls").tag("name", name).tag("role", "follower").register(meterRegistry);
+        Gauge.builder("singleflight.in_flight", inFlight, Map::size).tag("name", name).register(meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            followers.increment();
+            return await(running);
+        }
+        leaders.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // Later callers start a new load, those already waiting keep the running one.
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+}
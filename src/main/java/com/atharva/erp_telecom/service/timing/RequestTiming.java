@@ -0,0 +1,141 @@
+package com.atharva.erp_telecom.service.timing;
+
+import com.atharva.erp_telecom.constants.TimingPhase;
+
+import java.util.Arrays;
+
+// Per-request phase timings of the current thread, see ServerTimingFilter.
+/*
+    Code that wants a phase timed brackets it with
+        int previous = RequestTiming.begin(TimingPhase.DB);
+        try { ... } finally { RequestTiming.end(previous); }
+    Phases are exclusive: a phase begun inside another pauses the outer one, so the user reload's repository call
+    counts as DB and not also as USER, and the phases add up to no more than the request.
+
+    Nothing is allocated per request: each thread keeps one RequestTiming for all its requests, and while timing is
+    disabled (erp.timing.enabled=false) begin() returns after reading one static field.
+    Work handed to another thread (the shard-query pool, a coalesced lookup led by another request) is not seen.
+ */
+public final class RequestTiming {
+
+    // begin() outside a timed request.
+    private static final int INACTIVE = -2;
+    // No phase open.
+    private static final int NONE = -1;
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = ThreadLocal.withInitial(RequestTiming::new);
+
+    private static volatile boolean enabled;
+
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] calls = new int[PHASES.length];
+    private boolean active;
+    private long startNanos;
+    private long endNanos;
+    private int open = NONE;
+    private long openSince;
+
+    private RequestTiming() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        RequestTiming.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // Starts timing the request on this thread.
+    public static RequestTiming start() {
+        RequestTiming timing = CURRENT.get();
+        Arrays.fill(timing.nanos, 0);
+        Arrays.fill(timing.calls, 0);
+        timing.open = NONE;
+        timing.endNanos = 0;
+        timing.startNanos = System.nanoTime();
+        timing.active = true;
+        return timing;
+    }
+
+    // Opens a phase, returns what end() needs to resume the phase it interrupted.
+    public static int begin(TimingPhase phase) {
+        if (!enabled) return INACTIVE;
+        RequestTiming timing = CURRENT.get();
+        if (!timing.active) return INACTIVE;
+        long now = System.nanoTime();
+        int previous = timing.open;
+        if (previous != NONE) timing.nanos[previous] += now - timing.openSince;
+        timing.open = phase.ordinal();
+        timing.openSince = now;
+        timing.calls[phase.ordinal()]++;
+        return previous;
+    }
+
+    // Closes the phase opened by the begin() that returned previous.
+    public static void end(int previous) {
+        if (previous == INACTIVE) return;
+        RequestTiming timing = CURRENT.get();
+        if (!timing.active) return;
+        long now = System.nanoTime();
+        if (timing.open != NONE) timing.nanos[timing.open] += now - timing.openSince;
+        timing.open = previous;
+        timing.openSince = now;
+    }
+
+    // Stops timing, the figures stay readable until the thread's next start().
+    public void finish() {
+        if (!active) return;
+        endNanos = System.nanoTime();
+        if (open != NONE) nanos[open] += endNanos - openSince;
+        open = NONE;
+        active = false;
+    }
+
+    // Time spent in the phase so far, a phase still open included.
+    public long nanos(TimingPhase phase) {
+        long total = nanos[phase.ordinal()];
+        if (active && open == phase.ordinal()) total += System.nanoTime() - openSince;
+        return total;
+    }
+
+    public int calls(TimingPhase phase) {
+        return calls[phase.ordinal()];
+    }
+
+    public long totalNanos() {
+        return (active ? System.nanoTime() : endNanos) - startNanos;
+    }
+
+    // The request's time outside every phase: filters, controller and service code.
+    public long otherNanos() {
+        long other = totalNanos();
+        for (TimingPhase phase : PHASES) other -= nanos(phase);
+        return Math.max(0, other);
+    }
+
+    // name;dur=millis entries, for the Server-Timing header (separator ", ") or the slow request log.
+    public String format(String separator) {
+        StringBuilder out = new StringBuilder(128);
+        for (TimingPhase phase : PHASES) {
+            if (calls(phase) == 0) continue;
+            appendMetric(out, phase.getMetricName(), nanos(phase));
+            if (calls(phase) > 1) out.append(";desc=\"").append(calls(phase)).append(" calls\"");
+            out.append(separator);
+        }
+        appendMetric(out, "app", otherNanos());
+        out.append(separator);
+        appendMetric(out, "total", totalNanos());
+        return out.toString();
+    }
+
+    private static void appendMetric(StringBuilder out, String name, long nanos) {
+        // microsecond precision is plenty and keeps the header short
+        long micros = nanos / 1_000;
+        out.append(name).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) out.append('0');
+        if (fraction < 10) out.append('0');
+        out.append(fraction);
+    }
+}
@@ -0,0 +1,107 @@
+package com.atharva.erp_telecom.service.timing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Local file of slow requests with their phase breakdown, one line each:
+//   2026-10-19T08:15:02.114Z GET /customer/get status=200 jwt;dur=0.210 user;dur=0.050 db;dur=912.400 ...
+/*
+    A request is a candidate when it took erp.timing.slow-threshold-ms or longer; erp.timing.slow-sample-rate of the
+    candidates are written (1.0 = all of them). Lines are handed to a "slow-request-log" thread through a bounded
+    queue, a request never waits on the disk - when the queue is full the line is dropped and counted.
+ */
+@Component
+public class SlowRequestLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestLog.class);
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final Path file;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+    private final Counter logged;
+    private final Counter dropped;
+    private volatile boolean running = true;
+
+    public SlowRequestLog(MeterRegistry meterRegistry,
+                          @Value("${erp.timing.slow-log-file:logs/slow-requests.log}") Path file,
+                          @Value("${erp.timing.slow-threshold-ms:1000}") long thresholdMillis,
+                          @Value("${erp.timing.slow-sample-rate:1.0}") double sampleRate) {
+        this.file = file;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+        this.writerThread = new Thread(this::writeLoop, "slow-request-log");
+        writerThread.setDaemon(true);
+        this.logged = Counter.builder("timing.slow_requests").tag("outcome", "logged").register(meterRegistry);
+        this.dropped = Counter.builder("timing.slow_requests").tag("outcome", "dropped").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread.start();
+    }
+
+    // Whether a request that took this long should be logged, sampling included.
+    public boolean shouldLog(long totalNanos) {
+        if (totalNanos < thresholdNanos) return false;
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public void record(String method, String path, int status, RequestTiming timing) {
+        String line = Instant.now() + " " + method + " " + path + " status=" + status + " " + timing.format(" ");
+        if (queue.offer(line)) {
+            logged.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                String line = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (line == null) continue;
+                if (file.getParent() != null) Files.createDirectories(file.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    // everything that queued up meanwhile goes out with the same open
+                    for (; line != null; line = queue.poll()) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Writing the slow request log {} failed: {}", file, e.toString());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
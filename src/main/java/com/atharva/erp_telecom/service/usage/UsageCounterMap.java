@@ -0,0 +1,123 @@
+package com.atharva.erp_telecom.service.usage;
+
+import java.util.Arrays;
+
+// Open-addressing map from a packed (customerId, serviceType) long key to two long counters (quantity and
+// event count). Keeps the per-customer rollups in three flat arrays instead of a boxed HashMap entry per key.
+public final class UsageCounterMap {
+
+    private static final long FREE = Long.MIN_VALUE;
+    private static final int SERVICE_TYPE_BITS = 4;
+
+    private long[] keys;
+    private long[] quantities;
+    private long[] counts;
+    private int mask;
+    private int size;
+
+    public UsageCounterMap(int expectedKeys) {
+        allocate(tableSizeFor(expectedKeys));
+    }
+
+    public static long key(long customerId, int serviceTypeCode) {
+        return (customerId << SERVICE_TYPE_BITS) | serviceTypeCode;
+    }
+
+    public static long customerId(long key) {
+        return key >>> SERVICE_TYPE_BITS;
+    }
+
+    public static int serviceTypeCode(long key) {
+        return (int) (key & ((1 << SERVICE_TYPE_BITS) - 1));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(long key, long quantity, long count) {
+        int slot = slotFor(key);
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            if (++size > (mask + 1) >> 1) {
+                quantities[slot] = quantity;
+                counts[slot] = count;
+                resize();
+                return;
+            }
+        }
+        quantities[slot] += quantity;
+        counts[slot] += count;
+    }
+
+    public long quantity(long key) {
+        int slot = slotFor(key);
+        return keys[slot] == FREE ? 0 : quantities[slot];
+    }
+
+    public long count(long key) {
+        int slot = slotFor(key);
+        return keys[slot] == FREE ? 0 : counts[slot];
+    }
+
+    public void addAll(UsageCounterMap other) {
+        other.forEach(this::add);
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) visitor.visit(keys[slot], quantities[slot], counts[slot]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, long quantity, long count);
+    }
+
+    private int slotFor(long key) {
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldQuantities = quantities;
+        long[] oldCounts = counts;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE) continue;
+            int slot = slotFor(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            quantities[slot] = oldQuantities[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        Arrays.fill(keys, FREE);
+        quantities = new long[tableSize];
+        counts = new long[tableSize];
+        mask = tableSize - 1;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int tableSizeFor(int expectedKeys) {
+        int needed = Math.max(16, expectedKeys * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
@@ -0,0 +1,274 @@
+package com.atharva.erp_telecom.service.usage;
+
+import com.atharva.erp_telecom.constants.RollupGranularity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Incremental hourly / daily / monthly usage rollups.
+/*
+    For every granularity we keep one window for the current period:
+        - totals : everything recorded for the period so far, this is what "usage so far" is served from.
+        - dirty  : the part of the totals not yet written to usage_rollup.
+    When an event opens a new period the old window's dirty counters are parked as pending and a fresh window is
+    started. Events that arrive late for an already closed period only go to the pending counters, closed
+    periods are served from the rollup table.
+
+    drainPending() hands every dirty counter to the flusher and restore() puts them back if the write failed.
+    A single lock guards all windows, it is taken once per ingested batch rather than once per event.
+    Period starts are kept as local epoch seconds in the configured billing offset.
+ */
+public final class UsageRollupAggregator {
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private final ZoneOffset billingOffset;
+    private final int expectedCustomers;
+    private final Window[] windows;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Month boundaries are the only ones that need calendar maths, the current month is cached.
+    private long cachedMonthStart = Long.MAX_VALUE;
+    private long cachedMonthEnd = Long.MIN_VALUE;
+
+    public UsageRollupAggregator(ZoneOffset billingOffset, int expectedCustomers) {
+        this.billingOffset = billingOffset;
+        this.expectedCustomers = expectedCustomers;
+        RollupGranularity[] granularities = RollupGranularity.values();
+        this.windows = new Window[granularities.length];
+        for (RollupGranularity granularity : granularities) {
+            windows[granularity.ordinal()] = new Window(granularity);
+        }
+    }
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    // Must be called while holding lock(), so a batch of events is applied under a single acquisition.
+    public void recordLocked(long customerId, int serviceTypeCode, long quantity, long epochSecond) {
+        long local = epochSecond + billingOffset.getTotalSeconds();
+        long key = UsageCounterMap.key(customerId, serviceTypeCode);
+        windows[RollupGranularity.HOUR.ordinal()].add(Math.floorDiv(local, SECONDS_PER_HOUR) * SECONDS_PER_HOUR, key, quantity);
+        windows[RollupGranularity.DAY.ordinal()].add(Math.floorDiv(local, SECONDS_PER_DAY) * SECONDS_PER_DAY, key, quantity);
+        windows[RollupGranularity.MONTH.ordinal()].add(monthStart(local), key, quantity);
+    }
+
+    // Month-to-date usage of the service by the customer, for the month of the event, not counting the event.
+    // 0 for an event late for an already closed month; must be called while holding lock().
+    public long monthToDateLocked(long customerId, int serviceTypeCode, long epochSecond) {
+        Window window = windows[RollupGranularity.MONTH.ordinal()];
+        if (monthStart(epochSecond + billingOffset.getTotalSeconds()) != window.periodStart) return 0;
+        return window.totals.quantity(UsageCounterMap.key(customerId, serviceTypeCode));
+    }
+
+    public void record(long customerId, int serviceTypeCode, long quantity, long epochSecond) {
+        lock.lock();
+        try {
+            recordLocked(customerId, serviceTypeCode, quantity, epochSecond);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Seeds the totals of the current period, used at startup with what an earlier run already flushed.
+    public void seedCurrent(RollupGranularity granularity, long periodStart, long key, long quantity, long count) {
+        lock.lock();
+        try {
+            Window window = windows[granularity.ordinal()];
+            window.advanceTo(periodStart);
+            if (window.periodStart == periodStart) window.totals.add(key, quantity, count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Totals of the current period for one customer, indexed by service type code. The window is first moved
+    // up to "now" so a customer with no traffic since midnight does not see yesterday's figures.
+    public CurrentUsage current(RollupGranularity granularity, long customerId, long nowEpochSecond, int serviceTypes) {
+        long periodStart = periodStart(granularity, nowEpochSecond + billingOffset.getTotalSeconds());
+        long[] quantities = new long[serviceTypes];
+        long[] counts = new long[serviceTypes];
+        lock.lock();
+        try {
+            Window window = windows[granularity.ordinal()];
+            window.advanceTo(periodStart);
+            for (int code = 0; code < serviceTypes; code++) {
+                long key = UsageCounterMap.key(customerId, code);
+                quantities[code] = window.totals.quantity(key);
+                counts[code] = window.totals.count(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new CurrentUsage(toDateTime(periodStart), quantities, counts);
+    }
+
+    public LocalDateTime currentPeriodStart(RollupGranularity granularity, long nowEpochSecond) {
+        return toDateTime(periodStart(granularity, nowEpochSecond + billingOffset.getTotalSeconds()));
+    }
+
+    // Takes every counter not yet written out, leaving the aggregator clean.
+    public List<PendingRollup> drainPending() {
+        List<PendingRollup> pending = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Window window : windows) {
+                window.drainInto(pending, expectedCustomers);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return pending;
+    }
+
+    // Puts back counters whose write failed so they go out with the next flush.
+    public void restore(List<PendingRollup> pending) {
+        lock.lock();
+        try {
+            for (PendingRollup rollup : pending) {
+                windows[rollup.granularity.ordinal()].parked
+                        .computeIfAbsent(rollup.periodStart, start -> new UsageCounterMap(rollup.counters.size()))
+                        .addAll(rollup.counters);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LocalDateTime toDateTime(long localEpochSecond) {
+        return LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public long toLocalEpochSecond(LocalDateTime periodStart) {
+        return periodStart.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private long periodStart(RollupGranularity granularity, long local) {
+        switch (granularity) {
+            case HOUR:
+                return Math.floorDiv(local, SECONDS_PER_HOUR) * SECONDS_PER_HOUR;
+            case DAY:
+                return Math.floorDiv(local, SECONDS_PER_DAY) * SECONDS_PER_DAY;
+            default:
+                return monthStart(local);
+        }
+    }
+
+    private long monthStart(long local) {
+        if (local >= cachedMonthStart && local < cachedMonthEnd) return cachedMonthStart;
+        LocalDate first = LocalDate.ofEpochDay(Math.floorDiv(local, SECONDS_PER_DAY)).withDayOfMonth(1);
+        long start = first.toEpochDay() * SECONDS_PER_DAY;
+        long end = first.plusMonths(1).toEpochDay() * SECONDS_PER_DAY;
+        // Only the newest month is cached, late events for an older month just take the slow path.
+        if (start >= cachedMonthStart || cachedMonthStart == Long.MAX_VALUE) {
+            cachedMonthStart = start;
+            cachedMonthEnd = end;
+        }
+        return start;
+    }
+
+    public static final class PendingRollup {
+        private final RollupGranularity granularity;
+        private final long periodStart;
+        private final UsageCounterMap counters;
+
+        PendingRollup(RollupGranularity granularity, long periodStart, UsageCounterMap counters) {
+            this.granularity = granularity;
+            this.periodStart = periodStart;
+            this.counters = counters;
+        }
+
+        public RollupGranularity getGranularity() {
+            return granularity;
+        }
+
+        public long getPeriodStart() {
+            return periodStart;
+        }
+
+        public UsageCounterMap getCounters() {
+            return counters;
+        }
+    }
+
+    public static final class CurrentUsage {
+        private final LocalDateTime periodStart;
+        private final long[] quantities;
+        private final long[] counts;
+
+        CurrentUsage(LocalDateTime periodStart, long[] quantities, long[] counts) {
+            this.periodStart = periodStart;
+            this.quantities = quantities;
+            this.counts = counts;
+        }
+
+        public LocalDateTime getPeriodStart() {
+            return periodStart;
+        }
+
+        public long quantity(int serviceTypeCode) {
+            return quantities[serviceTypeCode];
+        }
+
+        public long count(int serviceTypeCode) {
+            return counts[serviceTypeCode];
+        }
+    }
+
+    private final class Window {
+        private final RollupGranularity granularity;
+        private long periodStart = Long.MIN_VALUE;
+        private UsageCounterMap totals;
+        private UsageCounterMap dirty;
+        // Dirty counters of closed periods, keyed by period start.
+        private final Map<Long, UsageCounterMap> parked = new HashMap<>();
+
+        Window(RollupGranularity granularity) {
+            this.granularity = granularity;
+            this.totals = new UsageCounterMap(expectedCustomers);
+            this.dirty = new UsageCounterMap(expectedCustomers);
+        }
+
+        void add(long eventPeriodStart, long key, long quantity) {
+            advanceTo(eventPeriodStart);
+            if (eventPeriodStart == periodStart) {
+                totals.add(key, quantity, 1);
+                dirty.add(key, quantity, 1);
+            } else {
+                parked.computeIfAbsent(eventPeriodStart, start -> new UsageCounterMap(16)).add(key, quantity, 1);
+            }
+        }
+
+        void advanceTo(long newPeriodStart) {
+            if (newPeriodStart <= periodStart) return;
+            if (!dirty.isEmpty()) {
+                parked.computeIfAbsent(periodStart, start -> new UsageCounterMap(dirty.size())).addAll(dirty);
+            }
+            int sizeHint = Math.max(expectedCustomers, totals.size());
+            periodStart = newPeriodStart;
+            totals = new UsageCounterMap(sizeHint);
+            dirty = new UsageCounterMap(sizeHint);
+        }
+
+        void drainInto(List<PendingRollup> pending, int sizeHint) {
+            if (!dirty.isEmpty()) {
+                pending.add(new PendingRollup(granularity, periodStart, dirty));
+                dirty = new UsageCounterMap(Math.max(sizeHint, dirty.size()));
+            }
+            parked.forEach((start, counters) -> pending.add(new PendingRollup(granularity, start, counters)));
+            parked.clear();
+        }
+    }
+}
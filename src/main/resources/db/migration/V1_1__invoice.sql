@@ -0,0 +1,19 @@
+-- Invoices, see Invoice. Read by the reconciliation engine and the dunning sync.
+create table invoice (
+    invoice_id bigint not null auto_increment,
+    invoice_reference varchar(64) not null,
+    customer_id bigint not null,
+    amount decimal(19,2) not null,
+    amount_paid decimal(19,2) not null,
+    currency varchar(3),
+    issue_date date not null,
+    due_date date not null,
+    status varchar(20) not null,
+    created_date datetime(6) not null,
+    modified_date datetime(6) not null,
+    primary key (invoice_id),
+    constraint uk_invoice_reference unique (invoice_reference)
+) engine=InnoDB;
+
+create index idx_invoice_customer on invoice (customer_id);
+create index idx_invoice_status on invoice (status);
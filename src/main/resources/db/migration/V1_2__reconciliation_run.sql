@@ -0,0 +1,16 @@
+-- One settlement file reconciliation, see ReconciliationRun.
+create table reconciliation_run (
+    run_id bigint not null auto_increment,
+    source_file varchar(255) not null,
+    status varchar(20) not null,
+    started_at datetime(6) not null,
+    finished_at datetime(6),
+    total_lines bigint,
+    rejected_lines bigint,
+    matched_count bigint,
+    partial_count bigint,
+    unmatched_count bigint,
+    spill_partitions integer,
+    failure_reason varchar(1000),
+    primary key (run_id)
+) engine=InnoDB;
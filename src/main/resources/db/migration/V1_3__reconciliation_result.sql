@@ -0,0 +1,16 @@
+-- The outcome of every settlement line of a run, see ReconciliationResult.
+create table reconciliation_result (
+    result_id bigint not null auto_increment,
+    run_id bigint not null,
+    line_number bigint not null,
+    reference varchar(64),
+    amount decimal(19,2) not null,
+    value_date date,
+    status varchar(20) not null,
+    match_type varchar(20),
+    invoice_id bigint,
+    remaining_amount decimal(19,2),
+    primary key (result_id)
+) engine=InnoDB;
+
+create index idx_recon_result_run on reconciliation_result (run_id, status);
@@ -0,0 +1,12 @@
+-- Usage totals per customer, period and service, see UsageRollup. Flushes add to an existing row.
+create table usage_rollup (
+    rollup_id bigint not null auto_increment,
+    customer_id bigint not null,
+    granularity varchar(10) not null,
+    period_start datetime(6) not null,
+    service_type varchar(20) not null,
+    quantity bigint not null,
+    event_count bigint not null,
+    primary key (rollup_id),
+    constraint uk_usage_rollup_period unique (customer_id, granularity, period_start, service_type)
+) engine=InnoDB;
@@ -0,0 +1,15 @@
+-- Events written in the same transaction as the change they describe, see OutboxDispatcher.
+create table outbox_event (
+    event_id bigint not null auto_increment,
+    aggregate_type varchar(30) not null,
+    aggregate_id varchar(64) not null,
+    event_type varchar(50) not null,
+    payload mediumtext not null,
+    created_at datetime(6) not null,
+    published_at datetime(6),
+    attempts integer not null,
+    dead_letter bit not null,
+    primary key (event_id)
+) engine=InnoDB;
+
+create index idx_outbox_pending on outbox_event (published_at, dead_letter, event_id);
@@ -0,0 +1,13 @@
+-- Responses kept per Idempotency-Key for replay, see IdempotencyStore.
+create table idempotency_record (
+    key_hash varchar(64) not null,
+    request_hash varchar(64) not null,
+    status_code integer not null,
+    content_type varchar(100),
+    response_body mediumblob,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    primary key (key_hash)
+) engine=InnoDB;
+
+create index idx_idempotency_expires on idempotency_record (expires_at);
@@ -0,0 +1,64 @@
+-- Baseline: the schema as ddl-auto=update left it - customers, users and roles. Databases created that way are
+-- baselined at version 1 (spring.flyway.baseline-on-migrate) and only run the migrations after this one.
+-- Tables added since each have a migration of their own. V1_1 to V1_6 are numbered below V2 so the migrations
+-- written after them keep their versions.
+
+create table customer (
+    customer_id bigint not null,
+    customer_first_name varchar(255),
+    customer_last_name varchar(255),
+    customer_class varchar(255),
+    customer_sub_class varchar(255),
+    country varchar(255),
+    country_code varchar(255),
+    email varchar(255),
+    contact_number bigint not null,
+    government_id varchar(255),
+    address_line1 varchar(255),
+    address_line2 varchar(255),
+    region varchar(255),
+    created_date datetime(6) not null,
+    modified_date datetime(6) not null,
+    primary key (customer_id)
+) engine=InnoDB;
+
+create table customer_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into customer_seq values (1);
+
+create table roles (
+    role_id bigint not null auto_increment,
+    role_name varchar(50) not null,
+    primary key (role_id),
+    constraint uk_roles_role_name unique (role_name)
+) engine=InnoDB;
+
+create table users (
+    user_id bigint not null,
+    user_name varchar(100) not null,
+    password varchar(255) not null,
+    user_first_name varchar(255) not null,
+    user_last_name varchar(255) not null,
+    customer_id varchar(255),
+    enabled bit,
+    create_time timestamp default current_timestamp not null,
+    updated_time timestamp default current_timestamp on update current_timestamp not null,
+    primary key (user_id),
+    constraint uk_users_user_name unique (user_name)
+) engine=InnoDB;
+
+create table users_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into users_seq values (1);
+
+create table users_roles_join (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (role_id, user_id),
+    constraint fk_users_roles_user foreign key (user_id) references users (user_id),
+    constraint fk_users_roles_role foreign key (role_id) references roles (role_id)
+) engine=InnoDB;
@@ -0,0 +1,6 @@
+-- Heartbeat row written on the primary and read back from the replicas to measure their lag.
+create table replica_heartbeat (
+    heartbeat_id integer not null,
+    beat_at bigint not null,
+    primary key (heartbeat_id)
+) engine=InnoDB;
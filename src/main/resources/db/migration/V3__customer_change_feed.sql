@@ -0,0 +1,2 @@
+-- Change feed order (modified_date, customer_id), see CustomerService.getChangesAfter.
+create index idx_customer_modified on customer (modified_date, customer_id);
@@ -0,0 +1,13 @@
+-- API keys of machine clients, see ApiKey. Only the HMAC of the secret is stored.
+create table api_key (
+    key_id varchar(32) not null,
+    client_name varchar(100) not null,
+    secret_hash varchar(64) not null,
+    roles varchar(255) not null,
+    enabled bit not null,
+    created_at datetime(6) not null,
+    revoked_at datetime(6),
+    usage_count bigint not null,
+    last_used_at datetime(6),
+    primary key (key_id)
+) engine=InnoDB;
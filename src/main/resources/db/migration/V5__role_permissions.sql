@@ -0,0 +1,20 @@
+-- Permissions granted to each role, see Permission. Existing roles keep the access they had (everything), admins
+-- narrow them down through /roles/{roleName}/permissions.
+create table role_permissions (
+    role_id bigint not null,
+    permission varchar(50) not null,
+    primary key (role_id, permission),
+    constraint fk_role_permissions_role foreign key (role_id) references roles (role_id)
+) engine=InnoDB;
+
+insert into role_permissions (role_id, permission)
+select r.role_id, p.permission
+from roles r
+cross join (
+    select 'CUSTOMER_READ' as permission
+    union all select 'CUSTOMER_WRITE'
+    union all select 'USAGE_READ'
+    union all select 'USAGE_WRITE'
+    union all select 'BILLING_READ'
+    union all select 'BILLING_RUN'
+) p;
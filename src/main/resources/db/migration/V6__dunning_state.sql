@@ -0,0 +1,13 @@
+-- Collections state per customer, see DunningScheduler.
+create table dunning_state (
+    customer_id bigint not null,
+    stage varchar(20) not null,
+    overdue_since date,
+    next_action varchar(20),
+    next_action_at datetime(6),
+    updated_at datetime(6) not null,
+    primary key (customer_id)
+) engine=InnoDB;
+
+-- the dunning sync only looks at invoices changed since its last pass
+create index idx_invoice_modified on invoice (modified_date);
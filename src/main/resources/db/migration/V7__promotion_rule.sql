@@ -0,0 +1,19 @@
+-- Promotion rules on rated usage, see PromotionRule. Compiled into memory when published.
+create table promotion_rule (
+    rule_id bigint not null auto_increment,
+    name varchar(100) not null,
+    customer_class varchar(50),
+    customer_sub_class varchar(50),
+    region varchar(50),
+    country varchar(50),
+    service_type varchar(20) not null,
+    threshold_quantity bigint not null,
+    discount_basis_points integer not null,
+    priority integer not null,
+    valid_from datetime(6),
+    valid_to datetime(6),
+    active bit not null,
+    published bit not null,
+    created_at datetime(6) not null,
+    primary key (rule_id)
+) engine=InnoDB;
@@ -0,0 +1,110 @@
+package com.atharva.erp_telecom.apikey;
+
+import com.atharva.erp_telecom.dto.IssuedApiKey;
+import com.atharva.erp_telecom.entity.ApiKey;
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.repository.ApiKeyRepository;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.security.ApiKeyAuthenticationFilter;
+import com.atharva.erp_telecom.service.apikey.ApiKeyIndex;
+import com.atharva.erp_telecom.service.apikey.ApiKeyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+@AutoConfigureMockMvc
+class ApiKeyAuthenticationTests {
+
+    private static final String PARTNER_ROLE = "ROLE_PARTNER";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ApiKeyService apiKeyService;
+    @Autowired
+    private ApiKeyIndex apiKeyIndex;
+    @Autowired
+    private ApiKeyRepository apiKeyRepository;
+    @Autowired
+    private RolesRepository rolesRepository;
+
+    @BeforeEach
+    void partnerRole() {
+        if (rolesRepository.findByRoleName(PARTNER_ROLE).isEmpty()) rolesRepository.save(new Roles(PARTNER_ROLE));
+    }
+
+    @Test
+    void validKeyAuthenticatesWithItsRoles() throws Exception {
+        IssuedApiKey issued = apiKeyService.issue("billing-partner", Set.of(PARTNER_ROLE));
+        assertTrue(issued.getApiKey().startsWith(issued.getKeyId() + "."));
+
+        // authenticated, so the controller answers: there is no customer 0
+        mockMvc.perform(get("/customer/get").param("id", "0")
+                        .header(ApiKeyAuthenticationFilter.HEADER_API_KEY, issued.getApiKey()))
+                .andExpect(status().isNotFound());
+        var authentication = apiKeyIndex.authenticate(issued.getApiKey());
+        assertEquals("apikey:" + issued.getKeyId(), authentication.getName());
+        assertEquals(Set.of(PARTNER_ROLE), Set.copyOf(authentication.getAuthorities().stream()
+                .map(Object::toString).toList()));
+
+        // partner keys can't manage keys
+        mockMvc.perform(post("/apikeys").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientName\":\"x\",\"roles\":[\"" + PARTNER_ROLE + "\"]}")
+                        .header(ApiKeyAuthenticationFilter.HEADER_API_KEY, issued.getApiKey()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void wrongSecretsAndRevokedKeysAreRejected() throws Exception {
+        IssuedApiKey issued = apiKeyService.issue("reseller", Set.of(PARTNER_ROLE));
+
+        mockMvc.perform(get("/customer/get").param("id", "0")
+                        .header(ApiKeyAuthenticationFilter.HEADER_API_KEY, issued.getKeyId() + ".not-the-secret"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/customer/get").param("id", "0")
+                        .header(ApiKeyAuthenticationFilter.HEADER_API_KEY, "no-separator"))
+                .andExpect(status().isUnauthorized());
+
+        apiKeyService.revoke(issued.getKeyId());
+        mockMvc.perform(get("/customer/get").param("id", "0")
+                        .header(ApiKeyAuthenticationFilter.HEADER_API_KEY, issued.getApiKey()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void usageIsCountedPerKeyAndSaved() {
+        IssuedApiKey issued = apiKeyService.issue("usage-reporter", Set.of(PARTNER_ROLE));
+        for (int i = 0; i < 3; i++) assertNotNull(apiKeyIndex.authenticate(issued.getApiKey()));
+
+        apiKeyIndex.sync();
+
+        ApiKey saved = apiKeyRepository.findById(issued.getKeyId()).orElseThrow();
+        assertEquals(3, saved.getUsageCount());
+        assertNotNull(saved.getLastUsedAt());
+        assertNotEquals(issued.getApiKey(), saved.getSecretHash());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", authorities = "ROLE_ADMIN")
+    void adminsIssueKeysForExistingRolesOnly() throws Exception {
+        mockMvc.perform(post("/apikeys").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientName\":\"crm-sync\",\"roles\":[\"" + PARTNER_ROLE + "\"]}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/apikeys").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientName\":\"crm-sync\",\"roles\":[\"ROLE_NOBODY\"]}"))
+                .andExpect(status().is4xxClientError());
+    }
+}
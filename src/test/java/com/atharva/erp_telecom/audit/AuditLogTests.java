@@ -0,0 +1,79 @@
+package com.atharva.erp_telecom.audit;
+
+import com.atharva.erp_telecom.constants.AuditAction;
+import com.atharva.erp_telecom.constants.AuditOverflowPolicy;
+import com.atharva.erp_telecom.service.audit.AuditLog;
+import com.atharva.erp_telecom.service.audit.AuditRecord;
+import com.atharva.erp_telecom.service.audit.AuditSegments;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTests {
+
+    private final Path directory = Paths.get("target/audit-tests");
+
+    @Test
+    void writesSegmentsAndQueriesThemByTimeAndUser() throws Exception {
+        FileSystemUtils.deleteRecursively(directory);
+        AuditLog first = auditLog(new SimpleMeterRegistry(), 64, AuditOverflowPolicy.DROP);
+        first.start();
+        first.record(AuditAction.LOGIN, "alice", AuditLog.NO_SUBJECT, null);
+        first.record(AuditAction.LOGIN_FAILED, "bob", AuditLog.NO_SUBJECT, "bad credentials");
+        first.shutdown();
+        Thread.sleep(5);
+        long between = System.currentTimeMillis();
+        Thread.sleep(5);
+
+        // A restart opens a new segment next to the old one.
+        AuditLog second = auditLog(new SimpleMeterRegistry(), 64, AuditOverflowPolicy.DROP);
+        second.start();
+        second.record(AuditAction.CUSTOMER_CREATED, "alice", 42, null);
+        second.shutdown();
+
+        assertEquals(2, AuditSegments.segments(directory, Long.MIN_VALUE, Long.MAX_VALUE).size());
+        assertEquals(List.of("LOGIN", "CUSTOMER_CREATED"), actions(Long.MIN_VALUE, Long.MAX_VALUE, "alice"));
+        assertEquals(List.of("LOGIN_FAILED"), actions(Long.MIN_VALUE, between, "bob"));
+        assertEquals(List.of("CUSTOMER_CREATED"), actions(between, Long.MAX_VALUE, null));
+        assertEquals(1, AuditSegments.segments(directory, between + 1_000_000, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    void fullBufferDropsOrWaitsThenDrops() throws Exception {
+        FileSystemUtils.deleteRecursively(directory);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        // Writer not started yet, so nothing leaves the buffer.
+        AuditLog dropping = auditLog(meters, 2, AuditOverflowPolicy.DROP);
+        for (int i = 0; i < 3; i++) dropping.record(AuditAction.LOGIN, "user-" + i, AuditLog.NO_SUBJECT, null);
+        assertEquals(1, meters.get("audit.events").tag("outcome", "dropped").counter().count());
+        assertEquals(2, meters.get("audit.buffer.used").gauge().value());
+        dropping.start();
+        dropping.shutdown();
+        assertEquals(List.of("LOGIN", "LOGIN"), actions(Long.MIN_VALUE, Long.MAX_VALUE, null));
+
+        SimpleMeterRegistry blockingMeters = new SimpleMeterRegistry();
+        AuditLog blocking = auditLog(blockingMeters, 2, AuditOverflowPolicy.BLOCK);
+        for (int i = 0; i < 3; i++) blocking.record(AuditAction.LOGIN, "user-" + i, AuditLog.NO_SUBJECT, null);
+        assertEquals(1, blockingMeters.get("audit.events.blocked").counter().count());
+        assertEquals(1, blockingMeters.get("audit.events").tag("outcome", "dropped").counter().count());
+        blocking.start();
+        blocking.shutdown();
+    }
+
+    private AuditLog auditLog(SimpleMeterRegistry meters, int bufferSize, AuditOverflowPolicy policy) throws Exception {
+        return new AuditLog(meters, true, directory.toString(), bufferSize, policy, 20, 60);
+    }
+
+    private List<String> actions(long from, long to, String userName) throws Exception {
+        List<String> actions = new ArrayList<>();
+        AuditSegments.scan(directory, from, to, userName, (AuditRecord record) -> actions.add(record.getAction().name()));
+        return actions;
+    }
+}
@@ -0,0 +1,114 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPOutputStream;
+
+// Payload size and encode/decode throughput of a customer batch as JSON, CBOR and Smile, with the same mapper
+// setup as the HTTP converters (see BinaryFormatsConfig).
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=CustomerFormatBenchmark -Dexec.args="1000 5"
+    args: [customers per batch, default 1000 (the /customer/batch default)] [seconds per measurement, default 5]
+
+    gzip is shown for callers that could compress JSON instead: it shrinks the payload but adds CPU on both sides,
+    which is the cost the binary formats are meant to remove.
+ */
+public class CustomerFormatBenchmark {
+
+    private static final TypeReference<List<Customer>> CUSTOMER_LIST = new TypeReference<>() { };
+
+    public static void main(String[] args) throws IOException {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 5;
+        List<Customer> batch = customers(customers);
+
+        // Spring Boot writes dates as ISO strings, so do the mappers here
+        run("JSON ", Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(), batch, seconds);
+        run("CBOR ", Jackson2ObjectMapperBuilder.cbor().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(), batch, seconds);
+        run("Smile", Jackson2ObjectMapperBuilder.smile().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(), batch, seconds);
+    }
+
+    private static void run(String label, ObjectMapper mapper, List<Customer> batch, long seconds) throws IOException {
+        byte[] payload = mapper.writeValueAsBytes(batch);
+        List<Customer> decoded = mapper.readValue(payload, CUSTOMER_LIST);
+        if (decoded.size() != batch.size() || !decoded.get(batch.size() - 1).getEmail().equals(batch.get(batch.size() - 1).getEmail())) {
+            throw new IllegalStateException(label + " did not round-trip the batch");
+        }
+        // warm-up, then measure
+        measure(() -> mapper.writeValueAsBytes(batch), Math.max(1, seconds / 2));
+        double encodesPerSecond = measure(() -> mapper.writeValueAsBytes(batch), seconds);
+        measure(() -> mapper.readValue(payload, CUSTOMER_LIST), Math.max(1, seconds / 2));
+        double decodesPerSecond = measure(() -> mapper.readValue(payload, CUSTOMER_LIST), seconds);
+
+        System.out.printf("%s | %,9d bytes (%,4d per customer, gzip %,8d) | encode %,8.0f customers/s %,6.1f MB/s | decode %,8.0f customers/s %,6.1f MB/s%n",
+                label, payload.length, payload.length / batch.size(), gzipped(payload),
+                encodesPerSecond * batch.size(), encodesPerSecond * payload.length / (1 << 20),
+                decodesPerSecond * batch.size(), decodesPerSecond * payload.length / (1 << 20));
+    }
+
+    // Batches per second.
+    private static double measure(Work work, long seconds) throws IOException {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        long start = System.nanoTime();
+        long batches = 0;
+        Object sink = null;
+        while (System.nanoTime() < end) {
+            sink = work.run();
+            batches++;
+        }
+        if (sink == null) throw new IllegalStateException();
+        return batches * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static int gzipped(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.size();
+    }
+
+    private static List<Customer> customers(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] classes = {"CONSUMER", "BUSINESS", "ENTERPRISE"};
+        String[] regions = {"NORTH", "SOUTH", "EAST", "WEST"};
+        LocalDateTime created = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Customer customer = new Customer();
+            customer.setCustomerId(i + 1);
+            customer.setCustomerFirstName("First" + i);
+            customer.setCustomerLastName("Last" + random.nextInt(100_000));
+            customer.setCustomerClass(classes[random.nextInt(classes.length)]);
+            customer.setCustomerSubClass("SUB-" + random.nextInt(10));
+            customer.setCountry("India");
+            customer.setCountryCode("IN");
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setContactNumber(9_000_000_000L + random.nextInt(1_000_000_000));
+            customer.setGovernmentId("GOV" + random.nextInt(100_000_000));
+            customer.setAddressLine1(random.nextInt(1000) + " Main Road");
+            customer.setAddressLine2("Block " + (char) ('A' + random.nextInt(26)));
+            customer.setRegion(regions[random.nextInt(regions.length)]);
+            customer.setCreatedDate(created.plusMinutes(i));
+            customer.setModifiedDate(created.plusMinutes(i + 30));
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        Object run() throws IOException;
+    }
+}
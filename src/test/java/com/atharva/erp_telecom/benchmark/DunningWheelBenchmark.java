@@ -0,0 +1,145 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.service.dunning.TimingWheel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Scheduling and firing throughput and retained heap per timer of the dunning TimingWheel, against the obvious
+// PriorityQueue + HashMap (id -> timer, for rescheduling) holding the same timers.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=DunningWheelBenchmark -Dexec.args="2000000 30 3"
+    args: [timers, default 2,000,000] [days ahead the deadlines are spread over, default 30] [rounds, default 3]
+
+    One tick per second, as in production. Each round, on a fresh structure:
+        schedule:   one timer per customer id, random deadline within the horizon
+        reschedule: a tenth of the customers get a new deadline (payments, new invoices)
+        fire:       advance through the whole horizon, tick by tick, every timer expires once
+    Heap per timer is what the structure holds once everything is scheduled, with a GC before and after. The last
+    round is reported.
+ */
+public class DunningWheelBenchmark {
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int timers = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        long horizonTicks = (args.length > 1 ? Long.parseLong(args[1]) : 30) * 86_400;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        long[] deadlines = new long[timers];
+        long[] rescheduled = new long[timers / 10];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < timers; i++) deadlines[i] = 1 + random.nextLong(horizonTicks);
+        for (int i = 0; i < rescheduled.length; i++) rescheduled[i] = 1 + random.nextLong(horizonTicks);
+
+        for (int round = 1; round <= rounds; round++) {
+            boolean report = round == rounds;
+            run("timing wheel  ", () -> new WheelTimers(timers), deadlines, rescheduled, horizonTicks, report);
+            run("priority queue", QueueTimers::new, deadlines, rescheduled, horizonTicks, report);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    private static void run(String label, Supplier<Timers> factory, long[] deadlines, long[] rescheduled,
+                            long horizonTicks, boolean report) {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        Timers structure = factory.get();
+
+        long start = System.nanoTime();
+        for (int id = 0; id < deadlines.length; id++) structure.schedule(id, deadlines[id], id);
+        long scheduled = System.nanoTime() - start;
+
+        runtime.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        start = System.nanoTime();
+        // every tenth customer
+        for (int i = 0; i < rescheduled.length; i++) structure.schedule(i * 10L, rescheduled[i], i);
+        long reschedule = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long fired = structure.fireUpTo(horizonTicks);
+        long firing = System.nanoTime() - start;
+        if (fired != deadlines.length) throw new IllegalStateException(label + " fired " + fired);
+        if (!report) return;
+
+        System.out.printf("%s | schedule %,6.0f ns/timer (%,5.2f M/s) | reschedule %,6.0f ns | fire %,6.0f ns/timer "
+                        + "(%,5.2f M/s, %,d ticks) | %,4d bytes/timer%n",
+                label, (double) scheduled / deadlines.length, deadlines.length * 1e3 / scheduled,
+                (double) reschedule / rescheduled.length, (double) firing / fired, fired * 1e3 / firing,
+                horizonTicks, (heapAfter - heapBefore) / deadlines.length);
+    }
+
+    private interface Timers {
+        void schedule(long id, long deadline, long data);
+
+        long fireUpTo(long tick);
+    }
+
+    private static final class WheelTimers implements Timers {
+        private final TimingWheel wheel;
+
+        WheelTimers(int expected) {
+            wheel = new TimingWheel(0, expected);
+        }
+
+        @Override
+        public void schedule(long id, long deadline, long data) {
+            wheel.schedule(id, deadline, data);
+        }
+
+        @Override
+        public long fireUpTo(long tick) {
+            return wheel.advance(tick, (id, deadline, data) -> sink += data);
+        }
+    }
+
+    // A cancelled timer stays in the queue, marked, as removing it from the middle of a heap is O(n).
+    private static final class QueueTimers implements Timers {
+        private final PriorityQueue<Timer> queue = new PriorityQueue<>((a, b) -> Long.compare(a.deadline, b.deadline));
+        private final Map<Long, Timer> byId = new HashMap<>();
+
+        @Override
+        public void schedule(long id, long deadline, long data) {
+            Timer timer = new Timer(id, deadline, data);
+            Timer previous = byId.put(id, timer);
+            if (previous != null) previous.cancelled = true;
+            queue.add(timer);
+        }
+
+        @Override
+        public long fireUpTo(long tick) {
+            long fired = 0;
+            for (long current = 1; current <= tick; current++) {
+                while (!queue.isEmpty() && queue.peek().deadline <= current) {
+                    Timer timer = queue.poll();
+                    if (timer.cancelled) continue;
+                    byId.remove(timer.id);
+                    sink += timer.data;
+                    fired++;
+                }
+            }
+            return fired;
+        }
+    }
+
+    private static final class Timer {
+        final long id;
+        final long deadline;
+        final long data;
+        boolean cancelled;
+
+        Timer(long id, long deadline, long data) {
+            this.id = id;
+            this.deadline = deadline;
+            this.data = data;
+        }
+    }
+}
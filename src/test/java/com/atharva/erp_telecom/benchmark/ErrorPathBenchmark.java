@@ -0,0 +1,112 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.exception.ErrorBody;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// CPU and allocation per error response, the way 404s and rejected tokens were built before and after the
+// allocation-light error path, at a fixed rate of errors per second.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=ErrorPathBenchmark -Dexec.args="50000 10 120"
+    args: [errors per second, default 50000] [seconds per variant, default 10] [stack depth the exception is thrown
+          at, default 120 - about what a controller sits under in Tomcat + Spring Security + Spring MVC]
+
+    Each error is: throw and catch a not-found exception, then build the response body.
+        before: RuntimeException with a stack trace, HashMap body with a LocalDateTime serialised by Jackson
+        after:  ResourceNotFoundException (stackless), ErrorBody with the timestamp and message spliced in
+    CPU and allocated bytes come from the JVM's per-thread counters, so only the error path itself is measured.
+    "core %" is the share of one core the error path needs at the given rate.
+ */
+public class ErrorPathBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private static final ErrorBody NOT_FOUND = ErrorBody.forStatus(HttpStatus.NOT_FOUND);
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 120;
+
+        // warm-up both, then measure
+        run("before", () -> before(depth), rate, Math.max(1, seconds / 2), false);
+        run("after ", () -> after(depth), rate, Math.max(1, seconds / 2), false);
+        run("before", () -> before(depth), rate, seconds, true);
+        run("after ", () -> after(depth), rate, seconds, true);
+        if (sink == 42) System.out.println();
+    }
+
+    private static void run(String label, ErrorPath path, int rate, long seconds, boolean report) throws Exception {
+        long thread = Thread.currentThread().getId();
+        long total = rate * seconds;
+        long intervalNanos = 1_000_000_000L / rate;
+        long cpuStart = THREADS.getThreadCpuTime(thread);
+        long allocatedStart = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            sink += path.respond().length;
+            // paced in batches of 100, parking per error would cost more than the error
+            if (i % 100 == 99) {
+                long due = start + (i + 1) * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpu = THREADS.getThreadCpuTime(thread) - cpuStart;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedStart;
+        if (!report) return;
+        double achieved = total * 1e9 / elapsed;
+        System.out.printf("%s | %,8.0f errors/s (target %,d) | %,7.2f us CPU/error | %,7d bytes/error | %5.1f core %%%n",
+                label, achieved, rate, cpu / 1e3 / total, allocated / total, 100.0 * cpu / elapsed);
+    }
+
+    private static byte[] before(int depth) throws Exception {
+        try {
+            throwAt(depth, () -> new RuntimeException("Customer not found with ID:" + depth));
+            throw new IllegalStateException();
+        } catch (RuntimeException e) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("timestamp", LocalDateTime.now());
+            body.put("status", HttpStatus.NOT_FOUND.value());
+            body.put("error", HttpStatus.NOT_FOUND.getReasonPhrase());
+            body.put("message", e.getMessage());
+            return MAPPER.writeValueAsBytes(body);
+        }
+    }
+
+    private static byte[] after(int depth) {
+        try {
+            throwAt(depth, () -> new ResourceNotFoundException("Customer not found with ID:" + depth));
+            throw new IllegalStateException();
+        } catch (ResourceNotFoundException e) {
+            return NOT_FOUND.render(e.getMessage());
+        }
+    }
+
+    // Throws from depth frames down, so capturing the stack has as much to walk as under a real request.
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) throw exception.get();
+        throwAt(depth - 1, exception);
+    }
+
+    private interface ErrorPath {
+        byte[] respond() throws Exception;
+    }
+}
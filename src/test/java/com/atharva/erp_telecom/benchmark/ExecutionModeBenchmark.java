@@ -0,0 +1,169 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.ErpTelecomApplication;
+import com.atharva.erp_telecom.config.ExecutionModeReporter;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.repository.CustomerRepository;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.service.UserAuthService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Same workload against the platform-thread default and the "virtual" profile: N concurrent clients (closed model,
+// each sends its next request as soon as the previous one returns) doing authenticated GET /customer/get?id=..,
+// which is a JWT check, a user lookup and a customer lookup, all blocking JDBC.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=ExecutionModeBenchmark -Dexec.args="1000,5000,10000 20"
+    args: [client counts, default 1000,5000,10000] [seconds per run, default 20] [modes, default platform,virtual]
+
+    Server and clients share this JVM and the embedded H2 from src/test/resources, so the numbers compare the two
+    modes with each other, not with production. Every client holds a connection: ulimit -n must be above twice
+    the largest client count. The virtual profile does not start below JDK 21, there the virtual run is skipped.
+ */
+public class ExecutionModeBenchmark {
+
+    private static final int CUSTOMERS = 1_000;
+    private static final String USER = "bench-user";
+    private static final String PASSWORD = "bench-password";
+
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = Arrays.stream((args.length > 0 ? args[0] : "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        String[] modes = (args.length > 2 ? args[2] : "platform,virtual").split(",");
+
+        System.out.printf("%-8s | %7s | %9s | %8s | %8s | %8s | %8s | %s%n",
+                "mode", "clients", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        for (String mode : modes) {
+            if ("virtual".equals(mode) && !ExecutionModeReporter.virtualThreadsAvailable()) {
+                System.out.printf("%-8s | skipped, virtual threads need JDK 21+ (running %d)%n", mode,
+                        Runtime.version().feature());
+                continue;
+            }
+            try (ConfigurableApplicationContext context = start(mode)) {
+                boolean virtual = context.getBean(ExecutionModeReporter.class).isVirtual();
+                String token = seed(context);
+                int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+                run(mode, port, token, Math.min(1_000, clientCounts[0]), 5, virtual, false);
+                for (int clients : clientCounts) {
+                    run(mode, port, token, clients, seconds, virtual, true);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String mode) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ErpTelecomApplication.class)
+                .properties("server.port=0",
+                        "logging.level.root=WARN",
+                        "logging.level.com.atharva.erp_telecom.config=INFO",
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=1000");
+        if ("virtual".equals(mode)) builder.profiles("virtual");
+        return builder.run();
+    }
+
+    private static String seed(ConfigurableApplicationContext context) {
+        RolesRepository rolesRepository = context.getBean(RolesRepository.class);
+        if (rolesRepository.findByRoleName("ROLE_USER").isEmpty()) rolesRepository.save(new Roles("ROLE_USER"));
+        Users user = new Users();
+        user.setUserName(USER);
+        user.setPassword(PASSWORD);
+        user.setUserFirstName("Bench");
+        user.setUserLastName("User");
+        UserAuthService userAuthService = context.getBean(UserAuthService.class);
+        userAuthService.registerNewUser(user, Set.of("ROLE_USER"));
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setCustomerFirstName("First" + i);
+            customer.setCustomerLastName("Last" + i);
+            customer.setEmail("customer" + i + "@example.com");
+            customers.add(customer);
+        }
+        context.getBean(CustomerRepository.class).saveAll(customers);
+        return userAuthService.authenticate(USER, PASSWORD);
+    }
+
+    private static void run(String mode, int port, String token, int clients, int seconds, boolean virtual,
+                            boolean report) throws InterruptedException {
+        ExecutorService callbacks = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(callbacks)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        long[] latencies = new long[1 << 23];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            send(client, port, token, deadline, latencies, recorded, errors, done);
+        }
+        done.await();
+        long elapsedNanos = System.nanoTime() - start;
+        callbacks.shutdownNow();
+        if (!report) return;
+
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("%-8s | %,7d | %,9d | %8.1f | %8.1f | %8.1f | %8.1f | %,d%n",
+                virtual ? "virtual" : mode.equals("virtual") ? "virt->pl" : "platform", clients,
+                count * 1_000_000_000L / elapsedNanos,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                count == 0 ? 0.0 : sorted[count - 1] / 1e6, errors.get());
+    }
+
+    // One client: send, record, and go again until the deadline.
+    private static void send(HttpClient client, int port, String token, long deadline, long[] latencies,
+                             AtomicInteger recorded, AtomicLong errors, CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+        int id = ThreadLocalRandom.current().nextInt(1, CUSTOMERS + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customer/get?id=" + id))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            if (failure != null || response.statusCode() != 200) {
+                errors.incrementAndGet();
+            } else {
+                int slot = recorded.getAndIncrement();
+                if (slot < latencies.length) latencies[slot] = System.nanoTime() - sent;
+            }
+            send(client, port, token, deadline, latencies, recorded, errors, done);
+        });
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
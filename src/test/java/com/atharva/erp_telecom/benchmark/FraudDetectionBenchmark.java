@@ -0,0 +1,209 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.service.fraud.FraudAlert;
+import com.atharva.erp_telecom.service.fraud.FraudDetector;
+import com.atharva.erp_telecom.service.usage.UsageCounterMap;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Events per second, allocation per event and retained heap of the FraudDetector (count-min sketch, fixed memory)
+// against exact per-customer sliding windows in a HashMap, for growing subscriber counts.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=FraudDetectionBenchmark -Dexec.args="100000,1000000,5000000 5000000 3"
+    args: [subscriber counts, comma separated, default 100,000,1,000,000,5,000,000] [events per round, default
+          5,000,000] [rounds, default 3]
+
+    Production settings: a 10 minute window in 1 minute buckets, 4 x 16,384 sketches, baseline over a day. Events
+    are uniformly random subscribers and services (data up to 5 MB, calls up to 5 minutes, one SMS), 1,000 arriving
+    per second, so a round crosses about 80 bucket boundaries. From minute 70 on, every 50th event is instead a
+    5 minute call by one of 20 SIM-box subscribers, which both detectors should flag and nobody else.
+    A fresh detector per round; retained heap is measured after the round with a GC on either side, allocation is
+    the benchmark thread's (ThreadMXBean). The last round is reported.
+
+    exact:  HashMap<Long, KeyWindow>, each with its own ring of bucket counters and EWMA - exact, and grows by an
+            entry per (subscriber, service) seen.
+ */
+public class FraudDetectionBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int SERVICE_TYPES = ServiceType.values().length;
+    private static final int EVENTS_PER_SECOND = 1_000;
+    private static final long START = 1_700_000_000;
+    private static final int FRAUD_START = 70 * 60 * EVENTS_PER_SECOND;
+    private static final int FRAUDSTERS = 20;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        String[] subscriberCounts = (args.length > 0 ? args[0] : "100000,1000000,5000000").split(",");
+        int eventCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        for (String count : subscriberCounts) {
+            int subscribers = Integer.parseInt(count.trim());
+            SplittableRandom random = new SplittableRandom(42);
+            int[] customers = new int[eventCount];
+            int[] services = new int[eventCount];
+            long[] quantities = new long[eventCount];
+            for (int i = 0; i < eventCount; i++) {
+                customers[i] = 1 + random.nextInt(subscribers);
+                services[i] = random.nextInt(SERVICE_TYPES);
+                quantities[i] = services[i] == ServiceType.DATA.code() ? 1 + random.nextInt(5 << 20)
+                        : services[i] == ServiceType.VOICE.code() ? 1 + random.nextInt(300) : 1;
+                if (i >= FRAUD_START && i % 50 == 0) {
+                    customers[i] = subscribers + 1 + (i / 50) % FRAUDSTERS;
+                    services[i] = ServiceType.VOICE.code();
+                    quantities[i] = 300;
+                }
+            }
+            System.out.printf("%,d subscribers, %,d events%n", subscribers, eventCount);
+            for (int round = 1; round <= rounds; round++) {
+                boolean report = round == rounds;
+                run("sketch", () -> new SketchDetector(new FraudDetector(600, 10, 4, 16_384, 1_440, 60, 10,
+                        new long[]{1L << 30, 3_600, 200}, new long[]{20L << 30, 36_000, 2_000}, 100, 4_096)),
+                        subscribers, customers, services, quantities, report);
+                run("exact ", ExactDetector::new, subscribers, customers, services, quantities, report);
+            }
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    private static void run(String label, Supplier<Detector> factory, int subscribers, int[] customers,
+                            int[] services, long[] quantities, boolean report) {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        Detector detector = factory.get();
+
+        long thread = Thread.currentThread().getId();
+        long allocatedStart = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < customers.length; i++) {
+            long now = START + i / EVENTS_PER_SECOND;
+            if (i % EVENTS_PER_SECOND == 0) detector.advanceTo(now);
+            detector.observe(customers[i], services[i], quantities[i], now);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedStart;
+
+        runtime.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        Set<Long> flagged = detector.flagged();
+        long fraudstersFlagged = flagged.stream().filter(id -> id > subscribers).count();
+        sink += flagged.size();
+        if (!report) return;
+        System.out.printf("  %s | %,7.1f ns/event | %,6.2f M events/s | %,7.2f bytes/event allocated | "
+                        + "%,6.1f MB retained | %d/%d SIM boxes flagged, %,d others%n",
+                label, (double) elapsed / customers.length, customers.length * 1e3 / elapsed,
+                (double) allocated / customers.length, (heapAfter - heapBefore) / 1e6, fraudstersFlagged,
+                FRAUDSTERS, flagged.size() - fraudstersFlagged);
+    }
+
+    private interface Detector {
+        void advanceTo(long epochSecond);
+
+        void observe(long customerId, int serviceTypeCode, long quantity, long epochSecond);
+
+        Set<Long> flagged();
+    }
+
+    private static final class SketchDetector implements Detector {
+        private final FraudDetector detector;
+        private final Set<Long> flagged = new HashSet<>();
+
+        SketchDetector(FraudDetector detector) {
+            this.detector = detector;
+        }
+
+        @Override
+        public void advanceTo(long epochSecond) {
+            detector.advanceTo(epochSecond);
+        }
+
+        @Override
+        public void observe(long customerId, int serviceTypeCode, long quantity, long epochSecond) {
+            List<FraudAlert> raised = detector.observe(customerId, serviceTypeCode, quantity, epochSecond, null);
+            if (raised != null) raised.forEach(alert -> flagged.add(alert.customerId()));
+        }
+
+        @Override
+        public Set<Long> flagged() {
+            return flagged;
+        }
+    }
+
+    // Same rules as FraudDetector (floor, ceiling, ten times the EWMA after warm-up), exact counts per key.
+    private static final class ExactDetector implements Detector {
+        private static final int BUCKETS = 10;
+        private static final long BUCKET_SECONDS = 60;
+        private static final double ALPHA = 2.0 / (1_440 + 1);
+        private static final long[] MIN_WINDOW = {1L << 30, 3_600, 200};
+        private static final long[] CEILING = {20L << 30, 36_000, 2_000};
+
+        private final Map<Long, KeyWindow> windows = new HashMap<>();
+        private final Set<Long> flagged = new HashSet<>();
+        private long firstBucket = Long.MIN_VALUE;
+
+        @Override
+        public void advanceTo(long epochSecond) {
+            if (firstBucket == Long.MIN_VALUE) firstBucket = epochSecond / BUCKET_SECONDS;
+        }
+
+        @Override
+        public void observe(long customerId, int serviceTypeCode, long quantity, long epochSecond) {
+            long bucket = epochSecond / BUCKET_SECONDS;
+            KeyWindow window = windows.computeIfAbsent(UsageCounterMap.key(customerId, serviceTypeCode),
+                    key -> new KeyWindow(bucket));
+            window.advanceTo(bucket);
+            window.buckets[(int) (bucket % BUCKETS)] += quantity;
+            window.total += quantity;
+            if (window.total < MIN_WINDOW[serviceTypeCode]) return;
+            if (window.total >= CEILING[serviceTypeCode]
+                    || bucket - firstBucket >= 60 && window.total >= 10 * Math.ceil(window.rate() * BUCKETS)) {
+                flagged.add(customerId);
+            }
+        }
+
+        @Override
+        public Set<Long> flagged() {
+            return flagged;
+        }
+
+        private static final class KeyWindow {
+            final long[] buckets = new long[BUCKETS];
+            long current;
+            long total;
+            long closed;
+            double baseline;
+
+            KeyWindow(long bucket) {
+                this.current = bucket;
+            }
+
+            void advanceTo(long bucket) {
+                for (; current < bucket; current++) {
+                    baseline = ALPHA * buckets[(int) (current % BUCKETS)] + (1 - ALPHA) * baseline;
+                    int next = (int) ((current + 1) % BUCKETS);
+                    total -= buckets[next];
+                    buckets[next] = 0;
+                    closed++;
+                }
+            }
+
+            // bias corrected, as in SlidingCountMinSketch
+            double rate() {
+                return closed == 0 ? 0 : baseline / (1 - Math.pow(1 - ALPHA, closed));
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.entity.PromotionRule;
+import com.atharva.erp_telecom.service.promotion.CompiledPromotions;
+import com.atharva.erp_telecom.service.promotion.CustomerProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Rating throughput and allocation per event of the compiled promotion table (CompiledPromotions), against
+// evaluating the PromotionRule entities one by one for every event.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=PromotionRuleBenchmark -Dexec.args="1000 1000000 100000 3"
+    args: [active rules, default 1,000] [events per round, default 1,000,000] [customers, default 100,000]
+          [rounds, default 3]
+
+    Customers get a class (5 values), sub-class (40), region (30) and country (10). Every rule names each attribute
+    with probability 1/2, else leaves it open, picks a service type, a threshold of 0 - 10 GB (in MB), a 5 - 50%
+    discount and a priority 0 - 9; a quarter have a validity window that ends mid-stream. Events are random
+    customers and services, 1 - 100 MB each, one second apart, and month-to-date usage is kept per customer and
+    service as rating would see it.
+
+    interpreted: for each rule in preference order, compare the customer's attribute strings, the service type name,
+                 the threshold and the validity window (as LocalDateTime) - what a straightforward rule loop does.
+    compiled:    CompiledPromotions.match() on the customer's CustomerProfiles code.
+    Both must pick the same rule for every event. Allocation is the rating thread's, from ThreadMXBean.
+ */
+public class PromotionRuleBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final ServiceType[] SERVICE_TYPES = ServiceType.values();
+    private static final long START = LocalDateTime.of(2026, 3, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int ruleCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int eventCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int customers = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        SplittableRandom random = new SplittableRandom(42);
+        String[][] attributes = new String[customers][CustomerProfiles.ATTRIBUTES];
+        CustomerProfiles profiles = new CustomerProfiles(customers);
+        for (int id = 0; id < customers; id++) {
+            String[] values = attributes[id];
+            values[CustomerProfiles.CLASS] = "class-" + random.nextInt(5);
+            values[CustomerProfiles.SUB_CLASS] = "sub-" + random.nextInt(40);
+            values[CustomerProfiles.REGION] = "region-" + random.nextInt(30);
+            values[CustomerProfiles.COUNTRY] = "country-" + random.nextInt(10);
+            profiles.put(id, values[0], values[1], values[2], values[3]);
+        }
+
+        List<PromotionRule> rules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) rules.add(randomRule(random, i + 1, eventCount));
+
+        int[] eventCustomers = new int[eventCount];
+        int[] eventServices = new int[eventCount];
+        long[] eventQuantities = new long[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            eventCustomers[i] = random.nextInt(customers);
+            eventServices[i] = random.nextInt(SERVICE_TYPES.length);
+            eventQuantities[i] = 1 + random.nextInt(100);
+        }
+
+        long compileStart = System.nanoTime();
+        CompiledPromotions compiled = CompiledPromotions.compile(1, rules, profiles, ZoneOffset.UTC);
+        long compileNanos = System.nanoTime() - compileStart;
+        Interpreted interpreted = new Interpreted(rules);
+        System.out.printf("%,d rules compiled in %,d us, %,d events, %,d customers%n",
+                compiled.size(), compileNanos / 1_000, eventCount, customers);
+
+        long[] compiledPicks = new long[eventCount];
+        long[] interpretedPicks = new long[eventCount];
+        for (int round = 1; round <= rounds; round++) {
+            boolean report = round == rounds;
+            run("interpreted", (customer, service, before, quantity, time) ->
+                    interpreted.match(attributes[customer], service, before, quantity, time),
+                    eventCustomers, eventServices, eventQuantities, customers, interpretedPicks, report);
+            run("compiled   ", (customer, service, before, quantity, time) -> {
+                        int rule = compiled.match(profiles.profileOf(customer), service, before, quantity, time);
+                        return rule < 0 ? -1 : compiled.ruleId(rule);
+                    },
+                    eventCustomers, eventServices, eventQuantities, customers, compiledPicks, report);
+        }
+        long discounted = 0;
+        for (int i = 0; i < eventCount; i++) {
+            if (compiledPicks[i] != interpretedPicks[i]) {
+                throw new IllegalStateException("event " + i + ": compiled picked rule " + compiledPicks[i]
+                        + ", interpreted " + interpretedPicks[i]);
+            }
+            if (compiledPicks[i] >= 0) discounted++;
+        }
+        System.out.printf("same rule picked for every event, %,d discounted (%.1f%%)%n",
+                discounted, discounted * 100.0 / eventCount);
+        if (sink == 42) System.out.println();
+    }
+
+    private static void run(String label, Matcher matcher, int[] eventCustomers, int[] eventServices,
+                            long[] eventQuantities, int customers, long[] picks, boolean report) {
+        long[] monthToDate = new long[customers * SERVICE_TYPES.length];
+        long thread = Thread.currentThread().getId();
+        long allocatedStart = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < eventCustomers.length; i++) {
+            int usageKey = eventCustomers[i] * SERVICE_TYPES.length + eventServices[i];
+            long before = monthToDate[usageKey];
+            picks[i] = matcher.match(eventCustomers[i], eventServices[i], before, eventQuantities[i], START + i);
+            monthToDate[usageKey] = before + eventQuantities[i];
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedStart;
+        sink += picks[picks.length - 1];
+        if (!report) return;
+        System.out.printf("%s | %,8.1f ns/event | %,6.2f M events/s | %,8.2f bytes/event%n",
+                label, (double) elapsed / eventCustomers.length, eventCustomers.length * 1e3 / elapsed,
+                (double) allocated / eventCustomers.length);
+    }
+
+    private static PromotionRule randomRule(SplittableRandom random, long ruleId, int eventCount) {
+        PromotionRule rule = new PromotionRule();
+        rule.setRuleId(ruleId);
+        rule.setName("rule-" + ruleId);
+        if (random.nextBoolean()) rule.setCustomerClass("CLASS-" + random.nextInt(5));
+        if (random.nextBoolean()) rule.setCustomerSubClass("sub-" + random.nextInt(40));
+        if (random.nextBoolean()) rule.setRegion("Region-" + random.nextInt(30));
+        if (random.nextBoolean()) rule.setCountry("country-" + random.nextInt(10));
+        rule.setServiceType(SERVICE_TYPES[random.nextInt(SERVICE_TYPES.length)].name());
+        rule.setThresholdQuantity(random.nextInt(10_240));
+        rule.setDiscountBasisPoints(500 + random.nextInt(4_501));
+        rule.setPriority(random.nextInt(10));
+        if (random.nextInt(4) == 0) {
+            rule.setValidFrom(LocalDateTime.ofEpochSecond(START - 86_400, 0, ZoneOffset.UTC));
+            rule.setValidTo(LocalDateTime.ofEpochSecond(START + random.nextInt(eventCount), 0, ZoneOffset.UTC));
+        }
+        return rule;
+    }
+
+    private interface Matcher {
+        // rule id, -1 for none
+        long match(int customer, int serviceTypeCode, long usageBefore, long quantity, long epochSecond);
+    }
+
+    private static final class Interpreted {
+
+        private final List<PromotionRule> rules;
+
+        Interpreted(List<PromotionRule> rules) {
+            this.rules = rules.stream().sorted(Comparator
+                    .comparingInt(PromotionRule::getPriority).reversed()
+                    .thenComparing(Comparator.comparingInt(PromotionRule::getDiscountBasisPoints).reversed())
+                    .thenComparing(PromotionRule::getRuleId)).toList();
+        }
+
+        long match(String[] customer, int serviceTypeCode, long usageBefore, long quantity, long epochSecond) {
+            String serviceType = ServiceType.fromCode(serviceTypeCode).name();
+            LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            for (PromotionRule rule : rules) {
+                if (!serviceType.equals(rule.getServiceType())) continue;
+                if (!accepts(rule.getCustomerClass(), customer[CustomerProfiles.CLASS])) continue;
+                if (!accepts(rule.getCustomerSubClass(), customer[CustomerProfiles.SUB_CLASS])) continue;
+                if (!accepts(rule.getRegion(), customer[CustomerProfiles.REGION])) continue;
+                if (!accepts(rule.getCountry(), customer[CustomerProfiles.COUNTRY])) continue;
+                if (usageBefore + quantity <= rule.getThresholdQuantity()) continue;
+                if (rule.getValidFrom() != null && time.isBefore(rule.getValidFrom())) continue;
+                if (rule.getValidTo() != null && !time.isBefore(rule.getValidTo())) continue;
+                return rule.getRuleId();
+            }
+            return -1;
+        }
+
+        private static boolean accepts(String ruleValue, String customerValue) {
+            return ruleValue == null || ruleValue.equalsIgnoreCase(customerValue);
+        }
+    }
+}
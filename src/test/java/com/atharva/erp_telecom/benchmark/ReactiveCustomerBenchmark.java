@@ -0,0 +1,221 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.ErpTelecomApplication;
+import com.atharva.erp_telecom.config.ReactiveHttpServer;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.repository.CustomerRepository;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.service.UserAuthService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Holds N slow clients on the blocking customer listing (Tomcat, GET /customer/get) and then on the streaming
+// export of the reactive server (Netty, GET /reactive/customer/export), and compares what the server spends on them.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=ReactiveCustomerBenchmark -Dexec.args="10000 2000 20"
+    args: [slow clients, default 10000] [customers, default 2000] [seconds to hold them, default 20]
+          [stacks, default servlet,reactive]
+
+    A slow client sends its request and then reads 128 bytes every 250 ms with a 4 KB receive buffer,
+    so the server can never push the whole response at once. All clients share one selector thread.
+    While the clients are held we sample live server threads, heap in use after a GC, how many clients got any
+    data at all, and the latency of a single-customer lookup on the same server from a fresh client.
+    Clients and server share this JVM: ulimit -n must be above twice the client count.
+ */
+public class ReactiveCustomerBenchmark {
+
+    private static final String USER = "bench-user";
+    private static final String PASSWORD = "bench-password";
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int customers = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        List<String> stacks = List.of((args.length > 3 ? args[3] : "servlet,reactive").split(","));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ErpTelecomApplication.class)
+                .properties("server.port=0", "erp.reactive.port=0", "erp.reactive.export-batch-size=50", "logging.level.root=WARN", "logging.level.org.hibernate=OFF",
+                        "server.tomcat.max-connections=20000", "server.tomcat.accept-count=1000")
+                .run()) {
+            String token = seed(context, customers);
+            int servletPort = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            int reactivePort = context.getBean(ReactiveHttpServer.class).getPort();
+
+            System.out.printf("%-9s | %7s | %14s | %12s | %13s | %12s%n",
+                    "stack", "clients", "server threads", "heap in use", "clients w/data", "probe ms");
+            if (stacks.contains("servlet")) {
+                hold("servlet", servletPort, "/customer/get", "/customer/get?id=1", token, clients, seconds);
+            }
+            if (stacks.contains("reactive")) {
+                hold("reactive", reactivePort, "/reactive/customer/export", "/reactive/customer/1", token, clients, seconds);
+            }
+        }
+    }
+
+    private static void hold(String label, int port, String slowPath, String probePath, String token,
+                             int clients, int seconds) throws Exception {
+        int baseThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        SlowClients slow = new SlowClients(port, slowPath, token, clients);
+        Thread reader = new Thread(slow, "slow-clients");
+        reader.start();
+
+        Thread.sleep(seconds * 1000L);
+        double probeMs = probe(port, probePath, token);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        long heapMb = memory.getHeapMemoryUsage().getUsed() >> 20;
+        // The client side adds one thread (the selector), the rest is the server.
+        int serverThreads = ManagementFactory.getThreadMXBean().getThreadCount() - baseThreads - 1;
+        System.out.printf("%-9s | %,7d | %+14d | %,9d MB | %,13d | %12.1f%n",
+                label, clients, serverThreads, heapMb, slow.clientsWithData(), probeMs);
+
+        slow.stop();
+        reader.join();
+        Thread.sleep(5_000);
+    }
+
+    // Latency of one lookup from a fresh connection while the slow clients are held, -1 if it timed out.
+    private static double probe(int port, String path, String token) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long start = System.nanoTime();
+        try {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            return (System.nanoTime() - start) / 1e6;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String seed(ConfigurableApplicationContext context, int customers) {
+        RolesRepository rolesRepository = context.getBean(RolesRepository.class);
+        if (rolesRepository.findByRoleName("ROLE_USER").isEmpty()) rolesRepository.save(new Roles("ROLE_USER"));
+        Users user = new Users();
+        user.setUserName(USER);
+        user.setPassword(PASSWORD);
+        user.setUserFirstName("Bench");
+        user.setUserLastName("User");
+        UserAuthService userAuthService = context.getBean(UserAuthService.class);
+        userAuthService.registerNewUser(user, Set.of("ROLE_USER"));
+
+        List<Customer> batch = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            Customer customer = new Customer();
+            customer.setCustomerFirstName("First" + i);
+            customer.setCustomerLastName("Last" + i);
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setAddressLine1(i + " Long Street Name, Some District");
+            customer.setCountry("India");
+            customer.setRegion("WEST");
+            batch.add(customer);
+        }
+        context.getBean(CustomerRepository.class).saveAll(batch);
+        return userAuthService.authenticate(USER, PASSWORD);
+    }
+
+    private static final class SlowClients implements Runnable {
+        private static final int READ_PER_TICK = 128;
+        private static final long TICK_MS = 250;
+
+        private final int port;
+        private final byte[] request;
+        private final int clients;
+        private final List<SocketChannel> channels = new ArrayList<>();
+        private final boolean[] gotData;
+        private volatile boolean running = true;
+
+        SlowClients(int port, String path, String token, int clients) {
+            this.port = port;
+            this.request = ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nAuthorization: Bearer " + token
+                    + "\r\nAccept: */*\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            this.clients = clients;
+            this.gotData = new boolean[clients];
+        }
+
+        int clientsWithData() {
+            int count = 0;
+            for (boolean b : gotData) if (b) count++;
+            return count;
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        @Override
+        public void run() {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_PER_TICK);
+            try (Selector selector = Selector.open()) {
+                for (int i = 0; i < clients; i++) {
+                    SocketChannel channel = SocketChannel.open();
+                    channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+                    channel.configureBlocking(false);
+                    channel.connect(new InetSocketAddress("localhost", port));
+                    channel.register(selector, SelectionKey.OP_CONNECT, i);
+                    channels.add(channel);
+                }
+                while (running) {
+                    long tickEnd = System.currentTimeMillis() + TICK_MS;
+                    selector.selectNow();
+                    for (SelectionKey key : selector.keys()) {
+                        if (!key.isValid()) continue;
+                        SocketChannel channel = (SocketChannel) key.channel();
+                        int client = (Integer) key.attachment();
+                        try {
+                            if (key.interestOps() == SelectionKey.OP_CONNECT) {
+                                if (channel.finishConnect()) {
+                                    channel.write(ByteBuffer.wrap(request));
+                                    key.interestOps(SelectionKey.OP_READ);
+                                }
+                                continue;
+                            }
+                            buffer.clear();
+                            int read = channel.read(buffer);
+                            if (read > 0) gotData[client] = true;
+                            if (read < 0) key.cancel();
+                        } catch (IOException e) {
+                            key.cancel();
+                        }
+                    }
+                    long sleep = tickEnd - System.currentTimeMillis();
+                    if (sleep > 0) Thread.sleep(sleep);
+                }
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                for (SocketChannel channel : channels) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                        // closing anyway
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.service.reconciliation.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+// Reconciles a synthetic settlement file against synthetic open items, once fully in memory and once with
+// the spill threshold forced below the open item count.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=ReconciliationBenchmark -Dexec.args="10000000"
+    args: [settlement lines, default 10M] [open items, default half the lines]
+
+    Line mix: 55% exact payment by reference, 15% partial payment by reference, 10% no usable reference
+    but amount/date within tolerance, 20% unknown references.
+ */
+public class ReconciliationBenchmark {
+
+    private static final int BASE_DAY = (int) LocalDate.of(2025, 9, 1).toEpochDay();
+
+    public static void main(String[] args) throws IOException {
+        long lines = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : (int) (lines / 2);
+
+        Path workDir = Files.createTempDirectory("recon-bench-");
+        Path settlementFile = workDir.resolve("settlement.csv");
+        long start = System.nanoTime();
+        writeSettlementFile(settlementFile, lines, items);
+        System.out.printf("Generated %,d lines (%,d MB) in %,d ms%n", lines,
+                Files.size(settlementFile) >> 20, (System.nanoTime() - start) / 1_000_000);
+
+        OpenItemSource source = new SyntheticOpenItems(items);
+        run("in-memory", new ReconciliationSettings(items, 100, 5, workDir), source, settlementFile);
+        run("spilled  ", new ReconciliationSettings(Math.max(1, items / 4), 100, 5, workDir), source, settlementFile);
+
+        Files.deleteIfExists(settlementFile);
+        Files.deleteIfExists(workDir);
+    }
+
+    private static void run(String label, ReconciliationSettings settings, OpenItemSource source, Path file) throws IOException {
+        CountingSink sink = new CountingSink();
+        System.gc();
+        long start = System.nanoTime();
+        ReconciliationSummary summary = new ReconciliationEngine(settings).reconcile(source, file, sink);
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%s | %,7d ms | %,10d lines/s | peak heap in use ~%,d MB | %s%n",
+                label, elapsedMs, summary.getTotalLines() * 1000 / elapsedMs,
+                sink.peakHeap >> 20, summary);
+        if (sink.outcomes != summary.getTotalLines() - summary.getRejectedLines()) {
+            throw new IllegalStateException("Sink saw " + sink.outcomes + " outcomes for " + summary.getTotalLines() + " lines");
+        }
+        runtime.gc();
+    }
+
+    private static void writeSettlementFile(Path file, long lines, int items) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("reference,amount,value_date\n");
+            StringBuilder row = new StringBuilder(64);
+            for (long i = 0; i < lines; i++) {
+                int item = (int) (i % items);
+                long amount = SyntheticOpenItems.amountOf(item);
+                int day = SyntheticOpenItems.dueDayOf(item);
+                int kind = random.nextInt(100);
+                row.setLength(0);
+                if (kind < 55) {
+                    row.append(SyntheticOpenItems.referenceOf(item));
+                } else if (kind < 70) {
+                    row.append(SyntheticOpenItems.referenceOf(item));
+                    amount = amount / 3;
+                } else if (kind < 80) {
+                    row.append("NOREF-").append(i);
+                    amount += random.nextInt(-50, 51);
+                    day += random.nextInt(-3, 4);
+                } else {
+                    row.append("UNKNOWN-").append(i);
+                    amount = 1_000_000 + random.nextInt(1_000_000);
+                }
+                row.append(',').append(amount / 100).append('.');
+                long cents = amount % 100;
+                if (cents < 10) row.append('0');
+                row.append(cents).append(',').append(LocalDate.ofEpochDay(day)).append('\n');
+                writer.append(row);
+            }
+        }
+    }
+
+    private static final class SyntheticOpenItems implements OpenItemSource {
+        private final int items;
+
+        SyntheticOpenItems(int items) {
+            this.items = items;
+        }
+
+        static String referenceOf(int item) {
+            return "INV-" + (1_000_000_000L + item);
+        }
+
+        static long amountOf(int item) {
+            return 1_000 + Long.remainderUnsigned(item * 0x9E3779B97F4A7C15L, 49_000);
+        }
+
+        static int dueDayOf(int item) {
+            return BASE_DAY + item % 30;
+        }
+
+        @Override
+        public long count() {
+            return items;
+        }
+
+        @Override
+        public void forEach(OpenItemConsumer consumer) {
+            for (int item = 0; item < items; item++) {
+                consumer.accept(item + 1, referenceOf(item), amountOf(item), dueDayOf(item));
+            }
+        }
+    }
+
+    private static final class CountingSink implements ReconciliationSink {
+        long outcomes;
+        long peakHeap;
+
+        @Override
+        public void accept(ReconciliationOutcome outcome) {
+            if ((++outcomes & 0xFFFF) == 0) {
+                Runtime runtime = Runtime.getRuntime();
+                peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.atharva.erp_telecom.benchmark;
+
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.security.CustomUserDetails;
+import com.atharva.erp_telecom.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Authorization header size and the cost of checking a bearer token, full-format vs compact tokens.
+/*
+    Run with:
+        mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=TokenFormatBenchmark -Dexec.args="200000 4"
+    args: [tokens checked per variant, default 200000] [roles of the user, default 4]
+
+    before:   full-format token (serialised authorities, HS512) checked the way the filter used to: three parses,
+              each with a freshly built key and parser (username, then validateToken's username and expiry)
+    rollover: the same full-format token through the current code, one parse with the shared parser
+    after:    compact token (user id, version, HS256), one parse
+    CPU and allocated bytes are the checking thread's own.
+ */
+public class TokenFormatBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final String SECRET = "cd4b16da2a14e803dd7efcf18e92464e77314958368634a6c5309c3042df14ca";
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int roleCount = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        List<Roles> catalog = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            Roles role = new Roles("ROLE_" + (id == 1 ? "ADMIN" : "DEPARTMENT_" + id));
+            role.setRoleId(id);
+            catalog.add(role);
+        }
+        Users user = new Users();
+        user.setUserId(48_213L);
+        user.setUserName("billing.operator");
+        user.setRoles(new HashSet<>(catalog.subList(0, Math.min(roleCount, catalog.size()))));
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+
+        JwtUtils jwtUtils = new JwtUtils(new SimpleMeterRegistry(), true);
+        String fullToken = fullFormatToken(userDetails);
+        String compactToken = jwtUtils.generateToken(userDetails);
+        System.out.printf("full-format token: %4d chars, Authorization header %4d bytes%n",
+                fullToken.length(), ("Bearer " + fullToken).getBytes(StandardCharsets.US_ASCII).length);
+        System.out.printf("compact token:     %4d chars, Authorization header %4d bytes%n",
+                compactToken.length(), ("Bearer " + compactToken).getBytes(StandardCharsets.US_ASCII).length);
+
+        // warm-up, then measure
+        for (boolean report : new boolean[]{false, true}) {
+            int count = report ? iterations : Math.max(1, iterations / 4);
+            run("before  ", () -> checkBefore(fullToken, userDetails), count, report);
+            run("rollover", () -> checkAfter(jwtUtils, fullToken, userDetails), count, report);
+            run("after   ", () -> checkAfter(jwtUtils, compactToken, userDetails), count, report);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    private static void run(String label, TokenCheck check, int iterations, boolean report) {
+        long thread = Thread.currentThread().getId();
+        long cpuStart = THREADS.getThreadCpuTime(thread);
+        long allocatedStart = THREADS.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < iterations; i++) {
+            if (check.valid()) sink++;
+        }
+        long cpu = THREADS.getThreadCpuTime(thread) - cpuStart;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedStart;
+        if (!report) return;
+        System.out.printf("%s | %,7.2f us CPU/token | %,7d bytes/token%n",
+                label, cpu / 1e3 / iterations, allocated / iterations);
+    }
+
+    // What JwtUtils.generateToken produced before compact tokens.
+    private static String fullFormatToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("roles", userDetails.getAuthorities());
+        Date now = new Date();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 60 * 60 * 1000))
+                .signWith(oldSignKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    private static boolean checkBefore(String token, UserDetails userDetails) {
+        String userName = oldParse(token).getSubject();
+        sink += userName.length();
+        return oldParse(token).getSubject().equals(userDetails.getUsername())
+                && !oldParse(token).getExpiration().before(new Date());
+    }
+
+    private static boolean checkAfter(JwtUtils jwtUtils, String token, UserDetails userDetails) {
+        Claims claims = jwtUtils.parse(token);
+        sink += claims.getSubject().length();
+        return jwtUtils.validateToken(claims, userDetails);
+    }
+
+    private static Claims oldParse(String token) {
+        return Jwts.parserBuilder().setSigningKey(oldSignKey()).build().parseClaimsJws(token).getBody();
+    }
+
+    private static Key oldSignKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private interface TokenCheck {
+        boolean valid();
+    }
+}
@@ -0,0 +1,140 @@
+package com.atharva.erp_telecom.changefeed;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.changefeed.ChangeCursor;
+import com.atharva.erp_telecom.service.changefeed.ChangeFeedBroadcaster;
+import com.atharva.erp_telecom.service.changefeed.ChangeListener;
+import com.atharva.erp_telecom.service.changefeed.CustomerChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {
+        "erp.changefeed.poll-interval-ms=50",
+        "erp.changefeed.settle-ms=100",
+        "erp.changefeed.window-size=4",
+        "erp.changefeed.batch-size=2",
+        "erp.outbox.dispatcher-enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser("feed-reader")
+class CustomerChangeFeedTests {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ChangeFeedBroadcaster changeFeed;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void catchesUpFromTheDatabaseThenFollowsTheSharedWindow() throws Exception {
+        Customer first = customerService.createCustomer(customer("Feed-1"));
+        Customer second = customerService.createCustomer(customer("Feed-2"));
+
+        Collecting fromStart = new Collecting();
+        Collecting afterFirst = new Collecting();
+        ChangeFeedBroadcaster.Subscription full = changeFeed.subscribe(ChangeCursor.START, fromStart);
+        ChangeFeedBroadcaster.Subscription resumed = changeFeed.subscribe(ChangeCursor.of(first), afterFirst);
+        await(() -> fromStart.contains(second) && afterFirst.contains(second));
+        assertTrue(fromStart.contains(first));
+        assertFalse(afterFirst.contains(first));
+
+        // more changes than the window holds: older ones are read back from the database
+        List<Customer> later = List.of(customerService.createCustomer(customer("Feed-3")),
+                customerService.createCustomer(customer("Feed-4")),
+                customerService.createCustomer(customer("Feed-5")),
+                customerService.createCustomer(customer("Feed-6")),
+                customerService.createCustomer(customer("Feed-7")));
+        first.setCustomerLastName("Updated");
+        customerService.updateCustomer(first);
+        await(() -> afterFirst.changes.size() >= 7 && fromStart.json().stream().anyMatch(json -> json.contains("\"Updated\"")));
+
+        for (Collecting collected : List.of(fromStart, afterFirst)) {
+            for (int i = 1; i < collected.changes.size(); i++) {
+                assertTrue(collected.changes.get(i - 1).getCursor().compareTo(collected.changes.get(i).getCursor()) < 0);
+            }
+            for (Customer customer : later) assertTrue(collected.contains(customer));
+        }
+        // the update shows up as a change after the creates
+        assertTrue(afterFirst.changes.get(afterFirst.changes.size() - 1).getJson().contains("\"Updated\""));
+        full.cancel();
+        resumed.cancel();
+    }
+
+    @Test
+    void streamsServerSentEventsAndResumesFromLastEventId() throws Exception {
+        Customer before = customerService.createCustomer(customer("Sse-1"));
+        Customer after = customerService.createCustomer(customer("Sse-2"));
+
+        MvcResult stream = mockMvc.perform(get("/customer/changes").header("Last-Event-ID", ChangeCursor.of(before).toString()))
+                .andReturn();
+        assertTrue(stream.getRequest().isAsyncStarted());
+        await(() -> content(stream).contains("id:" + ChangeCursor.of(after)));
+        assertTrue(content(stream).contains("event:customer"));
+        assertFalse(content(stream).contains("\"Sse-1\""));
+        stream.getRequest().getAsyncContext().complete();
+    }
+
+    private static String content(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Change feed did not deliver in time");
+            Thread.sleep(20);
+        }
+    }
+
+    private static Customer customer(String firstName) {
+        Customer customer = new Customer();
+        customer.setCustomerFirstName(firstName);
+        customer.setCustomerLastName("Customer");
+        return customer;
+    }
+
+    private static final class Collecting implements ChangeListener {
+        final List<CustomerChange> changes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onChange(CustomerChange change) {
+            changes.add(change);
+        }
+
+        @Override
+        public void onIdle() {
+        }
+
+        @Override
+        public void onClose() {
+        }
+
+        boolean contains(Customer customer) {
+            return changes.stream().anyMatch(change -> change.getCursor().getCustomerId() == customer.getCustomerId());
+        }
+
+        List<String> json() {
+            return changes.stream().map(CustomerChange::getJson).toList();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.atharva.erp_telecom.dunning;
+
+import com.atharva.erp_telecom.constants.DunningAction;
+import com.atharva.erp_telecom.service.dunning.DunningActionSink;
+import com.atharva.erp_telecom.service.dunning.DunningNotice;
+import com.atharva.erp_telecom.service.dunning.TimingWheel;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = {
+        "erp.outbox.dispatcher-enabled=false",
+        "erp.dunning.enabled=true",
+        "erp.dunning.sink=recording",
+        "erp.dunning.tick-ms=50",
+        "erp.dunning.sync-interval-ms=200"})
+class DunningTests {
+
+    private static final List<DunningNotice> DELIVERED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+        @Bean
+        DunningActionSink recordingDunningActionSink() {
+            return DELIVERED::addAll;
+        }
+    }
+
+    @Test
+    void wheelFiresEveryTimerAtItsTickAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(1_000, 4);
+        long[] delays = {0, 1, 255, 256, 257, 65_535, 65_536, 70_001, 16_777_300};
+        for (int i = 0; i < delays.length; i++) wheel.schedule(i, 1_000 + delays[i], delays[i]);
+        // rescheduled and cancelled timers must not fire at their old time
+        wheel.schedule(100, 1_300, -1);
+        wheel.schedule(100, 1_600, 600);
+        wheel.schedule(101, 1_400, -1);
+        wheel.cancel(101);
+        assertEquals(delays.length + 1, wheel.size());
+
+        List<long[]> fired = new ArrayList<>();
+        for (long tick = 1_000; tick < 1_000 + 16_777_300 + 997; tick += 997) {
+            long now = tick;
+            wheel.advance(now, (id, deadline, data) -> {
+                assertFalse(deadline > now, "fired early");
+                assertFalse(now - deadline >= 997, "fired late");
+                fired.add(new long[]{id, deadline, data});
+            });
+        }
+        assertEquals(delays.length + 1, fired.size());
+        assertEquals(0, wheel.size());
+        for (long[] timer : fired) {
+            assertFalse(timer[2] < 0, "stale timer fired");
+            assertEquals(1_000 + timer[2], timer[1]);
+        }
+    }
+
+    @Test
+    void overdueCustomerIsRemindedAndPaymentStopsTheSuspension() throws Exception {
+        long customerId = 7_700_001;
+        insertInvoice(customerId, "DUN-1", LocalDate.now().minusDays(10));
+
+        await(() -> DELIVERED.stream().anyMatch(notice -> notice.customerId() == customerId));
+        DunningNotice reminder = DELIVERED.stream()
+                .filter(notice -> notice.customerId() == customerId).findFirst().get();
+        assertEquals(DunningAction.REMIND, reminder.action());
+        assertEquals(LocalDate.now().minusDays(10), reminder.overdueSince());
+        await(() -> "REMINDED".equals(state(customerId).get("STAGE")));
+        assertEquals("SUSPEND", state(customerId).get("NEXT_ACTION"));
+
+        jdbcTemplate.update("UPDATE invoice SET status = 'PAID', amount_paid = amount, "
+                + "modified_date = CURRENT_TIMESTAMP WHERE customer_id = ?", customerId);
+        await(() -> "CURRENT".equals(state(customerId).get("STAGE")));
+        assertEquals(null, state(customerId).get("NEXT_ACTION"));
+        assertEquals(1, DELIVERED.stream().filter(notice -> notice.customerId() == customerId).count());
+    }
+
+    private void insertInvoice(long customerId, String reference, LocalDate dueDate) {
+        jdbcTemplate.update("INSERT INTO invoice (invoice_reference, customer_id, amount, amount_paid, currency, "
+                        + "issue_date, due_date, status, created_date, modified_date) "
+                        + "VALUES (?, ?, 100.00, 0, 'INR', ?, ?, 'OPEN', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                reference, customerId, dueDate.minusDays(30), dueDate);
+    }
+
+    private Map<String, Object> state(long customerId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT stage, next_action FROM dunning_state WHERE customer_id = ?", customerId);
+        return rows.isEmpty() ? Map.of() : rows.get(0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Dunning did not act in time");
+            Thread.sleep(20);
+        }
+    }
+}
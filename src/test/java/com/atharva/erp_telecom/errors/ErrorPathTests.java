@@ -0,0 +1,70 @@
+package com.atharva.erp_telecom.errors;
+
+import com.atharva.erp_telecom.exception.ErrorBody;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.atharva.erp_telecom.exception.custom_exceptions.UnknownUserException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+@AutoConfigureMockMvc
+class ErrorPathTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void domainExceptionsCarryNoStackTrace() {
+        assertEquals(0, new ResourceNotFoundException("gone").getStackTrace().length);
+        assertEquals(0, new UnknownUserException("nobody").getStackTrace().length);
+    }
+
+    @Test
+    void preSerialisedBodiesAreValidJson() throws Exception {
+        Map<?, ?> body = objectMapper.readValue(ErrorBody.forStatus(HttpStatus.NOT_FOUND)
+                .render("File \"a\\b\".csv\nnot found"), Map.class);
+        assertEquals(404, body.get("status"));
+        assertEquals("Not Found", body.get("error"));
+        assertEquals("File \"a\\b\".csv\nnot found", body.get("message"));
+        assertNotNull(body.get("timestamp"));
+
+        ErrorBody simple = ErrorBody.simple("Malformed JWT token");
+        assertSame(simple.render(), simple.render());
+        assertEquals(Map.of("error", "Malformed JWT token"), objectMapper.readValue(simple.render(), Map.class));
+    }
+
+    @Test
+    @WithMockUser("error-tester")
+    void notFoundKeepsItsResponseShape() throws Exception {
+        String json = mockMvc.perform(get("/reconciliation/run/987654321"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andReturn().getResponse().getContentAsString();
+        Map<?, ?> body = objectMapper.readValue(json, Map.class);
+        assertEquals(404, body.get("status"));
+        assertEquals("Reconciliation run not found with ID:987654321", body.get("message"));
+    }
+
+    @Test
+    void rejectedTokenGetsThePrecomputedBody() throws Exception {
+        mockMvc.perform(get("/customer/get").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().json("{\"error\":\"Malformed JWT token\"}", JsonCompareMode.STRICT));
+    }
+}
@@ -0,0 +1,79 @@
+package com.atharva.erp_telecom.formats;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+@AutoConfigureMockMvc
+@WithMockUser("format-tester")
+class CustomerContentNegotiationTests {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final TypeReference<List<Map<String, Object>>> CUSTOMERS = new TypeReference<>() { };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void servesTheSameBatchAsJsonCborAndSmile() throws Exception {
+        Customer first = customerService.createCustomer(customer("Binary"));
+        long after = first.getCustomerId() - 1;
+
+        MvcResult json = mockMvc.perform(get("/customer/batch").param("after", String.valueOf(after)).accept(MediaType.ALL))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult cbor = mockMvc.perform(get("/customer/batch").param("after", String.valueOf(after)).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult smile = mockMvc.perform(get("/customer/batch").param("after", String.valueOf(after)).accept(SMILE))
+                .andExpect(status().isOk()).andReturn();
+
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(json.getResponse().getContentType())));
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, cbor.getResponse().getContentType());
+        List<Map<String, Object>> fromJson = new ObjectMapper().readValue(json.getResponse().getContentAsByteArray(), CUSTOMERS);
+        List<Map<String, Object>> fromCbor = new CBORMapper().readValue(cbor.getResponse().getContentAsByteArray(), CUSTOMERS);
+        List<Map<String, Object>> fromSmile = new SmileMapper().readValue(smile.getResponse().getContentAsByteArray(), CUSTOMERS);
+        assertEquals("Binary", fromJson.get(0).get("customerFirstName"));
+        assertEquals(fromJson, fromCbor);
+        assertEquals(fromJson, fromSmile);
+        assertTrue(cbor.getResponse().getContentAsByteArray().length < json.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void acceptsCborRequestBodies() throws Exception {
+        byte[] body = new CBORMapper().writeValueAsBytes(Map.of("customerFirstName", "FromCbor", "customerLastName", "Customer"));
+        MvcResult created = mockMvc.perform(post("/customer/new").contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR).content(body))
+                .andExpect(status().isCreated()).andReturn();
+        Map<?, ?> customer = new CBORMapper().readValue(created.getResponse().getContentAsByteArray(), Map.class);
+        assertEquals("FromCbor", customer.get("customerFirstName"));
+    }
+
+    private static Customer customer(String firstName) {
+        Customer customer = new Customer();
+        customer.setCustomerFirstName(firstName);
+        customer.setCustomerLastName("Customer");
+        return customer;
+    }
+}
@@ -0,0 +1,81 @@
+package com.atharva.erp_telecom.fraud;
+
+import com.atharva.erp_telecom.constants.FraudAlertReason;
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.dto.UsageEvent;
+import com.atharva.erp_telecom.service.fraud.FraudAlert;
+import com.atharva.erp_telecom.service.fraud.FraudDetectionService;
+import com.atharva.erp_telecom.service.fraud.FraudDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FraudDetectionTests {
+
+    private static final int VOICE = ServiceType.VOICE.code();
+
+    @Test
+    void spikeAgainstTheCustomersOwnBaselineAndCeilingAreFlaggedOnce() {
+        // 10 one-minute buckets, baseline over an hour, warm after 5 buckets, voice: 3,600 s floor, 36,000 s ceiling
+        FraudDetector detector = new FraudDetector(600, 10, 4, 1024, 60, 5, 10,
+                new long[]{1L << 30, 3_600, 200}, new long[]{1L << 34, 36_000, 2_000}, 10, 256);
+        long bytes = detector.bytes();
+        long time = 1_000_000_020;
+        List<FraudAlert> alerts = null;
+        for (int minute = 0; minute < 30; minute++, time += 60) {
+            detector.advanceTo(time);
+            for (long customer = 1; customer <= 200; customer++) {
+                alerts = detector.observe(customer, VOICE, 60, time, alerts);
+            }
+            // a busy but steady customer: 5,000 s a window, over the floor, not over ten times its usual
+            alerts = detector.observe(500, VOICE, 500, time, alerts);
+        }
+        assertNull(alerts);
+
+        detector.advanceTo(time);
+        alerts = new ArrayList<>();
+        for (int call = 0; call < 30; call++) detector.observe(7, VOICE, 300, time, alerts);
+        detector.observe(9, VOICE, 36_000, time, alerts);
+        detector.observe(500, VOICE, 500, time, alerts);
+
+        assertEquals(List.of(7L, 9L), alerts.stream().map(FraudAlert::customerId).toList());
+        assertEquals(FraudAlertReason.SPIKE, alerts.get(0).reason());
+        assertEquals(FraudAlertReason.CEILING, alerts.get(1).reason());
+        assertEquals(List.of(9L, 7L, 500L), detector.heavyHitters(ServiceType.VOICE, 3).stream()
+                .map(FraudDetector.HeavyHitter::customerId).toList());
+
+        // once the window has slid past the burst it is forgotten
+        for (int minute = 0; minute < 10; minute++) detector.advanceTo(time += 60);
+        assertEquals(List.of(), detector.heavyHitters(ServiceType.VOICE, 3));
+        assertEquals(bytes, detector.bytes());
+    }
+
+    @Test
+    void batchOverTheCeilingRaisesAnAlertThroughTheSink() {
+        List<FraudAlert> raised = new ArrayList<>();
+        // SMS: 10 message floor, 50 message ceiling
+        FraudDetectionService fraudDetectionService = new FraudDetectionService(raised::addAll,
+                new SimpleMeterRegistry(), true, 10, 10, 4, 1024, 1440, 60, 10,
+                1L << 30, 20L << 30, 3_600, 36_000, 10, 50, 10, 256);
+        Instant now = Instant.now();
+        int sms = ServiceType.SMS.code();
+        fraudDetectionService.observe(List.of(
+                new UsageEvent(8_800_001, "SMS", 30, now),
+                new UsageEvent(8_800_002, "SMS", 5, now),
+                new UsageEvent(8_800_001, "SMS", 30, now)), new int[]{sms, sms, sms}, now.getEpochSecond());
+
+        assertEquals(1, raised.size());
+        FraudAlert alert = raised.get(0);
+        assertEquals(8_800_001, alert.customerId());
+        assertEquals(ServiceType.SMS, alert.serviceType());
+        assertEquals(FraudAlertReason.CEILING, alert.reason());
+        assertEquals(60, alert.windowQuantity());
+        assertEquals(8_800_001, fraudDetectionService.heavyHitters(ServiceType.SMS, 1).get(0).customerId());
+    }
+}
@@ -0,0 +1,187 @@
+package com.atharva.erp_telecom.idempotency;
+
+import com.atharva.erp_telecom.security.IdempotencyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Runs the filter in front of a test endpoint that counts its calls, can be held on a latch and answers with
+// whatever statuses the test queues up (201 once the queue is empty).
+@SpringBootTest(properties = {
+        "erp.outbox.dispatcher-enabled=false",
+        "erp.idempotency.paths=/customer/new,/test/idempotent"})
+@AutoConfigureMockMvc
+class IdempotencyTests {
+
+    private static final AtomicInteger CALLS = new AtomicInteger();
+    private static final Queue<Integer> STATUSES = new ConcurrentLinkedQueue<>();
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class EndpointConfig {
+        @Bean
+        IdempotentEndpoint idempotentEndpoint() {
+            return new IdempotentEndpoint();
+        }
+    }
+
+    @RestController
+    static class IdempotentEndpoint {
+        @PostMapping("/test/idempotent")
+        ResponseEntity<Map<String, Object>> handle(@RequestBody Map<String, Object> body) throws InterruptedException {
+            int call = CALLS.incrementAndGet();
+            gate.await(10, TimeUnit.SECONDS);
+            Integer status = STATUSES.poll();
+            return ResponseEntity.status(status == null ? 201 : status).body(Map.of("call", call, "echo", body));
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        CALLS.set(0);
+        STATUSES.clear();
+        gate = new CountDownLatch(0);
+    }
+
+    @Test
+    void retryIsReplayedAndADifferentBodyUnderTheSameKeyIsRefused() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MvcResult first = send(key, "{\"amount\":1}");
+        MvcResult retry = send(key, "{\"amount\":1}");
+
+        assertEquals(201, first.getResponse().getStatus());
+        assertNull(first.getResponse().getHeader(IdempotencyFilter.HEADER_REPLAYED));
+        assertEquals(201, retry.getResponse().getStatus());
+        assertEquals("true", retry.getResponse().getHeader(IdempotencyFilter.HEADER_REPLAYED));
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertEquals(1, CALLS.get());
+
+        MvcResult reused = send(key, "{\"amount\":2}");
+        assertEquals(422, reused.getResponse().getStatus());
+        assertEquals("{\"error\":\"Idempotency-Key was already used for a different request\"}",
+                reused.getResponse().getContentAsString());
+        assertEquals(1, CALLS.get());
+    }
+
+    @Test
+    void duplicateArrivingWhileTheFirstRunsWaitsForItsResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        gate = new CountDownLatch(1);
+        double coalescedBefore = coalesced();
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<MvcResult> first = clients.submit(() -> send(key, "{\"amount\":3}"));
+            awaitTrue(() -> CALLS.get() == 1);
+            Future<MvcResult> duplicate = clients.submit(() -> send(key, "{\"amount\":3}"));
+            awaitTrue(() -> coalesced() - coalescedBefore == 1);
+            gate.countDown();
+
+            MvcResult original = first.get(10, TimeUnit.SECONDS);
+            MvcResult waited = duplicate.get(10, TimeUnit.SECONDS);
+            assertEquals(201, waited.getResponse().getStatus());
+            assertEquals("true", waited.getResponse().getHeader(IdempotencyFilter.HEADER_REPLAYED));
+            assertEquals(original.getResponse().getContentAsString(), waited.getResponse().getContentAsString());
+            assertEquals(1, CALLS.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void serverErrorsAndForbiddenAreNotPinnedToTheKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        STATUSES.add(503);
+        STATUSES.add(403);
+        assertEquals(503, send(key, "{\"amount\":4}").getResponse().getStatus());
+        assertEquals(403, send(key, "{\"amount\":4}").getResponse().getStatus());
+        assertEquals(201, send(key, "{\"amount\":4}").getResponse().getStatus());
+        assertEquals(3, CALLS.get());
+
+        // a validation failure is final, the same request is answered the same way without running again
+        String rejectedKey = UUID.randomUUID().toString();
+        STATUSES.add(400);
+        assertEquals(400, send(rejectedKey, "{\"amount\":-1}").getResponse().getStatus());
+        MvcResult replayed = send(rejectedKey, "{\"amount\":-1}");
+        assertEquals(400, replayed.getResponse().getStatus());
+        assertEquals("true", replayed.getResponse().getHeader(IdempotencyFilter.HEADER_REPLAYED));
+        assertEquals(4, CALLS.get());
+    }
+
+    @Test
+    void largeResponsesAreReplayedFromTheTableInsteadOfMemory() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = "{\"pad\":\"" + "x".repeat(20_000) + "\"}";
+        double cachedBefore = cachedBytes();
+        MvcResult first = send(key, body);
+        assertEquals(201, first.getResponse().getStatus());
+        assertEquals(cachedBefore, cachedBytes());
+
+        MvcResult retry = send(key, body);
+        assertEquals("true", retry.getResponse().getHeader(IdempotencyFilter.HEADER_REPLAYED));
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertEquals(422, send(key, "{\"pad\":\"y\"}").getResponse().getStatus());
+        assertEquals(1, CALLS.get());
+
+        // a small one is held
+        send(UUID.randomUUID().toString(), "{\"amount\":5}");
+        assertTrue(cachedBytes() > cachedBefore);
+    }
+
+    private MvcResult send(String key, String body) throws Exception {
+        return mockMvc.perform(post("/test/idempotent").with(user("idempotent-client"))
+                .header(IdempotencyFilter.HEADER_IDEMPOTENCY_KEY, key)
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+    }
+
+    private double cachedBytes() {
+        return meterRegistry.get("idempotency.cache.bytes").gauge().value();
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("idempotency.coalesced").counter().count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.atharva.erp_telecom.invoice;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.invoice.InvoiceRenderer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Requests for a document still being rendered get 202 and share the one render job; once it is on disk they get
+// the document, without rendering it again.
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+@AutoConfigureMockMvc
+class InvoiceDocumentTests {
+
+    @MockitoSpyBean
+    private InvoiceRenderer renderer;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentRequestsShareOneRenderAndGet202UntilTheDocumentIsReady() throws Exception {
+        Customer customer = new Customer();
+        customer.setCustomerFirstName("Document");
+        customer.setCustomerLastName("Holder");
+        long customerId = customerService.createCustomer(customer).getCustomerId();
+        // a reference of its own, so a document cached on disk by an earlier run is never hit
+        long invoiceId = insertInvoice(customerId, "DOC-" + UUID.randomUUID());
+
+        CountDownLatch gate = new CountDownLatch(1);
+        Answer<?> real = mockingDetails(renderer).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            gate.await(10, TimeUnit.SECONDS);
+            return real.answer(invocation);
+        }).when(renderer).render(any(), any());
+        double deduplicatedBefore = requests("deduplicated");
+
+        for (int i = 0; i < 3; i++) {
+            document(invoiceId)
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.invoiceId").value(invoiceId))
+                    .andExpect(jsonPath("$.format").value("PDF"));
+        }
+        assertEquals(2, requests("deduplicated") - deduplicatedBefore);
+
+        gate.countDown();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (document(invoiceId).andReturn().getResponse().getStatus() != 200) {
+            if (System.currentTimeMillis() > deadline) fail("Document was never rendered");
+            Thread.sleep(20);
+        }
+        document(invoiceId)
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/pdf"))
+                .andExpect(header().exists("ETag"));
+        verify(renderer, times(1)).render(any(), any());
+    }
+
+    private ResultActions document(long invoiceId) throws Exception {
+        return mockMvc.perform(get("/invoice/{id}/document", invoiceId).with(user("billing")));
+    }
+
+    private long insertInvoice(long customerId, String reference) {
+        jdbcTemplate.update("INSERT INTO invoice (invoice_reference, customer_id, amount, amount_paid, currency, "
+                        + "issue_date, due_date, status, created_date, modified_date) "
+                        + "VALUES (?, ?, 100.00, 0, 'INR', ?, ?, 'OPEN', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                reference, customerId, LocalDate.now(), LocalDate.now().plusDays(15));
+        return jdbcTemplate.queryForObject("SELECT invoice_id FROM invoice WHERE invoice_reference = ?",
+                Long.class, reference);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("invoice.render.requests").tag("result", result).counter().count();
+    }
+}
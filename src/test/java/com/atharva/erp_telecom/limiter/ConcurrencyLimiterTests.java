@@ -0,0 +1,136 @@
+package com.atharva.erp_telecom.limiter;
+
+import com.atharva.erp_telecom.constants.RequestLane;
+import com.atharva.erp_telecom.security.ConcurrencyLimitFilter;
+import com.atharva.erp_telecom.service.limiter.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "erp.outbox.dispatcher-enabled=false",
+        "erp.limiter.initial-limit=8",
+        "erp.limiter.min-limit=8",
+        "erp.limiter.max-limit=8"
+})
+@AutoConfigureMockMvc
+@WithMockUser("limiter-tester")
+class ConcurrencyLimiterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Test
+    void limitGrowsAtSteadyLatencyAndShrinksWhenRequestsQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(),
+                20, 4, 200, 1.5, 0.2, 0.9, 10_000, 10, 600, "");
+        // fully used at a steady 10 ms: the limit probes upwards
+        for (int i = 0; i < 200; i++) sample(limiter, 10);
+        double grown = limiter.getLimit();
+        assertTrue(grown > 20, "limit " + grown);
+
+        // latency triples, requests are queueing: the limit comes down
+        for (int i = 0; i < 50; i++) sample(limiter, 30);
+        assertTrue(limiter.getLimit() < grown * 0.6, "limit " + limiter.getLimit() + " after " + grown);
+
+        // a request without a database connection backs off straight away, so does one past the timeout
+        double before = limiter.getLimit();
+        fill(limiter);
+        limiter.release(System.nanoTime(), true);
+        assertEquals(Math.max(4, before * 0.9), limiter.getLimit(), 1e-9);
+        before = limiter.getLimit();
+        limiter.release(System.nanoTime() - TimeUnit.SECONDS.toNanos(11), false);
+        assertEquals(Math.max(4, before * 0.9), limiter.getLimit(), 1e-9);
+        drain(limiter);
+    }
+
+    @Test
+    void onlyConnectionPoolDropsBackOffNotEvery503() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(),
+                100, 4, 200, 1.5, 0.2, 0.5, 10_000, 10, 600, "");
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, true, Set.of());
+
+        // a feature refusing work with its own 503 (a full render queue, say) leaves the shared limit alone
+        filter.doFilter(new MockHttpServletRequest("GET", "/invoice/1/document"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(503));
+        assertEquals(100, limiter.getLimit(), 1e-9);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/customer/get"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    ConcurrencyLimitFilter.markDropped((HttpServletRequest) request);
+                    ((HttpServletResponse) response).setStatus(503);
+                });
+        assertEquals(50, limiter.getLimit(), 1e-9);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void lanesAreShedInPriorityOrder() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(),
+                10, 10, 10, 1.5, 0.2, 0.9, 10_000, 10, 600, "READ=0.7");
+        for (int i = 0; i < 5; i++) assertTrue(limiter.tryAcquire(RequestLane.DEFAULT));
+        assertFalse(limiter.tryAcquire(RequestLane.BULK));
+        assertTrue(limiter.tryAcquire(RequestLane.READ));
+        assertTrue(limiter.tryAcquire(RequestLane.READ));
+        assertFalse(limiter.tryAcquire(RequestLane.READ));
+        assertTrue(limiter.tryAcquire(RequestLane.DEFAULT));
+        assertTrue(limiter.tryAcquire(RequestLane.DEFAULT));
+        assertFalse(limiter.tryAcquire(RequestLane.DEFAULT));
+        assertTrue(limiter.tryAcquire(RequestLane.LOGIN));
+        assertFalse(limiter.tryAcquire(RequestLane.LOGIN));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void shedRequestsGet503WithRetryAfter() throws Exception {
+        // hold half of the limit of 8: BULK (share 0.5) is shed, READ still gets through
+        for (int i = 0; i < 4; i++) assertTrue(limiter.tryAcquire(RequestLane.DEFAULT));
+        try {
+            MvcResult shed = mockMvc.perform(get("/customer/batch"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                    .andReturn();
+            assertTrue(shed.getResponse().getContentAsString().contains("busy"));
+            mockMvc.perform(get("/customer/get").param("id", "0")).andExpect(status().is(404));
+            assertEquals(4, limiter.getInFlight());
+        } finally {
+            for (int i = 0; i < 4; i++) limiter.release();
+        }
+    }
+
+    // One request completing in the given time with the limiter fully used.
+    private static void sample(AdaptiveConcurrencyLimiter limiter, long millis) {
+        fill(limiter);
+        limiter.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis), false);
+        drain(limiter);
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire(RequestLane.LOGIN)) { }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.getInFlight() > 0) limiter.release();
+    }
+}
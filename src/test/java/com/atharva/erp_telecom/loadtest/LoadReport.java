@@ -0,0 +1,137 @@
+package com.atharva.erp_telecom.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms and error counts of one measured scenario run, per operation and combined.
+/*
+    Latencies are recorded in microseconds into auto-resizing HDR histograms (3 significant digits), so
+    p999 of a run with a few slow outliers is as exact as p50. Errors (wrong status, timeout, connection failure,
+    or a request the generator could not send because too many were in flight) are counted per reason and are
+    not part of the latency distribution, the error ratio has its own threshold instead.
+ */
+final class LoadReport {
+
+    private static final double MAX_ERROR_RATIO = 0.01;
+
+    private final Scenario scenario;
+    private final int rate;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private volatile long elapsedNanos;
+    private volatile long maxScheduleLagNanos;
+
+    LoadReport(Scenario scenario, int rate) {
+        this.scenario = scenario;
+        this.rate = rate;
+    }
+
+    void recordSuccess(String operation, long latencyNanos) {
+        operation(operation).histogram.recordValue(Math.max(1, latencyNanos / 1_000));
+    }
+
+    void recordError(String operation, String reason) {
+        operation(operation).errors.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    void finish(long elapsedNanos, long maxScheduleLagNanos) {
+        this.elapsedNanos = elapsedNanos;
+        this.maxScheduleLagNanos = maxScheduleLagNanos;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%s at %,d req/s for %.1f s, dispatcher lag max %.1f ms%n",
+                scenario, rate, elapsedNanos / 1e9, maxScheduleLagNanos / 1e6);
+        out.printf("  %-14s | %8s | %9s | %8s | %8s | %8s | %8s | %s%n",
+                "operation", "ok", "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            printRow(out, entry.getKey(), entry.getValue().histogram, entry.getValue().errorSummary());
+        }
+        if (operations.size() > 1) printRow(out, "all", combined(), totalErrors() + "");
+    }
+
+    // Threshold breaches of this run, empty when it passed.
+    List<String> check(long[] thresholdsMs) {
+        List<String> failures = new ArrayList<>();
+        Histogram all = combined();
+        double[] percentiles = {50.0, 99.0, 99.9};
+        String[] names = {"p50", "p99", "p999"};
+        for (int i = 0; i < percentiles.length; i++) {
+            double actualMs = all.getValueAtPercentile(percentiles[i]) / 1e3;
+            if (actualMs > thresholdsMs[i]) {
+                failures.add(String.format("%s %s %.1f ms > %d ms", scenario, names[i], actualMs, thresholdsMs[i]));
+            }
+        }
+        long errors = totalErrors();
+        long total = all.getTotalCount() + errors;
+        if (total == 0) {
+            failures.add(scenario + " completed no requests");
+        } else if ((double) errors / total > MAX_ERROR_RATIO) {
+            failures.add(String.format("%s error ratio %.2f%% > %.2f%%", scenario, 100.0 * errors / total, 100 * MAX_ERROR_RATIO));
+        }
+        return failures;
+    }
+
+    // One .hgrm percentile distribution per operation plus the combined one, loadable by the HdrHistogram plotter.
+    void writeHistograms(Path directory) throws FileNotFoundException {
+        String prefix = scenario.name().toLowerCase();
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            write(directory.resolve(prefix + "-" + entry.getKey() + ".hgrm"), entry.getValue().histogram);
+        }
+        write(directory.resolve(prefix + ".hgrm"), combined());
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram, String errors) {
+        long ok = histogram.getTotalCount();
+        out.printf("  %-14s | %,8d | %,9.1f | %8.1f | %8.1f | %8.1f | %8.1f | %s%n",
+                name, ok, elapsedNanos == 0 ? 0.0 : ok * 1e9 / elapsedNanos,
+                histogram.getValueAtPercentile(50.0) / 1e3, histogram.getValueAtPercentile(99.0) / 1e3,
+                histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMaxValue() / 1e3, errors);
+    }
+
+    private static void write(Path file, Histogram histogram) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            // Values are in microseconds, scaled so the file reads in milliseconds.
+            histogram.outputPercentileDistribution(out, 1_000.0);
+        }
+    }
+
+    private Histogram combined() {
+        Histogram all = new Histogram(3);
+        operations.values().forEach(operation -> all.add(operation.histogram));
+        return all;
+    }
+
+    private long totalErrors() {
+        return operations.values().stream()
+                .flatMap(operation -> operation.errors.values().stream())
+                .mapToLong(LongAdder::sum)
+                .sum();
+    }
+
+    private Operation operation(String name) {
+        return operations.computeIfAbsent(name, n -> new Operation());
+    }
+
+    private static final class Operation {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(3);
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        String errorSummary() {
+            if (errors.isEmpty()) return "0";
+            StringBuilder summary = new StringBuilder();
+            new TreeMap<>(errors).forEach((reason, count) ->
+                    summary.append(summary.length() == 0 ? "" : ", ").append(reason).append(" x").append(count.sum()));
+            return summary.toString();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.atharva.erp_telecom.loadtest;
+
+import java.net.http.HttpRequest;
+
+// One scripted call: the operation it is reported under, the request, and the status that counts as success.
+final class LoadRequest {
+
+    final String operation;
+    final HttpRequest request;
+    final int expectedStatus;
+
+    LoadRequest(String operation, HttpRequest request, int expectedStatus) {
+        this.operation = operation;
+        this.request = request;
+        this.expectedStatus = expectedStatus;
+    }
+}
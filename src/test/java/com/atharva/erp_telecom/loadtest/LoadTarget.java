@@ -0,0 +1,134 @@
+package com.atharva.erp_telecom.loadtest;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.repository.CustomerRepository;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.service.UserAuthService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The running app as the scenarios see it: base URL, seeded users and customers, a bearer token and the HTTP client.
+/*
+    Seeded once per run:
+        - ROLE_USER and LOGIN_USERS users sharing one password, logins pick one of them at random.
+        - CUSTOMERS customers with ids 1..CUSTOMERS, reads pick one of them at random.
+    Registrations and creates use a run-wide sequence so every new user name and e-mail is unique.
+ */
+final class LoadTarget implements AutoCloseable {
+
+    static final int LOGIN_USERS = 20;
+    static final int CUSTOMERS = 1_000;
+    static final int CREATED = 201;
+    static final int OK = 200;
+
+    private static final String PASSWORD = "load-password";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    final HttpClient client;
+    private final ExecutorService callbacks;
+    private final String baseUrl;
+    private final String token;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LoadTarget(int port, String token) {
+        this.callbacks = Executors.newFixedThreadPool(4);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(callbacks)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = "http://localhost:" + port;
+        this.token = token;
+    }
+
+    static LoadTarget seed(ConfigurableApplicationContext context) {
+        RolesRepository rolesRepository = context.getBean(RolesRepository.class);
+        if (rolesRepository.findByRoleName("ROLE_USER").isEmpty()) rolesRepository.save(new Roles("ROLE_USER"));
+        UserAuthService userAuthService = context.getBean(UserAuthService.class);
+        for (int i = 0; i < LOGIN_USERS; i++) {
+            Users user = new Users();
+            user.setUserName(userName(i));
+            user.setPassword(PASSWORD);
+            user.setUserFirstName("Load");
+            user.setUserLastName("User" + i);
+            userAuthService.registerNewUser(user, Set.of("ROLE_USER"));
+        }
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setCustomerFirstName("First" + i);
+            customer.setCustomerLastName("Last" + i);
+            customer.setEmail("customer" + i + "@example.com");
+            customers.add(customer);
+        }
+        context.getBean(CustomerRepository.class).saveAll(customers);
+
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        return new LoadTarget(port, userAuthService.authenticate(userName(0), PASSWORD));
+    }
+
+    LoadRequest login(SplittableRandom random) {
+        String body = "{\"username\":\"" + userName(random.nextInt(LOGIN_USERS)) + "\",\"password\":\"" + PASSWORD + "\"}";
+        return new LoadRequest("login", post("/users/login", body, false), OK);
+    }
+
+    LoadRequest register() {
+        long n = sequence.incrementAndGet();
+        String body = "{\"userName\":\"load-new-" + n + "\",\"password\":\"" + PASSWORD + "\","
+                + "\"userFirstName\":\"New\",\"userLastName\":\"User" + n + "\",\"roles\":[\"ROLE_USER\"]}";
+        return new LoadRequest("register", post("/users/register", body, false), CREATED);
+    }
+
+    LoadRequest getCustomer(SplittableRandom random) {
+        HttpRequest request = authorized(URI.create(baseUrl + "/customer/get?id=" + (random.nextInt(CUSTOMERS) + 1)))
+                .GET()
+                .build();
+        return new LoadRequest("customer-get", request, OK);
+    }
+
+    LoadRequest createCustomer() {
+        long n = sequence.incrementAndGet();
+        String body = "{\"customerFirstName\":\"Load\",\"customerLastName\":\"Customer" + n + "\","
+                + "\"email\":\"load" + n + "@example.com\",\"country\":\"India\",\"countryCode\":\"IN\","
+                + "\"contactNumber\":9" + String.format("%09d", n % 1_000_000_000L) + ",\"region\":\"WEST\"}";
+        return new LoadRequest("customer-new", post("/customer/new", body, true), CREATED);
+    }
+
+    private HttpRequest post(String path, String json, boolean authenticated) {
+        HttpRequest.Builder builder = authenticated
+                ? authorized(URI.create(baseUrl + path))
+                : HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(REQUEST_TIMEOUT);
+    }
+
+    private static String userName(int i) {
+        return "load-user-" + i;
+    }
+
+    @Override
+    public void close() {
+        callbacks.shutdownNow();
+    }
+}
@@ -0,0 +1,103 @@
+package com.atharva.erp_telecom.loadtest;
+
+import com.atharva.erp_telecom.ErpTelecomApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Boots the app on the embedded H2 database, runs the scripted scenarios against it at fixed arrival rates and fails
+// when a latency or error threshold is exceeded.
+/*
+    Run with:
+        mvn -Ploadtest test-compile exec:java
+        mvn -Ploadtest test-compile exec:java -Dexec.args="reads:300,mixed 60 10"
+    args: [scenarios, default login,reads,creates,mixed] [seconds per scenario, default 30] [warm-up seconds, default 10]
+
+    A scenario is name[:rate[:p50/p99/p999]], e.g. reads:500:10/100/250 runs the reads at 500 req/s and fails above
+    10 ms p50, 100 ms p99 or 250 ms p999. Anything left out takes the scenario's default (see Scenario).
+    Each scenario first runs its warm-up at the same rate (not reported) and then the measured run. The report table
+    goes to stdout and one .hgrm percentile file per scenario and operation to target/loadtest.
+    A breached threshold ends the run with an exception, so the maven build fails.
+
+    Server and load generator share this JVM and the machine, the numbers are for comparing builds with each other
+    on the same box rather than for sizing production. HdrHistogram comes in with micrometer-core.
+ */
+public class LoadTest {
+
+    private static final int MAX_IN_FLIGHT = 5_000;
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+
+    public static void main(String[] args) throws Exception {
+        List<ScenarioRun> runs = parseScenarios(args.length > 0 ? args[0] : "login,reads,creates,mixed");
+        long durationNanos = (args.length > 1 ? Long.parseLong(args[1]) : 30) * 1_000_000_000L;
+        long warmupNanos = (args.length > 2 ? Long.parseLong(args[2]) : 10) * 1_000_000_000L;
+        Files.createDirectories(REPORT_DIR);
+
+        List<String> failures = new ArrayList<>();
+        try (ConfigurableApplicationContext context = start();
+             LoadTarget target = LoadTarget.seed(context)) {
+            OpenLoadGenerator generator = new OpenLoadGenerator(target, MAX_IN_FLIGHT);
+            long seed = 42;
+            for (ScenarioRun run : runs) {
+                if (warmupNanos > 0) generator.run(run.scenario, run.rate, warmupNanos, seed++);
+                LoadReport report = generator.run(run.scenario, run.rate, durationNanos, seed++);
+                report.print(System.out);
+                report.writeHistograms(REPORT_DIR);
+                failures.addAll(report.check(run.thresholdsMs));
+            }
+        }
+
+        System.out.println();
+        if (failures.isEmpty()) {
+            System.out.println("All load-test thresholds met");
+            return;
+        }
+        failures.forEach(failure -> System.out.println("FAILED: " + failure));
+        throw new IllegalStateException(failures.size() + " load-test threshold(s) exceeded");
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ErpTelecomApplication.class)
+                .properties("server.port=0",
+                        "erp.reactive.port=0",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate=OFF",
+                        "server.tomcat.max-connections=" + (MAX_IN_FLIGHT * 2),
+                        "server.tomcat.accept-count=1000")
+                .run();
+    }
+
+    private static List<ScenarioRun> parseScenarios(String spec) {
+        List<ScenarioRun> runs = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Scenario scenario = Scenario.valueOf(parts[0].toUpperCase());
+            int rate = parts.length > 1 ? Integer.parseInt(parts[1]) : scenario.defaultRate;
+            long[] thresholds = parts.length > 2
+                    ? Arrays.stream(parts[2].split("/")).mapToLong(Long::parseLong).toArray()
+                    : scenario.defaultThresholdsMs;
+            if (rate <= 0 || thresholds.length != 3) {
+                throw new IllegalArgumentException("Expected name[:rate[:p50/p99/p999]], got " + entry);
+            }
+            runs.add(new ScenarioRun(scenario, rate, thresholds));
+        }
+        return runs;
+    }
+
+    private static final class ScenarioRun {
+        private final Scenario scenario;
+        private final int rate;
+        private final long[] thresholdsMs;
+
+        ScenarioRun(Scenario scenario, int rate, long[] thresholdsMs) {
+            this.scenario = scenario;
+            this.rate = rate;
+            this.thresholdsMs = thresholdsMs;
+        }
+    }
+}
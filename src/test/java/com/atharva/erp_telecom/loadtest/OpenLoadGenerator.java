@@ -0,0 +1,91 @@
+package com.atharva.erp_telecom.loadtest;
+
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: requests are sent on a fixed schedule no matter how fast the server answers.
+/*
+    Request i is due at start + i / rate. A single dispatcher thread parks until that time and hands the request
+    to the async HTTP client, it never waits for a response. A slow server therefore faces a growing number of
+    requests in flight, as it would in production, instead of slowing the clients down with it (the closed-model
+    trap that hides queueing).
+
+    Coordinated omission: latency is taken from the intended send time, not from when the request actually left.
+    If the dispatcher itself falls behind (GC, a saturated CPU) the delay still shows up in the percentiles, and
+    the worst dispatcher lag is reported so a harness-bound run can be told apart from a server-bound one.
+
+    maxInFlight keeps a stalled server from exhausting file descriptors: a request due while the limit is
+    reached is not sent and counts as an error.
+ */
+final class OpenLoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_NANOS = 60_000_000_000L;
+
+    private final LoadTarget target;
+    private final int maxInFlight;
+
+    OpenLoadGenerator(LoadTarget target, int maxInFlight) {
+        this.target = target;
+        this.maxInFlight = maxInFlight;
+    }
+
+    LoadReport run(Scenario scenario, int rate, long durationNanos, long seed) {
+        LoadReport report = new LoadReport(scenario, rate);
+        SplittableRandom random = new SplittableRandom(seed);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong lastCompletion = new AtomicLong();
+        long intervalNanos = 1_000_000_000L / rate;
+        long maxLag = 0;
+
+        long start = System.nanoTime();
+        for (long i = 0; i * intervalNanos < durationNanos; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = intended - System.nanoTime();
+            }
+            maxLag = Math.max(maxLag, -wait);
+
+            LoadRequest request = scenario.next(target, random);
+            if (inFlight.get() >= maxInFlight) {
+                report.recordError(request.operation, "client-limit");
+                continue;
+            }
+            inFlight.incrementAndGet();
+            target.client.sendAsync(request.request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long now = System.nanoTime();
+                        if (failure != null) {
+                            report.recordError(request.operation, reason(failure));
+                        } else if (response.statusCode() != request.expectedStatus) {
+                            report.recordError(request.operation, "http-" + response.statusCode());
+                        } else {
+                            report.recordSuccess(request.operation, now - intended);
+                        }
+                        lastCompletion.accumulateAndGet(now, Math::max);
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        for (int left = inFlight.get(); left > 0; left--) {
+            report.recordError("unfinished", "no-response");
+        }
+        report.finish(Math.max(lastCompletion.get(), start + durationNanos) - start, maxLag);
+        return report;
+    }
+
+    private static String reason(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,54 @@
+package com.atharva.erp_telecom.loadtest;
+
+import java.util.SplittableRandom;
+
+// The scripted workloads, each with the arrival rate and latency thresholds it runs with unless overridden.
+/*
+    LOGIN   - register/login storm: 20% new registrations, 80% logins of seeded users. Both are a BCrypt hash,
+              so this is CPU bound long before the database matters.
+    READS   - authenticated GET /customer/get?id=.. over the seeded customers.
+    CREATES - authenticated POST /customer/new, each a customer row plus its outbox row in one transaction.
+    MIXED   - 75% reads, 15% creates, 10% logins.
+    Thresholds are p50 / p99 / p999 in milliseconds, measured from the intended send time.
+ */
+enum Scenario {
+
+    LOGIN(4, 250, 1_000, 2_000) {
+        @Override
+        LoadRequest next(LoadTarget target, SplittableRandom random) {
+            return random.nextInt(100) < 20 ? target.register() : target.login(random);
+        }
+    },
+    READS(50, 100, 300, 500) {
+        @Override
+        LoadRequest next(LoadTarget target, SplittableRandom random) {
+            return target.getCustomer(random);
+        }
+    },
+    CREATES(25, 50, 300, 1_000) {
+        @Override
+        LoadRequest next(LoadTarget target, SplittableRandom random) {
+            return target.createCustomer();
+        }
+    },
+    MIXED(25, 50, 500, 1_500) {
+        @Override
+        LoadRequest next(LoadTarget target, SplittableRandom random) {
+            int pick = random.nextInt(100);
+            if (pick < 75) return target.getCustomer(random);
+            if (pick < 90) return target.createCustomer();
+            return target.login(random);
+        }
+    };
+
+    final int defaultRate;
+    final long[] defaultThresholdsMs;
+
+    Scenario(int defaultRate, long p50Ms, long p99Ms, long p999Ms) {
+        this.defaultRate = defaultRate;
+        this.defaultThresholdsMs = new long[]{p50Ms, p99Ms, p999Ms};
+    }
+
+    // Called from the single dispatcher thread, so the random needs no synchronisation.
+    abstract LoadRequest next(LoadTarget target, SplittableRandom random);
+}
@@ -0,0 +1,60 @@
+package com.atharva.erp_telecom.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A database as ddl-auto=update left it before the migrations existed: the V1 tables with data in them and no
+// Flyway history. The application baselines it at version 1, runs everything after it and validates the result.
+// The baseline settings are the main application.properties', which the test one takes the place of.
+@SpringBootTest(properties = {
+        "erp.outbox.dispatcher-enabled=false",
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"
+})
+class BaselinedSchemaMigrationTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baselineEraDatabase(DynamicPropertyRegistry registry) {
+        String url = "jdbc:h2:mem:erp-baselined-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").target("1").load().migrate();
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        legacy.execute("DROP TABLE \"flyway_schema_history\"");
+        legacy.update("INSERT INTO roles (role_name) VALUES ('ROLE_LEGACY')");
+        registry.add("spring.datasource.url", () -> url);
+    }
+
+    @Test
+    void baselinedDatabaseGetsEveryLaterMigration() {
+        assertEquals(List.of("BASELINE 1"), jdbcTemplate.queryForList("SELECT CONCAT(\"type\", ' ', \"version\") "
+                + "FROM \"flyway_schema_history\" WHERE \"type\" = 'BASELINE'", String.class));
+        List<String> versions = FreshSchemaMigrationTests.VERSIONS;
+        assertEquals(versions.subList(1, versions.size()), jdbcTemplate.queryForList("SELECT \"version\" FROM \"flyway_schema_history\" "
+                + "WHERE \"type\" = 'SQL' AND \"success\" ORDER BY \"installed_rank\"", String.class));
+
+        // the tables added after the baseline are there and usable
+        for (String table : List.of("invoice", "reconciliation_run", "reconciliation_result", "usage_rollup",
+                "outbox_event", "idempotency_record")) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class), table);
+        }
+        // the role that was already there keeps the access it had
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM role_permissions rp JOIN roles r "
+                + "ON r.role_id = rp.role_id WHERE r.role_name = 'ROLE_LEGACY'", Integer.class));
+    }
+}
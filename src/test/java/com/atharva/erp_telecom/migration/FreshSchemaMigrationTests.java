@@ -0,0 +1,44 @@
+package com.atharva.erp_telecom.migration;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Boots the way the default profile does: Flyway builds the schema from nothing, then Hibernate validates it. The
+// MySQL dialect makes Hibernate expect the MySQL column types the migrations are written in.
+@SpringBootTest(properties = {
+        "erp.outbox.dispatcher-enabled=false",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"
+})
+class FreshSchemaMigrationTests {
+
+    static final List<String> VERSIONS = List.of("1", "1.1", "1.2", "1.3", "1.4", "1.5", "1.6", "2", "3", "4", "5", "6", "7");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void everyMigrationRunsAndTheEntitiesWorkOnTheResult() {
+        assertEquals(VERSIONS, jdbcTemplate.queryForList("SELECT \"version\" FROM \"flyway_schema_history\" "
+                + "WHERE \"type\" = 'SQL' AND \"success\" ORDER BY \"installed_rank\"", String.class));
+
+        // ids from customer_seq, the change in outbox_event
+        Customer customer = new Customer();
+        customer.setCustomerFirstName("Migrated");
+        customer.setCustomerLastName("Schema");
+        long customerId = customerService.createCustomer(customer).getCustomerId();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event WHERE aggregate_id = ?",
+                Integer.class, String.valueOf(customerId)));
+    }
+}
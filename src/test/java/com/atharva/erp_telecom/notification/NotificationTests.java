@@ -0,0 +1,131 @@
+package com.atharva.erp_telecom.notification;
+
+import com.atharva.erp_telecom.constants.NotificationChannel;
+import com.atharva.erp_telecom.constants.NotificationType;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.notification.Notification;
+import com.atharva.erp_telecom.service.notification.NotificationProvider;
+import com.atharva.erp_telecom.service.notification.NotificationService;
+import com.atharva.erp_telecom.service.notification.NotificationService.Outcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = {
+        "erp.outbox.dispatcher-enabled=false",
+        "erp.notifications.provider=recording",
+        "erp.notifications.queue-capacity=4",
+        "erp.notifications.email.batch-size=3",
+        "erp.notifications.email.rate-per-second=1000",
+        "erp.notifications.sms.rate-per-second=1000",
+        "erp.notifications.retry-base-ms=10"})
+class NotificationTests {
+
+    private static final List<List<Notification>> BATCHES = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger FAILURES_TO_INJECT = new AtomicInteger();
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class RecordingProviderConfig {
+        @Bean
+        NotificationProvider recordingNotificationProvider() {
+            return (channel, batch) -> {
+                gate.await();
+                if (FAILURES_TO_INJECT.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                    throw new IllegalStateException("provider unavailable");
+                }
+                BATCHES.add(List.copyOf(batch));
+            };
+        }
+    }
+
+    @Test
+    void messagesAreBatchedRetriedAndDeduplicated() throws Exception {
+        FAILURES_TO_INJECT.set(2);
+        for (long id = 1; id <= 7; id++) {
+            Customer customer = customer(id, "c" + id + "@example.com", 9_000_000_000L + id);
+            assertEquals(Outcome.QUEUED,
+                    notificationService.submit(customer, NotificationType.BILL_READY, "Your bill is ready", 5_000));
+        }
+        assertEquals(Outcome.DUPLICATE, notificationService.submit(customer(3, "c3@example.com", 0),
+                NotificationType.BILL_READY, "Your bill is ready", 0));
+        assertEquals(Outcome.NO_ADDRESS, notificationService.submit(customer(8, null, 0),
+                NotificationType.BILL_READY, "Your bill is ready", 0));
+
+        await(() -> sent(NotificationChannel.EMAIL, NotificationType.BILL_READY) == 7
+                && sent(NotificationChannel.SMS, NotificationType.BILL_READY) == 7);
+        assertTrue(BATCHES.stream()
+                .allMatch(batch -> batch.size() <= 3 || batch.get(0).channel() == NotificationChannel.SMS));
+        assertTrue(meterRegistry.get("notifications.retries").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum() >= 2);
+        // a different type is not a duplicate
+        assertEquals(Outcome.QUEUED, notificationService.submit(customer(3, "c3@example.com", 0),
+                NotificationType.LOW_BALANCE, "Your balance is low", 0));
+    }
+
+    @Test
+    void fullQueueRefusesInsteadOfGrowing() throws Exception {
+        gate = new CountDownLatch(1);
+        try {
+            int queued = 0;
+            Outcome outcome;
+            long id = 100;
+            while ((outcome = notificationService.submit(customer(id++, null, 8_000_000_000L + id),
+                    NotificationType.LOW_BALANCE, "Your balance is low", 0)) == Outcome.QUEUED) {
+                queued++;
+                assertTrue(queued < 100, "queue never filled up");
+            }
+            assertEquals(Outcome.REJECTED, outcome);
+            // one batch held by the stuck provider, the queue's capacity behind it
+            assertEquals(4, notificationService.queueDepth(NotificationChannel.SMS));
+            // the refused customer can be notified once there is room again
+            gate.countDown();
+            await(() -> notificationService.queueDepth(NotificationChannel.SMS) == 0);
+            assertEquals(Outcome.QUEUED, notificationService.submit(customer(id - 1, null, 8_000_000_000L + id),
+                    NotificationType.LOW_BALANCE, "Your balance is low", 1_000));
+        } finally {
+            gate.countDown();
+        }
+    }
+
+    private static long sent(NotificationChannel channel, NotificationType type) {
+        return BATCHES.stream().flatMap(List::stream)
+                .filter(notification -> notification.channel() == channel && notification.type() == type)
+                .count();
+    }
+
+    private static Customer customer(long id, String email, long contactNumber) {
+        Customer customer = new Customer();
+        customer.setCustomerId(id);
+        customer.setEmail(email);
+        customer.setContactNumber(contactNumber);
+        return customer;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Notifications were not sent in time");
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.atharva.erp_telecom.permission;
+
+import com.atharva.erp_telecom.constants.Permission;
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.repository.UserRepository;
+import com.atharva.erp_telecom.security.ApiKeyAuthenticationFilter;
+import com.atharva.erp_telecom.security.JwtUtils;
+import com.atharva.erp_telecom.service.UserService;
+import com.atharva.erp_telecom.service.apikey.ApiKeyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"erp.outbox.dispatcher-enabled=false", "erp.permissions.enforce=true"})
+@AutoConfigureMockMvc
+class PermissionTests {
+
+    private static final String NEW_CUSTOMER = "{\"customerFirstName\":\"Permitted\",\"customerLastName\":\"Writer\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RolesRepository rolesRepository;
+    @Autowired
+    private ApiKeyService apiKeyService;
+
+    @Test
+    void rolesSeededByTheMigrationKeepTheirAccess() throws Exception {
+        // the migrations up to V4 on a database of their own, a role created, then V5 and on
+        String url = "jdbc:h2:mem:erp-permission-seed-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").target("4").load().migrate();
+        JdbcTemplate migrated = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        migrated.update("INSERT INTO roles (role_name) VALUES ('ROLE_BEFORE_PERMISSIONS')");
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        migrated.update("INSERT INTO roles (role_name) VALUES ('ROLE_AFTER_PERMISSIONS')");
+
+        String granted = "SELECT rp.permission FROM role_permissions rp JOIN roles r ON r.role_id = rp.role_id "
+                + "WHERE r.role_name = ? ORDER BY rp.permission";
+        List<String> seeded = migrated.queryForList(granted, String.class, "ROLE_BEFORE_PERMISSIONS");
+        assertEquals(Arrays.stream(Permission.values()).map(Permission::name).sorted().toList(), seeded);
+        assertEquals(List.of(), migrated.queryForList(granted, String.class, "ROLE_AFTER_PERMISSIONS"));
+
+        // what V5 granted is everything @RequiresPermission asks for
+        String role = "ROLE_BEFORE_PERMISSIONS";
+        rolesRepository.save(new Roles(role));
+        remap(role, new ObjectMapper().writeValueAsString(seeded)).andExpect(status().isOk());
+        String token = "Bearer " + tokenFor("seeded-agent", role);
+
+        mockMvc.perform(get("/customer/get").param("id", "0").header("Authorization", token))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/customer/new").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON).content(NEW_CUSTOMER))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/customer/0/usage").header("Authorization", token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/reconciliation/run/0").header("Authorization", token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void remappedPermissionsApplyToTheNextRequest() throws Exception {
+        String role = "ROLE_CUSTOMER_DESK";
+        rolesRepository.save(new Roles(role));
+        String token = "Bearer " + tokenFor("desk-agent", role);
+
+        // a new role can do nothing yet
+        mockMvc.perform(get("/customer/get").param("id", "0").header("Authorization", token))
+                .andExpect(status().isForbidden());
+
+        remap(role, "[\"CUSTOMER_READ\"]").andExpect(status().isOk());
+        mockMvc.perform(get("/customer/get").param("id", "0").header("Authorization", token))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/customer/new").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON).content(NEW_CUSTOMER))
+                .andExpect(status().isForbidden());
+
+        remap(role, "[\"CUSTOMER_READ\", \"CUSTOMER_WRITE\"]").andExpect(status().isOk());
+        mockMvc.perform(post("/customer/new").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON).content(NEW_CUSTOMER))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/roles/permissions").with(user("admin").authorities(() -> "ROLE_ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ROLE_CUSTOMER_DESK.length()").value(2));
+    }
+
+    @Test
+    void apiKeysFollowTheirRolesPermissions() throws Exception {
+        String role = "ROLE_USAGE_PARTNER";
+        rolesRepository.save(new Roles(role));
+        remap(role, "[\"CUSTOMER_READ\"]").andExpect(status().isOk());
+        String apiKey = apiKeyService.issue("usage-partner", Set.of(role)).getApiKey();
+
+        mockMvc.perform(get("/customer/get").param("id", "0").header(ApiKeyAuthenticationFilter.HEADER_API_KEY, apiKey))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/customer/0/usage").header(ApiKeyAuthenticationFilter.HEADER_API_KEY, apiKey))
+                .andExpect(status().isForbidden());
+
+        remap(role, "[]").andExpect(status().isOk());
+        mockMvc.perform(get("/customer/get").param("id", "0").header(ApiKeyAuthenticationFilter.HEADER_API_KEY, apiKey))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void onlyAdminsRemapAndOnlyKnownPermissions() throws Exception {
+        rolesRepository.save(new Roles("ROLE_REMAP_TARGET"));
+        remap("ROLE_REMAP_TARGET", "[\"CUSTOMER_DELETE\"]").andExpect(status().isBadRequest());
+        remap("ROLE_NOT_THERE", "[\"CUSTOMER_READ\"]").andExpect(status().isBadRequest());
+        mockMvc.perform(put("/roles/ROLE_REMAP_TARGET/permissions").with(user("clerk"))
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"BILLING_RUN\"]"))
+                .andExpect(status().isForbidden());
+    }
+
+    private ResultActions remap(String role, String permissions) throws Exception {
+        return mockMvc.perform(put("/roles/" + role + "/permissions").with(user("admin").authorities(() -> "ROLE_ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON).content(permissions));
+    }
+
+    private String tokenFor(String userName, String roleName) {
+        Users user = new Users();
+        user.setUserName(userName);
+        user.setPassword("not-used");
+        user.setUserFirstName("Permission");
+        user.setUserLastName("Tester");
+        user.setRoles(Set.of(rolesRepository.findByRoleName(roleName).orElseThrow()));
+        userRepository.save(user);
+        return jwtUtils.generateToken(userService.loadUserByUsername(userName));
+    }
+}
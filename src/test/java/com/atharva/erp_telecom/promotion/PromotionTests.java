@@ -0,0 +1,131 @@
+package com.atharva.erp_telecom.promotion;
+
+import com.atharva.erp_telecom.constants.ServiceType;
+import com.atharva.erp_telecom.dto.PromotionRuleRequest;
+import com.atharva.erp_telecom.dto.PublishedPromotions;
+import com.atharva.erp_telecom.dto.UsageEvent;
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.PromotionRule;
+import com.atharva.erp_telecom.exception.custom_exceptions.InvalidRequestException;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.UsageService;
+import com.atharva.erp_telecom.service.promotion.CompiledPromotions;
+import com.atharva.erp_telecom.service.promotion.CustomerProfiles;
+import com.atharva.erp_telecom.service.promotion.PromotionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+class PromotionTests {
+
+    @Autowired
+    private PromotionService promotionService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private UsageService usageService;
+
+    @Test
+    void publishedRuleDiscountsUsageAboveItsThreshold() {
+        Customer early = customerService.createCustomer(customer("Promo-1", "Enterprise", "West"));
+        Customer enterprise = customerService.createCustomer(customer("Promo-2", "Enterprise", "West"));
+        Customer consumer = customerService.createCustomer(customer("Promo-3", "Consumer", "West"));
+        promotionService.syncProfiles();
+
+        PromotionRule rule = promotionService.createRule(request("Enterprise West data", "enterprise", "WEST", 10_000));
+        // not live before it is published
+        usageService.ingest(List.of(new UsageEvent(early.getCustomerId(), "DATA", 20_000, Instant.now())));
+        assertEquals(0, promotionService.published().getRules().size());
+
+        PublishedPromotions published = promotionService.publish();
+        assertEquals(List.of(rule.getRuleId()),
+                published.getRules().stream().map(CompiledPromotions.RuleStats::ruleId).toList());
+
+        usageService.ingest(List.of(
+                new UsageEvent(enterprise.getCustomerId(), "DATA", 6_000, Instant.now()),
+                // crosses the threshold, 2,000 of it is above
+                new UsageEvent(enterprise.getCustomerId(), "DATA", 6_000, Instant.now()),
+                new UsageEvent(enterprise.getCustomerId(), "DATA", 1_000, Instant.now()),
+                new UsageEvent(enterprise.getCustomerId(), "VOICE", 50_000, Instant.now()),
+                new UsageEvent(consumer.getCustomerId(), "DATA", 50_000, Instant.now())));
+        CompiledPromotions.RuleStats stats = promotionService.published().getRules().get(0);
+        assertEquals(2, stats.discountedEvents());
+        assertEquals(3_000, stats.discountedQuantity());
+
+        promotionService.deactivate(rule.getRuleId());
+        assertEquals(0, promotionService.published().getRules().size());
+        PromotionRuleRequest tooGenerous = request("Too generous", null, null, 0);
+        tooGenerous.setDiscountBasisPoints(10_001);
+        assertThrows(InvalidRequestException.class, () -> promotionService.createRule(tooGenerous));
+    }
+
+    @Test
+    void compiledTablePrefersHigherPriorityAndKeepsOpenRulesForUnknownCustomers() {
+        CustomerProfiles profiles = new CustomerProfiles(16);
+        profiles.put(1, "Enterprise", "Gold", "West", "IN");
+        long start = LocalDateTime.of(2026, 3, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+        PromotionRule anyone = rule(1, null, null, 0, 500, 0);
+        PromotionRule gold = rule(2, "enterprise", "gold", 100, 2_000, 5);
+        PromotionRule expired = rule(3, "Enterprise", null, 0, 5_000, 9);
+        expired.setValidTo(LocalDateTime.of(2026, 2, 1, 0, 0));
+        CompiledPromotions compiled = CompiledPromotions.compile(1, List.of(anyone, gold, expired), profiles,
+                ZoneOffset.UTC);
+
+        int data = ServiceType.DATA.code();
+        int sms = ServiceType.SMS.code();
+        long profile = profiles.profileOf(1);
+        assertEquals(2, compiled.ruleId(compiled.match(profile, data, 90, 20, start)));
+        assertEquals(20 - 10, compiled.discountedQuantity(compiled.match(profile, data, 90, 20, start), 90, 20));
+        // below the gold threshold, the open rule still applies
+        assertEquals(1, compiled.ruleId(compiled.match(profile, data, 0, 20, start)));
+        // never synced, and a value first seen after the publish
+        assertEquals(1, compiled.ruleId(compiled.match(profiles.profileOf(99), data, 500, 20, start)));
+        profiles.put(2, "Wholesale", "Gold", "West", "IN");
+        assertEquals(1, compiled.ruleId(compiled.match(profiles.profileOf(2), data, 500, 20, start)));
+        assertEquals(-1, compiled.match(profile, sms, 500, 20, start));
+    }
+
+    private static PromotionRule rule(long ruleId, String customerClass, String subClass, long threshold,
+                                      int discount, int priority) {
+        PromotionRule rule = new PromotionRule();
+        rule.setRuleId(ruleId);
+        rule.setName("rule-" + ruleId);
+        rule.setCustomerClass(customerClass);
+        rule.setCustomerSubClass(subClass);
+        rule.setServiceType("DATA");
+        rule.setThresholdQuantity(threshold);
+        rule.setDiscountBasisPoints(discount);
+        rule.setPriority(priority);
+        return rule;
+    }
+
+    private static PromotionRuleRequest request(String name, String customerClass, String region, long threshold) {
+        PromotionRuleRequest request = new PromotionRuleRequest();
+        request.setName(name);
+        request.setCustomerClass(customerClass);
+        request.setRegion(region);
+        request.setServiceType("data");
+        request.setThresholdQuantity(threshold);
+        request.setDiscountBasisPoints(2_000);
+        return request;
+    }
+
+    private static Customer customer(String firstName, String customerClass, String region) {
+        Customer customer = new Customer();
+        customer.setCustomerFirstName(firstName);
+        customer.setCustomerLastName("Customer");
+        customer.setCustomerClass(customerClass);
+        customer.setRegion(region);
+        return customer;
+    }
+}
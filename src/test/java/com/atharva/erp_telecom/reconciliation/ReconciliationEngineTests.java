@@ -0,0 +1,162 @@
+package com.atharva.erp_telecom.reconciliation;
+
+import com.atharva.erp_telecom.constants.ReconciliationConstants;
+import com.atharva.erp_telecom.service.reconciliation.OpenItemSource;
+import com.atharva.erp_telecom.service.reconciliation.ReconciliationEngine;
+import com.atharva.erp_telecom.service.reconciliation.ReconciliationOutcome;
+import com.atharva.erp_telecom.service.reconciliation.ReconciliationSettings;
+import com.atharva.erp_telecom.service.reconciliation.ReconciliationSink;
+import com.atharva.erp_telecom.service.reconciliation.ReconciliationSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The same settlement file against the same open items, once with everything in memory and once with a spill
+// threshold small enough to force the partitioned join. Both must produce the same outcome for every line.
+class ReconciliationEngineTests {
+
+    private static final int ITEMS = 200;
+    private static final long TOLERANCE = 100;
+    private static final int DATE_TOLERANCE = 3;
+    private static final int FIRST_DUE_DAY = (int) LocalDate.of(2025, 9, 1).toEpochDay();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void spilledJoinMatchesTheInMemoryJoinLineForLine() throws IOException {
+        Path file = writeSettlementFile(dir.resolve("settlement.csv"));
+
+        RecordingSink inMemory = new RecordingSink();
+        ReconciliationSummary inMemorySummary = new ReconciliationEngine(
+                new ReconciliationSettings(10_000, TOLERANCE, DATE_TOLERANCE, dir.resolve("spill-memory")))
+                .reconcile(new Items(), file, inMemory);
+        RecordingSink spilled = new RecordingSink();
+        ReconciliationSummary spilledSummary = new ReconciliationEngine(
+                new ReconciliationSettings(16, TOLERANCE, DATE_TOLERANCE, dir.resolve("spill-disk")))
+                .reconcile(new Items(), file, spilled);
+
+        assertEquals(1, inMemorySummary.getPartitions());
+        assertEquals(16, spilledSummary.getPartitions());
+        assertEquals(inMemory.sorted(), spilled.sorted());
+        assertEquals(inMemorySummary.getMatched(), spilledSummary.getMatched());
+        assertEquals(inMemorySummary.getPartial(), spilledSummary.getPartial());
+        assertEquals(inMemorySummary.getUnmatched(), spilledSummary.getUnmatched());
+
+        // 50 paid in full by reference, 50 partially of which 25 settle the rest within tolerance, 50 within
+        // tolerance at the edge of it, 50 just past it plus the 5 unknown references; one malformed line
+        assertEquals(50 + 25 + 50, spilledSummary.getMatched());
+        assertEquals(50, spilledSummary.getPartial());
+        assertEquals(50 + 5, spilledSummary.getUnmatched());
+        assertEquals(1, spilledSummary.getRejectedLines());
+        assertEquals(ITEMS + 25 + 5 + 1, spilledSummary.getTotalLines());
+
+        List<Line> results = spilled.sorted();
+        // item 4 paid in full, item 9 partially then the balance + 99 by amount, item 6 by amount 100 under,
+        // item 7 101 over and left open
+        assertEquals(new Result(ReconciliationConstants.RESULT_MATCHED, ReconciliationConstants.MATCH_BY_REFERENCE,
+                4, 0), find(results, "INV-000004"));
+        assertEquals(new Result(ReconciliationConstants.RESULT_PARTIAL, ReconciliationConstants.MATCH_BY_REFERENCE,
+                9, 9_000 - 400), find(results, "INV-000009"));
+        assertEquals(new Result(ReconciliationConstants.RESULT_MATCHED, ReconciliationConstants.MATCH_BY_TOLERANCE,
+                9, 0), find(results, "REST-000009"));
+        assertEquals(new Result(ReconciliationConstants.RESULT_MATCHED, ReconciliationConstants.MATCH_BY_TOLERANCE,
+                6, 0), find(results, "BANK-000006"));
+        assertEquals(new Result(ReconciliationConstants.RESULT_UNMATCHED, null, 0, 0),
+                find(results, "BANK-000007"));
+    }
+
+    // Item i: reference INV-i, i * 10.00 open, due FIRST_DUE_DAY + i. Lines, by i % 4:
+    //     0 - the full balance by reference
+    //     1 - 4.00 by reference, and when i % 8 == 1 the balance left + 0.99 without reference, 3 days late
+    //     2 - the balance - 1.00 without reference, exactly the tolerance, 3 days early
+    //     3 - the balance + 1.01 without reference, a cent past the tolerance
+    private static Path writeSettlementFile(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("reference,amount,value_date\n");
+            for (int i = 1; i <= ITEMS; i++) {
+                long balance = balance(i);
+                int due = FIRST_DUE_DAY + i;
+                switch (i % 4) {
+                    case 0 -> line(writer, reference(i), balance, due);
+                    case 1 -> line(writer, reference(i), 400, due);
+                    case 2 -> line(writer, "BANK-" + number(i), balance - TOLERANCE, due - DATE_TOLERANCE);
+                    default -> line(writer, "BANK-" + number(i), balance + TOLERANCE + 1, due);
+                }
+            }
+            for (int i = 1; i <= ITEMS; i += 8) {
+                line(writer, "REST-" + number(i), balance(i) - 400 + TOLERANCE - 1, FIRST_DUE_DAY + i + DATE_TOLERANCE);
+            }
+            for (int i = 1; i <= 5; i++) line(writer, "UNKNOWN-" + i, 123_456_789L + i * 1_000, FIRST_DUE_DAY);
+            writer.write("INV-000001,not-an-amount,2025-09-02\n");
+        }
+        return file;
+    }
+
+    private static void line(BufferedWriter writer, String reference, long amountMinor, int epochDay) throws IOException {
+        writer.write(reference + "," + amountMinor / 100 + "." + String.format("%02d", amountMinor % 100) + ","
+                + LocalDate.ofEpochDay(epochDay) + "\n");
+    }
+
+    private static long balance(int i) {
+        return i * 1_000L;
+    }
+
+    private static String reference(int i) {
+        return "INV-" + number(i);
+    }
+
+    private static String number(int i) {
+        return String.format("%06d", i);
+    }
+
+    private static Result find(List<Line> results, String reference) {
+        return results.stream().filter(result -> result.reference.equals(reference)).findFirst().orElseThrow().result;
+    }
+
+    private static final class Items implements OpenItemSource {
+        @Override
+        public long count() {
+            return ITEMS;
+        }
+
+        @Override
+        public void forEach(OpenItemConsumer consumer) {
+            for (int i = 1; i <= ITEMS; i++) consumer.accept(i, reference(i), balance(i), FIRST_DUE_DAY + i);
+        }
+    }
+
+    private record Result(String status, String matchType, long invoiceId, long remainingMinor) {
+    }
+
+    private record Line(long lineNumber, String reference, Result result) {
+    }
+
+    private static final class RecordingSink implements ReconciliationSink {
+        private final List<Line> lines = new ArrayList<>();
+
+        @Override
+        public void accept(ReconciliationOutcome outcome) {
+            lines.add(new Line(outcome.getLineNumber(), outcome.getReference(), new Result(outcome.getStatus(),
+                    outcome.getMatchType(), outcome.getInvoiceId(), outcome.getRemainingMinor())));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        List<Line> sorted() {
+            return lines.stream().sorted(Comparator.comparingLong(Line::lineNumber)).toList();
+        }
+    }
+}
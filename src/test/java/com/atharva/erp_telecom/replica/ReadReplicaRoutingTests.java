@@ -0,0 +1,108 @@
+package com.atharva.erp_telecom.replica;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.exception.custom_exceptions.ResourceNotFoundException;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.replica.ReplicaLagMonitor;
+import com.atharva.erp_telecom.service.replica.ReplicaSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A second embedded H2 database stands in for the replica. It only changes when the test copies the primary over,
+// so whether a read found a row tells which database served it.
+@SpringBootTest(properties = {
+        "erp.replicas.enabled=true",
+        "erp.replicas.urls=jdbc:h2:mem:erp-replica-1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "erp.replicas.sticky-window-ms=60000",
+        "erp.replicas.lag-check-interval-ms=3600000",
+        "erp.outbox.dispatcher-enabled=false"
+})
+class ReadReplicaRoutingTests {
+
+    private static final String SNAPSHOT = "target/replica-snapshot.sql";
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReplicaSet replicaSet;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:erp-replica-1;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsGoToTheReplicaExceptForTheWritersOwnReads() {
+        replicate();
+        Customer anonymous = customerService.createCustomer(customer("Anonymous"));
+        assertNotFound(anonymous);
+
+        actAs("alice");
+        Customer alices = customerService.createCustomer(customer("Alice's"));
+        assertEquals("Alice's", customerService.getCustomerById((int) alices.getCustomerId()).orElseThrow().getCustomerFirstName());
+
+        actAs("carol");
+        assertNotFound(alices);
+        replicate();
+        assertEquals("Alice's", customerService.getCustomerById((int) alices.getCustomerId()).orElseThrow().getCustomerFirstName());
+        assertTrue(customerService.getAllCustomers().stream().anyMatch(c -> c.getCustomerId() == alices.getCustomerId()));
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotation() {
+        replicate();
+        Customer customer = customerService.createCustomer(customer("Lagging"));
+        assertNotFound(customer);
+
+        // The replica has no heartbeat row yet, so its lag is unknown: reads fall back to the primary.
+        lagMonitor.check();
+        assertFalse(replicaSet.getReplicas().get(0).isHealthy());
+        assertEquals("Lagging", customerService.getCustomerById((int) customer.getCustomerId()).orElseThrow().getCustomerFirstName());
+
+        replicate();
+        lagMonitor.check();
+        assertTrue(replicaSet.getReplicas().get(0).isHealthy());
+        assertEquals(0, replicaSet.getReplicas().get(0).getOutstanding());
+    }
+
+    private void replicate() {
+        jdbcTemplate.execute("SCRIPT TO '" + SNAPSHOT + "'");
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + SNAPSHOT + "'");
+    }
+
+    private void assertNotFound(Customer customer) {
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerById((int) customer.getCustomerId()));
+    }
+
+    private static void actAs(String userName) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(userName, null, List.of()));
+    }
+
+    private static Customer customer(String firstName) {
+        Customer customer = new Customer();
+        customer.setCustomerFirstName(firstName);
+        customer.setCustomerLastName("Customer");
+        return customer;
+    }
+}
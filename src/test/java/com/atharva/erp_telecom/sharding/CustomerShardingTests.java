@@ -0,0 +1,84 @@
+package com.atharva.erp_telecom.sharding;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.sharding.ShardMap;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Three embedded H2 databases stand in for the shards: the usual test database as home shard plus two more.
+@SpringBootTest(properties = {
+        "erp.sharding.enabled=true",
+        "erp.sharding.shard-urls=jdbc:h2:mem:erp-shard-1;MODE=MySQL;DB_CLOSE_DELAY=-1,jdbc:h2:mem:erp-shard-2;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "erp.sharding.shard-map=NORTH=1,SOUTH=2,IN=1",
+        "erp.outbox.dispatcher-enabled=false"
+})
+class CustomerShardingTests {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ShardMap shardMap;
+
+    @Test
+    void routesByRegionAndMergesListingsInIdOrder() {
+        Customer north = customerService.createCustomer(customer("North", "NORTH", null));
+        Customer south = customerService.createCustomer(customer("South", "SOUTH", null));
+        Customer india = customerService.createCustomer(customer("India", null, "IN"));
+        Customer other = customerService.createCustomer(customer("Other", "EAST", "FR"));
+
+        assertEquals(1, shardMap.shardOfId(north.getCustomerId()));
+        assertEquals(2, shardMap.shardOfId(south.getCustomerId()));
+        assertEquals(1, shardMap.shardOfId(india.getCustomerId()));
+        assertEquals(ShardMap.HOME_SHARD, shardMap.shardOfId(other.getCustomerId()));
+        assertEquals(1, countOn("jdbc:h2:mem:erp-shard-2", "South"));
+        assertEquals(0, countOn("jdbc:h2:mem:erp-shard-1", "South"));
+
+        assertEquals("South", customerService.getCustomerById((int) south.getCustomerId()).orElseThrow().getCustomerFirstName());
+        south.setCustomerLastName("Renamed");
+        customerService.updateCustomer(south);
+        assertEquals("Renamed", customerService.getCustomerById((int) south.getCustomerId()).orElseThrow().getCustomerLastName());
+
+        List<Customer> all = customerService.getAllCustomers();
+        assertTrue(all.size() >= 4);
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getCustomerId() < all.get(i).getCustomerId());
+        }
+        List<Customer> afterHome = customerService.getCustomersAfter(other.getCustomerId(), 2);
+        assertEquals(List.of(north.getCustomerId(), india.getCustomerId()), ids(afterHome));
+
+        int size = 2;
+        for (int page = 0; page * size < all.size(); page++) {
+            Slice<Customer> slice = customerService.getCustomerPage(page, size);
+            assertEquals(ids(all.subList(page * size, Math.min(all.size(), (page + 1) * size))), ids(slice.getContent()));
+            assertEquals((page + 1) * size < all.size(), slice.hasNext());
+        }
+    }
+
+    private static Customer customer(String firstName, String region, String countryCode) {
+        Customer customer = new Customer();
+        customer.setCustomerFirstName(firstName);
+        customer.setCustomerLastName("Customer");
+        customer.setRegion(region);
+        customer.setCountryCode(countryCode);
+        return customer;
+    }
+
+    private static List<Long> ids(List<Customer> customers) {
+        return customers.stream().map(Customer::getCustomerId).toList();
+    }
+
+    private static int countOn(String url, String firstName) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer WHERE customer_first_name = ?", Integer.class, firstName);
+    }
+}
@@ -0,0 +1,134 @@
+package com.atharva.erp_telecom.singleflight;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.repository.CustomerRepository;
+import com.atharva.erp_telecom.repository.UserRepository;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// A burst of identical lookups, held at the repository until every caller has arrived, must reach the database once.
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+class SingleFlightTests {
+
+    private static final int BURST = 16;
+
+    @MockitoSpyBean
+    private CustomerRepository customerRepository;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void burstOfCustomerLookupsHitsTheDatabaseOnce() throws Exception {
+        Customer customer = new Customer();
+        customer.setCustomerFirstName("Popular");
+        customer.setCustomerLastName("Account");
+        long customerId = customerService.createCustomer(customer).getCustomerId();
+
+        CountDownLatch gate = new CountDownLatch(1);
+        gated(gate, customerRepository).findById((int) customerId);
+
+        List<Customer> results = burst("customer", gate, () -> customerService.getCustomerById((int) customerId).orElseThrow());
+        verify(customerRepository, times(1)).findById((int) customerId);
+        results.forEach(result -> assertEquals("Popular", result.getCustomerFirstName()));
+
+        // an update makes later lookups start afresh
+        customer.setCustomerLastName("Renamed");
+        customerService.updateCustomer(customer);
+        assertEquals("Renamed", customerService.getCustomerById((int) customerId).orElseThrow().getCustomerLastName());
+    }
+
+    @Test
+    void burstOfUserLookupsHitsTheDatabaseOnceAndSharesNotFound() throws Exception {
+        Users user = new Users();
+        user.setUserName("service-account");
+        user.setPassword("not-used");
+        user.setUserFirstName("Service");
+        user.setUserLastName("Account");
+        userRepository.save(user);
+
+        CountDownLatch gate = new CountDownLatch(1);
+        gated(gate, userRepository).findByUserName(any());
+
+        List<UserDetails> results = burst("user", gate, () -> userService.loadUserByUsername("service-account"));
+        verify(userRepository, times(1)).findByUserName(eq("service-account"));
+        results.forEach(result -> assertEquals("service-account", result.getUsername()));
+
+        CountDownLatch missingGate = new CountDownLatch(1);
+        gated(missingGate, userRepository).findByUserName(eq("nobody"));
+        try {
+            burst("user", missingGate, () -> userService.loadUserByUsername("nobody"));
+            fail("Expected every caller to get the not-found");
+        } catch (ExecutionException e) {
+            assertInstanceOf(UsernameNotFoundException.class, e.getCause());
+        }
+        verify(userRepository, times(1)).findByUserName(eq("nobody"));
+    }
+
+    // Starts BURST concurrent calls, opens the gate once all but the leader are waiting on it, returns the results.
+    private <T> List<T> burst(String flight, CountDownLatch gate, Callable<T> call) throws Exception {
+        double followersBefore = followers(flight);
+        ExecutorService callers = Executors.newFixedThreadPool(BURST);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < BURST; i++) futures.add(callers.submit(call));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (followers(flight) - followersBefore < BURST - 1) {
+                if (System.currentTimeMillis() > deadline) fail("Callers did not coalesce");
+                Thread.sleep(5);
+            }
+            gate.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) results.add(future.get(10, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    // Stubs the next call on the spy to wait for the gate, then answer from the real repository.
+    private static <T> T gated(CountDownLatch gate, T spy) {
+        Answer<?> real = mockingDetails(spy).getMockCreationSettings().getDefaultAnswer();
+        return doAnswer(invocation -> {
+            gate.await(10, TimeUnit.SECONDS);
+            return real.answer(invocation);
+        }).when(spy);
+    }
+
+    private double followers(String flight) {
+        return meterRegistry.get("singleflight.calls").tag("name", flight).tag("role", "follower").counter().count();
+    }
+}
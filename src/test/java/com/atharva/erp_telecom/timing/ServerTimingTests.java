@@ -0,0 +1,90 @@
+package com.atharva.erp_telecom.timing;
+
+import com.atharva.erp_telecom.entity.Customer;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.repository.UserRepository;
+import com.atharva.erp_telecom.security.JwtUtils;
+import com.atharva.erp_telecom.security.ServerTimingFilter;
+import com.atharva.erp_telecom.service.CustomerService;
+import com.atharva.erp_telecom.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "erp.outbox.dispatcher-enabled=false",
+        "erp.timing.slow-threshold-ms=0",
+        "erp.timing.slow-log-file=target/timing/slow-requests.log"
+})
+@AutoConfigureMockMvc
+class ServerTimingTests {
+
+    private static final Path SLOW_LOG = Path.of("target/timing/slow-requests.log");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void customerLookupReportsEveryPhaseAndIsLoggedWhenSlow() throws Exception {
+        Users user = new Users();
+        user.setUserName("timing-tester");
+        user.setPassword("not-used");
+        user.setUserFirstName("Timing");
+        user.setUserLastName("Tester");
+        userRepository.save(user);
+        String token = jwtUtils.generateToken(userService.loadUserByUsername("timing-tester"));
+
+        Customer customer = new Customer();
+        customer.setCustomerFirstName("Timed");
+        customer.setCustomerLastName("Lookup");
+        long customerId = customerService.createCustomer(customer).getCustomerId();
+
+        String serverTiming = mockMvc.perform(get("/customer/get").param("id", String.valueOf(customerId))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ServerTimingFilter.HEADER_SERVER_TIMING);
+
+        assertNotNull(serverTiming);
+        for (String phase : List.of("jwt", "user", "db", "ser", "app", "total")) {
+            assertTrue(serverTiming.matches("(.*, )?" + phase + ";dur=\\d+\\.\\d{3}.*"), phase + " missing in " + serverTiming);
+        }
+        // the token is parsed and then validated: two calls
+        assertTrue(serverTiming.matches(".*jwt;dur=[0-9.]+;desc=\"2 calls\".*"), serverTiming);
+
+        // threshold 0: every request is slow
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!logged("GET /customer/get status=200")) {
+            if (System.currentTimeMillis() > deadline) fail("Request not in the slow request log");
+            Thread.sleep(20);
+        }
+    }
+
+    private static boolean logged(String prefix) throws Exception {
+        if (!Files.exists(SLOW_LOG)) return false;
+        return Files.readAllLines(SLOW_LOG, StandardCharsets.UTF_8).stream()
+                .anyMatch(line -> line.contains(prefix) && line.contains(" db;dur=") && line.contains(" total;dur="));
+    }
+}
@@ -0,0 +1,100 @@
+package com.atharva.erp_telecom.token;
+
+import com.atharva.erp_telecom.entity.Roles;
+import com.atharva.erp_telecom.entity.Users;
+import com.atharva.erp_telecom.repository.RolesRepository;
+import com.atharva.erp_telecom.repository.UserRepository;
+import com.atharva.erp_telecom.security.JwtUtils;
+import com.atharva.erp_telecom.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+@AutoConfigureMockMvc
+class CompactTokenTests {
+
+    private static final String ROLE = "ROLE_TOKEN_TESTER";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RolesRepository rolesRepository;
+
+    @Test
+    void compactTokensCarryIdAndVersionOnly() throws Exception {
+        UserDetails userDetails = userService.loadUserByUsername(saveUser("compact-tester").getUserName());
+        String compact = jwtUtils.generateToken(userDetails);
+        String fullFormat = fullFormatToken(userDetails);
+
+        Claims claims = jwtUtils.parse(compact);
+        assertEquals(JwtUtils.COMPACT_VERSION, claims.get("ver", Integer.class));
+        assertEquals(Set.of("sub", "uid", "ver", "iat", "exp"), claims.keySet());
+        assertTrue(compact.length() < fullFormat.length(), compact.length() + " vs " + fullFormat.length());
+
+        // both formats get through the filter (404: there is no customer 0)
+        for (String token : new String[]{compact, fullFormat}) {
+            mockMvc.perform(get("/customer/get").param("id", "0").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Test
+    void compactTokenDoesNotOutliveItsUser() throws Exception {
+        Users original = saveUser("recreated-tester");
+        String token = jwtUtils.generateToken(userService.loadUserByUsername(original.getUserName()));
+
+        userRepository.delete(original);
+        Users recreated = saveUser("recreated-tester");
+        assertNotEquals(original.getUserId(), recreated.getUserId());
+
+        mockMvc.perform(get("/customer/get").param("id", "0").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private Users saveUser(String userName) {
+        Roles role = rolesRepository.findByRoleName(ROLE).orElseGet(() -> rolesRepository.save(new Roles(ROLE)));
+        Users user = new Users();
+        user.setUserName(userName);
+        user.setPassword("not-used");
+        user.setUserFirstName("Token");
+        user.setUserLastName("Tester");
+        user.setRoles(Set.of(role));
+        return userRepository.save(user);
+    }
+
+    // What JwtUtils.generateToken issued before compact tokens.
+    private static String fullFormatToken(UserDetails userDetails) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setClaims(Map.of("roles", userDetails.getAuthorities()))
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("cd4b16da2a14e803dd7efcf18e92464e77314958368634a6c5309c3042df14ca"
+                        .getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
@@ -0,0 +1,74 @@
+package com.atharva.erp_telecom.usage;
+
+import com.atharva.erp_telecom.constants.RollupGranularity;
+import com.atharva.erp_telecom.dto.UsageEvent;
+import com.atharva.erp_telecom.dto.UsageSummary;
+import com.atharva.erp_telecom.entity.UsageRollup;
+import com.atharva.erp_telecom.repository.UsageRollupRepository;
+import com.atharva.erp_telecom.service.UsageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "erp.outbox.dispatcher-enabled=false")
+class UsageRollupTests {
+
+    private static final long CUSTOMER = 27_000_001;
+
+    @Autowired
+    private UsageService usageService;
+    @Autowired
+    private UsageRollupRepository rollupRepository;
+
+    @Test
+    void flushUpsertsIntoTheRollupTableAndOnlyOlderPeriodsAreReadFromIt() {
+        LocalDateTime thisMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).atStartOfDay();
+        LocalDateTime twoMonthsAgo = thisMonth.minusMonths(2);
+        Instant late = twoMonthsAgo.plusDays(5).toInstant(ZoneOffset.UTC);
+
+        // the current event first, so the late one lands on an already closed month
+        usageService.ingest(List.of(
+                new UsageEvent(CUSTOMER, "DATA", 1_000, Instant.now()),
+                new UsageEvent(CUSTOMER, "DATA", 500, Instant.now()),
+                new UsageEvent(CUSTOMER, "DATA", 300, late)));
+        usageService.flush();
+        usageService.ingest(List.of(
+                new UsageEvent(CUSTOMER, "DATA", 200, late),
+                new UsageEvent(CUSTOMER, "VOICE", 60, Instant.now())));
+        usageService.flush();
+
+        // the second flush adds to the rows written by the first
+        List<UsageRollup> closed = rollupRepository.findPeriods(CUSTOMER, "MONTH", twoMonthsAgo, thisMonth);
+        assertEquals(1, closed.size());
+        assertEquals(500, closed.get(0).getQuantity());
+        assertEquals(2, closed.get(0).getEventCount());
+        List<UsageRollup> current = rollupRepository.findPeriods(CUSTOMER, "MONTH", thisMonth, thisMonth.plusMonths(1));
+        assertEquals(List.of("DATA", "VOICE"), current.stream().map(UsageRollup::getServiceType).toList());
+        assertEquals(1_500, current.get(0).getQuantity());
+
+        // the current month comes from memory, the one before it from the table
+        List<UsageSummary> usage = usageService.getUsage(CUSTOMER, RollupGranularity.MONTH, 3);
+        assertEquals(3, usage.size());
+        assertSummary(usage.get(0), thisMonth, "DATA", 1_500, 2, true);
+        assertSummary(usage.get(1), thisMonth, "VOICE", 60, 1, true);
+        assertSummary(usage.get(2), twoMonthsAgo, "DATA", 500, 2, false);
+        assertEquals(2, usageService.getUsage(CUSTOMER, RollupGranularity.MONTH, 1).size());
+    }
+
+    private static void assertSummary(UsageSummary summary, LocalDateTime periodStart, String serviceType,
+                                      long quantity, long eventCount, boolean currentPeriod) {
+        assertEquals(periodStart, summary.getPeriodStart());
+        assertEquals(serviceType, summary.getServiceType());
+        assertEquals(quantity, summary.getQuantity());
+        assertEquals(eventCount, summary.getEventCount());
+        assertEquals(currentPeriod, summary.isCurrentPeriod());
+    }
+}